@@ -2,6 +2,7 @@ package com.gastrogeniusai;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for GastroGenius AI.
@@ -11,6 +12,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * and wine pairing suggestions.
  */
 @SpringBootApplication
+@EnableScheduling
 public class GastroGeniusAiApplication {
 
     public static void main(String[] args) {
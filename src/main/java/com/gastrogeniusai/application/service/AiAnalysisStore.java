@@ -0,0 +1,264 @@
+package com.gastrogeniusai.application.service;
+
+import com.gastrogeniusai.domain.entity.AiAnalysisEntry;
+import com.gastrogeniusai.domain.entity.AiAnalysisType;
+import com.gastrogeniusai.domain.entity.Ingredient;
+import com.gastrogeniusai.domain.entity.Recipe;
+import com.gastrogeniusai.infrastructure.repository.AiAnalysisRepository;
+import com.gastrogeniusai.infrastructure.util.HashUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-addressed store for AI nutrition and wine pairing analyses.
+ * Each analysis is keyed by a hash of exactly the recipe fields its prompt
+ * reads, so repeat views are served from the database and edits to unrelated
+ * fields leave stored analyses valid. When a recipe's inputs change, the
+ * analysis of its previous version is kept as a stale copy that can be served
+ * while the AI provider is unavailable. Hits are counted in memory and
+ * added to the stored entries every {@code ai.analysis.store.hit-flush-interval-ms},
+ * so that serving a stored analysis does not write to the database.
+ */
+@Service
+public class AiAnalysisStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiAnalysisStore.class);
+
+    private static final char FIELD_SEPARATOR = '\u001F';
+
+    private final AiAnalysisRepository analysisRepository;
+    private final CookingStyleAnalyzer cookingStyleAnalyzer;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<Long, Long> pendingHits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AiAnalysisStore(AiAnalysisRepository analysisRepository,
+            CookingStyleAnalyzer cookingStyleAnalyzer,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.analysisRepository = analysisRepository;
+        this.cookingStyleAnalyzer = cookingStyleAnalyzer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Computes the content hash of the inputs read by the given analysis.
+     * Nutrition reads title, servings and ingredient lines; pairing reads
+     * title, description, category, ingredient names and cooking style.
+     * 
+     * @param type   the analysis type
+     * @param recipe the recipe (ingredients must be initialized)
+     * @return hexadecimal content hash
+     */
+    public String contentHash(AiAnalysisType type, Recipe recipe) {
+        StringBuilder content = new StringBuilder(type.name());
+        append(content, recipe.getTitle());
+
+        switch (type) {
+            case NUTRITION -> {
+                append(content, recipe.getServings());
+                for (Ingredient ingredient : recipe.getIngredients()) {
+                    append(content, normalizeQuantity(ingredient.getQuantity()));
+                    append(content, ingredient.getUnit());
+                    append(content, ingredient.getName());
+                }
+            }
+            case PAIRING -> {
+                append(content, recipe.getDescription());
+                append(content, recipe.getCategory());
+                for (Ingredient ingredient : recipe.getIngredients()) {
+                    append(content, ingredient.getName());
+                }
+                append(content, cookingStyleAnalyzer.describeCookingStyle(recipe.getCookingTechniques()));
+            }
+        }
+
+        return HashUtils.sha256(content.toString());
+    }
+
+    /**
+     * Captures the current content hashes of a recipe, to be compared after an
+     * update.
+     * 
+     * @param recipe the recipe before modification
+     * @return fingerprint of all stored analysis inputs
+     */
+    public Fingerprint fingerprint(Recipe recipe) {
+        return new Fingerprint(recipe.getId(), contentHash(AiAnalysisType.NUTRITION, recipe),
+                contentHash(AiAnalysisType.PAIRING, recipe));
+    }
+
+    /**
+     * Finds a stored analysis for the given content hash.
+     * 
+     * @param type        the analysis type
+     * @param contentHash hash from {@link #contentHash}
+     * @return the stored analysis JSON, if present
+     */
+    public Optional<String> find(AiAnalysisType type, String contentHash) {
+        try {
+            Optional<String> stored = analysisRepository.findByAnalysisTypeAndContentHash(type, contentHash)
+                    .map(entry -> {
+                        pendingHits.merge(entry.getId(), 1L, Long::sum);
+                        return entry.getResultJson();
+                    });
+
+            if (stored.isPresent()) {
+                recordLookup(type, "hit");
+                return stored;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Analysis store lookup failed, falling back to AI call: {}", e.getMessage());
+        }
+
+        recordLookup(type, "miss");
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the most recent analysis stored for a recipe regardless of its
+     * content hash. The result may describe an earlier version of the recipe
+     * and is meant as a fallback when no current analysis can be produced.
+     * 
+     * @param type     the analysis type
+     * @param recipeId the recipe ID
+     * @return the stored analysis JSON, if present
+     */
+    public Optional<String> findLatest(AiAnalysisType type, Long recipeId) {
+        if (recipeId == null) {
+            return Optional.empty();
+        }
+        try {
+            Optional<String> stored = analysisRepository
+                    .findFirstByAnalysisTypeAndRecipeIdOrderByCreatedAtDesc(type, recipeId)
+                    .map(AiAnalysisEntry::getResultJson);
+            recordLookup(type, stored.isPresent() ? "stale" : "miss");
+            return stored;
+        } catch (RuntimeException e) {
+            logger.warn("Stale analysis lookup failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a validated analysis under its content hash.
+     * 
+     * @param type        the analysis type
+     * @param contentHash hash from {@link #contentHash}
+     * @param recipeId    the recipe the analysis was produced for
+     * @param resultJson  the validated analysis JSON
+     */
+    public void save(AiAnalysisType type, String contentHash, Long recipeId, String resultJson) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                AiAnalysisEntry entry = analysisRepository.findByAnalysisTypeAndContentHash(type, contentHash)
+                        .orElseGet(() -> new AiAnalysisEntry(type, contentHash, recipeId, resultJson));
+                entry.setResultJson(resultJson);
+                analysisRepository.save(entry);
+            });
+        } catch (RuntimeException e) {
+            // A concurrent request may have stored the same analysis already
+            logger.warn("Could not persist {} analysis: {}", type, e.getMessage());
+        }
+    }
+
+    /**
+     * Prunes stored analyses after an update changed their inputs. The
+     * analysis of the version before the update is kept as the stale copy
+     * returned by {@link #findLatest}; older versions of the recipe are
+     * removed. Analyses whose hash is unchanged are kept.
+     * 
+     * @param before fingerprint taken before the update
+     * @param after  fingerprint taken after the update
+     */
+    public void invalidateChanged(Fingerprint before, Fingerprint after) {
+        if (!before.nutritionHash().equals(after.nutritionHash())) {
+            recordInvalidations(AiAnalysisType.NUTRITION, analysisRepository.deleteByRecipeExcept(
+                    AiAnalysisType.NUTRITION, before.recipeId(), List.of(before.nutritionHash(),
+                            after.nutritionHash())));
+        }
+        if (!before.pairingHash().equals(after.pairingHash())) {
+            recordInvalidations(AiAnalysisType.PAIRING, analysisRepository.deleteByRecipeExcept(
+                    AiAnalysisType.PAIRING, before.recipeId(), List.of(before.pairingHash(),
+                            after.pairingHash())));
+        }
+    }
+
+    /**
+     * Removes all analyses stored for a recipe, including stale copies.
+     * Analyses are deleted by the recipe they were stored for rather than
+     * by content hash, so those stored for other recipes with identical
+     * content are kept.
+     * 
+     * @param recipeId the ID of a recipe being deleted
+     */
+    public void invalidateAll(Long recipeId) {
+        for (AiAnalysisType type : AiAnalysisType.values()) {
+            recordInvalidations(type, analysisRepository.deleteByAnalysisTypeAndRecipeId(type, recipeId));
+        }
+    }
+
+    /**
+     * Adds the hits counted since the last flush to the stored entries. Each
+     * entry's count is taken out atomically, so hits recorded during the flush
+     * are kept for the next one.
+     */
+    @Scheduled(fixedDelayString = "${ai.analysis.store.hit-flush-interval-ms:60000}")
+    @PreDestroy
+    public void flushHits() {
+        for (Long id : pendingHits.keySet()) {
+            Long hits = pendingHits.remove(id);
+            if (hits == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> analysisRepository.addHits(id, hits));
+            } catch (RuntimeException e) {
+                // Hit counts are informational; a lost batch is not worth retrying
+                logger.warn("Could not record {} hits on analysis {}: {}", hits, id, e.getMessage());
+            }
+        }
+    }
+
+    // Private helper methods
+
+    private void recordInvalidations(AiAnalysisType type, int removed) {
+        if (removed > 0) {
+            meterRegistry.counter("ai.analysis.store.invalidations", "type", type.name().toLowerCase())
+                    .increment(removed);
+        }
+    }
+
+    private void recordLookup(AiAnalysisType type, String result) {
+        meterRegistry.counter("ai.analysis.store.requests", "type", type.name().toLowerCase(), "result", result)
+                .increment();
+    }
+
+    private void append(StringBuilder content, Object value) {
+        content.append(FIELD_SEPARATOR).append(value == null ? "" : value);
+    }
+
+    private String normalizeQuantity(BigDecimal quantity) {
+        return quantity == null ? null : quantity.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Content hashes of all analysis inputs for a recipe at a point in time.
+     */
+    public record Fingerprint(Long recipeId, String nutritionHash, String pairingHash) {
+    }
+}
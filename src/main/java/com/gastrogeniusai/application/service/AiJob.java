@@ -0,0 +1,116 @@
+package com.gastrogeniusai.application.service;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * In-memory record of an asynchronous AI job.
+ * Tracks lifecycle timestamps, the outcome and the owning user.
+ */
+public class AiJob {
+
+    private final String id;
+    private final AiFeature feature;
+    private final String owner;
+    private final Instant submittedAt;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile Map<String, Object> result;
+    private volatile String error;
+
+    public AiJob(String id, AiFeature feature, String owner) {
+        this.id = id;
+        this.feature = feature;
+        this.owner = owner;
+        this.submittedAt = Instant.now();
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public AiFeature getFeature() {
+        return feature;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public Map<String, Object> getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    // State transitions
+    void markRunning() {
+        this.startedAt = Instant.now();
+        this.status = Status.RUNNING;
+    }
+
+    void markSucceeded(Map<String, Object> result) {
+        this.result = result;
+        this.completedAt = Instant.now();
+        this.status = Status.SUCCEEDED;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        this.completedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    // Helper methods
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    public boolean isOwnedBy(String username) {
+        return owner != null && owner.equals(username);
+    }
+
+    @Override
+    public String toString() {
+        return "AiJob{" +
+                "id='" + id + '\'' +
+                ", feature=" + feature +
+                ", owner='" + owner + '\'' +
+                ", status=" + status +
+                ", submittedAt=" + submittedAt +
+                '}';
+    }
+
+    /**
+     * Lifecycle states of an AI job.
+     */
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+}
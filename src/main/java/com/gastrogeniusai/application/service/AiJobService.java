@@ -0,0 +1,235 @@
+package com.gastrogeniusai.application.service;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.infrastructure.exception.AiCapacityExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Service for running AI work as asynchronous jobs.
+ * Jobs execute on virtual threads so request threads are released
+ * immediately. Admission is bounded by a global queue depth and a per-user
+ * cap on active jobs; execution concurrency is bounded separately so that
+ * time spent waiting for a permit is reported as queue time.
+ */
+@Service
+public class AiJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiJobService.class);
+
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final Semaphore executionPermits;
+
+    private final int maxQueueDepth;
+    private final int maxActiveJobsPerUser;
+    private final long retentionMinutes;
+
+    private final Map<String, AiJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<AiJob>>> completionListeners = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> activeJobsPerUser = new ConcurrentHashMap<>();
+    private final AtomicInteger outstandingJobs = new AtomicInteger();
+    private final AtomicInteger runningJobs = new AtomicInteger();
+
+    @Autowired
+    public AiJobService(MeterRegistry meterRegistry,
+            @Value("${ai.jobs.max-queue-depth:200}") int maxQueueDepth,
+            @Value("${ai.jobs.max-concurrent-executions:16}") int maxConcurrentExecutions,
+            @Value("${ai.jobs.max-active-per-user:3}") int maxActiveJobsPerUser,
+            @Value("${ai.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.meterRegistry = meterRegistry;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.executionPermits = new Semaphore(maxConcurrentExecutions, true);
+        this.maxQueueDepth = maxQueueDepth;
+        this.maxActiveJobsPerUser = maxActiveJobsPerUser;
+        this.retentionMinutes = retentionMinutes;
+
+        Gauge.builder("ai.jobs.queued", this, service -> service.outstandingJobs.get() - service.runningJobs.get())
+                .description("AI jobs waiting for an execution permit")
+                .register(meterRegistry);
+        Gauge.builder("ai.jobs.running", runningJobs, AtomicInteger::get)
+                .description("AI jobs currently executing")
+                .register(meterRegistry);
+        Gauge.builder("ai.jobs.retained", jobs, Map::size)
+                .description("AI jobs held in memory, including finished jobs awaiting expiry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Submits AI work as an asynchronous job.
+     * 
+     * @param feature  the AI feature the job runs
+     * @param username the submitting user
+     * @param work     the work to run; returns the job result
+     * @return the queued job
+     * @throws AiCapacityExceededException if the queue or the user's job cap is
+     *                                     full
+     */
+    public AiJob submit(AiFeature feature, String username, Supplier<Map<String, Object>> work) {
+        if (outstandingJobs.incrementAndGet() > maxQueueDepth) {
+            outstandingJobs.decrementAndGet();
+            recordRejection(feature, "queue_full");
+            throw new AiCapacityExceededException("AI job queue is full");
+        }
+
+        AtomicInteger userJobs = activeJobsPerUser.computeIfAbsent(username, key -> new AtomicInteger());
+        if (userJobs.incrementAndGet() > maxActiveJobsPerUser) {
+            userJobs.decrementAndGet();
+            outstandingJobs.decrementAndGet();
+            recordRejection(feature, "user_limit");
+            throw new AiCapacityExceededException(
+                    "Maximum of " + maxActiveJobsPerUser + " active AI jobs per user reached");
+        }
+
+        AiJob job = new AiJob(UUID.randomUUID().toString(), feature, username);
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            userJobs.decrementAndGet();
+            outstandingJobs.decrementAndGet();
+            throw e;
+        }
+
+        return job;
+    }
+
+    /**
+     * Finds a job visible to the given user.
+     * 
+     * @param jobId    the job ID
+     * @param username the requesting user
+     * @return the job if it exists and is owned by the user
+     */
+    public Optional<AiJob> findJob(String jobId, String username) {
+        AiJob job = jobs.get(jobId);
+        return job != null && job.isOwnedBy(username) ? Optional.of(job) : Optional.empty();
+    }
+
+    /**
+     * Registers a callback invoked once when the job finishes. If the job has
+     * already finished the callback runs immediately.
+     * 
+     * @param job      the job to observe
+     * @param listener callback receiving the finished job
+     */
+    public void onCompletion(AiJob job, Consumer<AiJob> listener) {
+        synchronized (job) {
+            if (!job.isFinished()) {
+                completionListeners.computeIfAbsent(job.getId(), key -> new ArrayList<>()).add(listener);
+                return;
+            }
+        }
+        listener.accept(job);
+    }
+
+    /**
+     * Removes finished jobs whose retention period has expired.
+     */
+    @Scheduled(fixedDelayString = "${ai.jobs.cleanup-interval-ms:60000}")
+    public void purgeExpiredJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Private helper methods
+
+    private void run(AiJob job, Supplier<Map<String, Object>> work) {
+        String feature = job.getFeature().getMetricTag();
+        boolean acquired = false;
+        String outcome = "failure";
+
+        try {
+            executionPermits.acquire();
+            acquired = true;
+            runningJobs.incrementAndGet();
+
+            job.markRunning();
+            Timer.builder("ai.jobs.queue.time")
+                    .description("Time AI jobs spend queued before execution")
+                    .tag("feature", feature)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(Duration.between(job.getSubmittedAt(), job.getStartedAt()));
+
+            job.markSucceeded(work.get());
+            outcome = "success";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.markFailed("Job was interrupted");
+        } catch (Exception e) {
+            logger.warn("AI job {} failed: {}", job.getId(), e.getMessage());
+            job.markFailed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            if (acquired) {
+                runningJobs.decrementAndGet();
+                executionPermits.release();
+                Timer.builder("ai.jobs.execution.time")
+                        .description("Time AI jobs spend executing")
+                        .tag("feature", feature)
+                        .tag("outcome", outcome)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry)
+                        .record(Duration.between(job.getStartedAt(), Instant.now()).toNanos(), TimeUnit.NANOSECONDS);
+            }
+            if (!job.isFinished()) {
+                job.markFailed("Job did not complete");
+            }
+            activeJobsPerUser.get(job.getOwner()).decrementAndGet();
+            outstandingJobs.decrementAndGet();
+            notifyCompletion(job);
+        }
+    }
+
+    private void notifyCompletion(AiJob job) {
+        List<Consumer<AiJob>> listeners;
+        synchronized (job) {
+            listeners = completionListeners.remove(job.getId());
+        }
+        if (listeners == null) {
+            return;
+        }
+        for (Consumer<AiJob> listener : listeners) {
+            try {
+                listener.accept(job);
+            } catch (RuntimeException e) {
+                logger.debug("AI job completion listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void recordRejection(AiFeature feature, String reason) {
+        meterRegistry.counter("ai.jobs.rejected", "feature", feature.getMetricTag(), "reason", reason).increment();
+    }
+}
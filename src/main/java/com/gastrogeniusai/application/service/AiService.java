@@ -1,21 +1,69 @@
 package com.gastrogeniusai.application.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gastrogeniusai.domain.entity.AiAnalysisType;
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.domain.entity.Ingredient;
+import com.gastrogeniusai.domain.entity.IngredientCategory;
+import com.gastrogeniusai.domain.entity.MeasurementUnit;
 import com.gastrogeniusai.domain.entity.Recipe;
+import com.gastrogeniusai.domain.entity.RecipeCategory;
+import com.gastrogeniusai.domain.entity.RecipeDifficulty;
+import com.gastrogeniusai.infrastructure.ai.AdaptiveConcurrencyLimiter;
+import com.gastrogeniusai.infrastructure.ai.AiCallContext;
+import com.gastrogeniusai.infrastructure.ai.AiCallMetrics;
+import com.gastrogeniusai.infrastructure.ai.AiCircuitBreaker;
+import com.gastrogeniusai.infrastructure.ai.AiJsonExtractor;
+import com.gastrogeniusai.infrastructure.ai.AiRequestCoalescer;
+import com.gastrogeniusai.infrastructure.ai.CompiledPromptTemplate;
+import com.gastrogeniusai.infrastructure.ai.GenerationProfiles;
+import com.gastrogeniusai.infrastructure.ai.ModelCallExecutor;
+import com.gastrogeniusai.infrastructure.ai.ModelRouter;
+import com.gastrogeniusai.infrastructure.ai.PromptBudgetGovernor;
+import com.gastrogeniusai.infrastructure.ai.RequestDeadline;
+import com.gastrogeniusai.infrastructure.ai.ResponseSchema;
+import com.gastrogeniusai.infrastructure.ai.TruncatedJsonRepair;
+import com.gastrogeniusai.infrastructure.exception.AiCircuitOpenException;
+import com.gastrogeniusai.infrastructure.exception.AiRequestCancelledException;
+import com.gastrogeniusai.presentation.dto.NutritionAnalysis;
+import com.gastrogeniusai.presentation.dto.PairingSuggestion;
 import com.gastrogeniusai.presentation.dto.RecipeRequest;
+import jakarta.validation.Validator;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Service class for AI-powered features using Google Gemini.
@@ -25,13 +73,197 @@ import java.util.Map;
 @Service
 public class AiService {
 
+    static final ResponseSchema GENERATION_SCHEMA = ResponseSchema.builder()
+            .required("title", "string")
+            .required("description", "string")
+            .required("instructions", "string (step-by-step)")
+            .required("cookingTimeMinutes", "int")
+            .required("prepTimeMinutes", "int")
+            .required("servings", "int")
+            .required("category", "CATEGORY")
+            .required("difficulty", "DIFFICULTY")
+            .required("ingredients", "[INGREDIENT]")
+            .optional("tags", "[string]")
+            .define("INGREDIENT", "{\"name\":string,\"quantity\":number,\"unit\":UNIT,"
+                    + "\"category\":INGREDIENT_CATEGORY,\"isOptional\":boolean}")
+            .define("CATEGORY", enumNames(RecipeCategory.values()))
+            .define("DIFFICULTY", enumNames(RecipeDifficulty.values()))
+            .define("UNIT", enumNames(MeasurementUnit.values()))
+            .define("INGREDIENT_CATEGORY", enumNames(IngredientCategory.values()))
+            .alias("title", "t").alias("description", "d").alias("instructions", "in")
+            .alias("cookingTimeMinutes", "ct").alias("prepTimeMinutes", "pt").alias("servings", "sv")
+            .alias("category", "c").alias("difficulty", "df").alias("ingredients", "ig").alias("tags", "tg")
+            .alias("name", "n").alias("quantity", "q").alias("unit", "u").alias("isOptional", "o")
+            .build();
+
+    static final ResponseSchema NUTRITION_SCHEMA = ResponseSchema.builder()
+            .required("perServing", "NUTRIENTS")
+            .required("perRecipe", "NUTRIENTS")
+            .required("macronutrientRatios",
+                    "{\"proteinPercentage\":int,\"carbohydratePercentage\":int,\"fatPercentage\":int}")
+            .optional("healthScore", "number 1-10")
+            .optional("dietaryTags", "[string]")
+            .optional("allergens", "[string]")
+            .optional("vitaminsAndMinerals", "[{\"name\":string,\"amount\":string,\"dailyValue\":string}]")
+            .optional("nutritionNotes", "string")
+            .define("NUTRIENTS", "{\"calories\":kcal,\"protein\":g,\"carbohydrates\":g,\"fat\":g,"
+                    + "\"fiber\":g,\"sugar\":g,\"sodium\":mg}")
+            .alias("perServing", "ps").alias("perRecipe", "pr").alias("macronutrientRatios", "mr")
+            .alias("healthScore", "hs").alias("dietaryTags", "dt").alias("allergens", "al")
+            .alias("vitaminsAndMinerals", "vm").alias("nutritionNotes", "nn")
+            .alias("calories", "kc").alias("protein", "p").alias("carbohydrates", "c").alias("fat", "f")
+            .alias("fiber", "fb").alias("sugar", "sg").alias("sodium", "na")
+            .alias("proteinPercentage", "pp").alias("carbohydratePercentage", "cp").alias("fatPercentage", "fp")
+            .alias("name", "n").alias("amount", "a").alias("dailyValue", "dv")
+            .build();
+
+    static final ResponseSchema PAIRING_SCHEMA = ResponseSchema.builder()
+            .required("primaryRecommendation", "WINE")
+            .optional("alternativeRecommendations", "[WINE,WINE]")
+            .optional("nonAlcoholicOptions", "[{\"beverage\":string,\"reasoning\":string}]")
+            .optional("pairingPrinciples", "[string]")
+            .optional("servingSuggestions", "string")
+            .define("WINE", "{\"wineType\":string,\"specificWines\":[string],\"reasoning\":string,"
+                    + "\"servingTemperature\":string,\"priceRange\":string}")
+            .alias("primaryRecommendation", "pr").alias("alternativeRecommendations", "ar")
+            .alias("nonAlcoholicOptions", "na").alias("pairingPrinciples", "pp").alias("servingSuggestions", "ss")
+            .alias("wineType", "wt").alias("specificWines", "sw").alias("reasoning", "r")
+            .alias("servingTemperature", "st").alias("priceRange", "px").alias("beverage", "b")
+            .build();
+
+    private static final CompiledPromptTemplate GENERATION_TEMPLATE = CompiledPromptTemplate.compile("""
+            You are a professional chef. Create a realistic recipe using these ingredients: {ingredients}.
+            {preferences}Use them as the main ingredients; common seasonings and basics may be added. \
+            Give detailed step-by-step instructions and relevant tags.
+            Reply with only a JSON object in this schema:
+            {responseFormat}
+            """);
+
+    private static final CompiledPromptTemplate NUTRITION_TEMPLATE = CompiledPromptTemplate.compile("""
+            You are a professional nutritionist. Estimate the nutritional content of this recipe.
+            Recipe: {title}
+            Servings: {servings}
+            Ingredients:
+            {ingredients}
+            Reply with only a JSON object in this schema (a healthScore of 10 is healthiest):
+            {responseFormat}
+            """);
+
+    private static final CompiledPromptTemplate NUTRITION_BATCH_TEMPLATE = CompiledPromptTemplate.compile("""
+            You are a professional nutritionist. Estimate the nutritional content of each of these \
+            {recipeCount} recipes independently.
+            {recipes}
+            For each recipe write a line "### RESULT <id>" using the id from its "### RECIPE <id>" header, \
+            followed by only a JSON object in this schema (a healthScore of 10 is healthiest):
+            {responseFormat}
+            """);
+
+    private static final CompiledPromptTemplate PAIRING_TEMPLATE = CompiledPromptTemplate.compile("""
+            You are a professional sommelier. Recommend wine pairings for this recipe.
+            Recipe: {title}
+            Description: {description}
+            Category: {category}
+            Main ingredients: {ingredients}
+            Cooking method: {cookingStyle}
+            Give specific wines with regions, premium and accessible price options, the reasoning for each, \
+            non-alcoholic alternatives and practical serving suggestions.
+            Reply with only a JSON object in this schema:
+            {responseFormat}
+            """);
+
+    private static final int DESCRIPTION_MAX_TOKENS = 120;
+
+    // Provider default and upper bound of the sampling temperature
+    private static final double DEFAULT_TEMPERATURE = 1.0;
+    private static final double MAX_TEMPERATURE = 2.0;
+
+    private static final String CONTINUATION_INSTRUCTION = "Your reply was cut off. Continue it from exactly where it "
+            + "stopped, without repeating anything and without code fences, so that both parts together form the "
+            + "complete JSON object.";
+
+    private static final Pattern LEADING_CODE_FENCE = Pattern.compile("^\\s*```(?:json)?\\s*");
+
+    private static final Pattern BATCH_RESULT_HEADER = Pattern.compile("^###\\s*RESULT\\s+(\\d+)\\s*$",
+            Pattern.MULTILINE);
+
     private final ChatModel chatModel;
-    private final ObjectMapper objectMapper;
+    private final RecipeGenerationCache generationCache;
+    private final AiAnalysisStore analysisStore;
+    private final CookingStyleAnalyzer cookingStyleAnalyzer;
+    private final AiRequestCoalescer requestCoalescer;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final AiJsonExtractor jsonExtractor;
+    private final PromptBudgetGovernor promptBudget;
+    private final GenerationProfiles generationProfiles;
+    private final AiCallMetrics callMetrics;
+    private final ModelCallExecutor modelCallExecutor;
+    private final ModelRouter modelRouter;
+    private final AiCircuitBreaker circuitBreaker;
+    private final Validator validator;
+    private final Map<AiFeature, String> responseFormats = new EnumMap<>(AiFeature.class);
+    private final Map<AiFeature, Map<String, String>> keyExpansions = new EnumMap<>(AiFeature.class);
+
+    @Value("${ai.nutrition.batch.recipes-per-prompt:5}")
+    private int batchRecipesPerPrompt;
+
+    @Value("${ai.generation.variants.deadline-ms:45000}")
+    private long variantsDeadlineMs;
+
+    @Value("${ai.generation.variants.temperature-step:0.15}")
+    private double variantTemperatureStep;
+
+    @Value("${ai.repair.enabled:true}")
+    private boolean repairEnabled;
+
+    @Value("${ai.repair.continuation-enabled:true}")
+    private boolean continuationEnabled;
 
     @Autowired
-    public AiService(ChatModel chatModel) {
+    public AiService(ChatModel chatModel,
+            RecipeGenerationCache generationCache,
+            AiAnalysisStore analysisStore,
+            CookingStyleAnalyzer cookingStyleAnalyzer,
+            AiRequestCoalescer requestCoalescer,
+            AdaptiveConcurrencyLimiter concurrencyLimiter,
+            AiJsonExtractor jsonExtractor,
+            PromptBudgetGovernor promptBudget,
+            GenerationProfiles generationProfiles,
+            AiCallMetrics callMetrics,
+            ModelCallExecutor modelCallExecutor,
+            ModelRouter modelRouter,
+            AiCircuitBreaker circuitBreaker,
+            Validator validator) {
         this.chatModel = chatModel;
-        this.objectMapper = new ObjectMapper();
+        this.generationCache = generationCache;
+        this.analysisStore = analysisStore;
+        this.cookingStyleAnalyzer = cookingStyleAnalyzer;
+        this.requestCoalescer = requestCoalescer;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.jsonExtractor = jsonExtractor;
+        this.promptBudget = promptBudget;
+        this.generationProfiles = generationProfiles;
+        this.callMetrics = callMetrics;
+        this.modelCallExecutor = modelCallExecutor;
+        this.modelRouter = modelRouter;
+        this.circuitBreaker = circuitBreaker;
+        this.validator = validator;
+
+        registerSchema(AiFeature.GENERATION, GENERATION_SCHEMA);
+        registerSchema(AiFeature.NUTRITION, NUTRITION_SCHEMA);
+        registerSchema(AiFeature.PAIRING, PAIRING_SCHEMA);
+
+        // Near misses the models produce for the enums of the generation schema
+        jsonExtractor.registerEnumLookup(MeasurementUnit.class, MeasurementUnit::fromDisplayName);
+        jsonExtractor.registerEnumLookup(IngredientCategory.class, IngredientCategory::fromDisplayName);
+        jsonExtractor.registerEnumLookup(RecipeCategory.class, RecipeCategory::fromDisplayName);
+        jsonExtractor.registerEnumLookup(RecipeDifficulty.class,
+                value -> switch (value.trim().toLowerCase(Locale.ROOT)) {
+                    case "intermediate", "moderate" -> RecipeDifficulty.MEDIUM;
+                    case "advanced", "difficult", "challenging" -> RecipeDifficulty.HARD;
+                    case "simple", "basic" -> RecipeDifficulty.EASY;
+                    case "novice" -> RecipeDifficulty.BEGINNER;
+                    default -> RecipeDifficulty.fromDisplayName(value);
+                });
     }
 
     /**
@@ -43,264 +275,417 @@ public class AiService {
      * @return AI-generated recipe as JSON string
      */
     public String generateRecipeFromIngredients(List<String> ingredients, String cuisine, String difficulty) {
-        String ingredientsList = String.join(", ", ingredients);
-
-        PromptTemplate promptTemplate = new PromptTemplate(
-                """
-                        You are a professional chef and recipe creator. Create a detailed recipe using the following ingredients: {ingredients}.
-
-                        {cuisineInstruction}
-                        {difficultyInstruction}
-
-                        Please return the recipe in the following JSON format:
-                        {
-                            "title": "Recipe Name",
-                            "description": "Brief description of the dish",
-                            "instructions": "Step-by-step cooking instructions",
-                            "cookingTimeMinutes": 30,
-                            "prepTimeMinutes": 15,
-                            "servings": 4,
-                            "category": "MAIN_COURSE",
-                            "difficulty": "MEDIUM",
-                            "ingredients": [
-                                {
-                                    "name": "ingredient name",
-                                    "quantity": 1.5,
-                                    "unit": "CUP",
-                                    "category": "VEGETABLES",
-                                    "isOptional": false
-                                }
-                            ],
-                            "tags": ["tag1", "tag2"]
-                        }
+        return generateRecipeFromIngredients(ingredients, cuisine, difficulty, false);
+    }
 
-                        Important guidelines:
-                        - Use only the provided ingredients as main ingredients, you can add common seasonings and basic ingredients
-                        - Make the recipe realistic and achievable
-                        - Provide detailed, step-by-step instructions
-                        - Use appropriate measurement units (CUP, TABLESPOON, TEASPOON, GRAM, etc.)
-                        - Choose appropriate category (APPETIZER, MAIN_COURSE, SIDE_DISH, DESSERT, etc.)
-                        - Choose appropriate difficulty (BEGINNER, EASY, MEDIUM, HARD, EXPERT)
-                        - Add relevant tags
-                        - Ensure the JSON is valid and properly formatted
-                        """);
+    /**
+     * Generates a recipe from a list of ingredients using AI, serving
+     * equivalent requests from the generation cache when possible.
+     * 
+     * @param ingredients list of ingredient names
+     * @param cuisine     optional cuisine preference
+     * @param difficulty  optional difficulty preference
+     * @param bypassCache whether to skip the cache lookup and force a fresh
+     *                    generation
+     * @return AI-generated recipe as JSON string
+     */
+    public String generateRecipeFromIngredients(List<String> ingredients, String cuisine, String difficulty,
+            boolean bypassCache) {
+        return generateRecipe(ingredients, cuisine, difficulty, bypassCache).json();
+    }
 
-        Map<String, Object> promptVariables = new HashMap<>();
-        promptVariables.put("ingredients", ingredientsList);
+    /**
+     * Generates a recipe from a list of ingredients using AI and binds it to a
+     * RecipeRequest in the same parse that validates the model output.
+     * 
+     * @param ingredients list of ingredient names
+     * @param cuisine     optional cuisine preference
+     * @param difficulty  optional difficulty preference
+     * @param bypassCache whether to skip the cache lookup and force a fresh
+     *                    generation
+     * @return the recipe JSON and the bound RecipeRequest
+     */
+    public AiJsonExtractor.Extraction<RecipeRequest> generateRecipe(List<String> ingredients, String cuisine,
+            String difficulty, boolean bypassCache) {
+        String canonicalRequest = generationCache.canonicalize(ingredients, cuisine, difficulty);
 
-        if (cuisine != null && !cuisine.trim().isEmpty()) {
-            promptVariables.put("cuisineInstruction", "Style: Create this as a " + cuisine + " cuisine dish.");
+        if (bypassCache) {
+            generationCache.recordBypass();
         } else {
-            promptVariables.put("cuisineInstruction", "");
+            Optional<String> cached = generationCache.get(canonicalRequest);
+            if (cached.isPresent()) {
+                callMetrics.recordCacheHit(AiFeature.GENERATION);
+                return new AiJsonExtractor.Extraction<>(cached.get(),
+                        jsonExtractor.read(cached.get(), RecipeRequest.class));
+            }
         }
 
-        if (difficulty != null && !difficulty.trim().isEmpty()) {
-            promptVariables.put("difficultyInstruction", "Difficulty: Make this recipe " + difficulty + " level.");
-        } else {
-            promptVariables.put("difficultyInstruction", "");
+        // Generation is not coalesced: each caller samples its own recipe, and one bypassing the cache must
+        // never be handed a recipe generated for another request
+        Prompt prompt = buildGenerationPrompt(ingredients, cuisine, difficulty);
+        ChatResponse response = callModel(AiFeature.GENERATION, prompt);
+
+        // Only cache complete responses that bind to a recipe
+        AiJsonExtractor.Extraction<RecipeRequest> recipe = extractResponse(AiFeature.GENERATION, prompt,
+                extractContent(response), RecipeRequest.class);
+        if (!recipe.partial()) {
+            generationCache.put(canonicalRequest, recipe.json());
         }
+        return recipe;
+    }
 
-        Prompt prompt = promptTemplate.create(promptVariables);
-        ChatResponse response = chatModel.call(prompt);
+    /**
+     * Generates several distinct recipe variants from one ingredient list.
+     * The variants are generated concurrently on virtual threads and the call
+     * returns once all of them complete or the variants deadline (or the
+     * earlier request deadline) passes; at the deadline unfinished
+     * generations are cancelled and reported as timed out. Each prompt asks
+     * for a variant that differs from the others, so variants bypass the
+     * generation cache and request coalescing.
+     *
+     * @param ingredients list of ingredient names
+     * @param variants    the variants to generate; variants without a
+     *                    temperature get one spread upwards from the
+     *                    generation profile's, so identical preferences still
+     *                    sample differently
+     * @return one result per variant, in request order
+     */
+    public List<VariantResult> generateVariants(List<String> ingredients, List<RecipeVariant> variants) {
+        GenerationProfiles.GenerationProfile profile = generationProfiles.get(AiFeature.GENERATION);
+        double baseTemperature = profile.temperature() != null ? profile.temperature() : DEFAULT_TEMPERATURE;
 
-        return response.getResult().getOutput().getContent();
+        List<RecipeVariant> resolved = new ArrayList<>();
+        List<Callable<AiJsonExtractor.Extraction<RecipeRequest>>> tasks = new ArrayList<>();
+        for (int i = 0; i < variants.size(); i++) {
+            RecipeVariant variant = variants.get(i);
+            if (variant.temperature() == null) {
+                variant = variant.withTemperature(
+                        Math.min(MAX_TEMPERATURE, baseTemperature + i * variantTemperatureStep));
+            }
+            String variantHint = "This is variant " + (i + 1) + " of " + variants.size()
+                    + ": make it clearly different from the others in main technique and flavour profile.\n";
+            Prompt prompt = buildGenerationPrompt(ingredients, variant.cuisine(), variant.difficulty(),
+                    variantHint, profile.withTemperature(variant.temperature()));
+
+            resolved.add(variant);
+            tasks.add(() -> extractResponse(AiFeature.GENERATION, prompt,
+                    extractContent(callModel(AiFeature.GENERATION, prompt)), RecipeRequest.class));
+        }
+
+        List<VariantResult> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Cancels (interrupts) the generations still running at the deadline
+            long deadlineNanos = RequestDeadline.current()
+                    .map(RequestDeadline::remainingNanos)
+                    .map(remaining -> Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(variantsDeadlineMs)))
+                    .orElse(TimeUnit.MILLISECONDS.toNanos(variantsDeadlineMs));
+            List<Future<AiJsonExtractor.Extraction<RecipeRequest>>> futures = executor.invokeAll(tasks,
+                    deadlineNanos, TimeUnit.NANOSECONDS);
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(variantResult(resolved.get(i), futures.get(i)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while generating recipe variants");
+        }
+        return results;
     }
 
     /**
-     * Analyzes the nutritional content of a recipe using AI.
+     * Streams a recipe generation from the AI model as it is produced.
+     * The text chunks emitted by the model are followed by one final event
+     * with the recipe extracted from the whole response, or the reason it
+     * could not be. A cache hit is emitted as a single chunk; a completed
+     * stream that contains valid JSON is added to the generation cache.
      * 
-     * @param recipe the recipe to analyze
-     * @return nutritional analysis as JSON string
+     * @param ingredients list of ingredient names
+     * @param cuisine     optional cuisine preference
+     * @param difficulty  optional difficulty preference
+     * @param bypassCache whether to skip the cache lookup and force a fresh
+     *                    generation
+     * @return flux of text chunks ending with the extracted recipe
      */
-    public String analyzeNutrition(Recipe recipe) {
-        StringBuilder ingredientsText = new StringBuilder();
-        recipe.getIngredients().forEach(ingredient -> {
-            ingredientsText.append(String.format("- %s %s %s\n",
-                    ingredient.getQuantity(),
-                    ingredient.getUnit().getDisplayName(ingredient.getQuantity().doubleValue() != 1.0),
-                    ingredient.getName()));
-        });
+    public Flux<StreamedRecipe> streamRecipeFromIngredients(List<String> ingredients, String cuisine, String difficulty,
+            boolean bypassCache) {
+        String canonicalRequest = generationCache.canonicalize(ingredients, cuisine, difficulty);
 
-        PromptTemplate promptTemplate = new PromptTemplate(
-                """
-                        You are a professional nutritionist. Analyze the nutritional content of this recipe:
-
-                        Recipe: {title}
-                        Servings: {servings}
-                        Ingredients:
-                        {ingredients}
-
-                        Please provide a detailed nutritional analysis in the following JSON format:
-                        {
-                            "perServing": {
-                                "calories": 450,
-                                "protein": 25.5,
-                                "carbohydrates": 35.2,
-                                "fat": 18.7,
-                                "fiber": 8.3,
-                                "sugar": 12.1,
-                                "sodium": 890
-                            },
-                            "perRecipe": {
-                                "calories": 1800,
-                                "protein": 102.0,
-                                "carbohydrates": 140.8,
-                                "fat": 74.8,
-                                "fiber": 33.2,
-                                "sugar": 48.4,
-                                "sodium": 3560
-                            },
-                            "macronutrientRatios": {
-                                "proteinPercentage": 23,
-                                "carbohydratePercentage": 31,
-                                "fatPercentage": 37
-                            },
-                            "healthScore": 8.5,
-                            "dietaryTags": ["high-protein", "low-carb"],
-                            "allergens": ["dairy", "nuts"],
-                            "vitaminsAndMinerals": [
-                                {"name": "Vitamin C", "amount": "45mg", "dailyValue": "50%"},
-                                {"name": "Iron", "amount": "8mg", "dailyValue": "44%"}
-                            ],
-                            "nutritionNotes": "This recipe is rich in protein and provides essential amino acids. High in fiber which aids digestion."
+        if (bypassCache) {
+            generationCache.recordBypass();
+        } else {
+            Optional<String> cached = generationCache.get(canonicalRequest);
+            if (cached.isPresent()) {
+                callMetrics.recordCacheHit(AiFeature.GENERATION);
+                return Flux.just(StreamedRecipe.chunk(cached.get()), StreamedRecipe.recipe(
+                        new AiJsonExtractor.Extraction<>(cached.get(),
+                                jsonExtractor.read(cached.get(), RecipeRequest.class))));
+            }
+        }
+
+        Prompt prompt = buildGenerationPrompt(ingredients, cuisine, difficulty);
+        // Stream signals arrive on provider threads, which do not inherit the caller
+        AiCallContext.Caller caller = AiCallContext.current().orElse(null);
+        RequestDeadline deadline = RequestDeadline.current().orElse(null);
+
+        return Flux.defer(() -> {
+            // The permits are held for the lifetime of the stream
+            promptBudget.recordPrompt(AiFeature.GENERATION, prompt);
+            AiCircuitBreaker.Permission permission = circuitBreaker.acquirePermission();
+            AdaptiveConcurrencyLimiter.Permit permit;
+            try {
+                permit = concurrencyLimiter.acquire(AiFeature.GENERATION);
+            } catch (RuntimeException e) {
+                permission.onIgnore();
+                throw e;
+            }
+            StringBuilder fullResponse = new StringBuilder();
+            AtomicReference<Usage> usage = new AtomicReference<>();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            long start = System.nanoTime();
+            return chatModel.stream(prompt)
+                    .doOnNext(chunk -> {
+                        // Usage is reported on the final chunks; keep the latest non-empty one
+                        if (chunk.getMetadata() != null && chunk.getMetadata().getUsage() != null
+                                && chunk.getMetadata().getUsage().getTotalTokens() != null
+                                && chunk.getMetadata().getUsage().getTotalTokens() > 0) {
+                            usage.set(chunk.getMetadata().getUsage());
                         }
+                    })
+                    .doOnError(failure::set)
+                    .doFinally(signal -> {
+                        long duration = System.nanoTime() - start;
+                        if (signal == SignalType.ON_COMPLETE) {
+                            permit.onSuccess();
+                            permission.onSuccess(duration);
+                        } else if (signal == SignalType.ON_ERROR) {
+                            permit.onDropped();
+                            permission.onError(duration);
+                        } else {
+                            permit.onIgnore();
+                            permission.onIgnore();
+                        }
+                        if (signal != SignalType.CANCEL) {
+                            callMetrics.recordCall(AiFeature.GENERATION, prompt, duration, usage.get(),
+                                    failure.get(), caller);
+                        } else {
+                            // The subscriber goes away when the client disconnects or the emitter times out
+                            callMetrics.recordCancellation(AiFeature.GENERATION,
+                                    deadline != null && deadline.getAbandonReason() == RequestDeadline.Reason.DEADLINE
+                                            ? RequestDeadline.Reason.DEADLINE : RequestDeadline.Reason.DISCONNECT);
+                        }
+                    })
+                    .map(this::extractContent)
+                    .filter(chunk -> !chunk.isEmpty())
+                    .doOnNext(fullResponse::append)
+                    .map(StreamedRecipe::chunk)
+                    .concatWith(Mono.fromCallable(() -> {
+                        try {
+                            // The client already has the streamed text, so the stream is not continued or escalated
+                            AiJsonExtractor.Extraction<RecipeRequest> recipe = extractResponse(AiFeature.GENERATION,
+                                    prompt, fullResponse.toString(), RecipeRequest.class, false);
+                            if (!recipe.partial()) {
+                                generationCache.put(canonicalRequest, recipe.json());
+                            }
+                            return StreamedRecipe.recipe(recipe);
+                        } catch (IllegalStateException e) {
+                            // Invalid output is never cached
+                            return StreamedRecipe.invalid(String.valueOf(e.getMessage()));
+                        }
+                    }));
+        });
+    }
 
-                        Guidelines:
-                        - Provide realistic nutritional estimates based on the ingredients and quantities
-                        - All nutritional values should be in grams unless otherwise specified
-                        - Health score should be 1-10 (10 being the healthiest)
-                        - Include relevant dietary tags and allergen warnings
-                        - Provide helpful nutritional notes
-                        - Ensure JSON is valid and properly formatted
-                        """);
+    /**
+     * Analyzes the nutritional content of a recipe using AI.
+     * Results are served from the analysis store while the title, servings and
+     * ingredient lines are unchanged. Analyses of recipes without an ID are
+     * not stored.
+     * 
+     * @param recipe the recipe to analyze
+     * @return nutritional analysis
+     */
+    public NutritionAnalysis analyzeNutrition(Recipe recipe) {
+        // Detached recipes, such as the estimated part of a recipe, have no owner that would ever invalidate
+        // their analyses, so they are not stored
+        boolean storable = recipe.getId() != null;
+        String contentHash = analysisStore.contentHash(AiAnalysisType.NUTRITION, recipe);
+        Optional<String> stored = storable ? analysisStore.find(AiAnalysisType.NUTRITION, contentHash)
+                : Optional.empty();
+        if (stored.isPresent()) {
+            callMetrics.recordCacheHit(AiFeature.NUTRITION);
+            return jsonExtractor.read(stored.get(), NutritionAnalysis.class);
+        }
 
+        String responseFormat = responseFormats.get(AiFeature.NUTRITION);
         Map<String, Object> promptVariables = new HashMap<>();
         promptVariables.put("title", recipe.getTitle());
         promptVariables.put("servings", recipe.getServings());
-        promptVariables.put("ingredients", ingredientsText.toString());
+        promptVariables.put("responseFormat", responseFormat);
+
+        int fixedChars = NUTRITION_TEMPLATE.getLiteralLength() + responseFormat.length()
+                + String.valueOf(recipe.getTitle()).length();
+        promptVariables.put("ingredients", formatNutritionIngredients(recipe,
+                promptBudget.remainingTokens(AiFeature.NUTRITION, fixedChars)));
 
-        Prompt prompt = promptTemplate.create(promptVariables);
-        ChatResponse response = chatModel.call(prompt);
+        Prompt prompt = modelRouter.route(AiFeature.NUTRITION, NUTRITION_TEMPLATE.create(promptVariables,
+                generationProfiles.get(AiFeature.NUTRITION).chatOptions()), recipe.getIngredients().size());
 
-        return response.getResult().getOutput().getContent();
+        // Concurrent viewers of the same recipe share one model call
+        return requestCoalescer.execute(AiFeature.NUTRITION, prompt, () -> {
+            ChatResponse response = callModel(AiFeature.NUTRITION, prompt);
+
+            AiJsonExtractor.Extraction<NutritionAnalysis> analysis = extractResponse(AiFeature.NUTRITION, prompt,
+                    extractContent(response), NutritionAnalysis.class);
+            if (storable && !analysis.partial()) {
+                analysisStore.save(AiAnalysisType.NUTRITION, contentHash, recipe.getId(), analysis.json());
+            }
+            return analysis.value();
+        });
+    }
+
+    /**
+     * Returns the most recent nutrition analysis stored for a recipe, which
+     * may describe an earlier version of it. Used as a fallback while the AI
+     * provider is unavailable.
+     * 
+     * @param recipe the recipe
+     * @return the stale analysis, if any
+     */
+    public Optional<NutritionAnalysis> findStaleNutrition(Recipe recipe) {
+        return analysisStore.findLatest(AiAnalysisType.NUTRITION, recipe.getId())
+                .map(json -> jsonExtractor.read(json, NutritionAnalysis.class));
+    }
+
+    /**
+     * Analyzes the nutritional content of several recipes, packing up to
+     * {@code ai.nutrition.batch.recipes-per-prompt} recipes into each model
+     * call. Stored analyses are reused, prompts are sent concurrently, and each
+     * recipe's result is validated and stored individually so one malformed
+     * section does not fail the others.
+     * 
+     * @param recipes the recipes to analyze (ingredients must be initialized)
+     * @return one result per recipe, in input order
+     */
+    public List<NutritionBatchResult> analyzeNutritionBatch(List<Recipe> recipes) {
+        Map<Long, NutritionBatchResult> results = new LinkedHashMap<>();
+        Map<Long, String> contentHashes = new HashMap<>();
+        List<Recipe> pending = new ArrayList<>();
+
+        for (Recipe recipe : recipes) {
+            String contentHash = analysisStore.contentHash(AiAnalysisType.NUTRITION, recipe);
+            Optional<String> stored = analysisStore.find(AiAnalysisType.NUTRITION, contentHash);
+            if (stored.isPresent()) {
+                callMetrics.recordCacheHit(AiFeature.NUTRITION);
+                results.put(recipe.getId(), NutritionBatchResult.success(recipe.getId(),
+                        jsonExtractor.read(stored.get(), NutritionAnalysis.class)));
+            } else {
+                results.put(recipe.getId(), null);
+                contentHashes.put(recipe.getId(), contentHash);
+                pending.add(recipe);
+            }
+        }
+
+        List<List<Recipe>> chunks = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i += batchRecipesPerPrompt) {
+            chunks.add(pending.subList(i, Math.min(i + batchRecipesPerPrompt, pending.size())));
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Map<Long, NutritionBatchResult>>> futures = new ArrayList<>();
+            for (List<Recipe> chunk : chunks) {
+                futures.add(executor.submit(() -> analyzeNutritionChunk(chunk, contentHashes)));
+            }
+
+            for (int i = 0; i < chunks.size(); i++) {
+                try {
+                    results.putAll(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    String message = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                    chunks.get(i).forEach(recipe -> results.put(recipe.getId(),
+                            NutritionBatchResult.failure(recipe.getId(), "Batch analysis failed: " + message)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    chunks.get(i).forEach(recipe -> results.put(recipe.getId(),
+                            NutritionBatchResult.failure(recipe.getId(), "Batch analysis interrupted")));
+                }
+            }
+        }
+
+        return new ArrayList<>(results.values());
     }
 
     /**
      * Provides wine pairing suggestions for a recipe using AI sommelier expertise.
+     * Results are served from the analysis store while the fields read by the
+     * pairing prompt are unchanged.
      * 
      * @param recipe the recipe to pair
-     * @return wine pairing suggestions as JSON string
+     * @return wine pairing suggestions
      */
-    public String suggestWinePairing(Recipe recipe) {
-        StringBuilder ingredientsText = new StringBuilder();
-        recipe.getIngredients().forEach(ingredient -> {
-            ingredientsText.append(ingredient.getName()).append(", ");
-        });
-        // Remove trailing comma and space
-        if (ingredientsText.length() > 0) {
-            ingredientsText.setLength(ingredientsText.length() - 2);
-        }
-
-        PromptTemplate promptTemplate = new PromptTemplate(
-                """
-                        You are a professional sommelier with extensive knowledge of wine pairings. Recommend the best wine pairings for this recipe:
-
-                        Recipe: {title}
-                        Description: {description}
-                        Category: {category}
-                        Main Ingredients: {ingredients}
-                        Cooking Method: Based on the instructions, this appears to be {cookingStyle}
-
-                        Please provide wine pairing suggestions in the following JSON format:
-                        {
-                            "primaryRecommendation": {
-                                "wineType": "Pinot Noir",
-                                "specificWines": ["Willamette Valley Pinot Noir", "Burgundy Gevrey-Chambertin"],
-                                "reasoning": "The earthy flavors and medium body complement the dish perfectly",
-                                "servingTemperature": "60-65°F",
-                                "priceRange": "$25-50"
-                            },
-                            "alternativeRecommendations": [
-                                {
-                                    "wineType": "Chardonnay",
-                                    "specificWines": ["Chablis", "Burgundy Meursault"],
-                                    "reasoning": "A crisp white wine that won't overpower the delicate flavors",
-                                    "servingTemperature": "45-50°F",
-                                    "priceRange": "$20-40"
-                                },
-                                {
-                                    "wineType": "Rosé",
-                                    "specificWines": ["Provence Rosé", "Sancerre Rosé"],
-                                    "reasoning": "Versatile option that bridges red and white characteristics",
-                                    "servingTemperature": "45-50°F",
-                                    "priceRange": "$15-30"
-                                }
-                            ],
-                            "nonAlcoholicOptions": [
-                                {
-                                    "beverage": "Sparkling Apple Cider",
-                                    "reasoning": "Crisp acidity and fruit notes complement the dish"
-                                },
-                                {
-                                    "beverage": "Hibiscus Tea",
-                                    "reasoning": "Floral notes and slight tartness provide nice contrast"
-                                }
-                            ],
-                            "pairingPrinciples": [
-                                "Match the weight of the wine to the weight of the dish",
-                                "Consider the dominant flavors and cooking methods",
-                                "Look for complementary or contrasting elements"
-                            ],
-                            "servingSuggestions": "Serve wine 30 minutes before the meal to allow proper temperature. Decant red wines if they're young and tannic."
-                        }
-
-                        Guidelines:
-                        - Consider the main flavors, textures, and cooking methods
-                        - Provide specific wine recommendations with regions when possible
-                        - Include both premium and accessible price options
-                        - Explain the reasoning behind each recommendation
-                        - Include non-alcoholic alternatives
-                        - Provide practical serving suggestions
-                        - Ensure JSON is valid and properly formatted
-                        """);
+    public PairingSuggestion suggestWinePairing(Recipe recipe) {
+        String contentHash = analysisStore.contentHash(AiAnalysisType.PAIRING, recipe);
+        Optional<String> stored = analysisStore.find(AiAnalysisType.PAIRING, contentHash);
+        if (stored.isPresent()) {
+            callMetrics.recordCacheHit(AiFeature.PAIRING);
+            return jsonExtractor.read(stored.get(), PairingSuggestion.class);
+        }
 
         Map<String, Object> promptVariables = new HashMap<>();
         promptVariables.put("title", recipe.getTitle());
-        promptVariables.put("description",
-                recipe.getDescription() != null ? recipe.getDescription() : "No description provided");
+        promptVariables.put("description", recipe.getDescription() != null
+                ? promptBudget.truncate(recipe.getDescription(), DESCRIPTION_MAX_TOKENS)
+                : "No description provided");
         promptVariables.put("category", recipe.getCategory().getDisplayName());
-        promptVariables.put("ingredients", ingredientsText.toString());
 
-        // Analyze cooking style from instructions
-        String cookingStyle = analyzeInstructionsForCookingStyle(recipe.getInstructions());
+        // Techniques are detected from the instructions when the recipe is written
+        String cookingStyle = cookingStyleAnalyzer.describeCookingStyle(recipe.getCookingTechniques());
         promptVariables.put("cookingStyle", cookingStyle);
+        promptVariables.put("responseFormat", responseFormats.get(AiFeature.PAIRING));
 
-        Prompt prompt = promptTemplate.create(promptVariables);
-        ChatResponse response = chatModel.call(prompt);
+        int fixedChars = PAIRING_TEMPLATE.getLiteralLength()
+                + promptVariables.values().stream().mapToInt(value -> String.valueOf(value).length()).sum();
+        List<String> names = recipe.getIngredients().stream().map(Ingredient::getName).toList();
+        PromptBudgetGovernor.FittedList fitted = promptBudget.fitList(names, names,
+                promptBudget.remainingTokens(AiFeature.PAIRING, fixedChars));
 
-        return response.getResult().getOutput().getContent();
+        StringBuilder ingredientsText = new StringBuilder(String.join(", ", fitted.entries()));
+        fitted.namesOnly().forEach(name -> ingredientsText.append(", ").append(name));
+        if (fitted.omitted() > 0) {
+            ingredientsText.append(" and ").append(fitted.omitted()).append(" more");
+        }
+        promptVariables.put("ingredients", ingredientsText.toString());
+
+        Prompt prompt = modelRouter.route(AiFeature.PAIRING, PAIRING_TEMPLATE.create(promptVariables,
+                generationProfiles.get(AiFeature.PAIRING).chatOptions()), names.size());
+
+        // Concurrent viewers of the same recipe share one model call
+        try {
+            return requestCoalescer.execute(AiFeature.PAIRING, prompt, () -> {
+                ChatResponse response = callModel(AiFeature.PAIRING, prompt);
+
+                AiJsonExtractor.Extraction<PairingSuggestion> suggestion = extractResponse(AiFeature.PAIRING,
+                        prompt, extractContent(response), PairingSuggestion.class);
+                if (!suggestion.partial()) {
+                    analysisStore.save(AiAnalysisType.PAIRING, contentHash, recipe.getId(), suggestion.json());
+                }
+                return suggestion.value();
+            });
+        } catch (AiCircuitOpenException e) {
+            // Suggestions for an earlier version of the recipe beat no suggestions at all
+            return analysisStore.findLatest(AiAnalysisType.PAIRING, recipe.getId())
+                    .map(json -> jsonExtractor.read(json, PairingSuggestion.class).asStale())
+                    .orElseThrow(() -> e);
+        }
     }
 
     /**
-     * Validates and cleans AI-generated JSON responses.
+     * Validates and cleans AI-generated JSON responses, returning the first
+     * complete JSON object found in the output.
      * 
      * @param aiResponse the raw AI response
      * @return cleaned JSON string
      */
     public String validateAndCleanJsonResponse(String aiResponse) {
-        try {
-            // Try to extract JSON from the response (in case AI adds extra text)
-            String jsonStart = aiResponse.indexOf('{') >= 0 ? aiResponse.substring(aiResponse.indexOf('{'))
-                    : aiResponse;
-            String jsonEnd = jsonStart.lastIndexOf('}') >= 0 ? jsonStart.substring(0, jsonStart.lastIndexOf('}') + 1)
-                    : jsonStart;
-
-            // Validate JSON by parsing it
-            objectMapper.readTree(jsonEnd);
-            return jsonEnd;
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("AI generated invalid JSON response: " + e.getMessage(), e);
-        }
+        return jsonExtractor.extractJson(aiResponse);
     }
 
     /**
@@ -310,35 +695,377 @@ public class AiService {
      * @return RecipeRequest object
      */
     public RecipeRequest parseAiGeneratedRecipe(String aiGeneratedJson) {
+        return extractGeneratedRecipe(aiGeneratedJson).value();
+    }
+
+    /**
+     * Extracts, validates and binds a generated recipe from raw model output
+     * in a single parse, repairing truncated or malformed output that does not
+     * parse.
+     * 
+     * @param aiResponse the raw AI response
+     * @return the recipe JSON and the bound RecipeRequest
+     */
+    public AiJsonExtractor.Extraction<RecipeRequest> extractGeneratedRecipe(String aiResponse) {
         try {
-            return objectMapper.readValue(aiGeneratedJson, RecipeRequest.class);
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Failed to parse AI-generated recipe: " + e.getMessage(), e);
+            return jsonExtractor.extract(aiResponse, RecipeRequest.class, keyExpansions.get(AiFeature.GENERATION));
+        } catch (IllegalStateException e) {
+            if (!repairEnabled) {
+                throw e;
+            }
+            return TruncatedJsonRepair.repair(aiResponse)
+                    .flatMap(result -> bindRepaired(AiFeature.GENERATION, result, RecipeRequest.class))
+                    .orElseThrow(() -> e);
         }
     }
 
     // Private helper methods
 
-    private String analyzeInstructionsForCookingStyle(String instructions) {
-        if (instructions == null)
-            return "unknown cooking method";
-
-        String lowerInstructions = instructions.toLowerCase();
-
-        if (lowerInstructions.contains("grill") || lowerInstructions.contains("barbecue")) {
-            return "grilled";
-        } else if (lowerInstructions.contains("roast") || lowerInstructions.contains("bake")) {
-            return "roasted/baked";
-        } else if (lowerInstructions.contains("fry") || lowerInstructions.contains("sauté")) {
-            return "pan-fried/sautéed";
-        } else if (lowerInstructions.contains("steam")) {
-            return "steamed";
-        } else if (lowerInstructions.contains("boil") || lowerInstructions.contains("simmer")) {
-            return "boiled/simmered";
-        } else if (lowerInstructions.contains("braise")) {
-            return "braised";
-        } else {
-            return "mixed cooking methods";
+    private Prompt buildGenerationPrompt(List<String> ingredients, String cuisine, String difficulty) {
+        return buildGenerationPrompt(ingredients, cuisine, difficulty, "",
+                generationProfiles.get(AiFeature.GENERATION));
+    }
+
+    private Prompt buildGenerationPrompt(List<String> ingredients, String cuisine, String difficulty,
+            String variantHint, GenerationProfiles.GenerationProfile profile) {
+        StringBuilder preferences = new StringBuilder();
+        if (cuisine != null && !cuisine.trim().isEmpty()) {
+            preferences.append("Style: create this as a ").append(cuisine.trim()).append(" cuisine dish.\n");
+        }
+        if (difficulty != null && !difficulty.trim().isEmpty()) {
+            preferences.append("Difficulty: make this recipe ").append(difficulty.trim()).append(" level.\n");
+        }
+        preferences.append(variantHint);
+
+        String responseFormat = responseFormats.get(AiFeature.GENERATION);
+        Map<String, Object> promptVariables = new HashMap<>();
+        promptVariables.put("preferences", preferences.toString());
+        promptVariables.put("responseFormat", responseFormat);
+
+        int fixedChars = GENERATION_TEMPLATE.getLiteralLength() + responseFormat.length()
+                + preferences.length();
+        promptVariables.put("ingredients", promptBudget.truncate(String.join(", ", ingredients),
+                promptBudget.remainingTokens(AiFeature.GENERATION, fixedChars)));
+
+        return modelRouter.route(AiFeature.GENERATION,
+                GENERATION_TEMPLATE.create(promptVariables, profile.chatOptions()), ingredients.size());
+    }
+
+    private Map<Long, NutritionBatchResult> analyzeNutritionChunk(List<Recipe> chunk,
+            Map<Long, String> contentHashes) {
+        String responseFormat = responseFormats.get(AiFeature.NUTRITION);
+        int fixedChars = NUTRITION_BATCH_TEMPLATE.getLiteralLength() + responseFormat.length();
+        int tokensPerRecipe = promptBudget.remainingTokens(AiFeature.NUTRITION, fixedChars) / chunk.size();
+
+        StringBuilder recipesText = new StringBuilder();
+        for (Recipe recipe : chunk) {
+            recipesText.append("### RECIPE ").append(recipe.getId()).append('\n')
+                    .append("Recipe: ").append(recipe.getTitle()).append('\n')
+                    .append("Servings: ").append(recipe.getServings()).append('\n')
+                    .append("Ingredients:\n")
+                    .append(formatNutritionIngredients(recipe, tokensPerRecipe));
+        }
+
+        Map<String, Object> promptVariables = new HashMap<>();
+        promptVariables.put("recipeCount", chunk.size());
+        promptVariables.put("recipes", recipesText.toString());
+        promptVariables.put("responseFormat", responseFormat);
+
+        // A batch is as complex as its largest recipe; its prompt size already counts all of them
+        int maxIngredients = chunk.stream().mapToInt(recipe -> recipe.getIngredients().size()).max().orElse(0);
+        Prompt prompt = modelRouter.route(AiFeature.NUTRITION, NUTRITION_BATCH_TEMPLATE.create(promptVariables,
+                generationProfiles.get(AiFeature.NUTRITION).chatOptions(chunk.size())), maxIngredients);
+        String content = requestCoalescer.execute(AiFeature.NUTRITION, prompt,
+                () -> extractContent(callModel(AiFeature.NUTRITION, prompt)));
+
+        Map<Long, String> sections = splitBatchResults(content);
+        Map<Long, NutritionBatchResult> results = new HashMap<>();
+        for (Recipe recipe : chunk) {
+            String section = sections.get(recipe.getId());
+            if (section == null) {
+                results.put(recipe.getId(),
+                        NutritionBatchResult.failure(recipe.getId(), "No result returned for this recipe"));
+                continue;
+            }
+            try {
+                // A section is only part of the reply, so it cannot be continued or escalated on its own
+                AiJsonExtractor.Extraction<NutritionAnalysis> analysis = extractResponse(AiFeature.NUTRITION, prompt,
+                        section, NutritionAnalysis.class, false);
+                if (!analysis.partial()) {
+                    analysisStore.save(AiAnalysisType.NUTRITION, contentHashes.get(recipe.getId()), recipe.getId(),
+                            analysis.json());
+                }
+                results.put(recipe.getId(), NutritionBatchResult.success(recipe.getId(), analysis.value()));
+            } catch (IllegalStateException e) {
+                results.put(recipe.getId(), NutritionBatchResult.failure(recipe.getId(), e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private Map<Long, String> splitBatchResults(String content) {
+        Map<Long, String> sections = new HashMap<>();
+        Matcher matcher = BATCH_RESULT_HEADER.matcher(content);
+        Long currentId = null;
+        int sectionStart = 0;
+        while (matcher.find()) {
+            if (currentId != null) {
+                sections.putIfAbsent(currentId, content.substring(sectionStart, matcher.start()));
+            }
+            currentId = Long.valueOf(matcher.group(1));
+            sectionStart = matcher.end();
+        }
+        if (currentId != null) {
+            sections.putIfAbsent(currentId, content.substring(sectionStart));
+        }
+        return sections;
+    }
+
+    private String formatNutritionIngredients(Recipe recipe, int maxTokens) {
+        List<String> lines = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            lines.add(String.format("- %s %s %s\n",
+                    ingredient.getQuantity(),
+                    ingredient.getUnit().getDisplayName(ingredient.getQuantity().doubleValue() != 1.0),
+                    ingredient.getName()));
+            names.add(ingredient.getName());
+        }
+
+        PromptBudgetGovernor.FittedList fitted = promptBudget.fitList(lines, names, maxTokens);
+        StringBuilder ingredientsText = new StringBuilder();
+        fitted.entries().forEach(ingredientsText::append);
+        if (!fitted.namesOnly().isEmpty()) {
+            ingredientsText.append("- Also, in typical amounts: ").append(String.join(", ", fitted.namesOnly()))
+                    .append('\n');
+        }
+        if (fitted.omitted() > 0) {
+            ingredientsText.append("- Plus ").append(fitted.omitted()).append(" more minor ingredients\n");
+        }
+        return ingredientsText.toString();
+    }
+
+    private <T> AiJsonExtractor.Extraction<T> extractResponse(AiFeature feature, Prompt prompt, String content,
+            Class<T> type) {
+        return extractResponse(feature, prompt, content, type, true);
+    }
+
+    /**
+     * Extracts a model response, repairing truncated or malformed JSON before
+     * failing the request. A response of the fast model that only repairs
+     * partially, or not at all, is escalated to the quality model; otherwise,
+     * when the repaired response is still unusable and was cut off, the model
+     * is asked for the missing tail as a last resort. Follow-up calls are only
+     * made for a whole response that has not reached the client yet.
+     */
+    private <T> AiJsonExtractor.Extraction<T> extractResponse(AiFeature feature, Prompt prompt, String content,
+            Class<T> type, boolean followUp) {
+        try {
+            return jsonExtractor.extract(content, type, keyExpansions.get(feature));
+        } catch (IllegalStateException e) {
+            callMetrics.recordJsonFailure(feature, prompt);
+
+            Optional<TruncatedJsonRepair.Result> repair = repairEnabled
+                    ? TruncatedJsonRepair.repair(content) : Optional.empty();
+            Optional<AiJsonExtractor.Extraction<T>> repaired = repair
+                    .flatMap(result -> bindRepaired(feature, result, type));
+            if (repaired.isPresent() && !repaired.get().partial()) {
+                callMetrics.recordJsonRepair(feature, prompt, "repaired");
+                return repaired.get();
+            }
+
+            Optional<Prompt> escalation = followUp ? modelRouter.escalate(feature, prompt) : Optional.empty();
+            if (escalation.isPresent()) {
+                Optional<AiJsonExtractor.Extraction<T>> escalated = escalateResponse(feature, escalation.get(), type);
+                if (escalated.isPresent()) {
+                    return escalated.get();
+                }
+            }
+            if (repaired.isPresent()) {
+                callMetrics.recordJsonRepair(feature, prompt, "repaired");
+                return repaired.get();
+            }
+
+            boolean truncated = repair.map(TruncatedJsonRepair.Result::truncated).orElse(false);
+            if (followUp && escalation.isEmpty() && continuationEnabled && truncated) {
+                Optional<AiJsonExtractor.Extraction<T>> continued = continueResponse(feature, prompt, content, type);
+                if (continued.isPresent()) {
+                    callMetrics.recordJsonRepair(feature, prompt, "continued");
+                    return continued.get();
+                }
+            }
+            if (repairEnabled) {
+                callMetrics.recordJsonRepair(feature, prompt, "failed");
+            }
+            throw e;
+        }
+    }
+
+    private <T> Optional<AiJsonExtractor.Extraction<T>> bindRepaired(AiFeature feature,
+            TruncatedJsonRepair.Result repair, Class<T> type) {
+        AiJsonExtractor.Extraction<T> extraction;
+        try {
+            extraction = jsonExtractor.extract(repair.json(), type, keyExpansions.get(feature));
+        } catch (IllegalStateException e) {
+            return Optional.empty();
+        }
+        // A cut-off response binds even when it lost required fields
+        if (!validator.validate(extraction.value()).isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(repair.truncated() ? extraction.asPartial() : extraction);
+    }
+
+    private <T> Optional<AiJsonExtractor.Extraction<T>> escalateResponse(AiFeature feature, Prompt prompt,
+            Class<T> type) {
+        callMetrics.recordRetry(feature, prompt, "escalation");
+        try {
+            return Optional.of(extractResponse(feature, prompt, extractContent(callModel(feature, prompt)), type));
+        } catch (AiRequestCancelledException | CancellationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // The fast model's response is used if it repaired, or its failure reported
+            return Optional.empty();
+        }
+    }
+
+    private <T> Optional<AiJsonExtractor.Extraction<T>> continueResponse(AiFeature feature, Prompt prompt,
+            String content, Class<T> type) {
+        List<Message> messages = new ArrayList<>(prompt.getInstructions());
+        messages.add(new AssistantMessage(content));
+        messages.add(new UserMessage(CONTINUATION_INSTRUCTION));
+        Prompt continuation = new Prompt(messages, prompt.getOptions());
+
+        String tail;
+        callMetrics.recordRetry(feature, prompt, "continuation");
+        try {
+            tail = extractContent(callModel(feature, continuation));
+        } catch (AiRequestCancelledException | CancellationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // The original validation failure is reported instead
+            return Optional.empty();
+        }
+
+        String combined = content + LEADING_CODE_FENCE.matcher(tail).replaceFirst("");
+        try {
+            return Optional.of(jsonExtractor.extract(combined, type, keyExpansions.get(feature)));
+        } catch (IllegalStateException e) {
+            return TruncatedJsonRepair.repair(combined).flatMap(result -> bindRepaired(feature, result, type));
+        }
+    }
+
+    private void registerSchema(AiFeature feature, ResponseSchema schema) {
+        GenerationProfiles.GenerationProfile profile = generationProfiles.get(feature);
+        responseFormats.put(feature, schema.render(profile.fields(), profile.compactSchema()));
+        keyExpansions.put(feature, profile.compactSchema() ? schema.getExpansions() : Map.of());
+    }
+
+    private static String enumNames(Enum<?>[] values) {
+        return Arrays.stream(values).map(Enum::name).collect(Collectors.joining("|"));
+    }
+
+    private ChatResponse callModel(AiFeature feature, Prompt prompt) {
+        promptBudget.recordPrompt(feature, prompt);
+        return modelCallExecutor.call(feature, prompt);
+    }
+
+    private VariantResult variantResult(RecipeVariant variant,
+            Future<AiJsonExtractor.Extraction<RecipeRequest>> future) {
+        return switch (future.state()) {
+            case SUCCESS -> VariantResult.success(variant, future.resultNow());
+            case FAILED -> {
+                Throwable failure = future.exceptionNow();
+                yield VariantResult.failure(variant, failure.getMessage() != null ? failure.getMessage()
+                        : failure.getClass().getSimpleName());
+            }
+            default -> VariantResult.timedOut(variant,
+                    "Variant did not complete within " + variantsDeadlineMs + " ms");
+        };
+    }
+
+    private String extractContent(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String content = response.getResult().getOutput().getContent();
+        return content != null ? content : "";
+    }
+
+    /**
+     * Outcome of analyzing one recipe in a nutrition batch.
+     */
+    public record NutritionBatchResult(Long recipeId, NutritionAnalysis nutritionalAnalysis, String error) {
+
+        static NutritionBatchResult success(Long recipeId, NutritionAnalysis nutritionalAnalysis) {
+            return new NutritionBatchResult(recipeId, nutritionalAnalysis, null);
+        }
+
+        static NutritionBatchResult failure(Long recipeId, String error) {
+            return new NutritionBatchResult(recipeId, null, error);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Event of a streamed recipe generation: a text chunk emitted by the
+     * model, or the final recipe extracted from the whole response. A partial
+     * recipe was repaired from a truncated response and is missing its tail;
+     * an error means the response held no usable recipe.
+     */
+    public record StreamedRecipe(String chunk, AiJsonExtractor.Extraction<RecipeRequest> recipe, String error) {
+
+        static StreamedRecipe chunk(String chunk) {
+            return new StreamedRecipe(chunk, null, null);
+        }
+
+        static StreamedRecipe recipe(AiJsonExtractor.Extraction<RecipeRequest> recipe) {
+            return new StreamedRecipe(null, recipe, null);
+        }
+
+        static StreamedRecipe invalid(String error) {
+            return new StreamedRecipe(null, null, error);
+        }
+
+        public boolean isChunk() {
+            return chunk != null;
+        }
+    }
+
+    /**
+     * Preferences for one variant of a multi-variant generation.
+     */
+    public record RecipeVariant(String cuisine, String difficulty, Double temperature) {
+
+        RecipeVariant withTemperature(Double newTemperature) {
+            return new RecipeVariant(cuisine, difficulty, newTemperature);
+        }
+    }
+
+    /**
+     * Outcome of generating one recipe variant. A partial recipe was repaired
+     * from a truncated response and is missing its tail.
+     */
+    public record VariantResult(RecipeVariant variant, RecipeRequest recipe, boolean partial, String error,
+            boolean timedOut) {
+
+        static VariantResult success(RecipeVariant variant, AiJsonExtractor.Extraction<RecipeRequest> recipe) {
+            return new VariantResult(variant, recipe.value(), recipe.partial(), null, false);
+        }
+
+        static VariantResult failure(RecipeVariant variant, String error) {
+            return new VariantResult(variant, null, false, error, false);
+        }
+
+        static VariantResult timedOut(RecipeVariant variant, String error) {
+            return new VariantResult(variant, null, false, error, true);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
         }
     }
 }
@@ -0,0 +1,299 @@
+package com.gastrogeniusai.application.service;
+
+import com.gastrogeniusai.domain.entity.CookingTechnique;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.stream.Collectors;
+
+/**
+ * Detects the cooking techniques used in recipe instructions.
+ * English and Spanish technique terms are compiled into an Aho-Corasick
+ * automaton, so the instructions are scanned once, character by character,
+ * however many terms there are. Text is case- and accent-folded on the fly
+ * and terms only match at the start of a word, which lets stems such as
+ * "roast" or "hornea" cover their inflections without "asar" matching inside
+ * "pasar". Where matches overlap, only the longest scores, so "stir fry"
+ * counts as sauteing rather than also as frying. Techniques are weighted by
+ * their share of the matched terms.
+ * The result is stored on the recipe when it is written and read by the wine
+ * pairing prompt, the analysis store and the search technique filter.
+ */
+@Component
+public class CookingStyleAnalyzer {
+
+    // Folded alphabet: 'a'-'z', a separator for non-letters, and other letters
+    private static final int SEPARATOR = 26;
+    private static final int OTHER_LETTER = 27;
+    private static final int ALPHABET_SIZE = 28;
+
+    private static final String ACCENTED = "áàâäãåéèêëíìîïóòôöõúùûüñç";
+    private static final String UNACCENTED = "aaaaaaeeeeiiiiooooouuuunc";
+
+    private static final int MAX_DESCRIBED_TECHNIQUES = 3;
+
+    // Weaker terms also appear in ingredient names or non-cooking steps
+    private static final List<Term> TERMS = List.of(
+            new Term("grill", CookingTechnique.GRILL, 1.0),
+            new Term("barbecue", CookingTechnique.GRILL, 1.0),
+            new Term("bbq", CookingTechnique.GRILL, 1.0),
+            new Term("broil", CookingTechnique.GRILL, 1.0),
+            new Term("parrilla", CookingTechnique.GRILL, 1.0),
+            new Term("plancha", CookingTechnique.GRILL, 1.0),
+            new Term("brasa", CookingTechnique.GRILL, 1.0),
+            new Term("barbacoa", CookingTechnique.GRILL, 1.0),
+            new Term("roast", CookingTechnique.ROAST, 1.0),
+            new Term("asar", CookingTechnique.ROAST, 1.0),
+            new Term("asad", CookingTechnique.ROAST, 1.0),
+            new Term("rostiz", CookingTechnique.ROAST, 1.0),
+            new Term("toast", CookingTechnique.ROAST, 0.5),
+            new Term("tosta", CookingTechnique.ROAST, 0.5),
+            new Term("bake", CookingTechnique.BAKE, 1.0),
+            new Term("oven", CookingTechnique.BAKE, 0.5),
+            new Term("gratin", CookingTechnique.BAKE, 0.5),
+            new Term("hornea", CookingTechnique.BAKE, 1.0),
+            new Term("horno", CookingTechnique.BAKE, 0.5),
+            new Term("gratina", CookingTechnique.BAKE, 0.5),
+            new Term("fry", CookingTechnique.FRY, 1.0),
+            new Term("frei", CookingTechnique.FRY, 1.0),
+            new Term("frie", CookingTechnique.FRY, 1.0),
+            new Term("frit", CookingTechnique.FRY, 1.0),
+            new Term("saute", CookingTechnique.SAUTE, 1.0),
+            new Term("stir fry", CookingTechnique.SAUTE, 1.0),
+            new Term("sear", CookingTechnique.SAUTE, 1.0),
+            new Term("saltea", CookingTechnique.SAUTE, 1.0),
+            new Term("sofrei", CookingTechnique.SAUTE, 1.0),
+            new Term("sofrie", CookingTechnique.SAUTE, 1.0),
+            new Term("sofrito", CookingTechnique.SAUTE, 1.0),
+            new Term("steam", CookingTechnique.STEAM, 1.0),
+            new Term("vapor", CookingTechnique.STEAM, 1.0),
+            new Term("boil", CookingTechnique.BOIL, 1.0),
+            new Term("blanch", CookingTechnique.BOIL, 1.0),
+            new Term("hervi", CookingTechnique.BOIL, 1.0),
+            new Term("hierve", CookingTechnique.BOIL, 1.0),
+            new Term("blanquea", CookingTechnique.BOIL, 1.0),
+            new Term("escalda", CookingTechnique.BOIL, 1.0),
+            new Term("simmer", CookingTechnique.SIMMER, 1.0),
+            new Term("fuego lento", CookingTechnique.SIMMER, 1.0),
+            new Term("fuego bajo", CookingTechnique.SIMMER, 0.5),
+            new Term("poach", CookingTechnique.POACH, 1.0),
+            new Term("escalfa", CookingTechnique.POACH, 1.0),
+            new Term("pocha", CookingTechnique.POACH, 0.5),
+            new Term("braise", CookingTechnique.BRAISE, 1.0),
+            new Term("slow cook", CookingTechnique.BRAISE, 1.0),
+            new Term("brasea", CookingTechnique.BRAISE, 1.0),
+            new Term("coccion lenta", CookingTechnique.BRAISE, 1.0),
+            new Term("stew", CookingTechnique.STEW, 1.0),
+            new Term("guiso", CookingTechnique.STEW, 1.0),
+            new Term("guisa", CookingTechnique.STEW, 1.0),
+            new Term("estofa", CookingTechnique.STEW, 1.0),
+            new Term("smoke", CookingTechnique.SMOKE, 0.5),
+            new Term("ahuma", CookingTechnique.SMOKE, 0.5),
+            new Term("sous vide", CookingTechnique.SOUS_VIDE, 1.0),
+            new Term("al vacio", CookingTechnique.SOUS_VIDE, 1.0),
+            new Term("baja temperatura", CookingTechnique.SOUS_VIDE, 0.5),
+            new Term("ceviche", CookingTechnique.RAW, 1.0),
+            new Term("tartar", CookingTechnique.RAW, 1.0),
+            new Term("carpaccio", CookingTechnique.RAW, 1.0),
+            new Term("crudo", CookingTechnique.RAW, 0.5));
+
+    private final int[][] transitions;
+    private final int[][] matches;
+    private final int maxTermLength;
+
+    public CookingStyleAnalyzer() {
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> stateMatches = new ArrayList<>();
+        gotoTable.add(newState());
+        stateMatches.add(new ArrayList<>());
+
+        int longest = 0;
+        for (int termIndex = 0; termIndex < TERMS.size(); termIndex++) {
+            String text = TERMS.get(termIndex).text();
+            longest = Math.max(longest, text.length());
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                int symbol = symbol(text.charAt(i));
+                if (gotoTable.get(state)[symbol] < 0) {
+                    gotoTable.get(state)[symbol] = gotoTable.size();
+                    gotoTable.add(newState());
+                    stateMatches.add(new ArrayList<>());
+                }
+                state = gotoTable.get(state)[symbol];
+            }
+            stateMatches.get(state).add(termIndex);
+        }
+
+        // Breadth-first pass turning the trie into a complete automaton
+        int[] failure = new int[gotoTable.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = gotoTable.get(0);
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            if (root[symbol] < 0) {
+                root[symbol] = 0;
+            } else {
+                queue.add(root[symbol]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] row = gotoTable.get(state);
+            int[] failureRow = gotoTable.get(failure[state]);
+            for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                if (row[symbol] < 0) {
+                    row[symbol] = failureRow[symbol];
+                } else {
+                    int child = row[symbol];
+                    failure[child] = failureRow[symbol];
+                    stateMatches.get(child).addAll(stateMatches.get(failure[child]));
+                    queue.add(child);
+                }
+            }
+        }
+
+        this.transitions = gotoTable.toArray(new int[0][]);
+        this.matches = stateMatches.stream()
+                .map(termIndexes -> termIndexes.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+        this.maxTermLength = longest;
+    }
+
+    /**
+     * Detects the cooking techniques in the instructions.
+     *
+     * @param instructions the recipe instructions
+     * @return each detected technique with its share of the matched terms
+     *         (0-1, rounded to two decimals); empty if none was found
+     */
+    public Map<CookingTechnique, Double> extractTechniques(String instructions) {
+        Map<CookingTechnique, Double> techniques = new EnumMap<>(CookingTechnique.class);
+        if (instructions == null || instructions.isEmpty()) {
+            return techniques;
+        }
+
+        double[] scores = new double[CookingTechnique.values().length];
+        double total = 0;
+
+        // Most recent folded symbols, to check that a match starts a word
+        int[] recent = new int[maxTermLength + 1];
+        int position = 0;
+        int previous = SEPARATOR;
+        int state = 0;
+        // The last match is only scored once no longer match can replace it
+        int pendingTerm = -1;
+        int pendingStart = 0;
+        for (int i = 0; i < instructions.length(); i++) {
+            int symbol = symbol(instructions.charAt(i));
+            if (symbol == SEPARATOR && previous == SEPARATOR) {
+                // Runs of whitespace and punctuation fold into one separator
+                continue;
+            }
+            previous = symbol;
+            recent[position % recent.length] = symbol;
+            position++;
+
+            state = transitions[state][symbol];
+            // Matches ending here come longest first
+            for (int termIndex : matches[state]) {
+                int start = position - TERMS.get(termIndex).text().length();
+                if (start > 0 && recent[(start - 1) % recent.length] != SEPARATOR) {
+                    continue;
+                }
+                if (pendingTerm >= 0 && start <= pendingStart) {
+                    // Same start and longer, e.g. "gratina" after "gratin": the longer one replaces it
+                    pendingTerm = termIndex;
+                    pendingStart = start;
+                } else if (pendingTerm < 0 || start >= pendingStart + TERMS.get(pendingTerm).text().length()) {
+                    total += score(scores, pendingTerm);
+                    pendingTerm = termIndex;
+                    pendingStart = start;
+                }
+                // Otherwise it starts inside the pending match, e.g. "fry" in "stir fry", and does not score
+            }
+        }
+        total += score(scores, pendingTerm);
+
+        for (CookingTechnique technique : CookingTechnique.values()) {
+            if (scores[technique.ordinal()] > 0) {
+                techniques.put(technique, Math.round(scores[technique.ordinal()] / total * 100) / 100.0);
+            }
+        }
+        return techniques;
+    }
+
+    /**
+     * Orders techniques by weight, heaviest first.
+     *
+     * @param techniques techniques from {@link #extractTechniques}
+     * @return the techniques in descending weight order
+     */
+    public Map<CookingTechnique, Double> orderByWeight(Map<CookingTechnique, Double> techniques) {
+        return techniques.entrySet().stream()
+                .sorted(Map.Entry.<CookingTechnique, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a,
+                        LinkedHashMap::new));
+    }
+
+    /**
+     * Describes the main cooking techniques of a recipe, e.g.
+     * "braised (60%), roasted (40%)".
+     *
+     * @param techniques techniques from {@link #extractTechniques}
+     * @return cooking style description
+     */
+    public String describeCookingStyle(Map<CookingTechnique, Double> techniques) {
+        if (techniques == null || techniques.isEmpty()) {
+            return "not stated in the instructions";
+        }
+        return orderByWeight(techniques).entrySet().stream()
+                .limit(MAX_DESCRIBED_TECHNIQUES)
+                .map(entry -> entry.getKey().getDisplayName() + " (" + Math.round(entry.getValue() * 100) + "%)")
+                .collect(Collectors.joining(", "));
+    }
+
+    // Private helper methods
+
+    private static double score(double[] scores, int termIndex) {
+        if (termIndex < 0) {
+            return 0;
+        }
+        Term term = TERMS.get(termIndex);
+        scores[term.technique().ordinal()] += term.weight();
+        return term.weight();
+    }
+
+    private static int[] newState() {
+        int[] row = new int[ALPHABET_SIZE];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (!Character.isLetter(c)) {
+            return SEPARATOR;
+        }
+        int accented = ACCENTED.indexOf(Character.toLowerCase(c));
+        return accented >= 0 ? UNACCENTED.charAt(accented) - 'a' : OTHER_LETTER;
+    }
+
+    /**
+     * A technique term in folded form (lowercase, unaccented, single spaces).
+     */
+    private record Term(String text, CookingTechnique technique, double weight) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.gastrogeniusai.application.service;
+
+import com.gastrogeniusai.domain.entity.CookingTechnique;
+import com.gastrogeniusai.domain.entity.Recipe;
+import com.gastrogeniusai.infrastructure.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores cooking techniques for recipes written before techniques were
+ * detected at write time. Runs in the background on startup, one transaction
+ * per batch. Recipes whose instructions name no known technique keep an empty
+ * set and are scanned again on the next startup, which costs one pass over
+ * their text.
+ */
+@Component
+public class CookingTechniqueBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(CookingTechniqueBackfill.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    private final RecipeRepository recipeRepository;
+    private final CookingStyleAnalyzer cookingStyleAnalyzer;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public CookingTechniqueBackfill(RecipeRepository recipeRepository,
+            CookingStyleAnalyzer cookingStyleAnalyzer,
+            PlatformTransactionManager transactionManager) {
+        this.recipeRepository = recipeRepository;
+        this.cookingStyleAnalyzer = cookingStyleAnalyzer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Starts the backfill on a background thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        Thread.startVirtualThread(this::backfill);
+    }
+
+    // Private helper methods
+
+    private void backfill() {
+        long lastId = 0;
+        int updated = 0;
+        try {
+            while (true) {
+                long afterId = lastId;
+                Batch batch = transactionTemplate.execute(status -> {
+                    List<Recipe> recipes = recipeRepository.findWithoutCookingTechniques(afterId,
+                            PageRequest.of(0, BATCH_SIZE));
+                    int detected = 0;
+                    for (Recipe recipe : recipes) {
+                        Map<CookingTechnique, Double> techniques = cookingStyleAnalyzer
+                                .extractTechniques(recipe.getInstructions());
+                        if (!techniques.isEmpty()) {
+                            recipe.getCookingTechniques().putAll(techniques);
+                            detected++;
+                        }
+                    }
+                    return new Batch(recipes.isEmpty() ? null : recipes.get(recipes.size() - 1).getId(), detected);
+                });
+                if (batch == null || batch.lastId() == null) {
+                    break;
+                }
+                updated += batch.updated();
+                lastId = batch.lastId();
+            }
+            if (updated > 0) {
+                logger.info("Stored cooking techniques for {} existing recipes", updated);
+            }
+        } catch (RuntimeException e) {
+            // Recipes not reached yet are picked up on the next startup
+            logger.warn("Cooking technique backfill stopped after {} recipes: {}", updated, e.getMessage());
+        }
+    }
+
+    private record Batch(Long lastId, int updated) {
+    }
+}
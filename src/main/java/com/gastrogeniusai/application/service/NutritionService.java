@@ -0,0 +1,221 @@
+package com.gastrogeniusai.application.service;
+
+import com.gastrogeniusai.domain.entity.Ingredient;
+import com.gastrogeniusai.domain.entity.MeasurementUnit;
+import com.gastrogeniusai.domain.entity.Recipe;
+import com.gastrogeniusai.infrastructure.exception.AiCircuitOpenException;
+import com.gastrogeniusai.presentation.dto.NutritionAnalysis;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service for recipe nutritional analysis.
+ * Computes totals in-process from the per-100g values stored on ingredients
+ * and only asks the AI model to estimate the ingredients that lack them.
+ * Every result carries a source section listing which ingredients were
+ * computed and which were estimated. While the AI provider's circuit breaker
+ * is open, results degrade to the stale analysis of an earlier version of the
+ * recipe or to the computable part of the totals.
+ * <p>
+ * Ingredients store no sugar, sodium or qualitative data, so a result with
+ * computed ingredients omits sugar and sodium. Its health score, dietary
+ * tags, allergens, vitamins and minerals and notes come from the AI estimate
+ * of the remaining ingredients when there is one, and describe only those
+ * ingredients; a fully computed result omits them.
+ */
+@Service
+public class NutritionService {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private final AiService aiService;
+
+    @Autowired
+    public NutritionService(AiService aiService) {
+        this.aiService = aiService;
+    }
+
+    /**
+     * Analyzes the nutritional content of a recipe. Fully annotated recipes are
+     * computed locally without any model call; recipes with no annotated
+     * ingredients get the full AI analysis.
+     *
+     * @param recipe the recipe to analyze (ingredients must be initialized)
+     * @return nutritional analysis
+     */
+    public NutritionAnalysis analyzeNutrition(Recipe recipe) {
+        List<Ingredient> computed = new ArrayList<>();
+        List<Ingredient> estimated = new ArrayList<>();
+        List<Ingredient> ignored = new ArrayList<>();
+        Totals totals = new Totals();
+
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            if (isComputable(ingredient)) {
+                totals.add(ingredient);
+                computed.add(ingredient);
+            } else if (ingredient.getUnit() == MeasurementUnit.TO_TASTE) {
+                // Seasoning "to taste" has no measurable quantity and negligible nutrients
+                ignored.add(ingredient);
+            } else {
+                estimated.add(ingredient);
+            }
+        }
+
+        if (computed.isEmpty()) {
+            String method = "estimated";
+            NutritionAnalysis analysis;
+            try {
+                analysis = aiService.analyzeNutrition(recipe);
+            } catch (AiCircuitOpenException e) {
+                analysis = aiService.findStaleNutrition(recipe).orElseThrow(() -> e);
+                method = "stale";
+            }
+            return new NutritionAnalysis(analysis.perServing(), analysis.perRecipe(),
+                    analysis.macronutrientRatios(), analysis.healthScore(), analysis.dietaryTags(),
+                    analysis.allergens(), analysis.vitaminsAndMinerals(), analysis.nutritionNotes(),
+                    source(method, computed, recipe.getIngredients(), List.of(), null));
+        }
+
+        String method = "computed";
+        List<Ingredient> unavailable = null;
+        NutritionAnalysis estimate = null;
+        if (!estimated.isEmpty()) {
+            try {
+                estimate = aiService.analyzeNutrition(partialRecipe(recipe, estimated));
+                totals.add(estimate.perRecipe());
+                method = "mixed";
+            } catch (AiCircuitOpenException e) {
+                // Report what can be computed and name the ingredients left out
+                unavailable = estimated;
+                estimated = List.of();
+                method = "partial";
+            }
+        }
+
+        int servings = recipe.getServings() != null && recipe.getServings() > 0 ? recipe.getServings() : 1;
+
+        return new NutritionAnalysis(
+                totals.divide(servings).toNutrientValues(),
+                totals.toNutrientValues(),
+                totals.macronutrientRatios(),
+                estimate != null ? estimate.healthScore() : null,
+                estimate != null ? estimate.dietaryTags() : null,
+                estimate != null ? estimate.allergens() : null,
+                estimate != null ? estimate.vitaminsAndMinerals() : null,
+                estimate != null ? estimate.nutritionNotes() : null,
+                source(method, computed, estimated, ignored, unavailable));
+    }
+
+    // Private helper methods
+
+    private boolean isComputable(Ingredient ingredient) {
+        return ingredient.getWeightInGrams() != null &&
+                ingredient.getCaloriesPer100g() != null &&
+                ingredient.getProteinPer100g() != null &&
+                ingredient.getCarbsPer100g() != null &&
+                ingredient.getFatPer100g() != null &&
+                ingredient.getFiberPer100g() != null;
+    }
+
+    private Recipe partialRecipe(Recipe recipe, List<Ingredient> ingredients) {
+        // Detached copy without an ID, so the estimate covers just these ingredients and is not stored: it
+        // would have no owner to invalidate it and could be mistaken for a stale analysis of the whole recipe
+        Recipe partial = new Recipe();
+        partial.setTitle(recipe.getTitle());
+        partial.setServings(recipe.getServings());
+        partial.setIngredients(new ArrayList<>(ingredients));
+        return partial;
+    }
+
+    private NutritionAnalysis.Source source(String method, List<Ingredient> computed, List<Ingredient> estimated,
+            List<Ingredient> ignored, List<Ingredient> unavailable) {
+        return new NutritionAnalysis.Source(method, names(computed), names(estimated), names(ignored),
+                unavailable != null ? names(unavailable) : null);
+    }
+
+    private List<String> names(List<Ingredient> ingredients) {
+        return ingredients.stream().map(Ingredient::getName).toList();
+    }
+
+    /**
+     * Running nutrient totals in grams (calories in kcal).
+     */
+    private static final class Totals {
+        private BigDecimal calories = BigDecimal.ZERO;
+        private BigDecimal protein = BigDecimal.ZERO;
+        private BigDecimal carbohydrates = BigDecimal.ZERO;
+        private BigDecimal fat = BigDecimal.ZERO;
+        private BigDecimal fiber = BigDecimal.ZERO;
+
+        void add(Ingredient ingredient) {
+            BigDecimal factor = ingredient.getWeightInGrams().divide(HUNDRED, 6, RoundingMode.HALF_UP);
+            calories = calories.add(ingredient.getCaloriesPer100g().multiply(factor));
+            protein = protein.add(ingredient.getProteinPer100g().multiply(factor));
+            carbohydrates = carbohydrates.add(ingredient.getCarbsPer100g().multiply(factor));
+            fat = fat.add(ingredient.getFatPer100g().multiply(factor));
+            fiber = fiber.add(ingredient.getFiberPer100g().multiply(factor));
+        }
+
+        void add(NutritionAnalysis.NutrientValues estimate) {
+            if (estimate == null) {
+                return;
+            }
+            calories = calories.add(orZero(estimate.calories()));
+            protein = protein.add(orZero(estimate.protein()));
+            carbohydrates = carbohydrates.add(orZero(estimate.carbohydrates()));
+            fat = fat.add(orZero(estimate.fat()));
+            fiber = fiber.add(orZero(estimate.fiber()));
+        }
+
+        Totals divide(int servings) {
+            BigDecimal divisor = BigDecimal.valueOf(servings);
+            Totals result = new Totals();
+            result.calories = calories.divide(divisor, 6, RoundingMode.HALF_UP);
+            result.protein = protein.divide(divisor, 6, RoundingMode.HALF_UP);
+            result.carbohydrates = carbohydrates.divide(divisor, 6, RoundingMode.HALF_UP);
+            result.fat = fat.divide(divisor, 6, RoundingMode.HALF_UP);
+            result.fiber = fiber.divide(divisor, 6, RoundingMode.HALF_UP);
+            return result;
+        }
+
+        NutritionAnalysis.NutrientValues toNutrientValues() {
+            return new NutritionAnalysis.NutrientValues(
+                    calories.setScale(0, RoundingMode.HALF_UP),
+                    protein.setScale(1, RoundingMode.HALF_UP),
+                    carbohydrates.setScale(1, RoundingMode.HALF_UP),
+                    fat.setScale(1, RoundingMode.HALF_UP),
+                    fiber.setScale(1, RoundingMode.HALF_UP),
+                    null,
+                    null);
+        }
+
+        NutritionAnalysis.MacronutrientRatios macronutrientRatios() {
+            // Atwater factors: 4 kcal/g for protein and carbohydrates, 9 kcal/g for fat
+            BigDecimal proteinCalories = protein.multiply(BigDecimal.valueOf(4));
+            BigDecimal carbohydrateCalories = carbohydrates.multiply(BigDecimal.valueOf(4));
+            BigDecimal fatCalories = fat.multiply(BigDecimal.valueOf(9));
+            BigDecimal total = proteinCalories.add(carbohydrateCalories).add(fatCalories);
+
+            return new NutritionAnalysis.MacronutrientRatios(
+                    percentage(proteinCalories, total),
+                    percentage(carbohydrateCalories, total),
+                    percentage(fatCalories, total));
+        }
+
+        private int percentage(BigDecimal part, BigDecimal total) {
+            if (total.signum() == 0) {
+                return 0;
+            }
+            return part.multiply(HUNDRED).divide(total, 0, RoundingMode.HALF_UP).intValue();
+        }
+
+        private BigDecimal orZero(BigDecimal value) {
+            return value != null ? value : BigDecimal.ZERO;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.gastrogeniusai.application.service;
+
+import com.gastrogeniusai.domain.entity.AiGenerationCacheEntry;
+import com.gastrogeniusai.infrastructure.repository.AiGenerationCacheRepository;
+import com.gastrogeniusai.infrastructure.util.HashUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Two-tier cache for AI recipe generation results.
+ * A bounded in-memory LRU tier sits in front of a PostgreSQL-backed tier with
+ * TTL and size-based eviction. Entries are keyed on a canonical form of the
+ * generation request so that equivalent requests share one result.
+ */
+@Service
+public class RecipeGenerationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeGenerationCache.class);
+
+    private static final String METRIC_PREFIX = "ai.generation.cache";
+
+    private final AiGenerationCacheRepository cacheRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final long ttlMinutes;
+    private final int maxPersistentEntries;
+    private final Map<String, MemoryEntry> memoryTier;
+
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+    private final Counter bypasses;
+
+    @Autowired
+    public RecipeGenerationCache(AiGenerationCacheRepository cacheRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${ai.cache.generation.enabled:true}") boolean enabled,
+            @Value("${ai.cache.generation.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${ai.cache.generation.memory-max-entries:500}") int maxMemoryEntries,
+            @Value("${ai.cache.generation.persistent-max-entries:10000}") int maxPersistentEntries) {
+        this.cacheRepository = cacheRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.ttlMinutes = ttlMinutes;
+        this.maxPersistentEntries = maxPersistentEntries;
+        this.memoryTier = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MemoryEntry> eldest) {
+                if (size() > maxMemoryEntries) {
+                    recordEviction("memory", "size", 1);
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.memoryHits = Counter.builder(METRIC_PREFIX + ".requests")
+                .description("Generation cache lookups")
+                .tag("result", "hit").tag("tier", "memory")
+                .register(meterRegistry);
+        this.databaseHits = Counter.builder(METRIC_PREFIX + ".requests")
+                .description("Generation cache lookups")
+                .tag("result", "hit").tag("tier", "database")
+                .register(meterRegistry);
+        this.misses = Counter.builder(METRIC_PREFIX + ".requests")
+                .description("Generation cache lookups")
+                .tag("result", "miss").tag("tier", "none")
+                .register(meterRegistry);
+        this.bypasses = Counter.builder(METRIC_PREFIX + ".bypasses")
+                .description("Generation requests that explicitly skipped the cache")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".memory.size", this, RecipeGenerationCache::memorySize)
+                .description("Entries held in the in-memory generation cache tier")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds the canonical form of a generation request. Ingredients are
+     * lowercased, trimmed, de-duplicated and sorted so that equivalent requests
+     * map to the same cache entry.
+     *
+     * @param ingredients list of ingredient names
+     * @param cuisine     optional cuisine preference
+     * @param difficulty  optional difficulty preference
+     * @return canonical request string
+     */
+    public String canonicalize(List<String> ingredients, String cuisine, String difficulty) {
+        String ingredientPart = ingredients == null ? ""
+                : String.join(",", ingredients.stream()
+                        .filter(Objects::nonNull)
+                        .map(ingredient -> ingredient.trim().toLowerCase(Locale.ROOT))
+                        .filter(ingredient -> !ingredient.isEmpty())
+                        .distinct()
+                        .sorted()
+                        .toList());
+
+        return "ingredients=" + ingredientPart +
+                "|cuisine=" + normalizeOption(cuisine) +
+                "|difficulty=" + normalizeOption(difficulty);
+    }
+
+    /**
+     * Looks up a cached generation result, checking memory first and then the
+     * database tier.
+     *
+     * @param canonicalRequest the canonical request from {@link #canonicalize}
+     * @return the cached recipe JSON, if present and not expired
+     */
+    public Optional<String> get(String canonicalRequest) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        String key = HashUtils.sha256(canonicalRequest);
+
+        MemoryEntry memoryEntry;
+        synchronized (memoryTier) {
+            memoryEntry = memoryTier.get(key);
+            if (memoryEntry != null && memoryEntry.isExpired()) {
+                memoryTier.remove(key);
+                recordEviction("memory", "expired", 1);
+                memoryEntry = null;
+            }
+        }
+        if (memoryEntry != null) {
+            memoryHits.increment();
+            return Optional.of(memoryEntry.json());
+        }
+
+        try {
+            Optional<AiGenerationCacheEntry> persisted = transactionTemplate.execute(status -> {
+                Optional<AiGenerationCacheEntry> entry = cacheRepository.findByCacheKey(key);
+                if (entry.isPresent() && !entry.get().isExpired()) {
+                    cacheRepository.recordHit(entry.get().getId(), LocalDateTime.now());
+                    return entry;
+                }
+                return Optional.<AiGenerationCacheEntry>empty();
+            });
+
+            if (persisted != null && persisted.isPresent()) {
+                AiGenerationCacheEntry entry = persisted.get();
+                putInMemory(key, entry.getResponseJson(), entry.getExpiresAt());
+                databaseHits.increment();
+                return Optional.of(entry.getResponseJson());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Generation cache lookup failed, falling back to AI call: {}", e.getMessage());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Stores a validated generation result in both cache tiers.
+     *
+     * @param canonicalRequest the canonical request from {@link #canonicalize}
+     * @param json             the validated recipe JSON
+     */
+    public void put(String canonicalRequest, String json) {
+        if (!enabled) {
+            return;
+        }
+
+        String key = HashUtils.sha256(canonicalRequest);
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+        putInMemory(key, json, expiresAt);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                AiGenerationCacheEntry entry = cacheRepository.findByCacheKey(key)
+                        .orElseGet(() -> new AiGenerationCacheEntry(key, canonicalRequest, json, expiresAt));
+                entry.setResponseJson(json);
+                entry.setExpiresAt(expiresAt);
+                entry.setLastAccessedAt(LocalDateTime.now());
+                cacheRepository.save(entry);
+            });
+        } catch (RuntimeException e) {
+            // A concurrent writer may have inserted the same key; the memory tier still holds the result
+            logger.warn("Could not persist generation cache entry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records that a request explicitly bypassed the cache.
+     */
+    public void recordBypass() {
+        bypasses.increment();
+    }
+
+    /**
+     * Removes expired entries and trims the database tier to its configured
+     * maximum size, evicting the least recently accessed entries first.
+     */
+    @Scheduled(fixedDelayString = "${ai.cache.generation.eviction-interval-ms:600000}")
+    public void evictExpiredAndOversized() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (memoryTier) {
+            int before = memoryTier.size();
+            memoryTier.values().removeIf(MemoryEntry::isExpired);
+            recordEviction("memory", "expired", before - memoryTier.size());
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int expired = cacheRepository.deleteExpired(LocalDateTime.now());
+                recordEviction("database", "expired", expired);
+
+                long overflow = cacheRepository.count() - maxPersistentEntries;
+                if (overflow > 0) {
+                    List<Long> ids = cacheRepository.findLeastRecentlyAccessedIds(
+                            PageRequest.of(0, (int) Math.min(overflow, Integer.MAX_VALUE)));
+                    cacheRepository.deleteAllByIdInBatch(ids);
+                    recordEviction("database", "size", ids.size());
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Generation cache eviction failed: {}", e.getMessage());
+        }
+    }
+
+    // Private helper methods
+
+    private void putInMemory(String key, String json, LocalDateTime expiresAt) {
+        synchronized (memoryTier) {
+            memoryTier.put(key, new MemoryEntry(json, expiresAt));
+        }
+    }
+
+    private int memorySize() {
+        synchronized (memoryTier) {
+            return memoryTier.size();
+        }
+    }
+
+    private void recordEviction(String tier, String reason, long count) {
+        if (count > 0) {
+            meterRegistry.counter(METRIC_PREFIX + ".evictions", "tier", tier, "reason", reason).increment(count);
+        }
+    }
+
+    private String normalizeOption(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record MemoryEntry(String json, LocalDateTime expiresAt) {
+        boolean isExpired() {
+            return expiresAt.isBefore(LocalDateTime.now());
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.gastrogeniusai.domain.entity.*;
 import com.gastrogeniusai.infrastructure.repository.IngredientRepository;
 import com.gastrogeniusai.infrastructure.repository.RecipeRepository;
 import com.gastrogeniusai.infrastructure.repository.UserRepository;
+import com.gastrogeniusai.infrastructure.search.HnswIndex;
+import com.gastrogeniusai.infrastructure.search.RecipeVectorIndex;
 import com.gastrogeniusai.presentation.dto.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -11,9 +13,16 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -27,14 +36,27 @@ public class RecipeService {
     private final RecipeRepository recipeRepository;
     private final UserRepository userRepository;
     private final IngredientRepository ingredientRepository;
+    private final AiAnalysisStore analysisStore;
+    private final SemanticSearchService semanticSearchService;
+    private final CookingStyleAnalyzer cookingStyleAnalyzer;
+    private final TransactionTemplate readOnlyTransaction;
 
     @Autowired
     public RecipeService(RecipeRepository recipeRepository,
             UserRepository userRepository,
-            IngredientRepository ingredientRepository) {
+            IngredientRepository ingredientRepository,
+            AiAnalysisStore analysisStore,
+            SemanticSearchService semanticSearchService,
+            CookingStyleAnalyzer cookingStyleAnalyzer,
+            PlatformTransactionManager transactionManager) {
         this.recipeRepository = recipeRepository;
         this.userRepository = userRepository;
         this.ingredientRepository = ingredientRepository;
+        this.analysisStore = analysisStore;
+        this.semanticSearchService = semanticSearchService;
+        this.cookingStyleAnalyzer = cookingStyleAnalyzer;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
@@ -50,10 +72,52 @@ public class RecipeService {
 
         Recipe recipe = mapToEntity(recipeRequest, owner);
         Recipe savedRecipe = recipeRepository.save(recipe);
+        semanticSearchService.indexAfterCommit(savedRecipe);
 
         return mapToResponse(savedRecipe);
     }
 
+    /**
+     * Creates a new AI-generated recipe for the specified user.
+     * 
+     * @param recipeRequest the recipe data parsed from the AI response
+     * @param username      the owner's username
+     * @return the created recipe response
+     */
+    public RecipeResponse createAiGeneratedRecipe(RecipeRequest recipeRequest, String username) {
+        User owner = userRepository.findByUsernameOrEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+
+        Recipe recipe = mapToEntity(recipeRequest, owner);
+        recipe.setAiGenerated(true);
+        Recipe savedRecipe = recipeRepository.save(recipe);
+        semanticSearchService.indexAfterCommit(savedRecipe);
+
+        return mapToResponse(savedRecipe);
+    }
+
+    /**
+     * Creates several AI-generated recipes for the specified user in one
+     * transaction, so either all of them are saved or none is.
+     *
+     * @param recipeRequests the recipe data parsed from the AI responses
+     * @param username       the owner's username
+     * @return the created recipe responses, in request order
+     */
+    public List<RecipeResponse> createAiGeneratedRecipes(List<RecipeRequest> recipeRequests, String username) {
+        User owner = userRepository.findByUsernameOrEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+
+        List<Recipe> recipes = recipeRequests.stream()
+                .map(recipeRequest -> mapToEntity(recipeRequest, owner))
+                .toList();
+        recipes.forEach(recipe -> recipe.setAiGenerated(true));
+        List<Recipe> savedRecipes = recipeRepository.saveAll(recipes);
+        savedRecipes.forEach(semanticSearchService::indexAfterCommit);
+
+        return savedRecipes.stream().map(this::mapToResponse).toList();
+    }
+
     /**
      * Updates an existing recipe.
      * 
@@ -64,10 +128,15 @@ public class RecipeService {
      */
     public RecipeResponse updateRecipe(Long recipeId, RecipeRequest recipeRequest, String username) {
         Recipe existingRecipe = getRecipeByIdAndValidateOwnership(recipeId, username);
+        AiAnalysisStore.Fingerprint before = analysisStore.fingerprint(existingRecipe);
 
         updateRecipeEntity(existingRecipe, recipeRequest);
         Recipe updatedRecipe = recipeRepository.save(existingRecipe);
 
+        // Stored AI analyses stay valid unless the fields their prompts read changed
+        analysisStore.invalidateChanged(before, analysisStore.fingerprint(updatedRecipe));
+        semanticSearchService.indexAfterCommit(updatedRecipe);
+
         return mapToResponse(updatedRecipe);
     }
 
@@ -91,6 +160,23 @@ public class RecipeService {
         return mapToResponse(recipe);
     }
 
+    /**
+     * Loads the recipes the user can access, with their ingredients, in a
+     * single query. IDs that do not exist or are not accessible are omitted.
+     * 
+     * @param recipeIds the recipe IDs
+     * @param username  the current user's username (for access control)
+     * @return list of accessible recipes with initialized ingredients
+     */
+    @Transactional(readOnly = true)
+    public List<Recipe> getAccessibleRecipesWithIngredients(Collection<Long> recipeIds, String username) {
+        User user = username == null ? null : userRepository.findByUsernameOrEmail(username).orElse(null);
+
+        return recipeRepository.findAllByIdWithIngredients(recipeIds).stream()
+                .filter(recipe -> recipe.isPublic() || (user != null && recipe.isOwnedBy(user)))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Gets a public recipe by ID (no authentication required).
      * 
@@ -143,6 +229,7 @@ public class RecipeService {
      * @param searchTerm     search term for title/description
      * @param category       recipe category filter
      * @param difficulty     recipe difficulty filter
+     * @param technique      cooking technique filter
      * @param minCookingTime minimum cooking time filter
      * @param maxCookingTime maximum cooking time filter
      * @param publicOnly     whether to search only public recipes
@@ -152,16 +239,65 @@ public class RecipeService {
      */
     @Transactional(readOnly = true)
     public Page<RecipeResponse> searchRecipes(String searchTerm, RecipeCategory category,
-            RecipeDifficulty difficulty, Integer minCookingTime,
+            RecipeDifficulty difficulty, CookingTechnique technique, Integer minCookingTime,
             Integer maxCookingTime, boolean publicOnly,
             String username, Pageable pageable) {
 
         Page<Recipe> recipes = recipeRepository.findWithFilters(
-                searchTerm, category, difficulty, minCookingTime, maxCookingTime, publicOnly, pageable);
+                searchTerm, category, difficulty, technique, minCookingTime, maxCookingTime, publicOnly, pageable);
 
         return recipes.map(this::mapToResponse);
     }
 
+    /**
+     * Searches recipes by meaning rather than keywords, e.g. "something warm
+     * and spicy with chicken". Category, difficulty and visibility filters are
+     * applied inside the vector index; results are re-checked against the
+     * database since the index is updated asynchronously. The query is
+     * embedded outside any transaction, so no database connection is held
+     * during the provider round-trip.
+     * 
+     * @param query      free-text query
+     * @param category   category filter (optional)
+     * @param difficulty difficulty filter (optional)
+     * @param publicOnly whether to search only public recipes
+     * @param username   the current user's username
+     * @param limit      maximum number of results
+     * @return matching recipes, most similar first
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SemanticSearchResult> semanticSearch(String query, RecipeCategory category,
+            RecipeDifficulty difficulty, boolean publicOnly, String username, int limit) {
+        Long userId = userRepository.findByUsernameOrEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username))
+                .getId();
+
+        List<HnswIndex.Match> matches = semanticSearchService.search(query, limit,
+                RecipeVectorIndex.filter(category, difficulty, publicOnly, userId));
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        return readOnlyTransaction.execute(status -> {
+            Map<Long, Recipe> recipes = recipeRepository
+                    .findAllById(matches.stream().map(HnswIndex.Match::key).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+
+            return matches.stream()
+                    .map(match -> {
+                        Recipe recipe = recipes.get(match.key());
+                        boolean visible = recipe != null
+                                && (recipe.isPublic() || (!publicOnly && recipe.isOwnedBy(userId)))
+                                && (category == null || recipe.getCategory() == category)
+                                && (difficulty == null || recipe.getDifficulty() == difficulty);
+                        return visible ? new SemanticSearchResult(mapToResponse(recipe), match.score()) : null;
+                    })
+                    .filter(Objects::nonNull)
+                    .toList();
+        });
+    }
+
     /**
      * Searches recipes by ingredients.
      * 
@@ -256,7 +392,9 @@ public class RecipeService {
      */
     public void deleteRecipe(Long recipeId, String username) {
         Recipe recipe = getRecipeByIdAndValidateOwnership(recipeId, username);
+        analysisStore.invalidateAll(recipeId);
         recipeRepository.delete(recipe);
+        semanticSearchService.removeAfterCommit(recipeId);
     }
 
     /**
@@ -270,6 +408,7 @@ public class RecipeService {
         Recipe recipe = getRecipeByIdAndValidateOwnership(recipeId, username);
         recipe.setPublic(!recipe.isPublic());
         Recipe updatedRecipe = recipeRepository.save(recipe);
+        semanticSearchService.updateVisibilityAfterCommit(updatedRecipe);
         return mapToResponse(updatedRecipe);
     }
 
@@ -331,6 +470,7 @@ public class RecipeService {
         recipe.setSource(request.getSource());
         recipe.setOwner(owner);
         recipe.setTags(request.getTags());
+        applyCookingTechniques(recipe);
 
         // Add ingredients
         if (request.getIngredients() != null) {
@@ -360,6 +500,7 @@ public class RecipeService {
         }
         recipe.setSource(request.getSource());
         recipe.setTags(request.getTags());
+        applyCookingTechniques(recipe);
 
         // Update ingredients
         recipe.getIngredients().clear();
@@ -373,6 +514,12 @@ public class RecipeService {
         }
     }
 
+    private void applyCookingTechniques(Recipe recipe) {
+        // Detected once per write so readers never rescan the instructions
+        recipe.getCookingTechniques().clear();
+        recipe.getCookingTechniques().putAll(cookingStyleAnalyzer.extractTechniques(recipe.getInstructions()));
+    }
+
     private Ingredient mapIngredientToEntity(IngredientRequest request, Recipe recipe) {
         Ingredient ingredient = new Ingredient();
         ingredient.setName(request.getName());
@@ -411,6 +558,7 @@ public class RecipeService {
         response.setCreatedAt(recipe.getCreatedAt());
         response.setUpdatedAt(recipe.getUpdatedAt());
         response.setTags(recipe.getTags());
+        response.setCookingTechniques(cookingStyleAnalyzer.orderByWeight(recipe.getCookingTechniques()));
 
         // Map owner
         if (recipe.getOwner() != null) {
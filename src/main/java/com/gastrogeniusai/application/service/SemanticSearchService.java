@@ -0,0 +1,299 @@
+package com.gastrogeniusai.application.service;
+
+import com.gastrogeniusai.domain.entity.Ingredient;
+import com.gastrogeniusai.domain.entity.Recipe;
+import com.gastrogeniusai.infrastructure.ai.PromptBudgetGovernor;
+import com.gastrogeniusai.infrastructure.exception.AiServiceException;
+import com.gastrogeniusai.infrastructure.repository.RecipeRepository;
+import com.gastrogeniusai.infrastructure.search.HnswIndex;
+import com.gastrogeniusai.infrastructure.search.RecipeVectorIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongPredicate;
+
+/**
+ * Embedding pipeline and query side of semantic recipe search.
+ * Recipe title, description, ingredient names and tags are embedded after
+ * each committed write and upserted into the {@link RecipeVectorIndex};
+ * visibility changes only update the filter attributes. On startup, and then
+ * every {@code ai.search.reconcile-interval-ms}, the index is reconciled with
+ * the database so that recipes written while the index was not running, or
+ * whose embedding failed after their write, are embedded and deleted ones
+ * removed.
+ */
+@Service
+public class SemanticSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticSearchService.class);
+
+    private final EmbeddingModel embeddingModel;
+    private final RecipeVectorIndex vectorIndex;
+    private final RecipeRepository recipeRepository;
+    private final PromptBudgetGovernor promptBudget;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private final boolean enabled;
+    private final int maxDocumentTokens;
+    private final int reconcileBatchSize;
+
+    @Autowired
+    public SemanticSearchService(EmbeddingModel embeddingModel,
+            RecipeVectorIndex vectorIndex,
+            RecipeRepository recipeRepository,
+            PromptBudgetGovernor promptBudget,
+            PlatformTransactionManager transactionManager,
+            @Value("${ai.search.enabled:true}") boolean enabled,
+            @Value("${ai.search.max-document-tokens:1024}") int maxDocumentTokens,
+            @Value("${ai.search.reconcile-batch-size:50}") int reconcileBatchSize) {
+        this.embeddingModel = embeddingModel;
+        this.vectorIndex = vectorIndex;
+        this.recipeRepository = recipeRepository;
+        this.promptBudget = promptBudget;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxDocumentTokens = maxDocumentTokens;
+        this.reconcileBatchSize = reconcileBatchSize;
+    }
+
+    /**
+     * Embeds and indexes a recipe once the current transaction commits.
+     *
+     * @param recipe the created or updated recipe (ingredients and tags must
+     *               be initialized)
+     */
+    public void indexAfterCommit(Recipe recipe) {
+        if (enabled) {
+            Document document = document(recipe);
+            afterCommit(() -> index(List.of(document.withVersion(System.currentTimeMillis()))));
+        }
+    }
+
+    /**
+     * Updates the visibility of an indexed recipe once the current
+     * transaction commits, embedding it if it is not indexed yet.
+     *
+     * @param recipe the recipe whose visibility changed
+     */
+    public void updateVisibilityAfterCommit(Recipe recipe) {
+        if (enabled) {
+            Document document = document(recipe);
+            afterCommit(() -> {
+                Document committed = document.withVersion(System.currentTimeMillis());
+                if (!vectorIndex.updateAttributes(committed.recipeId(), committed.attributes(),
+                        committed.version())) {
+                    index(List.of(committed));
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes a recipe from the index once the current transaction commits.
+     *
+     * @param recipeId the deleted recipe's ID
+     */
+    public void removeAfterCommit(Long recipeId) {
+        if (enabled) {
+            afterCommit(() -> vectorIndex.remove(recipeId));
+        }
+    }
+
+    /**
+     * Finds the indexed recipes most similar to a free-text query.
+     *
+     * @param query  the query, e.g. "something warm and spicy with chicken"
+     * @param limit  maximum number of results
+     * @param filter filter from {@link RecipeVectorIndex#filter}
+     * @return matches, most similar first
+     * @throws AiServiceException if semantic search is disabled or the query
+     *                            cannot be embedded
+     */
+    public List<HnswIndex.Match> search(String query, int limit, LongPredicate filter) {
+        if (!enabled) {
+            throw new AiServiceException("Semantic search is disabled");
+        }
+        float[] vector;
+        try {
+            vector = embeddingModel.embed(query);
+        } catch (RuntimeException e) {
+            throw new AiServiceException("Could not embed search query", e);
+        }
+        return vectorIndex.search(vector, limit, filter);
+    }
+
+    /**
+     * Brings the index in line with the database in the background: embeds
+     * recipes that are missing or changed since they were indexed and removes
+     * recipes that no longer exist.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (enabled) {
+            executor.execute(this::reconcileNow);
+        }
+    }
+
+    /**
+     * Reconciles the index periodically, so a recipe whose embedding or
+     * upsert failed after its write is indexed without waiting for a restart.
+     * Only recipes changed since they were indexed are embedded again.
+     */
+    @Scheduled(initialDelayString = "${ai.search.reconcile-interval-ms:600000}",
+            fixedDelayString = "${ai.search.reconcile-interval-ms:600000}")
+    public void reconcilePeriodically() {
+        reconcile();
+    }
+
+    /**
+     * Stops the embedding executor.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Private helper methods
+
+    private void reconcileNow() {
+        // A slow pass must not overlap the next scheduled one
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        Set<Long> existing = new HashSet<>();
+        long lastId = 0;
+        int embedded = 0;
+        try {
+            while (true) {
+                long afterId = lastId;
+                List<Document> page = readOnlyTransaction.execute(status -> recipeRepository
+                        .findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, reconcileBatchSize))
+                        .stream()
+                        .map(this::document)
+                        .toList());
+                if (page == null || page.isEmpty()) {
+                    break;
+                }
+
+                List<Document> stale = new ArrayList<>();
+                for (Document document : page) {
+                    existing.add(document.recipeId());
+                    if (vectorIndex.version(document.recipeId()) < document.version()) {
+                        stale.add(document);
+                    }
+                }
+                if (!stale.isEmpty()) {
+                    index(stale);
+                    embedded += stale.size();
+                }
+                lastId = page.get(page.size() - 1).recipeId();
+            }
+
+            int removed = 0;
+            for (long recipeId : vectorIndex.recipeIds()) {
+                // Recipes created after the scan started are indexed by their own write
+                if (!existing.contains(recipeId) && vectorIndex.version(recipeId) < startedAt) {
+                    vectorIndex.remove(recipeId);
+                    removed++;
+                }
+            }
+            if (embedded > 0 || removed > 0) {
+                logger.info("Semantic search index reconciled: {} recipes embedded, {} removed", embedded,
+                        removed);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Semantic search index reconciliation stopped after {} recipes: {}", embedded,
+                    e.getMessage());
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    private void index(List<Document> documents) {
+        List<float[]> vectors = embeddingModel.embed(documents.stream().map(Document::text).toList());
+        for (int i = 0; i < documents.size(); i++) {
+            Document document = documents.get(i);
+            vectorIndex.upsert(document.recipeId(), vectors.get(i), document.attributes(), document.version());
+        }
+    }
+
+    private void afterCommit(Runnable task) {
+        Runnable async = () -> executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // Picked up again by the next scheduled reconciliation
+                logger.warn("Semantic search index update failed: {}", e.getMessage());
+            }
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    async.run();
+                }
+            });
+        } else {
+            async.run();
+        }
+    }
+
+    private Document document(Recipe recipe) {
+        StringBuilder text = new StringBuilder(recipe.getTitle());
+        if (recipe.getDescription() != null && !recipe.getDescription().isBlank()) {
+            text.append(". ").append(recipe.getDescription());
+        }
+        if (!recipe.getIngredients().isEmpty()) {
+            text.append("\nIngredients: ").append(String.join(", ",
+                    recipe.getIngredients().stream().map(Ingredient::getName).toList()));
+        }
+        if (recipe.getTags() != null && !recipe.getTags().isEmpty()) {
+            text.append("\nTags: ").append(String.join(", ", recipe.getTags()));
+        }
+
+        LocalDateTime modified = recipe.getUpdatedAt() != null ? recipe.getUpdatedAt() : recipe.getCreatedAt();
+        return new Document(recipe.getId(),
+                promptBudget.truncate(text.toString(), maxDocumentTokens),
+                RecipeVectorIndex.attributes(recipe.getCategory(), recipe.getDifficulty(), recipe.isPublic(),
+                        recipe.getOwner() != null ? recipe.getOwner().getId() : null),
+                modified != null ? modified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0);
+    }
+
+    /**
+     * Text and filter attributes of a recipe captured for embedding. The
+     * version is the recipe's modification time, or the commit time for
+     * live writes.
+     */
+    private record Document(Long recipeId, String text, long attributes, long version) {
+
+        Document withVersion(long newVersion) {
+            return new Document(recipeId, text, attributes, newVersion);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.gastrogeniusai.domain.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Persisted AI analysis result (nutrition or wine pairing).
+ * Entries are content-addressed: the key is a hash of exactly the recipe
+ * fields the corresponding prompt reads, so identical content shares one
+ * result and unrelated edits do not invalidate it.
+ */
+@Entity
+@Table(name = "ai_analyses", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ai_analysis_type_hash", columnNames = { "analysis_type", "content_hash" })
+}, indexes = {
+        @Index(name = "idx_ai_analysis_recipe", columnList = "recipe_id")
+})
+public class AiAnalysisEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "analysis_type", nullable = false, length = 20)
+    private AiAnalysisType analysisType;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "recipe_id")
+    private Long recipeId;
+
+    @Column(name = "result_json", nullable = false, columnDefinition = "TEXT")
+    private String resultJson;
+
+    @Column(name = "hit_count")
+    private long hitCount = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public AiAnalysisEntry() {
+    }
+
+    public AiAnalysisEntry(AiAnalysisType analysisType, String contentHash, Long recipeId, String resultJson) {
+        this.analysisType = analysisType;
+        this.contentHash = contentHash;
+        this.recipeId = recipeId;
+        this.resultJson = resultJson;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public AiAnalysisType getAnalysisType() {
+        return analysisType;
+    }
+
+    public void setAnalysisType(AiAnalysisType analysisType) {
+        this.analysisType = analysisType;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Long getRecipeId() {
+        return recipeId;
+    }
+
+    public void setRecipeId(Long recipeId) {
+        this.recipeId = recipeId;
+    }
+
+    public String getResultJson() {
+        return resultJson;
+    }
+
+    public void setResultJson(String resultJson) {
+        this.resultJson = resultJson;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "AiAnalysisEntry{" +
+                "id=" + id +
+                ", analysisType=" + analysisType +
+                ", contentHash='" + contentHash + '\'' +
+                ", recipeId=" + recipeId +
+                ", hitCount=" + hitCount +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
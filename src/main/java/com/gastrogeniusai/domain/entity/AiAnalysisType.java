@@ -0,0 +1,25 @@
+package com.gastrogeniusai.domain.entity;
+
+/**
+ * Enumeration representing the kinds of AI analyses that can be persisted for
+ * a recipe.
+ */
+public enum AiAnalysisType {
+    NUTRITION("Nutritional Analysis"),
+    PAIRING("Wine Pairing");
+
+    private final String displayName;
+
+    AiAnalysisType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns the user-friendly display name for the analysis type.
+     * 
+     * @return formatted analysis type name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
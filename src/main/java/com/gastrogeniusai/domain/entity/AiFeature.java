@@ -0,0 +1,37 @@
+package com.gastrogeniusai.domain.entity;
+
+/**
+ * Enumeration representing the AI-powered features of the GastroGenius AI
+ * system. Used to partition limits, configuration and metrics per feature.
+ */
+public enum AiFeature {
+    GENERATION("Recipe Generation", "generate"),
+    NUTRITION("Nutritional Analysis", "nutrition"),
+    PAIRING("Wine Pairing", "pairing");
+
+    private final String displayName;
+    private final String metricTag;
+
+    AiFeature(String displayName, String metricTag) {
+        this.displayName = displayName;
+        this.metricTag = metricTag;
+    }
+
+    /**
+     * Returns the user-friendly display name for the feature.
+     * 
+     * @return formatted feature name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Returns the short identifier used as a metric tag and configuration key.
+     * 
+     * @return feature tag
+     */
+    public String getMetricTag() {
+        return metricTag;
+    }
+}
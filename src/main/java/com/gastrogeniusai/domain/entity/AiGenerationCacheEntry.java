@@ -0,0 +1,144 @@
+package com.gastrogeniusai.domain.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Persistent cache entry for AI recipe generation results.
+ * Keyed by a hash of the canonical generation request (normalized
+ * ingredients, cuisine and difficulty).
+ */
+@Entity
+@Table(name = "ai_generation_cache", indexes = {
+        @Index(name = "idx_generation_cache_key", columnList = "cache_key", unique = true),
+        @Index(name = "idx_generation_cache_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_generation_cache_last_accessed", columnList = "last_accessed_at")
+})
+public class AiGenerationCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cache_key", nullable = false, unique = true, length = 64)
+    private String cacheKey;
+
+    @Column(name = "canonical_request", nullable = false, columnDefinition = "TEXT")
+    private String canonicalRequest;
+
+    @Column(name = "response_json", nullable = false, columnDefinition = "TEXT")
+    private String responseJson;
+
+    @Column(name = "hit_count")
+    private long hitCount = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_accessed_at", nullable = false)
+    private LocalDateTime lastAccessedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (lastAccessedAt == null) {
+            lastAccessedAt = createdAt;
+        }
+    }
+
+    // Constructors
+    public AiGenerationCacheEntry() {
+    }
+
+    public AiGenerationCacheEntry(String cacheKey, String canonicalRequest, String responseJson,
+            LocalDateTime expiresAt) {
+        this.cacheKey = cacheKey;
+        this.canonicalRequest = canonicalRequest;
+        this.responseJson = responseJson;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public String getCanonicalRequest() {
+        return canonicalRequest;
+    }
+
+    public void setCanonicalRequest(String canonicalRequest) {
+        this.canonicalRequest = canonicalRequest;
+    }
+
+    public String getResponseJson() {
+        return responseJson;
+    }
+
+    public void setResponseJson(String responseJson) {
+        this.responseJson = responseJson;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    public void setLastAccessedAt(LocalDateTime lastAccessedAt) {
+        this.lastAccessedAt = lastAccessedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // Helper methods
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(LocalDateTime.now());
+    }
+
+    @Override
+    public String toString() {
+        return "AiGenerationCacheEntry{" +
+                "id=" + id +
+                ", cacheKey='" + cacheKey + '\'' +
+                ", hitCount=" + hitCount +
+                ", createdAt=" + createdAt +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
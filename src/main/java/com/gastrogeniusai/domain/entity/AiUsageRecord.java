@@ -0,0 +1,172 @@
+package com.gastrogeniusai.domain.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the AI usage ledger: a model call, or a request answered from
+ * a cache instead, with who made it and what it cost. Rows are inserted in
+ * JDBC batches by the ledger writer rather than through the entity manager;
+ * the entity defines the table and backs the aggregate queries.
+ */
+@Entity
+@Table(name = "ai_usage_records", indexes = {
+        @Index(name = "idx_ai_usage_date_feature", columnList = "usage_date, feature"),
+        @Index(name = "idx_ai_usage_user_date", columnList = "user_id, usage_date")
+})
+public class AiUsageRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AiFeature feature;
+
+    @Column(length = 60)
+    private String model;
+
+    @Column(name = "prompt_tokens", nullable = false)
+    private int promptTokens;
+
+    @Column(name = "completion_tokens", nullable = false)
+    private int completionTokens;
+
+    @Column(name = "estimated_cost", nullable = false)
+    private double estimatedCost;
+
+    @Column(name = "latency_ms", nullable = false)
+    private int latencyMs;
+
+    @Column(name = "cache_hit", nullable = false)
+    private boolean cacheHit;
+
+    @Column(nullable = false, length = 30)
+    private String outcome;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public AiUsageRecord() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public AiFeature getFeature() {
+        return feature;
+    }
+
+    public void setFeature(AiFeature feature) {
+        this.feature = feature;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public int getPromptTokens() {
+        return promptTokens;
+    }
+
+    public void setPromptTokens(int promptTokens) {
+        this.promptTokens = promptTokens;
+    }
+
+    public int getCompletionTokens() {
+        return completionTokens;
+    }
+
+    public void setCompletionTokens(int completionTokens) {
+        this.completionTokens = completionTokens;
+    }
+
+    public double getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    public void setEstimatedCost(double estimatedCost) {
+        this.estimatedCost = estimatedCost;
+    }
+
+    public int getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(int latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    public void setCacheHit(boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    public LocalDate getUsageDate() {
+        return usageDate;
+    }
+
+    public void setUsageDate(LocalDate usageDate) {
+        this.usageDate = usageDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "AiUsageRecord{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", feature=" + feature +
+                ", model='" + model + '\'' +
+                ", promptTokens=" + promptTokens +
+                ", completionTokens=" + completionTokens +
+                ", cacheHit=" + cacheHit +
+                ", outcome='" + outcome + '\'' +
+                '}';
+    }
+}
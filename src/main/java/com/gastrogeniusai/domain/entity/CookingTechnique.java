@@ -0,0 +1,40 @@
+package com.gastrogeniusai.domain.entity;
+
+/**
+ * Enumeration representing the cooking techniques detected in recipe
+ * instructions.
+ * Used to describe how a dish is cooked to the wine pairing prompt and to
+ * filter recipe searches.
+ */
+public enum CookingTechnique {
+    GRILL("grilled"),
+    ROAST("roasted"),
+    BAKE("baked"),
+    FRY("fried"),
+    SAUTE("sautéed"),
+    STEAM("steamed"),
+    BOIL("boiled"),
+    SIMMER("simmered"),
+    POACH("poached"),
+    BRAISE("braised"),
+    STEW("stewed"),
+    SMOKE("smoked"),
+    SOUS_VIDE("sous-vide"),
+    RAW("raw/cured");
+
+    private final String displayName;
+
+    CookingTechnique(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns the user-friendly display name for the technique, phrased as a
+     * description of the dish (e.g. "braised").
+     *
+     * @return formatted technique name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -2,9 +2,13 @@ package com.gastrogeniusai.domain.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.BatchSize;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Recipe entity representing a cooking recipe in the GastroGenius AI system.
@@ -103,6 +107,16 @@ public class Recipe {
     @Column(name = "tag")
     private List<String> tags = new ArrayList<>();
 
+    // Detected from the instructions on every write; loaded eagerly because the
+    // pairing prompt reads it from recipes loaded outside a transaction
+    @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 50)
+    @CollectionTable(name = "recipe_techniques", joinColumns = @JoinColumn(name = "recipe_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "technique", length = 20)
+    @Column(name = "weight", nullable = false)
+    private Map<CookingTechnique, Double> cookingTechniques = new HashMap<>();
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -293,6 +307,14 @@ public class Recipe {
         this.tags = tags;
     }
 
+    public Map<CookingTechnique, Double> getCookingTechniques() {
+        return cookingTechniques;
+    }
+
+    public void setCookingTechniques(Map<CookingTechnique, Double> cookingTechniques) {
+        this.cookingTechniques = cookingTechniques;
+    }
+
     // Helper methods
     public Integer getTotalTimeMinutes() {
         int total = 0;
@@ -0,0 +1,336 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.infrastructure.exception.AiCapacityExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limiter (bulkhead) for AI model calls.
+ * Each feature has its own partition whose limit grows additively while
+ * observed latency stays close to the best recent latency, and shrinks
+ * multiplicatively when latency inflates or calls fail (AIMD with a
+ * Vegas-style latency signal). Callers beyond the limit wait in a bounded
+ * queue; when the queue is full or the wait times out they are rejected
+ * immediately instead of piling onto a saturated provider.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final String PROPERTY_PREFIX = "ai.limiter.";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<AiFeature, Partition> partitions = new EnumMap<>(AiFeature.class);
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = environment.getProperty(PROPERTY_PREFIX + "enabled", Boolean.class, true);
+
+        for (AiFeature feature : AiFeature.values()) {
+            Partition partition = new Partition(feature,
+                    property(environment, feature, "initial-limit", Integer.class, 4),
+                    property(environment, feature, "min-limit", Integer.class, 1),
+                    property(environment, feature, "max-limit", Integer.class, 32),
+                    property(environment, feature, "queue-size", Integer.class, 20),
+                    property(environment, feature, "max-wait-ms", Long.class, 5000L),
+                    property(environment, feature, "latency-tolerance", Double.class, 2.0),
+                    property(environment, feature, "backoff-ratio", Double.class, 0.9),
+                    property(environment, feature, "min-latency-window-ms", Long.class, 60000L));
+            partitions.put(feature, partition);
+
+            String tag = feature.getMetricTag();
+            Gauge.builder("ai.limiter.limit", partition, Partition::currentLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("feature", tag)
+                    .register(meterRegistry);
+            Gauge.builder("ai.limiter.inflight", partition, Partition::currentInFlight)
+                    .description("AI calls currently holding a limiter permit")
+                    .tag("feature", tag)
+                    .register(meterRegistry);
+            Gauge.builder("ai.limiter.queued", partition, Partition::currentWaiting)
+                    .description("AI calls waiting for a limiter permit")
+                    .tag("feature", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Acquires a permit for a model call, waiting in the partition queue if the
+     * limit is reached.
+     *
+     * @param feature the feature issuing the call
+     * @return permit that must be completed exactly once
+     * @throws AiCapacityExceededException if the queue is full or the wait times
+     *                                     out
+     */
+    public Permit acquire(AiFeature feature) {
+        if (!enabled) {
+            return new Permit(null, System.nanoTime());
+        }
+        return partitions.get(feature).acquire();
+    }
+
+    /**
+     * Acquires a permit only if one is free right now, without queueing. Used
+     * for optional extra calls such as hedges, which must never displace or
+     * delay waiting callers.
+     *
+     * @param feature the feature issuing the call
+     * @return a permit, or empty if the partition is at its limit or has
+     *         callers waiting
+     */
+    public Optional<Permit> tryAcquire(AiFeature feature) {
+        if (!enabled) {
+            return Optional.of(new Permit(null, System.nanoTime()));
+        }
+        return partitions.get(feature).tryAcquire();
+    }
+
+    /**
+     * Returns the current limit of a partition.
+     *
+     * @param feature the feature
+     * @return current concurrency limit
+     */
+    public int getLimit(AiFeature feature) {
+        return (int) partitions.get(feature).currentLimit();
+    }
+
+    // Private helper methods
+
+    private <T> T property(Environment environment, AiFeature feature, String name, Class<T> type,
+            T defaultValue) {
+        T shared = environment.getProperty(PROPERTY_PREFIX + name, type, defaultValue);
+        return environment.getProperty(PROPERTY_PREFIX + "partitions." + feature.getMetricTag() + "." + name,
+                type, shared);
+    }
+
+    private void recordRejection(AiFeature feature, String reason) {
+        meterRegistry.counter("ai.limiter.rejected", "feature", feature.getMetricTag(), "reason", reason)
+                .increment();
+    }
+
+    /**
+     * Token representing one admitted call. Completing it returns the slot to
+     * the partition and feeds the call outcome into the limit algorithm.
+     */
+    public final class Permit {
+        private final Partition partition;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Partition partition, long startNanos) {
+            this.partition = partition;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Releases the permit after a successful call.
+         */
+        public void onSuccess() {
+            release(Outcome.SUCCESS);
+        }
+
+        /**
+         * Releases the permit after a failed or throttled call, shrinking the
+         * limit.
+         */
+        public void onDropped() {
+            release(Outcome.DROPPED);
+        }
+
+        /**
+         * Releases the permit without adjusting the limit (e.g. cancelled by the
+         * caller).
+         */
+        public void onIgnore() {
+            release(Outcome.IGNORED);
+        }
+
+        private void release(Outcome outcome) {
+            if (partition != null && released.compareAndSet(false, true)) {
+                partition.release(System.nanoTime() - startNanos, outcome);
+            }
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        DROPPED,
+        IGNORED
+    }
+
+    /**
+     * Limit state and wait queue for one feature.
+     */
+    private final class Partition {
+        private final AiFeature feature;
+        private final int minLimit;
+        private final int maxLimit;
+        private final int queueSize;
+        private final long maxWaitNanos;
+        private final double latencyTolerance;
+        private final double backoffRatio;
+        private final long minLatencyWindowNanos;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition permitAvailable = lock.newCondition();
+
+        private double limit;
+        private int inFlight;
+        private int waiting;
+        private long minLatencyNanos = Long.MAX_VALUE;
+        private long minLatencyWindowStart = System.nanoTime();
+
+        Partition(AiFeature feature, int initialLimit, int minLimit, int maxLimit, int queueSize,
+                long maxWaitMs, double latencyTolerance, double backoffRatio, long minLatencyWindowMs) {
+            this.feature = feature;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.queueSize = queueSize;
+            this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+            this.latencyTolerance = latencyTolerance;
+            this.backoffRatio = backoffRatio;
+            this.minLatencyWindowNanos = TimeUnit.MILLISECONDS.toNanos(minLatencyWindowMs);
+            this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        }
+
+        Permit acquire() {
+            lock.lock();
+            try {
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    return new Permit(this, System.nanoTime());
+                }
+
+                if (waiting >= queueSize) {
+                    recordRejection(feature, "queue_full");
+                    throw new AiCapacityExceededException(
+                            feature.getDisplayName() + " is at capacity, please retry later");
+                }
+
+                waiting++;
+                try {
+                    long remaining = maxWaitNanos;
+                    while (inFlight >= (int) limit) {
+                        if (remaining <= 0) {
+                            recordRejection(feature, "timeout");
+                            throw new AiCapacityExceededException(
+                                    "Timed out waiting for " + feature.getDisplayName() + " capacity");
+                        }
+                        remaining = permitAvailable.awaitNanos(remaining);
+                    }
+                    inFlight++;
+                    return new Permit(this, System.nanoTime());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrupted while waiting for AI capacity");
+                } finally {
+                    waiting--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Optional<Permit> tryAcquire() {
+            lock.lock();
+            try {
+                if (waiting > 0 || inFlight >= (int) limit) {
+                    return Optional.empty();
+                }
+                inFlight++;
+                return Optional.of(new Permit(this, System.nanoTime()));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(long latencyNanos, Outcome outcome) {
+            lock.lock();
+            try {
+                int inFlightAtRelease = inFlight;
+                inFlight--;
+
+                int previousLimit = (int) limit;
+                adjustLimit(latencyNanos, outcome, inFlightAtRelease);
+
+                if ((int) limit > previousLimit) {
+                    permitAvailable.signalAll();
+                } else {
+                    permitAvailable.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void adjustLimit(long latencyNanos, Outcome outcome, int inFlightAtRelease) {
+            if (outcome == Outcome.IGNORED) {
+                return;
+            }
+            if (outcome == Outcome.DROPPED) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                return;
+            }
+
+            // Periodically forget the best latency so the baseline tracks provider changes
+            long now = System.nanoTime();
+            if (now - minLatencyWindowStart > minLatencyWindowNanos) {
+                minLatencyNanos = latencyNanos;
+                minLatencyWindowStart = now;
+            } else {
+                minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+            }
+
+            if (latencyNanos > minLatencyNanos * latencyTolerance) {
+                // Queueing at the provider: back off
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlightAtRelease >= limit / 2) {
+                // Only grow while the current limit is actually being used
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+
+        double currentLimit() {
+            lock.lock();
+            try {
+                return limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int currentInFlight() {
+            lock.lock();
+            try {
+                return inFlight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int currentWaiting() {
+            lock.lock();
+            try {
+                return waiting;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
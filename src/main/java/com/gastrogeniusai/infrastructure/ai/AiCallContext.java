@@ -0,0 +1,56 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.UserRole;
+
+import java.util.Optional;
+
+/**
+ * The user on whose behalf AI model calls are made.
+ * Set for the duration of an AI request by {@link AiQuotaInterceptor} and held
+ * in an inheritable thread local, so model calls on threads started while
+ * handling the request (job, hedge and fan-out threads are created per task)
+ * are attributed to the same user. Callbacks on threads created earlier, such
+ * as reactive stream signals, must capture the caller and pass it explicitly.
+ */
+public final class AiCallContext {
+
+    private static final InheritableThreadLocal<Caller> CURRENT = new InheritableThreadLocal<>();
+
+    private AiCallContext() {
+    }
+
+    /**
+     * Returns the caller bound to the current thread.
+     *
+     * @return the caller, or empty for calls not made on behalf of a user
+     */
+    public static Optional<Caller> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Binds a caller to the current thread and the threads it starts.
+     *
+     * @param caller the caller
+     */
+    public static void set(Caller caller) {
+        CURRENT.set(caller);
+    }
+
+    /**
+     * Unbinds the caller from the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * A user making AI calls.
+     *
+     * @param userId   the user ID
+     * @param username the username
+     * @param role     the user's role, which selects the quota
+     */
+    public record Caller(Long userId, String username, UserRole role) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+
+/**
+ * Receives every finished AI model call recorded by {@link AiCallMetrics},
+ * and every request answered from a cache instead.
+ * Listeners run on the calling thread, so they must return quickly and never
+ * throw.
+ */
+public interface AiCallListener {
+
+    /**
+     * Called once per finished model call.
+     *
+     * @param call the finished call
+     */
+    void onCall(Call call);
+
+    /**
+     * A finished model call.
+     *
+     * @param feature          the feature that made the call
+     * @param model            the model called
+     * @param durationNanos    call duration
+     * @param promptTokens     prompt tokens reported by the model (0 if unknown)
+     * @param completionTokens completion tokens reported by the model (0 if
+     *                         unknown)
+     * @param cost             estimated cost in USD (0 if the model has no
+     *                         configured price)
+     * @param cacheHit         whether the result was reused instead of calling
+     *                         the model; such calls have no model, duration or
+     *                         tokens
+     * @param outcome          "success" or the failure class, e.g. "timeout"
+     * @param caller           the user the call was made for, or null
+     */
+    record Call(AiFeature feature, String model, long durationNanos, long promptTokens, long completionTokens,
+            double cost, boolean cacheHit, String outcome, AiCallContext.Caller caller) {
+
+        public long totalTokens() {
+            return promptTokens + completionTokens;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation for AI model calls.
+ * Records call latency, prompt and completion tokens reported by the model,
+ * estimated cost, JSON validation failures and retries, all tagged by
+ * feature and model. Cost is estimated from the per-model prices configured
+ * under {@code ai.pricing}; models without a price record tokens only.
+ * Every recorded call is also passed to the registered {@link AiCallListener}s.
+ */
+@Component
+public class AiCallMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiCallMetrics.class);
+
+    private static final double TOKENS_PER_MILLION = 1_000_000.0;
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<AiCallListener> listeners;
+    private final String defaultModel;
+    private final Map<String, ModelPrice> pricing;
+
+    @Autowired
+    public AiCallMetrics(MeterRegistry meterRegistry, ObjectProvider<AiCallListener> listeners,
+            Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.listeners = listeners;
+        this.defaultModel = environment.getProperty("spring.ai.vertex.ai.gemini.chat.options.model", "unknown");
+        this.pricing = Binder.get(environment)
+                .bind("ai.pricing", Bindable.mapOf(String.class, ModelPrice.class))
+                .orElse(Map.of());
+    }
+
+    /**
+     * Invokes a blocking model call and records its latency, tokens and cost.
+     *
+     * @param feature    the feature issuing the call
+     * @param prompt     the prompt sent
+     * @param invocation the model call
+     * @return the model response
+     */
+    public ChatResponse call(AiFeature feature, Prompt prompt, Supplier<ChatResponse> invocation) {
+        long start = System.nanoTime();
+        try {
+            ChatResponse response = invocation.get();
+            recordCall(feature, prompt, System.nanoTime() - start,
+                    response != null && response.getMetadata() != null ? response.getMetadata().getUsage() : null,
+                    null);
+            return response;
+        } catch (RuntimeException e) {
+            recordCall(feature, prompt, System.nanoTime() - start, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Records a finished model call made for the caller bound to the current
+     * thread.
+     *
+     * @param feature       the feature issuing the call
+     * @param prompt        the prompt sent
+     * @param durationNanos call duration
+     * @param usage         token usage reported by the model, or null
+     * @param error         the failure, or null if the call succeeded
+     */
+    public void recordCall(AiFeature feature, Prompt prompt, long durationNanos, Usage usage, Throwable error) {
+        recordCall(feature, prompt, durationNanos, usage, error, AiCallContext.current().orElse(null));
+    }
+
+    /**
+     * Records a finished model call, such as a completed or failed stream.
+     *
+     * @param feature       the feature issuing the call
+     * @param prompt        the prompt sent
+     * @param durationNanos call duration
+     * @param usage         token usage reported by the model, or null
+     * @param error         the failure, or null if the call succeeded
+     * @param caller        the user the call was made for, or null
+     */
+    public void recordCall(AiFeature feature, Prompt prompt, long durationNanos, Usage usage, Throwable error,
+            AiCallContext.Caller caller) {
+        String tag = feature.getMetricTag();
+        String model = modelFor(prompt);
+        String outcome = error == null ? "success" : classify(error);
+
+        Timer.builder("ai.model.latency")
+                .description("AI model call latency")
+                .tag("feature", tag)
+                .tag("model", model)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        long promptTokens = 0;
+        long completionTokens = 0;
+        double cost = 0;
+        if (usage != null) {
+            promptTokens = usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
+            completionTokens = usage.getGenerationTokens() != null ? usage.getGenerationTokens() : 0;
+            meterRegistry.counter("ai.model.tokens", "feature", tag, "model", model, "type", "prompt")
+                    .increment(promptTokens);
+            meterRegistry.counter("ai.model.tokens", "feature", tag, "model", model, "type", "completion")
+                    .increment(completionTokens);
+
+            ModelPrice price = pricing.get(model);
+            if (price != null) {
+                cost = price.estimate(promptTokens, completionTokens);
+                meterRegistry.counter("ai.model.cost", "feature", tag, "model", model).increment(cost);
+            }
+        }
+
+        notifyListeners(new AiCallListener.Call(feature, model, durationNanos, promptTokens, completionTokens,
+                cost, false, outcome, caller));
+    }
+
+    /**
+     * Records a request served from a cache or the analysis store instead of
+     * a model call, for the caller bound to the current thread.
+     *
+     * @param feature the feature whose result was reused
+     */
+    public void recordCacheHit(AiFeature feature) {
+        notifyListeners(new AiCallListener.Call(feature, null, 0, 0, 0, 0, true, "success",
+                AiCallContext.current().orElse(null)));
+    }
+
+    /**
+     * Records a model response that could not be validated as the expected
+     * JSON.
+     *
+     * @param feature the feature issuing the call
+     * @param prompt  the prompt sent
+     */
+    public void recordJsonFailure(AiFeature feature, Prompt prompt) {
+        meterRegistry.counter("ai.model.json.failures", "feature", feature.getMetricTag(),
+                "model", modelFor(prompt)).increment();
+    }
+
+    /**
+     * Records the outcome of repairing a response that failed JSON
+     * validation. A repaired or continued response is a request the user did
+     * not have to retry with a full new generation.
+     *
+     * @param feature the feature issuing the call
+     * @param prompt  the prompt sent
+     * @param result  "repaired", "continued" or "failed"
+     */
+    public void recordJsonRepair(AiFeature feature, Prompt prompt, String result) {
+        meterRegistry.counter("ai.model.json.repairs", "feature", feature.getMetricTag(),
+                "model", modelFor(prompt), "result", result).increment();
+        if (!"failed".equals(result)) {
+            meterRegistry.counter("ai.model.retries.avoided", "feature", feature.getMetricTag()).increment();
+        }
+    }
+
+    /**
+     * Records an additional model call made for a request that already had
+     * one (e.g. after an invalid response or a timeout).
+     *
+     * @param feature the feature issuing the call
+     * @param prompt  the prompt sent
+     * @param reason  short reason tag
+     */
+    public void recordRetry(AiFeature feature, Prompt prompt, String reason) {
+        meterRegistry.counter("ai.model.retries", "feature", feature.getMetricTag(),
+                "model", modelFor(prompt), "reason", reason).increment();
+    }
+
+    /**
+     * Records a model call cancelled, or not started, because its request was
+     * abandoned.
+     *
+     * @param feature the feature issuing the call
+     * @param reason  why the request was abandoned
+     */
+    public void recordCancellation(AiFeature feature, RequestDeadline.Reason reason) {
+        meterRegistry.counter("ai.calls.cancelled", "feature", feature.getMetricTag(),
+                "reason", reason.getMetricTag()).increment();
+    }
+
+    /**
+     * Records a result that was not saved because its request was abandoned
+     * before the save.
+     *
+     * @param feature the feature that produced the result
+     */
+    public void recordAbandonedSave(AiFeature feature) {
+        meterRegistry.counter("ai.saves.skipped", "feature", feature.getMetricTag(), "reason", "abandoned")
+                .increment();
+    }
+
+    /**
+     * Returns the model a prompt is sent to: the model set in its options, or
+     * the configured default.
+     *
+     * @param prompt the prompt
+     * @return model name
+     */
+    public String modelFor(Prompt prompt) {
+        if (prompt != null && prompt.getOptions() != null && prompt.getOptions().getModel() != null) {
+            return prompt.getOptions().getModel();
+        }
+        return defaultModel;
+    }
+
+    // Private helper methods
+
+    private void notifyListeners(AiCallListener.Call call) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onCall(call);
+            } catch (RuntimeException e) {
+                logger.warn("AI call listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        });
+    }
+
+    private String classify(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof SocketTimeoutException) {
+                return "timeout";
+            }
+            if (cause instanceof CancellationException || cause instanceof InterruptedException) {
+                return "cancelled";
+            }
+            // Vertex AI surfaces gRPC status codes in exception messages
+            String message = cause.getMessage();
+            if (message != null) {
+                if (message.contains("DEADLINE_EXCEEDED")) {
+                    return "timeout";
+                }
+                if (message.contains("RESOURCE_EXHAUSTED") || message.contains("429")) {
+                    return "rate_limited";
+                }
+                if (message.contains("UNAVAILABLE")) {
+                    return "unavailable";
+                }
+                if (message.contains("CANCELLED")) {
+                    return "cancelled";
+                }
+            }
+        }
+        return "error";
+    }
+
+    /**
+     * Price of a model in USD per million tokens.
+     *
+     * @param inputPerMillion  price of prompt tokens
+     * @param outputPerMillion price of completion tokens
+     */
+    public record ModelPrice(double inputPerMillion, double outputPerMillion) {
+
+        /**
+         * Estimates the cost of one call.
+         *
+         * @param promptTokens     prompt tokens
+         * @param completionTokens completion tokens
+         * @return cost in USD
+         */
+        public double estimate(long promptTokens, long completionTokens) {
+            return (promptTokens * inputPerMillion + completionTokens * outputPerMillion) / TOKENS_PER_MILLION;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.infrastructure.exception.AiCircuitOpenException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker around the AI provider.
+ * While closed, the outcomes of the most recent calls are kept in a sliding
+ * window; the breaker opens when the failure rate or the slow-call rate in
+ * that window crosses its threshold. While open, calls fail fast with
+ * {@link AiCircuitOpenException} so callers can serve degraded answers
+ * instead of waiting on a failing provider. After the open period a few
+ * probe calls are let through (half-open); the breaker closes if they all
+ * succeed and reopens on the first failure.
+ */
+@Component
+public class AiCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiCircuitBreaker.class);
+
+    private static final String PROPERTY_PREFIX = "ai.breaker.";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int bufferedCalls;
+    private int nextSlot;
+    private int failures;
+    private int slows;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private Instant openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    @Autowired
+    public AiCircuitBreaker(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = environment.getProperty(PROPERTY_PREFIX + "enabled", Boolean.class, true);
+        this.windowSize = environment.getProperty(PROPERTY_PREFIX + "window-size", Integer.class, 50);
+        this.minimumCalls = environment.getProperty(PROPERTY_PREFIX + "minimum-calls", Integer.class, 10);
+        this.failureRateThreshold = environment.getProperty(PROPERTY_PREFIX + "failure-rate-threshold",
+                Double.class, 0.5);
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(environment.getProperty(
+                PROPERTY_PREFIX + "slow-call-ms", Long.class, 15000L));
+        this.slowCallRateThreshold = environment.getProperty(PROPERTY_PREFIX + "slow-call-rate-threshold",
+                Double.class, 0.8);
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(environment.getProperty(
+                PROPERTY_PREFIX + "open-duration-ms", Long.class, 30000L));
+        this.halfOpenProbes = environment.getProperty(PROPERTY_PREFIX + "half-open-probes", Integer.class, 3);
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+
+        Gauge.builder("ai.breaker.state", this, breaker -> breaker.getState().ordinal())
+                .description("AI circuit breaker state (0 closed, 1 half-open, 2 open)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Asks permission for a model call.
+     *
+     * @return permission that must be completed exactly once
+     * @throws AiCircuitOpenException if the breaker is open, or half-open with
+     *                                all probes in flight
+     */
+    public Permission acquirePermission() {
+        if (!enabled) {
+            return new Permission(false);
+        }
+
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+                transitionTo(State.HALF_OPEN);
+                probesInFlight = 0;
+                probeSuccesses = 0;
+            }
+
+            switch (state) {
+                case CLOSED -> {
+                    return new Permission(false);
+                }
+                case HALF_OPEN -> {
+                    if (probesInFlight < halfOpenProbes) {
+                        probesInFlight++;
+                        return new Permission(true);
+                    }
+                }
+                case OPEN -> {
+                    // Rejected below
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        meterRegistry.counter("ai.breaker.rejected").increment();
+        throw new AiCircuitOpenException("AI provider circuit breaker is open");
+    }
+
+    /**
+     * Returns the current state. An open breaker whose open period has elapsed
+     * is reported as half-open.
+     *
+     * @return breaker state
+     */
+    public State getState() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+                return State.HALF_OPEN;
+            }
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the breaker state together with the rates it is based on.
+     *
+     * @return breaker snapshot
+     */
+    public Snapshot getSnapshot() {
+        State current = getState();
+        lock.lock();
+        try {
+            return new Snapshot(current,
+                    bufferedCalls == 0 ? 0 : (double) failures / bufferedCalls,
+                    bufferedCalls == 0 ? 0 : (double) slows / bufferedCalls,
+                    bufferedCalls,
+                    current == State.CLOSED ? null : openedAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Private helper methods
+
+    private void record(Permission permission, boolean failed, long durationNanos) {
+        boolean slow = durationNanos >= slowCallNanos;
+        lock.lock();
+        try {
+            if (permission.probe) {
+                probesInFlight--;
+                if (state != State.HALF_OPEN) {
+                    return;
+                }
+                if (failed || slow) {
+                    open();
+                } else if (++probeSuccesses >= halfOpenProbes) {
+                    resetWindow();
+                    transitionTo(State.CLOSED);
+                }
+                return;
+            }
+
+            // Calls admitted before the breaker opened do not count towards recovery
+            if (state != State.CLOSED) {
+                return;
+            }
+
+            if (bufferedCalls == windowSize) {
+                failures -= failedCalls[nextSlot] ? 1 : 0;
+                slows -= slowCalls[nextSlot] ? 1 : 0;
+            } else {
+                bufferedCalls++;
+            }
+            failedCalls[nextSlot] = failed;
+            slowCalls[nextSlot] = slow;
+            failures += failed ? 1 : 0;
+            slows += slow ? 1 : 0;
+            nextSlot = (nextSlot + 1) % windowSize;
+
+            if (bufferedCalls >= minimumCalls
+                    && ((double) failures / bufferedCalls >= failureRateThreshold
+                            || (double) slows / bufferedCalls >= slowCallRateThreshold)) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseProbe(Permission permission) {
+        if (!permission.probe) {
+            return;
+        }
+        lock.lock();
+        try {
+            probesInFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        openedAtNanos = System.nanoTime();
+        openedAt = Instant.now();
+        resetWindow();
+        transitionTo(State.OPEN);
+    }
+
+    private void resetWindow() {
+        bufferedCalls = 0;
+        nextSlot = 0;
+        failures = 0;
+        slows = 0;
+    }
+
+    private void transitionTo(State next) {
+        if (state != next) {
+            logger.warn("AI circuit breaker {} -> {}", state, next);
+            state = next;
+            meterRegistry.counter("ai.breaker.transitions", "to", next.name().toLowerCase()).increment();
+        }
+    }
+
+    /**
+     * Circuit breaker states.
+     */
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    /**
+     * Breaker state with the current window statistics.
+     *
+     * @param state        current state
+     * @param failureRate  share of failed calls in the window
+     * @param slowCallRate share of slow calls in the window
+     * @param bufferedCalls calls currently in the window
+     * @param openedAt     when the breaker last opened, or null while closed
+     */
+    public record Snapshot(State state, double failureRate, double slowCallRate, int bufferedCalls,
+            Instant openedAt) {
+    }
+
+    /**
+     * Permission for one model call. Completing it reports the call outcome
+     * to the breaker.
+     */
+    public final class Permission {
+        private final boolean probe;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permission(boolean probe) {
+            this.probe = probe;
+        }
+
+        /**
+         * Reports a successful call.
+         *
+         * @param durationNanos call duration
+         */
+        public void onSuccess(long durationNanos) {
+            if (enabled && completed.compareAndSet(false, true)) {
+                record(this, false, durationNanos);
+            }
+        }
+
+        /**
+         * Reports a failed call.
+         *
+         * @param durationNanos call duration
+         */
+        public void onError(long durationNanos) {
+            if (enabled && completed.compareAndSet(false, true)) {
+                record(this, true, durationNanos);
+            }
+        }
+
+        /**
+         * Releases the permission without recording an outcome (e.g. the call
+         * was rejected locally or cancelled by the caller).
+         */
+        public void onIgnore() {
+            if (enabled && completed.compareAndSet(false, true)) {
+                releaseProbe(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Gives every AI request a {@link RequestDeadline}.
+ * The time budget is the endpoint's default under
+ * {@code ai.deadlines.endpoints} (keyed by the mapped path pattern) or
+ * {@code ai.deadlines.default-ms}, shortened to the client's
+ * {@value RequestDeadline#HEADER} header when that is lower. For endpoints
+ * that complete asynchronously, an async timeout abandons the request as past
+ * its deadline and a container-reported error (such as the client
+ * disconnecting) abandons it as disconnected, which cancels its model calls.
+ */
+@Component
+public class AiDeadlineInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PROPERTY_PREFIX = "ai.deadlines.";
+
+    private final long defaultBudgetMs;
+    private final Map<String, Long> endpointBudgetsMs;
+
+    @Autowired
+    public AiDeadlineInterceptor(Environment environment) {
+        this.defaultBudgetMs = environment.getProperty(PROPERTY_PREFIX + "default-ms", Long.class, 30000L);
+        this.endpointBudgetsMs = Binder.get(environment)
+                .bind(PROPERTY_PREFIX + "endpoints", Bindable.mapOf(String.class, Long.class))
+                .orElse(Map.of());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // Dispatch of an async result; the deadline was set on the original dispatch
+            return true;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        long budgetMs = endpointBudgetsMs.getOrDefault(String.valueOf(pattern), defaultBudgetMs);
+        String header = request.getHeader(RequestDeadline.HEADER);
+        if (header != null) {
+            budgetMs = Math.min(budgetMs, parseBudget(header));
+        }
+
+        RequestDeadline deadline = new RequestDeadline(budgetMs);
+        request.setAttribute(RequestDeadline.ATTRIBUTE, deadline);
+        RequestDeadline.set(deadline);
+
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(RequestDeadline.ATTRIBUTE,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> Object handleTimeout(NativeWebRequest webRequest, Callable<T> task) {
+                        deadline.abandon(RequestDeadline.Reason.DEADLINE);
+                        return RESULT_NONE;
+                    }
+
+                    @Override
+                    public <T> Object handleError(NativeWebRequest webRequest, Callable<T> task, Throwable t) {
+                        deadline.abandon(RequestDeadline.Reason.DISCONNECT);
+                        return RESULT_NONE;
+                    }
+                });
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        RequestDeadline.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        RequestDeadline.clear();
+    }
+
+    // Private helper methods
+
+    private long parseBudget(String header) {
+        try {
+            long budgetMs = Long.parseLong(header.trim());
+            if (budgetMs > 0) {
+                return budgetMs;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(RequestDeadline.HEADER + " must be a positive number of milliseconds");
+    }
+}
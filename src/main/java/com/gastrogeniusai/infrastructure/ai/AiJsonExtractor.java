@@ -0,0 +1,287 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Extracts the first complete top-level JSON object from model output.
+ * Uses Jackson's streaming parser starting at the first opening brace, so
+ * surrounding prose or code fences are skipped, and validation and binding
+ * to the target type happen in the same single pass over the text.
+ * <p>
+ * Enum values that are near misses of a constant, such as "grams", "Main
+ * Course" or "tbsp", are coerced instead of failing the whole response; see
+ * {@link #registerEnumLookup}.
+ */
+@Component
+public class AiJsonExtractor {
+
+    private static final int MIN_ENUM_PREFIX_LENGTH = 3;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Function<String, ? extends Enum<?>>> enumLookups = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AiJsonExtractor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .addHandler(new EnumCoercion());
+    }
+
+    /**
+     * Registers a lookup tried for enum values that match no constant, before
+     * the generic coercions: normalizing case and separators, singular and
+     * plural forms, a unique prefix of at least three characters and, for
+     * enums with an OTHER constant, OTHER.
+     *
+     * @param type   the enum type
+     * @param lookup returns the constant for a value, or null, e.g. a lookup
+     *               by display name
+     * @param <E>    the enum type
+     */
+    public <E extends Enum<E>> void registerEnumLookup(Class<E> type, Function<String, E> lookup) {
+        enumLookups.put(type, lookup);
+    }
+
+    /**
+     * Locates the first complete JSON object in the text and binds it to the
+     * given type.
+     *
+     * @param text the raw model output
+     * @param type the target type
+     * @param <T>  the target type
+     * @return the JSON object text and its bound value
+     * @throws IllegalStateException if no valid JSON object can be bound
+     */
+    public <T> Extraction<T> extract(String text, Class<T> type) {
+        return parse(text, parser -> objectMapper.readValue(parser, type));
+    }
+
+    /**
+     * Locates the first complete JSON object in the text, renames short key
+     * aliases to their full keys at every nesting level and binds the result
+     * to the given type. Used for responses in a compact wire schema.
+     *
+     * @param text          the raw model output
+     * @param type          the target type
+     * @param keyExpansions mapping from short key aliases to full keys
+     * @param <T>           the target type
+     * @return the expanded JSON object text and its bound value
+     * @throws IllegalStateException if no valid JSON object can be bound
+     */
+    public <T> Extraction<T> extract(String text, Class<T> type, Map<String, String> keyExpansions) {
+        if (keyExpansions.isEmpty()) {
+            return extract(text, type);
+        }
+
+        Extraction<JsonNode> tree = parse(text, parser -> objectMapper.readTree(parser));
+        JsonNode expanded = expandKeys(tree.value(), keyExpansions);
+        try {
+            return new Extraction<>(objectMapper.writeValueAsString(expanded),
+                    objectMapper.treeToValue(expanded, type));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("AI generated invalid JSON response: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Locates and validates the first complete JSON object in the text
+     * without binding it.
+     *
+     * @param text the raw model output
+     * @return the JSON object text
+     * @throws IllegalStateException if no valid JSON object is found
+     */
+    public String extractJson(String text) {
+        return parse(text, parser -> {
+            parser.nextToken();
+            parser.skipChildren();
+            return null;
+        }).json();
+    }
+
+    /**
+     * Binds already extracted JSON (e.g. from a cache) to the given type.
+     *
+     * @param json the JSON object text
+     * @param type the target type
+     * @param <T>  the target type
+     * @return the bound value
+     * @throws IllegalStateException if the JSON cannot be bound
+     */
+    public <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse AI-generated JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    // Private helper methods
+
+    private <T> Extraction<T> parse(String text, ParserReader<T> reader) {
+        if (text == null || text.isEmpty()) {
+            throw new IllegalStateException("AI generated invalid JSON response: empty response");
+        }
+
+        char[] chars = text.toCharArray();
+        String failure = "no JSON object found";
+        int start = text.indexOf('{');
+
+        while (start >= 0) {
+            long consumed = 1;
+            try (JsonParser parser = objectMapper.getFactory().createParser(chars, start, chars.length - start)) {
+                T value = reader.read(parser);
+                // Data binding consumes (clears) the closing token, so check the cleared one too
+                JsonToken last = parser.currentToken() != null ? parser.currentToken() : parser.getLastClearedToken();
+                if (last != JsonToken.END_OBJECT) {
+                    throw new IllegalStateException("AI generated invalid JSON response: incomplete JSON object");
+                }
+                int end = start + (int) parser.currentLocation().getCharOffset();
+                return new Extraction<>(text.substring(start, end), value);
+            } catch (JsonProcessingException e) {
+                failure = e.getOriginalMessage();
+                if (e.getLocation() != null && e.getLocation().getCharOffset() > 0) {
+                    consumed = e.getLocation().getCharOffset();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            // Prose braces fail immediately; resume after the failure point so that nested
+            // objects of a malformed response are not mistaken for the result
+            start = text.indexOf('{', (int) Math.min(chars.length, start + consumed));
+        }
+
+        throw new IllegalStateException("AI generated invalid JSON response: " + failure);
+    }
+
+    private Enum<?> coerceEnum(Class<?> type, String value) {
+        Function<String, ? extends Enum<?>> lookup = enumLookups.get(type);
+        Enum<?> match = lookup != null ? lookup.apply(value) : null;
+        if (match != null) {
+            return match;
+        }
+
+        Enum<?>[] constants = (Enum<?>[]) type.getEnumConstants();
+        String normalized = value.trim().toUpperCase(Locale.ROOT)
+                .replaceAll("[^A-Z0-9]+", "_")
+                .replaceAll("^_|_$", "");
+        List<String> candidates = new ArrayList<>(List.of(normalized, normalized + "S"));
+        if (normalized.endsWith("ES")) {
+            candidates.add(normalized.substring(0, normalized.length() - 2));
+        }
+        if (normalized.endsWith("S")) {
+            candidates.add(normalized.substring(0, normalized.length() - 1));
+        }
+        for (String candidate : candidates) {
+            for (Enum<?> constant : constants) {
+                if (constant.name().equals(candidate)) {
+                    return constant;
+                }
+            }
+        }
+
+        if (normalized.length() >= MIN_ENUM_PREFIX_LENGTH) {
+            List<Enum<?>> prefixed = new ArrayList<>();
+            for (Enum<?> constant : constants) {
+                if (constant.name().startsWith(normalized)) {
+                    prefixed.add(constant);
+                }
+            }
+            if (prefixed.size() == 1) {
+                return prefixed.get(0);
+            }
+        }
+
+        for (Enum<?> constant : constants) {
+            if (constant.name().equals("OTHER")) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    private JsonNode expandKeys(JsonNode node, Map<String, String> keyExpansions) {
+        if (node.isObject()) {
+            ObjectNode expanded = objectMapper.createObjectNode();
+            node.fields().forEachRemaining(field -> expanded.set(
+                    keyExpansions.getOrDefault(field.getKey(), field.getKey()),
+                    expandKeys(field.getValue(), keyExpansions)));
+            return expanded;
+        }
+        if (node.isArray()) {
+            ArrayNode expanded = objectMapper.createArrayNode();
+            node.forEach(element -> expanded.add(expandKeys(element, keyExpansions)));
+            return expanded;
+        }
+        return node;
+    }
+
+    /**
+     * Coerces enum values that match no constant, counting each coercion.
+     */
+    private final class EnumCoercion extends DeserializationProblemHandler {
+
+        @Override
+        public Object handleWeirdStringValue(DeserializationContext context, Class<?> targetType, String value,
+                String failureMessage) {
+            if (!targetType.isEnum() || value == null) {
+                return NOT_HANDLED;
+            }
+            Enum<?> coerced = coerceEnum(targetType, value);
+            if (coerced == null) {
+                return NOT_HANDLED;
+            }
+            meterRegistry.counter("ai.model.json.coercions", "enum", targetType.getSimpleName()).increment();
+            return coerced;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ParserReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * A JSON object located in model output together with its bound value.
+     *
+     * @param json    the exact JSON object text
+     * @param value   the bound value, or null when only validated
+     * @param partial whether the object was repaired from a truncated
+     *                response and lost its incomplete tail
+     * @param <T>     the bound type
+     */
+    public record Extraction<T>(String json, T value, boolean partial) {
+
+        public Extraction(String json, T value) {
+            this(json, value, false);
+        }
+
+        public Extraction<T> asPartial() {
+            return new Extraction<>(json, value, true);
+        }
+    }
+}
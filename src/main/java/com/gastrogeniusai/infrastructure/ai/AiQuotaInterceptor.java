@@ -0,0 +1,89 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.User;
+import com.gastrogeniusai.infrastructure.exception.AiQuotaExceededException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Applies {@link AiRateLimiter} quotas to AI endpoints.
+ * Admits or rejects each authenticated request, reports the user's remaining
+ * quota in {@code RateLimit-*} response headers and binds the user to
+ * {@link AiCallContext} so the tokens of the request's model calls are
+ * charged to them. Polling the status of AI jobs is free.
+ */
+@Component
+public class AiQuotaInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String JOBS_PATH = "/ai/jobs/";
+
+    private final AiRateLimiter rateLimiter;
+
+    @Autowired
+    public AiQuotaInterceptor(AiRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // Dispatch of an async result; the request was admitted on its original dispatch
+            return true;
+        }
+        if (HttpMethod.GET.matches(request.getMethod()) && request.getServletPath().startsWith(JOBS_PATH)) {
+            return true;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            // Anonymous requests are rejected by security, not by quota
+            return true;
+        }
+
+        AiCallContext.Caller caller = new AiCallContext.Caller(user.getId(), user.getUsername(), user.getRole());
+        AiRateLimiter.Decision decision = rateLimiter.tryAcquire(caller);
+        writeHeaders(response, decision);
+        if (!decision.allowed()) {
+            throw new AiQuotaExceededException("AI " + decision.limitedBy().replace('_', ' ')
+                    + " quota exhausted for role " + user.getRole(), decision.retryAfterSeconds());
+        }
+        AiCallContext.set(caller);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        AiCallContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        AiCallContext.clear();
+    }
+
+    // Private helper methods
+
+    private void writeHeaders(HttpServletResponse response, AiRateLimiter.Decision decision) {
+        if (decision.requestLimit() >= 0) {
+            response.setHeader("RateLimit-Limit", String.valueOf(decision.requestLimit()));
+            response.setHeader("RateLimit-Remaining", String.valueOf(decision.requestsRemaining()));
+            response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+        }
+        if (decision.tokenLimit() >= 0) {
+            response.setHeader("X-RateLimit-Tokens-Limit", String.valueOf(decision.tokenLimit()));
+            response.setHeader("X-RateLimit-Tokens-Remaining", String.valueOf(decision.tokensRemaining()));
+        }
+        if (!decision.allowed()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.UserRole;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user and per-role quotas for AI endpoints.
+ * Each user gets two {@link TokenBucket}s sized by their role under
+ * {@code ai.quota.roles}: one counting requests, one counting model tokens.
+ * A role can also set shared buckets that cap all of its users together.
+ * Requests are admitted only while every applicable bucket has capacity;
+ * model tokens are unknown until a call returns, so they are charged
+ * afterwards (through {@link AiCallListener}) and a bucket left in debt
+ * blocks the user's next requests until it refills. Roles without a quota
+ * are unlimited.
+ * <p>
+ * Buckets are single compare-and-set timestamps and usage counters are
+ * {@link LongAdder}s, so admission never takes a lock; the only shared writes
+ * are to the role's shared buckets.
+ */
+@Component
+public class AiRateLimiter implements AiCallListener {
+
+    private static final String PROPERTY_PREFIX = "ai.quota.";
+    private static final Duration REQUEST_PERIOD = Duration.ofMinutes(1);
+    private static final Duration TOKEN_PERIOD = Duration.ofHours(1);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long idleEvictionNanos;
+    private final Map<UserRole, RoleQuota> quotas = new EnumMap<>(UserRole.class);
+    private final Map<UserRole, RoleState> roles = new EnumMap<>(UserRole.class);
+    private final ConcurrentHashMap<String, UserState> users = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AiRateLimiter(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = environment.getProperty(PROPERTY_PREFIX + "enabled", Boolean.class, true);
+        this.idleEvictionNanos = TimeUnit.MILLISECONDS.toNanos(environment.getProperty(
+                PROPERTY_PREFIX + "idle-eviction-ms", Long.class, 3_600_000L));
+        this.quotas.putAll(Binder.get(environment)
+                .bind(PROPERTY_PREFIX + "roles", Bindable.mapOf(UserRole.class, RoleQuota.class))
+                .orElse(Map.of()));
+
+        long now = System.nanoTime();
+        for (UserRole role : UserRole.values()) {
+            RoleQuota quota = quotas.get(role);
+            roles.put(role, new RoleState(
+                    quota != null ? bucket(quota.sharedRequestsPerMinute(), quota.sharedRequestsPerMinute(),
+                            REQUEST_PERIOD, now) : null,
+                    quota != null ? bucket(quota.sharedTokensPerHour(), quota.sharedTokensPerHour(),
+                            TOKEN_PERIOD, now) : null));
+        }
+
+        Gauge.builder("ai.quota.users", users, Map::size)
+                .description("Users with tracked AI quota state")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits or rejects an AI request.
+     *
+     * @param caller the requesting user
+     * @return the decision with the user's remaining quota
+     */
+    public Decision tryAcquire(AiCallContext.Caller caller) {
+        long now = System.nanoTime();
+        UserState user = userState(caller, now);
+        user.lastSeenMillis = System.currentTimeMillis();
+        RoleState role = roles.get(caller.role());
+
+        if (enabled) {
+            // Tokens are charged after each call, so admission only needs the buckets out of debt
+            if (user.tokens != null && user.tokens.available(now) == 0) {
+                return reject(caller, user, "tokens", user.tokens.nanosUntilAvailable(1, now), now);
+            }
+            if (role.tokens() != null && role.tokens().available(now) == 0) {
+                return reject(caller, user, "shared_tokens", role.tokens().nanosUntilAvailable(1, now), now);
+            }
+            if (user.requests != null && !user.requests.tryConsume(1, now)) {
+                return reject(caller, user, "requests", user.requests.nanosUntilAvailable(1, now), now);
+            }
+            if (role.requests() != null && !role.requests().tryConsume(1, now)) {
+                if (user.requests != null) {
+                    user.requests.refund(1);
+                }
+                return reject(caller, user, "shared_requests", role.requests().nanosUntilAvailable(1, now), now);
+            }
+        }
+
+        user.requestCount.increment();
+        role.requestCount().increment();
+        return decision(true, null, user, 0, now);
+    }
+
+    /**
+     * Charges the tokens of a finished model call to its caller.
+     *
+     * @param call the finished call
+     */
+    @Override
+    public void onCall(Call call) {
+        if (call.caller() == null || call.totalTokens() == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        UserState user = userState(call.caller(), now);
+        RoleState role = roles.get(call.caller().role());
+        user.tokenCount.add(call.totalTokens());
+        role.tokenCount().add(call.totalTokens());
+        if (enabled) {
+            if (user.tokens != null) {
+                user.tokens.consume(call.totalTokens(), now);
+            }
+            if (role.tokens() != null) {
+                role.tokens().consume(call.totalTokens(), now);
+            }
+        }
+    }
+
+    /**
+     * Returns the consumption of recently active users, heaviest token users
+     * first.
+     *
+     * @param limit maximum number of users
+     * @return user consumption since each user's state was created
+     */
+    public List<UserUsage> getUserUsage(int limit) {
+        long now = System.nanoTime();
+        return users.entrySet().stream()
+                .map(entry -> entry.getValue().usage(entry.getKey(), now))
+                .sorted(Comparator.comparingLong(UserUsage::tokens).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Returns per-role consumption and shared bucket levels.
+     *
+     * @return usage of each role
+     */
+    public Map<UserRole, RoleUsage> getRoleUsage() {
+        long now = System.nanoTime();
+        Map<UserRole, RoleUsage> usage = new EnumMap<>(UserRole.class);
+        roles.forEach((role, state) -> usage.put(role, new RoleUsage(quotas.get(role),
+                state.requestCount().sum(), state.rejectedCount().sum(), state.tokenCount().sum(),
+                state.requests() != null ? state.requests().available(now) : null,
+                state.tokens() != null ? state.tokens().available(now) : null)));
+        return usage;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Drops the state of users idle for longer than
+     * {@code ai.quota.idle-eviction-ms} whose buckets have refilled; a full
+     * bucket behaves exactly like a new one.
+     */
+    @Scheduled(fixedDelayString = "${ai.quota.eviction-interval-ms:300000}")
+    public void evictIdleUsers() {
+        long now = System.nanoTime();
+        long idleSince = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(idleEvictionNanos);
+        users.values().removeIf(user -> user.lastSeenMillis < idleSince && user.isFull(now));
+    }
+
+    // Private helper methods
+
+    private UserState userState(AiCallContext.Caller caller, long now) {
+        UserState user = users.get(caller.username());
+        if (user != null && user.role == caller.role()) {
+            return user;
+        }
+        // New user, or the user's role changed since their state was created
+        return users.compute(caller.username(), (username, existing) ->
+                existing != null && existing.role == caller.role() ? existing
+                        : new UserState(caller.role(), quotas.get(caller.role()), now));
+    }
+
+    private Decision reject(AiCallContext.Caller caller, UserState user, String limitedBy, long waitNanos,
+            long now) {
+        user.rejectedCount.increment();
+        roles.get(caller.role()).rejectedCount().increment();
+        meterRegistry.counter("ai.quota.rejected", "role", caller.role().name().toLowerCase(),
+                "limit", limitedBy).increment();
+        return decision(false, limitedBy, user, waitNanos, now);
+    }
+
+    private Decision decision(boolean allowed, String limitedBy, UserState user, long waitNanos, long now) {
+        return new Decision(allowed, limitedBy,
+                user.requests != null ? user.requests.getCapacity() : -1,
+                user.requests != null ? user.requests.available(now) : -1,
+                user.requests != null ? seconds(user.requests.nanosUntilFull(now)) : 0,
+                user.tokens != null ? user.tokens.getCapacity() : -1,
+                user.tokens != null ? user.tokens.available(now) : -1,
+                seconds(waitNanos));
+    }
+
+    private static TokenBucket bucket(long capacity, long refillTokens, Duration period, long now) {
+        if (refillTokens <= 0) {
+            return null;
+        }
+        return new TokenBucket(capacity > 0 ? capacity : refillTokens, refillTokens, period, now);
+    }
+
+    private static long seconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Quota of one role. Zero rates are unlimited; a zero burst defaults to the
+     * rate.
+     *
+     * @param requestsPerMinute       requests each user may make per minute
+     * @param requestBurst            requests each user may make at once
+     * @param tokensPerHour           model tokens each user may use per hour
+     * @param tokenBurst              model tokens each user may use at once
+     * @param sharedRequestsPerMinute requests all users of the role may make
+     *                                per minute together
+     * @param sharedTokensPerHour     model tokens all users of the role may use
+     *                                per hour together
+     */
+    public record RoleQuota(long requestsPerMinute, long requestBurst, long tokensPerHour, long tokenBurst,
+            long sharedRequestsPerMinute, long sharedTokensPerHour) {
+    }
+
+    /**
+     * Outcome of an admission check. Limits and remaining counts are -1 when
+     * the user's role has no such limit.
+     *
+     * @param allowed           whether the request may proceed
+     * @param limitedBy         the exhausted limit, or null when allowed
+     * @param requestLimit      the user's request burst
+     * @param requestsRemaining requests the user may still make now
+     * @param resetSeconds      seconds until the request bucket is full again
+     * @param tokenLimit        the user's token burst
+     * @param tokensRemaining   tokens the user may still use now
+     * @param retryAfterSeconds seconds until a rejected request may be retried
+     */
+    public record Decision(boolean allowed, String limitedBy, long requestLimit, long requestsRemaining,
+            long resetSeconds, long tokenLimit, long tokensRemaining, long retryAfterSeconds) {
+    }
+
+    /**
+     * Consumption of one user.
+     *
+     * @param username          the username
+     * @param role              the user's role
+     * @param requests          admitted requests
+     * @param rejected          rejected requests
+     * @param tokens            model tokens used
+     * @param requestsRemaining requests the user may still make now, or null
+     *                          if unlimited
+     * @param tokensRemaining   tokens the user may still use now, or null if
+     *                          unlimited
+     * @param lastSeen          time of the user's last AI request
+     */
+    public record UserUsage(String username, UserRole role, long requests, long rejected, long tokens,
+            Long requestsRemaining, Long tokensRemaining, Instant lastSeen) {
+    }
+
+    /**
+     * Consumption of all users of one role.
+     *
+     * @param quota                   the role's quota, or null if unlimited
+     * @param requests                admitted requests
+     * @param rejected                rejected requests
+     * @param tokens                  model tokens used
+     * @param sharedRequestsRemaining requests left in the shared bucket, or
+     *                                null if there is none
+     * @param sharedTokensRemaining   tokens left in the shared bucket, or null
+     *                                if there is none
+     */
+    public record RoleUsage(RoleQuota quota, long requests, long rejected, long tokens,
+            Long sharedRequestsRemaining, Long sharedTokensRemaining) {
+    }
+
+    private record RoleState(TokenBucket requests, TokenBucket tokens, LongAdder requestCount,
+            LongAdder rejectedCount, LongAdder tokenCount) {
+
+        RoleState(TokenBucket requests, TokenBucket tokens) {
+            this(requests, tokens, new LongAdder(), new LongAdder(), new LongAdder());
+        }
+    }
+
+    private static final class UserState {
+        private final UserRole role;
+        private final TokenBucket requests;
+        private final TokenBucket tokens;
+        private final LongAdder requestCount = new LongAdder();
+        private final LongAdder rejectedCount = new LongAdder();
+        private final LongAdder tokenCount = new LongAdder();
+        private volatile long lastSeenMillis = System.currentTimeMillis();
+
+        UserState(UserRole role, RoleQuota quota, long now) {
+            this.role = role;
+            this.requests = quota != null
+                    ? bucket(quota.requestBurst(), quota.requestsPerMinute(), REQUEST_PERIOD, now) : null;
+            this.tokens = quota != null
+                    ? bucket(quota.tokenBurst(), quota.tokensPerHour(), TOKEN_PERIOD, now) : null;
+        }
+
+        boolean isFull(long now) {
+            return (requests == null || requests.nanosUntilFull(now) == 0)
+                    && (tokens == null || tokens.nanosUntilFull(now) == 0);
+        }
+
+        UserUsage usage(String username, long now) {
+            return new UserUsage(username, role, requestCount.sum(), rejectedCount.sum(), tokenCount.sum(),
+                    requests != null ? requests.available(now) : null,
+                    tokens != null ? tokens.available(now) : null,
+                    Instant.ofEpochMilli(lastSeenMillis));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.infrastructure.exception.AiRequestCancelledException;
+import com.gastrogeniusai.infrastructure.util.HashUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical in-flight AI calls.
+ * Concurrent callers with the same feature and rendered prompt share one
+ * execution and all receive its result. The shared execution runs on its own
+ * virtual thread, so any caller (including the one that started it) can stop
+ * waiting without affecting the others; the execution is only cancelled once
+ * every waiting caller has gone. Each caller stops waiting at its own
+ * {@link RequestDeadline} or when its request is abandoned; the shared
+ * execution itself runs without a request deadline.
+ */
+@Component
+public class AiRequestCoalescer {
+
+    private final MeterRegistry meterRegistry;
+    private final AiCallMetrics callMetrics;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, InFlightCall> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AiRequestCoalescer(MeterRegistry meterRegistry, AiCallMetrics callMetrics) {
+        this.meterRegistry = meterRegistry;
+        this.callMetrics = callMetrics;
+    }
+
+    /**
+     * Executes the call, or joins an identical call that is already running.
+     * 
+     * @param feature the AI feature issuing the call
+     * @param prompt  the rendered prompt identifying the call
+     * @param call    the work to execute when no identical call is in flight
+     * @return the shared result
+     * @throws CancellationException       if the calling thread is interrupted
+     *                                     while waiting
+     * @throws AiRequestCancelledException if the caller's request deadline
+     *                                     passes or its request is abandoned
+     *                                     while waiting
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(AiFeature feature, Prompt prompt, Supplier<T> call) {
+        String key = feature.name() + ":" + HashUtils.sha256(prompt.getContents());
+
+        InFlightCall[] created = new InFlightCall[1];
+        InFlightCall flight = inFlight.compute(key, (k, existing) -> {
+            if (existing != null && existing.join()) {
+                return existing;
+            }
+            InFlightCall fresh = new InFlightCall();
+            fresh.join();
+            created[0] = fresh;
+            return fresh;
+        });
+
+        if (created[0] != null) {
+            flight.task = executor.submit(() -> {
+                // Shared by callers with different deadlines
+                RequestDeadline.clear();
+                try {
+                    flight.result.complete(call.get());
+                } catch (Throwable t) {
+                    flight.result.completeExceptionally(t);
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            });
+        } else {
+            meterRegistry.counter("ai.calls.coalesced", "feature", feature.getMetricTag()).increment();
+        }
+
+        RequestDeadline deadline = RequestDeadline.current().orElse(null);
+        // Abandoning cancels this caller's view of the result, not the shared result
+        CompletableFuture<Object> waiting = deadline != null ? flight.result.copy() : flight.result;
+        try (RequestDeadline.Registration registration = deadline != null
+                ? deadline.onAbandon(() -> waiting.cancel(false)) : null) {
+            return (T) (deadline != null ? waiting.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS)
+                    : waiting.get());
+        } catch (TimeoutException | CancellationException e) {
+            if (deadline == null || !deadline.isAbandoned()) {
+                throw e instanceof CancellationException cancellation ? cancellation
+                        : new IllegalStateException(e);
+            }
+            RequestDeadline.Reason reason = deadline.getAbandonReason();
+            callMetrics.recordCancellation(feature, reason);
+            throw new AiRequestCancelledException(feature.getDisplayName() + " abandoned while waiting: "
+                    + reason.getMetricTag(), reason);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for AI call");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            if (flight.leave()) {
+                // Last waiter abandoned the call: stop the shared execution
+                inFlight.remove(key, flight);
+                Future<?> task = flight.task;
+                if (task != null) {
+                    task.cancel(true);
+                }
+                flight.result.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of distinct calls currently in flight.
+     * 
+     * @return in-flight call count
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Shared state of one in-flight call and the callers waiting on it.
+     */
+    private static final class InFlightCall {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile Future<?> task;
+        private int waiters;
+        private boolean abandoned;
+
+        synchronized boolean join() {
+            if (abandoned) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        synchronized boolean leave() {
+            waiters--;
+            if (waiters == 0 && !result.isDone()) {
+                abandoned = true;
+                return true;
+            }
+            return false;
+        }
+    }
+}
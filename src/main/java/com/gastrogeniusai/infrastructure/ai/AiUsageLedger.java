@@ -0,0 +1,216 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.infrastructure.repository.AiUsageRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ledger of AI usage: one {@code ai_usage_records} row per model call or
+ * cache hit, with the user, feature, model, tokens, estimated cost, latency
+ * and outcome.
+ * <p>
+ * Recording happens on the calling thread and only enqueues the record on a
+ * bounded queue; a single writer thread drains the queue and inserts records
+ * in JDBC batches, so request latency never includes a database write. The
+ * queue uses separate locks for producers and the consumer, so the writer
+ * never blocks callers. When the queue is full, for example while the
+ * database is unreachable, new records are dropped and counted rather than
+ * slowing requests down.
+ */
+@Component
+public class AiUsageLedger implements AiCallListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiUsageLedger.class);
+
+    private static final String INSERT_SQL = "INSERT INTO ai_usage_records (user_id, feature, model, "
+            + "prompt_tokens, completion_tokens, estimated_cost, latency_ms, cache_hit, outcome, usage_date, "
+            + "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AiUsageRecordRepository usageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int retentionDays;
+    private final BlockingQueue<Entry> queue;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTimer;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public AiUsageLedger(JdbcTemplate jdbcTemplate,
+            AiUsageRecordRepository usageRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${ai.ledger.enabled:true}") boolean enabled,
+            @Value("${ai.ledger.queue-capacity:100000}") int queueCapacity,
+            @Value("${ai.ledger.batch-size:500}") int batchSize,
+            @Value("${ai.ledger.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${ai.ledger.retention-days:90}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.usageRepository = usageRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.retentionDays = retentionDays;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        this.written = meterRegistry.counter("ai.ledger.records", "result", "written");
+        this.dropped = meterRegistry.counter("ai.ledger.records", "result", "dropped");
+        this.failed = meterRegistry.counter("ai.ledger.records", "result", "failed");
+        this.flushTimer = Timer.builder("ai.ledger.flush")
+                .description("Time to insert one batch of AI usage records")
+                .register(meterRegistry);
+        Gauge.builder("ai.ledger.queue.size", queue, BlockingQueue::size)
+                .description("AI usage records waiting to be written")
+                .register(meterRegistry);
+
+        this.writer = enabled ? Thread.ofPlatform().name("ai-usage-ledger").daemon().start(this::drain) : null;
+    }
+
+    /**
+     * Enqueues a record of the call.
+     *
+     * @param call the finished call
+     */
+    @Override
+    public void onCall(Call call) {
+        if (!enabled) {
+            return;
+        }
+        if (!queue.offer(new Entry(System.currentTimeMillis(), call))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Returns the number of records waiting to be written.
+     *
+     * @return queued record count
+     */
+    public int pendingRecords() {
+        return queue.size();
+    }
+
+    /**
+     * Deletes records older than {@code ai.ledger.retention-days}.
+     */
+    @Scheduled(cron = "${ai.ledger.purge-cron:0 30 3 * * *}")
+    public void purgeExpiredRecords() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDate before = LocalDate.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> usageRepository.deleteByUsageDateBefore(before));
+        if (deleted != null && deleted > 0) {
+            logger.info("Purged {} AI usage records before {}", deleted, before);
+        }
+    }
+
+    /**
+     * Stops the writer after it has written the records still queued.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("AI usage ledger stopped with {} records unwritten", queue.size());
+        }
+    }
+
+    // Private helper methods
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = running ? queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS) : queue.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // Shutdown: the loop writes what is left without waiting
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, entry) -> {
+                Call call = entry.call();
+                LocalDateTime createdAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.recordedAt()),
+                        ZoneId.systemDefault());
+                if (call.caller() != null && call.caller().userId() != null) {
+                    statement.setLong(1, call.caller().userId());
+                } else {
+                    statement.setNull(1, Types.BIGINT);
+                }
+                statement.setString(2, call.feature().name());
+                statement.setString(3, call.model());
+                statement.setInt(4, (int) Math.min(Integer.MAX_VALUE, call.promptTokens()));
+                statement.setInt(5, (int) Math.min(Integer.MAX_VALUE, call.completionTokens()));
+                statement.setDouble(6, call.cost());
+                statement.setInt(7, (int) TimeUnit.NANOSECONDS.toMillis(call.durationNanos()));
+                statement.setBoolean(8, call.cacheHit());
+                statement.setString(9, call.outcome());
+                statement.setObject(10, createdAt.toLocalDate());
+                statement.setTimestamp(11, Timestamp.valueOf(createdAt));
+            });
+            written.increment(batch.size());
+        } catch (DataAccessException e) {
+            // Retrying would let a database outage back up into the queue; the records are counted instead
+            failed.increment(batch.size());
+            logger.warn("Could not write {} AI usage records: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private record Entry(long recordedAt, Call call) {
+    }
+}
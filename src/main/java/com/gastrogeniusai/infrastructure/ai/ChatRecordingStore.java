@@ -0,0 +1,123 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gastrogeniusai.infrastructure.util.HashUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * File-backed store of recorded model prompt/response pairs, keyed by the
+ * SHA-256 hash of the prompt text. Each recording is one JSON file named
+ * after its hash, so recordings can be reviewed, edited and committed
+ * individually. All files are indexed in memory when the store is created.
+ */
+public class ChatRecordingStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatRecordingStore.class);
+
+    private final Path directory;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Recording> recordings = new ConcurrentHashMap<>();
+
+    public ChatRecordingStore(Path directory) {
+        this.directory = directory;
+        load();
+    }
+
+    /**
+     * Computes the key a prompt is recorded under.
+     *
+     * @param promptText the prompt text
+     * @return prompt hash
+     */
+    public String key(String promptText) {
+        return HashUtils.sha256(promptText);
+    }
+
+    /**
+     * Looks up the recording of a prompt.
+     *
+     * @param promptText the prompt text
+     * @return the recording, if one exists
+     */
+    public Optional<Recording> find(String promptText) {
+        return Optional.ofNullable(recordings.get(key(promptText)));
+    }
+
+    /**
+     * Records a response, replacing any earlier recording of the same prompt.
+     *
+     * @param promptText the prompt text
+     * @param response   the model response text
+     * @param latencyMs  observed call latency
+     */
+    public void save(String promptText, String response, long latencyMs) {
+        String hash = key(promptText);
+        Recording recording = new Recording(hash, promptText, response, latencyMs, Instant.now().toString());
+        try {
+            Files.createDirectories(directory);
+            // Write to a temporary file first so a crash never leaves a truncated recording
+            Path temporary = Files.createTempFile(directory, hash, ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(temporary.toFile(), recording);
+            Files.move(temporary, directory.resolve(hash + ".json"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            recordings.put(hash, recording);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save model recording " + hash, e);
+        }
+    }
+
+    /**
+     * Returns the number of recordings available.
+     *
+     * @return recording count
+     */
+    public int size() {
+        return recordings.size();
+    }
+
+    // Private helper methods
+
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            logger.info("No model recordings found at {}", directory);
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".json")).forEach(file -> {
+                try {
+                    Recording recording = objectMapper.readValue(file.toFile(), Recording.class);
+                    recordings.put(recording.promptHash(), recording);
+                } catch (IOException e) {
+                    logger.warn("Skipping unreadable model recording {}: {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read model recordings from " + directory, e);
+        }
+        logger.info("Loaded {} model recordings from {}", recordings.size(), directory);
+    }
+
+    /**
+     * One recorded model call.
+     *
+     * @param promptHash SHA-256 hash of the prompt text
+     * @param prompt     the prompt text
+     * @param response   the response text
+     * @param latencyMs  latency observed when recording
+     * @param recordedAt ISO-8601 recording time
+     */
+    public record Recording(String promptHash, String prompt, String response, long latencyMs, String recordedAt) {
+    }
+}
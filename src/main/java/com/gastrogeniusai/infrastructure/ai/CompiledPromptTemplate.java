@@ -0,0 +1,103 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prompt template parsed once into literal segments and {@code {name}}
+ * placeholders. Unlike Spring AI's PromptTemplate, rendering does not mutate
+ * shared state, so one instance can be held for the lifetime of a service and
+ * used concurrently. Braces that do not enclose a simple identifier (such as
+ * JSON schemas) are kept literally.
+ */
+public final class CompiledPromptTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z][A-Za-z0-9]*)}");
+
+    private final List<String> literals;
+    private final List<String> variables;
+    private final int literalLength;
+
+    private CompiledPromptTemplate(List<String> literals, List<String> variables) {
+        this.literals = literals;
+        this.variables = variables;
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Parses a template.
+     *
+     * @param template template text with {@code {name}} placeholders
+     * @return the compiled template
+     */
+    public static CompiledPromptTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        int position = 0;
+        while (matcher.find()) {
+            literals.add(template.substring(position, matcher.start()));
+            variables.add(matcher.group(1));
+            position = matcher.end();
+        }
+        literals.add(template.substring(position));
+        return new CompiledPromptTemplate(List.copyOf(literals), List.copyOf(variables));
+    }
+
+    /**
+     * Renders the template text.
+     *
+     * @param values placeholder values
+     * @return rendered text
+     * @throws IllegalArgumentException if a placeholder has no value
+     */
+    public String render(Map<String, ?> values) {
+        StringBuilder rendered = new StringBuilder(literalLength + 256);
+        for (int i = 0; i < variables.size(); i++) {
+            String variable = variables.get(i);
+            if (!values.containsKey(variable)) {
+                throw new IllegalArgumentException("Missing value for prompt placeholder: " + variable);
+            }
+            Object value = values.get(variable);
+            rendered.append(literals.get(i)).append(value == null ? "" : value);
+        }
+        return rendered.append(literals.get(literals.size() - 1)).toString();
+    }
+
+    /**
+     * Renders the template into a prompt.
+     *
+     * @param values placeholder values
+     * @return the prompt
+     */
+    public Prompt create(Map<String, ?> values) {
+        return new Prompt(render(values));
+    }
+
+    /**
+     * Renders the template into a prompt with call-specific options.
+     *
+     * @param values  placeholder values
+     * @param options chat options for this call
+     * @return the prompt
+     */
+    public Prompt create(Map<String, ?> values, ChatOptions options) {
+        return new Prompt(render(values), options);
+    }
+
+    /**
+     * Returns the number of characters contributed by the fixed template
+     * text, used to reserve budget before filling placeholders.
+     *
+     * @return literal character count
+     */
+    public int getLiteralLength() {
+        return literalLength;
+    }
+}
@@ -0,0 +1,98 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.vertexai.gemini.VertexAiGeminiChatOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-feature generation settings for model calls.
+ * Each feature can set its own output token limit and temperature, choose
+ * which optional response fields to request and opt into the compact wire
+ * schema. Unset values fall back to the shared
+ * {@code spring.ai.vertex.ai.gemini.chat.options}.
+ */
+@Component
+public class GenerationProfiles {
+
+    private static final String PROPERTY_PREFIX = "ai.profiles.";
+
+    private final Map<AiFeature, GenerationProfile> profiles = new EnumMap<>(AiFeature.class);
+
+    @Autowired
+    public GenerationProfiles(Environment environment) {
+        for (AiFeature feature : AiFeature.values()) {
+            String prefix = PROPERTY_PREFIX + feature.getMetricTag() + ".";
+            String[] fields = environment.getProperty(prefix + "fields", String[].class);
+            profiles.put(feature, new GenerationProfile(
+                    environment.getProperty(prefix + "max-tokens", Integer.class),
+                    environment.getProperty(prefix + "temperature", Double.class),
+                    fields != null ? Arrays.stream(fields).map(String::trim).toList() : null,
+                    environment.getProperty(prefix + "compact-schema", Boolean.class, false)));
+        }
+    }
+
+    /**
+     * Returns the generation profile of a feature.
+     *
+     * @param feature the feature
+     * @return the profile
+     */
+    public GenerationProfile get(AiFeature feature) {
+        return profiles.get(feature);
+    }
+
+    /**
+     * Generation settings of one feature.
+     *
+     * @param maxTokens     output token limit per response, or null for the
+     *                      model default
+     * @param temperature   sampling temperature, or null for the model default
+     * @param fields        optional response fields to request, or null for all
+     * @param compactSchema whether the model answers with short key aliases
+     */
+    public record GenerationProfile(Integer maxTokens, Double temperature, List<String> fields,
+            boolean compactSchema) {
+
+        /**
+         * Builds the chat options for a call returning one response object.
+         *
+         * @return chat options
+         */
+        public ChatOptions chatOptions() {
+            return chatOptions(1);
+        }
+
+        /**
+         * Builds the chat options for a call returning several response
+         * objects, such as a batch prompt.
+         *
+         * @param responseCount number of response objects expected
+         * @return chat options with the token limit scaled accordingly
+         */
+        public ChatOptions chatOptions(int responseCount) {
+            return VertexAiGeminiChatOptions.builder()
+                    .withMaxOutputTokens(maxTokens != null ? maxTokens * responseCount : null)
+                    .withTemperature(temperature)
+                    .build();
+        }
+
+        /**
+         * Returns this profile with a different sampling temperature.
+         *
+         * @param newTemperature the temperature, or null to keep this profile's
+         * @return profile using the given temperature
+         */
+        public GenerationProfile withTemperature(Double newTemperature) {
+            return newTemperature == null ? this
+                    : new GenerationProfile(maxTokens, newTemperature, fields, compactSchema);
+        }
+    }
+}
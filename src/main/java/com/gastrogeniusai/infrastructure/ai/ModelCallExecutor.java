@@ -0,0 +1,426 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.infrastructure.exception.AiCircuitOpenException;
+import com.gastrogeniusai.infrastructure.exception.AiDeadlineExceededException;
+import com.gastrogeniusai.infrastructure.exception.AiRequestCancelledException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs blocking model calls with a per-feature deadline and optional hedging.
+ * A call still running at its deadline is cancelled (interrupting the
+ * underlying request) and reported as {@link AiDeadlineExceededException}.
+ * For idempotent features, a call still running after the feature's observed
+ * p95 latency is hedged: a second identical call is started and whichever
+ * completes first wins, the other being cancelled. Hedges are bounded by a
+ * budget that earns a fraction of a hedge per call, and only use concurrency
+ * limiter capacity that is free at that moment.
+ * <p>
+ * Within an AI request the {@link RequestDeadline} also applies: a call never
+ * waits past the request's deadline, is cancelled as soon as the request is
+ * abandoned, and is not started for a request that already is.
+ * <p>
+ * Each call is also an {@link AiCircuitBreaker} call, timed from the moment
+ * it holds a limiter permit so that local queueing is not mistaken for
+ * provider latency.
+ */
+@Component
+public class ModelCallExecutor {
+
+    private static final String PROPERTY_PREFIX = "ai.calls.";
+
+    private final ChatModel chatModel;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final AiCircuitBreaker circuitBreaker;
+    private final AiCallMetrics callMetrics;
+    private final MeterRegistry meterRegistry;
+    private final Map<AiFeature, FeaturePolicy> policies = new EnumMap<>(AiFeature.class);
+    private final ExecutorService executor;
+
+    @Autowired
+    public ModelCallExecutor(ChatModel chatModel, AdaptiveConcurrencyLimiter concurrencyLimiter,
+            AiCircuitBreaker circuitBreaker, AiCallMetrics callMetrics, MeterRegistry meterRegistry,
+            Environment environment) {
+        this(chatModel, concurrencyLimiter, circuitBreaker, callMetrics, meterRegistry, environment,
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    ModelCallExecutor(ChatModel chatModel, AdaptiveConcurrencyLimiter concurrencyLimiter,
+            AiCircuitBreaker circuitBreaker, AiCallMetrics callMetrics, MeterRegistry meterRegistry,
+            Environment environment, ExecutorService executor) {
+        this.chatModel = chatModel;
+        this.executor = executor;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.callMetrics = callMetrics;
+        this.meterRegistry = meterRegistry;
+
+        for (AiFeature feature : AiFeature.values()) {
+            policies.put(feature, new FeaturePolicy(
+                    property(environment, feature, "deadline-ms", Long.class, 30000L),
+                    property(environment, feature, "hedge-enabled", Boolean.class, false),
+                    property(environment, feature, "hedge-percentile", Double.class, 0.95),
+                    property(environment, feature, "hedge-initial-delay-ms", Long.class, 5000L),
+                    property(environment, feature, "hedge-min-delay-ms", Long.class, 500L),
+                    property(environment, feature, "hedge-budget-ratio", Double.class, 0.05),
+                    property(environment, feature, "hedge-budget-burst", Integer.class, 3)));
+        }
+    }
+
+    /**
+     * Calls the model within the feature's deadline, hedging if enabled.
+     *
+     * @param feature the feature issuing the call
+     * @param prompt  the prompt
+     * @return the first successful response
+     * @throws AiCircuitOpenException       if the circuit breaker rejects the
+     *                                     call
+     * @throws AiDeadlineExceededException  if no call completes in time
+     * @throws AiRequestCancelledException if the request deadline passes or
+     *                                     the request is abandoned first
+     */
+    public ChatResponse call(AiFeature feature, Prompt prompt) {
+        RequestDeadline requestDeadline = RequestDeadline.current().orElse(null);
+        if (requestDeadline != null && requestDeadline.isAbandoned()) {
+            throw cancelled(feature, requestDeadline);
+        }
+        AiCircuitBreaker.Permission permission = circuitBreaker.acquirePermission();
+        AdaptiveConcurrencyLimiter.Permit permit;
+        try {
+            permit = concurrencyLimiter.acquire(feature);
+        } catch (RuntimeException e) {
+            permission.onIgnore();
+            throw e;
+        }
+
+        // Time queued on the local limiter says nothing about the provider, so the breaker's clock starts here
+        long start = System.nanoTime();
+        try {
+            ChatResponse response = callWithPermit(feature, prompt, permit, requestDeadline);
+            permission.onSuccess(System.nanoTime() - start);
+            return response;
+        } catch (AiRequestCancelledException | CancellationException e) {
+            // Abandoned calls say nothing about the provider
+            permission.onIgnore();
+            throw e;
+        } catch (RuntimeException e) {
+            permission.onError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the current hedge delay of a feature, derived from its observed
+     * latency.
+     *
+     * @param feature the feature
+     * @return hedge delay in milliseconds
+     */
+    public long getHedgeDelayMs(AiFeature feature) {
+        return TimeUnit.NANOSECONDS.toMillis(policies.get(feature).hedgeDelayNanos());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Private helper methods
+
+    private ChatResponse callWithPermit(AiFeature feature, Prompt prompt, AdaptiveConcurrencyLimiter.Permit permit,
+            RequestDeadline requestDeadline) {
+        FeaturePolicy policy = policies.get(feature);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(policy.deadlineMs());
+        if (requestDeadline != null && requestDeadline.expiresAtNanos() - deadline < 0) {
+            deadline = requestDeadline.expiresAtNanos();
+        }
+        CompletionService<ChatResponse> completions = new ExecutorCompletionService<>(executor);
+        // Abandonment cancels the attempts from the servlet container's thread
+        List<Attempt> attempts = new CopyOnWriteArrayList<>();
+        attempts.add(submit(completions, new Attempt(feature, prompt, permit, false)));
+
+        try (RequestDeadline.Registration registration = requestDeadline != null
+                ? requestDeadline.onAbandon(() -> cancelAll(attempts, CancelReason.ABANDONED)) : null) {
+            Future<ChatResponse> completed = null;
+            if (policy.hedgeEnabled()) {
+                policy.depositHedgeCredit();
+                long hedgeDelay = Math.min(policy.hedgeDelayNanos(), deadline - System.nanoTime());
+                completed = completions.poll(Math.max(0, hedgeDelay), TimeUnit.NANOSECONDS);
+                if (completed == null && deadline - System.nanoTime() > 0) {
+                    startHedge(feature, prompt, policy, completions, attempts);
+                }
+            }
+
+            int failures = 0;
+            while (true) {
+                if (completed == null) {
+                    completed = completions.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+                if (requestDeadline != null && requestDeadline.isAbandoned()) {
+                    cancelAll(attempts, CancelReason.ABANDONED);
+                    throw cancelled(feature, requestDeadline);
+                }
+                if (completed == null) {
+                    cancelAll(attempts, CancelReason.DEADLINE);
+                    meterRegistry.counter("ai.calls.deadline.exceeded", "feature", feature.getMetricTag())
+                            .increment();
+                    throw new AiDeadlineExceededException(feature.getDisplayName() + " did not complete within "
+                            + policy.deadlineMs() + " ms");
+                }
+
+                Attempt attempt = attemptFor(attempts, completed);
+                try {
+                    ChatResponse response = completed.get();
+                    cancelAll(attempts, CancelReason.LOST);
+                    if (attempts.size() > 1) {
+                        meterRegistry.counter("ai.hedge.wins", "feature", feature.getMetricTag(),
+                                "winner", attempt.hedge ? "hedge" : "primary").increment();
+                    }
+                    // When a hedge wins, the primary's elapsed time is a lower bound of its latency
+                    policy.recordLatency(System.nanoTime() - attempts.get(0).startNanos);
+                    return response;
+                } catch (CancellationException e) {
+                    // Abandoned between the check above and here
+                    if (requestDeadline != null && requestDeadline.isAbandoned()) {
+                        throw cancelled(feature, requestDeadline);
+                    }
+                    throw e;
+                } catch (ExecutionException e) {
+                    failures++;
+                    if (failures == attempts.size()) {
+                        throw e.getCause() instanceof RuntimeException runtime ? runtime
+                                : new IllegalStateException("AI model call failed", e.getCause());
+                    }
+                    // Another attempt is still running; wait for it
+                    completed = null;
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll(attempts, CancelReason.LOST);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the AI model");
+        }
+    }
+
+    private <T> T property(Environment environment, AiFeature feature, String name, Class<T> type,
+            T defaultValue) {
+        T shared = environment.getProperty(PROPERTY_PREFIX + name, type, defaultValue);
+        return environment.getProperty(PROPERTY_PREFIX + "features." + feature.getMetricTag() + "." + name,
+                type, shared);
+    }
+
+    private AiRequestCancelledException cancelled(AiFeature feature, RequestDeadline requestDeadline) {
+        RequestDeadline.Reason reason = requestDeadline.getAbandonReason();
+        callMetrics.recordCancellation(feature, reason);
+        return new AiRequestCancelledException(feature.getDisplayName() + " cancelled: "
+                + (reason == RequestDeadline.Reason.DEADLINE
+                        ? "request deadline of " + requestDeadline.getBudgetMs() + " ms passed"
+                        : "client disconnected"), reason);
+    }
+
+    private void startHedge(AiFeature feature, Prompt prompt, FeaturePolicy policy,
+            CompletionService<ChatResponse> completions, List<Attempt> attempts) {
+        if (!policy.tryWithdrawHedgeCredit()) {
+            meterRegistry.counter("ai.hedge.skipped", "feature", feature.getMetricTag(), "reason", "budget")
+                    .increment();
+            return;
+        }
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = concurrencyLimiter.tryAcquire(feature);
+        if (permit.isEmpty()) {
+            policy.refundHedgeCredit();
+            meterRegistry.counter("ai.hedge.skipped", "feature", feature.getMetricTag(), "reason", "capacity")
+                    .increment();
+            return;
+        }
+
+        meterRegistry.counter("ai.hedge.launched", "feature", feature.getMetricTag()).increment();
+        callMetrics.recordRetry(feature, prompt, "hedge");
+        attempts.add(submit(completions, new Attempt(feature, prompt, permit.get(), true)));
+    }
+
+    private Attempt submit(CompletionService<ChatResponse> completions, Attempt attempt) {
+        attempt.future = completions.submit(attempt::run);
+        return attempt;
+    }
+
+    private Attempt attemptFor(List<Attempt> attempts, Future<ChatResponse> future) {
+        for (Attempt attempt : attempts) {
+            if (attempt.future == future) {
+                return attempt;
+            }
+        }
+        throw new IllegalStateException("Completed future does not belong to this call");
+    }
+
+    private void cancelAll(List<Attempt> attempts, CancelReason reason) {
+        for (Attempt attempt : attempts) {
+            if (attempt.future != null && !attempt.future.isDone()) {
+                // Set before interrupting so the attempt releases its permit accordingly
+                attempt.cancelReason = reason;
+                if (attempt.future.cancel(true)) {
+                    // An attempt cancelled before it started never runs, so its permit is released here
+                    attempt.releaseIfNotStarted();
+                }
+            }
+        }
+    }
+
+    private enum CancelReason {
+        DEADLINE,
+        LOST,
+        ABANDONED
+    }
+
+    /**
+     * One model call of a possibly hedged request, holding its own limiter
+     * permit.
+     */
+    private final class Attempt {
+        private final AiFeature feature;
+        private final Prompt prompt;
+        private final AdaptiveConcurrencyLimiter.Permit permit;
+        private final boolean hedge;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile CancelReason cancelReason;
+        private volatile Future<ChatResponse> future;
+
+        Attempt(AiFeature feature, Prompt prompt, AdaptiveConcurrencyLimiter.Permit permit, boolean hedge) {
+            this.feature = feature;
+            this.prompt = prompt;
+            this.permit = permit;
+            this.hedge = hedge;
+        }
+
+        ChatResponse run() {
+            if (!started.compareAndSet(false, true)) {
+                throw new CancellationException("AI model call cancelled before it started");
+            }
+            try {
+                ChatResponse response = callMetrics.call(feature, prompt, () -> chatModel.call(prompt));
+                permit.onSuccess();
+                return response;
+            } catch (RuntimeException e) {
+                // A cancelled loser or abandoned request says nothing about provider health; a missed
+                // feature deadline does
+                if (cancelReason == CancelReason.LOST || cancelReason == CancelReason.ABANDONED) {
+                    permit.onIgnore();
+                } else {
+                    permit.onDropped();
+                }
+                throw e;
+            } finally {
+                permit.onIgnore();
+            }
+        }
+
+        void releaseIfNotStarted() {
+            if (started.compareAndSet(false, true)) {
+                permit.onIgnore();
+            }
+        }
+    }
+
+    /**
+     * Deadline and hedging settings of one feature, with its latency window
+     * and hedge budget.
+     */
+    private static final class FeaturePolicy {
+        private static final int LATENCY_WINDOW = 256;
+        private static final int MIN_SAMPLES = 20;
+        private static final int RECOMPUTE_EVERY = 16;
+        private static final long CREDIT_SCALE = 1000;
+
+        private final long deadlineMs;
+        private final boolean hedgeEnabled;
+        private final double hedgePercentile;
+        private final long minDelayNanos;
+        private final long creditPerCall;
+        private final long maxCredit;
+
+        private final long[] latencies = new long[LATENCY_WINDOW];
+        private int samples;
+        private int next;
+        private volatile long hedgeDelayNanos;
+        private final AtomicLong credit;
+
+        FeaturePolicy(long deadlineMs, boolean hedgeEnabled, double hedgePercentile, long initialDelayMs,
+                long minDelayMs, double budgetRatio, int budgetBurst) {
+            this.deadlineMs = deadlineMs;
+            this.hedgeEnabled = hedgeEnabled;
+            this.hedgePercentile = hedgePercentile;
+            this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+            this.creditPerCall = Math.round(budgetRatio * CREDIT_SCALE);
+            this.maxCredit = budgetBurst * CREDIT_SCALE;
+            this.hedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(initialDelayMs);
+            this.credit = new AtomicLong(maxCredit);
+        }
+
+        long deadlineMs() {
+            return deadlineMs;
+        }
+
+        boolean hedgeEnabled() {
+            return hedgeEnabled;
+        }
+
+        long hedgeDelayNanos() {
+            return hedgeDelayNanos;
+        }
+
+        void depositHedgeCredit() {
+            credit.getAndUpdate(current -> Math.min(maxCredit, current + creditPerCall));
+        }
+
+        boolean tryWithdrawHedgeCredit() {
+            long current;
+            do {
+                current = credit.get();
+                if (current < CREDIT_SCALE) {
+                    return false;
+                }
+            } while (!credit.compareAndSet(current, current - CREDIT_SCALE));
+            return true;
+        }
+
+        void refundHedgeCredit() {
+            credit.getAndUpdate(current -> Math.min(maxCredit, current + CREDIT_SCALE));
+        }
+
+        synchronized void recordLatency(long latencyNanos) {
+            latencies[next] = latencyNanos;
+            next = (next + 1) % LATENCY_WINDOW;
+            samples++;
+            if (samples >= MIN_SAMPLES && samples % RECOMPUTE_EVERY == 0) {
+                long[] window = Arrays.copyOf(latencies, Math.min(samples, LATENCY_WINDOW));
+                Arrays.sort(window);
+                int index = (int) Math.min(window.length - 1, Math.ceil(hedgePercentile * window.length) - 1);
+                hedgeDelayNanos = Math.max(minDelayNanos, window[Math.max(0, index)]);
+            }
+        }
+    }
+}
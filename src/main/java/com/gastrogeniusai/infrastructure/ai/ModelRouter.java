@@ -0,0 +1,136 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.vertexai.gemini.VertexAiGeminiChatOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Routes model calls between a fast, cheap model and the quality model by
+ * request complexity.
+ * A request goes to the fast model when routing is enabled for its feature
+ * and it has at most {@code max-ingredients} ingredients and an estimated
+ * prompt of at most {@code max-prompt-tokens} tokens; everything else keeps
+ * the quality model, by default the configured
+ * {@code spring.ai.vertex.ai.gemini.chat.options.model}. Rules are read per
+ * feature from {@code ai.routing.features.<feature>}, falling back to the
+ * shared {@code ai.routing} values.
+ * <p>
+ * The route is applied by setting the model in the prompt options, so both
+ * routes share the chat model and its call pipeline, and the per-model call
+ * metrics and cost estimates follow the route. A fast response that fails
+ * JSON validation can be escalated to the quality model.
+ */
+@Component
+public class ModelRouter {
+
+    private static final String PROPERTY_PREFIX = "ai.routing.";
+
+    private final MeterRegistry meterRegistry;
+    private final PromptBudgetGovernor promptBudget;
+    private final boolean enabled;
+    private final boolean escalationEnabled;
+    private final String qualityModel;
+    private final Map<AiFeature, RoutingRule> rules = new EnumMap<>(AiFeature.class);
+
+    @Autowired
+    public ModelRouter(MeterRegistry meterRegistry, PromptBudgetGovernor promptBudget, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.promptBudget = promptBudget;
+        this.enabled = environment.getProperty(PROPERTY_PREFIX + "enabled", Boolean.class, false);
+        this.escalationEnabled = environment.getProperty(PROPERTY_PREFIX + "escalation-enabled", Boolean.class,
+                true);
+        this.qualityModel = environment.getProperty(PROPERTY_PREFIX + "quality-model",
+                environment.getProperty("spring.ai.vertex.ai.gemini.chat.options.model", "gemini-1.5-pro"));
+
+        String fastModel = environment.getProperty(PROPERTY_PREFIX + "fast-model", "gemini-1.5-flash");
+        int maxIngredients = environment.getProperty(PROPERTY_PREFIX + "max-ingredients", Integer.class, 8);
+        int maxPromptTokens = environment.getProperty(PROPERTY_PREFIX + "max-prompt-tokens", Integer.class, 500);
+        for (AiFeature feature : AiFeature.values()) {
+            String prefix = PROPERTY_PREFIX + "features." + feature.getMetricTag() + ".";
+            rules.put(feature, new RoutingRule(
+                    environment.getProperty(prefix + "enabled", Boolean.class, true),
+                    environment.getProperty(prefix + "fast-model", fastModel),
+                    environment.getProperty(prefix + "max-ingredients", Integer.class, maxIngredients),
+                    environment.getProperty(prefix + "max-prompt-tokens", Integer.class, maxPromptTokens)));
+        }
+    }
+
+    /**
+     * Routes a prompt to the fast or the quality model.
+     *
+     * @param feature         the feature issuing the call
+     * @param prompt          the prompt to send
+     * @param ingredientCount number of ingredients the request covers
+     * @return the prompt with the chosen model set in its options
+     */
+    public Prompt route(AiFeature feature, Prompt prompt, int ingredientCount) {
+        RoutingRule rule = rules.get(feature);
+        String reason;
+        if (!enabled || !rule.enabled()) {
+            reason = "disabled";
+        } else if (ingredientCount > rule.maxIngredients()) {
+            reason = "ingredients";
+        } else if (promptBudget.estimateTokens(prompt.getContents()) > rule.maxPromptTokens()) {
+            reason = "prompt_size";
+        } else {
+            reason = "simple";
+        }
+
+        boolean fast = "simple".equals(reason);
+        meterRegistry.counter("ai.routing.decisions", "feature", feature.getMetricTag(),
+                "route", fast ? "fast" : "quality", "reason", reason).increment();
+        return withModel(prompt, fast ? rule.fastModel() : qualityModel);
+    }
+
+    /**
+     * Returns the prompt to retry with on the quality model after a response
+     * of the fast model failed validation.
+     *
+     * @param feature the feature issuing the call
+     * @param prompt  the prompt whose response failed
+     * @return the prompt for the quality model, or empty if the prompt was
+     *         not sent to the fast model or escalation is disabled
+     */
+    public Optional<Prompt> escalate(AiFeature feature, Prompt prompt) {
+        String model = prompt.getOptions() != null ? prompt.getOptions().getModel() : null;
+        if (!escalationEnabled || model == null || !model.equals(rules.get(feature).fastModel())
+                || model.equals(qualityModel)) {
+            return Optional.empty();
+        }
+        meterRegistry.counter("ai.routing.escalations", "feature", feature.getMetricTag(),
+                "from", model, "to", qualityModel).increment();
+        return Optional.of(withModel(prompt, qualityModel));
+    }
+
+    // Private helper methods
+
+    private Prompt withModel(Prompt prompt, String model) {
+        ChatOptions options = prompt.getOptions();
+        VertexAiGeminiChatOptions routed = options instanceof VertexAiGeminiChatOptions geminiOptions
+                ? VertexAiGeminiChatOptions.fromOptions(geminiOptions)
+                : VertexAiGeminiChatOptions.builder().build();
+        routed.setModel(model);
+        return new Prompt(prompt.getInstructions(), routed);
+    }
+
+    /**
+     * Routing settings of one feature.
+     *
+     * @param enabled         whether requests of the feature may use the fast
+     *                        model
+     * @param fastModel       the fast model
+     * @param maxIngredients  most ingredients a fast request may have
+     * @param maxPromptTokens largest estimated prompt a fast request may have
+     */
+    private record RoutingRule(boolean enabled, String fastModel, int maxIngredients, int maxPromptTokens) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps prompts within a per-feature token budget.
+ * Token counts are estimated from text length (about four characters per
+ * token for English prose), which is cheap enough to run on every call and
+ * close enough to bound prompt size. Oversized lists are cut down to names
+ * and a count, and long free text is truncated.
+ */
+@Component
+public class PromptBudgetGovernor {
+
+    private static final double CHARS_PER_TOKEN = 4.0;
+
+    private final Map<AiFeature, Integer> budgets = new EnumMap<>(AiFeature.class);
+    private final Map<AiFeature, DistributionSummary> promptTokens = new EnumMap<>(AiFeature.class);
+
+    @Autowired
+    public PromptBudgetGovernor(MeterRegistry meterRegistry, Environment environment) {
+        for (AiFeature feature : AiFeature.values()) {
+            budgets.put(feature, environment.getProperty(
+                    "ai.prompt.budget." + feature.getMetricTag() + "-tokens", Integer.class, 1200));
+            promptTokens.put(feature, DistributionSummary.builder("ai.prompt.tokens")
+                    .description("Estimated prompt tokens per AI call")
+                    .baseUnit("tokens")
+                    .tag("feature", feature.getMetricTag())
+                    .publishPercentiles(0.5, 0.95)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Estimates the token count of a text.
+     *
+     * @param text the text
+     * @return estimated tokens
+     */
+    public int estimateTokens(CharSequence text) {
+        return text == null ? 0 : (int) Math.ceil(text.length() / CHARS_PER_TOKEN);
+    }
+
+    /**
+     * Returns the tokens left for variable content once the fixed parts of a
+     * prompt are accounted for.
+     *
+     * @param feature    the feature building the prompt
+     * @param fixedChars characters already committed (template text and
+     *                   short variables)
+     * @return remaining token budget, never negative
+     */
+    public int remainingTokens(AiFeature feature, int fixedChars) {
+        return Math.max(0, budgets.get(feature) - (int) Math.ceil(fixedChars / CHARS_PER_TOKEN));
+    }
+
+    /**
+     * Fits a list (e.g. ingredient lines) into a token budget. Full entries
+     * are kept in order while they fit in half the budget; the rest are listed
+     * by name while the budget lasts and the remainder is only counted.
+     *
+     * @param entries   formatted entries
+     * @param names     short names, parallel to {@code entries}
+     * @param maxTokens the budget for the whole list
+     * @return the fitted list
+     */
+    public FittedList fitList(List<String> entries, List<String> names, int maxTokens) {
+        int total = entries.stream().mapToInt(this::estimateTokens).sum();
+        if (total <= maxTokens) {
+            return new FittedList(entries, List.of(), 0);
+        }
+
+        List<String> kept = new ArrayList<>();
+        int used = 0;
+        int index = 0;
+        while (index < entries.size() && used + estimateTokens(entries.get(index)) <= maxTokens / 2) {
+            used += estimateTokens(entries.get(index));
+            kept.add(entries.get(index));
+            index++;
+        }
+
+        // Reserve a few tokens for the "and N more" summary
+        List<String> namesOnly = new ArrayList<>();
+        while (index < names.size() && used + estimateTokens(names.get(index)) + 1 <= maxTokens - 8) {
+            used += estimateTokens(names.get(index)) + 1;
+            namesOnly.add(names.get(index));
+            index++;
+        }
+
+        return new FittedList(kept, namesOnly, names.size() - index);
+    }
+
+    /**
+     * Truncates free text to a token budget on a word boundary.
+     *
+     * @param text      the text
+     * @param maxTokens the budget
+     * @return the text, shortened with an ellipsis if needed
+     */
+    public String truncate(String text, int maxTokens) {
+        if (text == null || estimateTokens(text) <= maxTokens) {
+            return text;
+        }
+        int maxChars = (int) (Math.max(0, maxTokens - 1) * CHARS_PER_TOKEN);
+        int cut = text.lastIndexOf(' ', maxChars);
+        return text.substring(0, cut > 0 ? cut : maxChars) + "...";
+    }
+
+    /**
+     * Records the estimated size of a prompt about to be sent.
+     *
+     * @param feature the feature issuing the call
+     * @param prompt  the prompt
+     */
+    public void recordPrompt(AiFeature feature, Prompt prompt) {
+        promptTokens.get(feature).record(estimateTokens(prompt.getContents()));
+    }
+
+    /**
+     * Result of fitting a list into a token budget.
+     *
+     * @param entries   entries kept in full
+     * @param namesOnly entries reduced to their names
+     * @param omitted   number of entries dropped entirely
+     */
+    public record FittedList(List<String> entries, List<String> namesOnly, int omitted) {
+
+        public boolean isTruncated() {
+            return !namesOnly.isEmpty() || omitted > 0;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.io.UncheckedIOException;
+
+/**
+ * ChatModel decorator that forwards calls to the real model and saves every
+ * successful prompt/response pair to a {@link ChatRecordingStore}, to be
+ * replayed later by {@link ReplayChatModel}.
+ */
+public class RecordingChatModel implements ChatModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordingChatModel.class);
+
+    private final ChatModel delegate;
+    private final ChatRecordingStore store;
+
+    public RecordingChatModel(ChatModel delegate, ChatRecordingStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        long start = System.nanoTime();
+        ChatResponse response = delegate.call(prompt);
+        record(prompt, ReplayChatModel.contentOf(response), start);
+        return response;
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            StringBuilder content = new StringBuilder();
+            return delegate.stream(prompt)
+                    .doOnNext(chunk -> content.append(ReplayChatModel.contentOf(chunk)))
+                    .doOnComplete(() -> record(prompt, content.toString(), start));
+        });
+    }
+
+    // Private helper methods
+
+    private void record(Prompt prompt, String content, long startNanos) {
+        try {
+            store.save(prompt.getContents(), content, (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (UncheckedIOException e) {
+            // A failed recording must not fail the live call
+            logger.warn("Failed to record model response: {}", e.getMessage());
+        }
+    }
+}
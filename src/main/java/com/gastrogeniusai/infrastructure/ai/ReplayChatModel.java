@@ -0,0 +1,230 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offline ChatModel that replays recorded responses instead of calling
+ * Gemini. Prompts are matched to recordings by hash; prompts without a
+ * recording get a response synthesized from the feature's JSON template.
+ * Latency and failures are injected per feature so that throughput, the
+ * concurrency limiter and the caches can be exercised without a network or
+ * model quota. The feature of a prompt is recognized by a marker phrase from
+ * its template text.
+ */
+public class ReplayChatModel implements ChatModel {
+
+    private static final String MODEL_NAME = "replay";
+    private static final Pattern BATCH_RECIPE_HEADER = Pattern.compile("^###\\s*RECIPE\\s+(\\d+)\\s*$",
+            Pattern.MULTILINE);
+    private static final int STREAM_CHUNK_CHARS = 48;
+    private static final double FIRST_CHUNK_SHARE = 0.3;
+
+    private final ChatRecordingStore store;
+    private final Map<AiFeature, FeatureProfile> profiles;
+    private final LatencyProfile defaultLatency;
+    private final boolean useRecordedLatency;
+
+    public ReplayChatModel(ChatRecordingStore store, Map<AiFeature, FeatureProfile> profiles,
+            LatencyProfile defaultLatency, boolean useRecordedLatency) {
+        this.store = store;
+        this.profiles = profiles;
+        this.defaultLatency = defaultLatency;
+        this.useRecordedLatency = useRecordedLatency;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        Reply reply = prepare(prompt);
+        try {
+            Thread.sleep(reply.latencyMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Replayed model call interrupted");
+        }
+        if (reply.failure() != null) {
+            throw reply.failure();
+        }
+        return response(reply.content(), usage(prompt, reply.content()));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            Reply reply = prepare(prompt);
+            long firstChunkMs = (long) (reply.latencyMs() * FIRST_CHUNK_SHARE);
+            if (reply.failure() != null) {
+                return Mono.delay(Duration.ofMillis(firstChunkMs)).then(Mono.<ChatResponse>error(reply.failure()));
+            }
+
+            List<String> chunks = split(reply.content());
+            long chunkMs = (reply.latencyMs() - firstChunkMs) / Math.max(1, chunks.size() - 1);
+            Usage usage = usage(prompt, reply.content());
+            return Flux.range(0, chunks.size())
+                    .concatMap(index -> Mono.delay(Duration.ofMillis(index == 0 ? firstChunkMs : chunkMs))
+                            .map(tick -> response(chunks.get(index),
+                                    index == chunks.size() - 1 ? usage : null)));
+        });
+    }
+
+    /**
+     * Returns the text content of a model response.
+     *
+     * @param response the response
+     * @return the content, or an empty string
+     */
+    static String contentOf(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String content = response.getResult().getOutput().getContent();
+        return content != null ? content : "";
+    }
+
+    // Private helper methods
+
+    private Reply prepare(Prompt prompt) {
+        String promptText = prompt.getContents();
+        AiFeature feature = resolveFeature(promptText);
+        FeatureProfile profile = feature != null ? profiles.get(feature) : null;
+        LatencyProfile latency = profile != null ? profile.latency() : defaultLatency;
+
+        RuntimeException failure = latency.sampleFailure();
+        ChatRecordingStore.Recording recording = store.find(promptText).orElse(null);
+        if (recording != null) {
+            long latencyMs = useRecordedLatency ? recording.latencyMs() : latency.sampleMillis();
+            return new Reply(recording.response(), latencyMs, failure);
+        }
+        return new Reply(synthesize(promptText, profile), latency.sampleMillis(), failure);
+    }
+
+    private AiFeature resolveFeature(String promptText) {
+        for (Map.Entry<AiFeature, FeatureProfile> entry : profiles.entrySet()) {
+            String marker = entry.getValue().marker();
+            if (marker != null && !marker.isEmpty() && promptText.contains(marker)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private String synthesize(String promptText, FeatureProfile profile) {
+        if (profile == null || profile.template() == null) {
+            throw new IllegalStateException("No recording or response template for prompt "
+                    + store.key(promptText));
+        }
+
+        // Batch prompts expect one "### RESULT <id>" section per recipe
+        Matcher matcher = BATCH_RECIPE_HEADER.matcher(promptText);
+        StringBuilder sections = new StringBuilder();
+        while (matcher.find()) {
+            sections.append("### RESULT ").append(matcher.group(1)).append('\n')
+                    .append(profile.template().strip()).append('\n');
+        }
+        return sections.isEmpty() ? profile.template() : sections.toString();
+    }
+
+    private List<String> split(String content) {
+        List<String> chunks = new ArrayList<>();
+        for (int start = 0; start < content.length(); start += STREAM_CHUNK_CHARS) {
+            chunks.add(content.substring(start, Math.min(content.length(), start + STREAM_CHUNK_CHARS)));
+        }
+        if (chunks.isEmpty()) {
+            chunks.add("");
+        }
+        return chunks;
+    }
+
+    private ChatResponse response(String content, Usage usage) {
+        ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder().withModel(MODEL_NAME);
+        if (usage != null) {
+            metadata.withUsage(usage);
+        }
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(content))), metadata.build());
+    }
+
+    private Usage usage(Prompt prompt, String content) {
+        // Same four-characters-per-token estimate as the prompt budget
+        return new ReplayUsage((long) Math.ceil(prompt.getContents().length() / 4.0),
+                (long) Math.ceil(content.length() / 4.0));
+    }
+
+    private record Reply(String content, long latencyMs, RuntimeException failure) {
+    }
+
+    private record ReplayUsage(Long promptTokens, Long generationTokens) implements Usage {
+
+        @Override
+        public Long getPromptTokens() {
+            return promptTokens;
+        }
+
+        @Override
+        public Long getGenerationTokens() {
+            return generationTokens;
+        }
+    }
+
+    /**
+     * Replay settings of one feature.
+     *
+     * @param marker   phrase from the feature's prompt template used to
+     *                 recognize its prompts
+     * @param template JSON response synthesized when no recording exists, or
+     *                 null
+     * @param latency  injected latency and failures
+     */
+    public record FeatureProfile(String marker, String template, LatencyProfile latency) {
+    }
+
+    /**
+     * Injected latency distribution and failure rate. Latency is log-normal
+     * around the median (a sigma of zero gives a fixed latency), with
+     * occasional tail spikes added on top.
+     *
+     * @param medianMs         median latency
+     * @param sigma            log-normal shape; larger values give a longer tail
+     * @param spikeProbability probability of adding a tail spike
+     * @param spikeMs          latency added by a spike
+     * @param errorRate        probability of failing the call
+     * @param errorStatus      status put at the start of the failure message,
+     *                         e.g. {@code UNAVAILABLE} or
+     *                         {@code RESOURCE_EXHAUSTED}
+     */
+    public record LatencyProfile(long medianMs, double sigma, double spikeProbability, long spikeMs,
+            double errorRate, String errorStatus) {
+
+        long sampleMillis() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double latency = medianMs * Math.exp(sigma * random.nextGaussian());
+            if (spikeProbability > 0 && random.nextDouble() < spikeProbability) {
+                latency += spikeMs;
+            }
+            return Math.max(0, Math.round(latency));
+        }
+
+        RuntimeException sampleFailure() {
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                return new IllegalStateException(errorStatus + ": injected replay failure");
+            }
+            return null;
+        }
+    }
+}
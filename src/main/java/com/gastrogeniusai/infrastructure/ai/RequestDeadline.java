@@ -0,0 +1,167 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Deadline of one AI request, and whether its client has gone away.
+ * Created by {@link AiDeadlineInterceptor} from the client's
+ * {@value #HEADER} header or the endpoint's default, and held in an
+ * inheritable thread local like {@link AiCallContext}, so model calls on
+ * threads started for the request see it. Model calls stop waiting at the
+ * deadline, and are cancelled as soon as the request is abandoned.
+ */
+public final class RequestDeadline {
+
+    /**
+     * Header in which clients send their time budget, in milliseconds.
+     */
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    /**
+     * Request attribute holding the deadline of the current request.
+     */
+    public static final String ATTRIBUTE = RequestDeadline.class.getName();
+
+    private static final InheritableThreadLocal<RequestDeadline> CURRENT = new InheritableThreadLocal<>();
+
+    private final long budgetMs;
+    private final long expiresAtNanos;
+    private final AtomicReference<Reason> abandoned = new AtomicReference<>();
+    private final List<Runnable> abandonActions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a deadline the given time from now.
+     *
+     * @param budgetMs time budget in milliseconds
+     */
+    public RequestDeadline(long budgetMs) {
+        this.budgetMs = budgetMs;
+        this.expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+    }
+
+    /**
+     * Returns the deadline bound to the current thread.
+     *
+     * @return the deadline, or empty outside AI requests
+     */
+    public static Optional<RequestDeadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Binds a deadline to the current thread and the threads it starts.
+     *
+     * @param deadline the deadline
+     */
+    public static void set(RequestDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    /**
+     * Unbinds the deadline from the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public long getBudgetMs() {
+        return budgetMs;
+    }
+
+    /**
+     * Returns the deadline as a {@link System#nanoTime()} value.
+     *
+     * @return expiry time in nanoseconds
+     */
+    public long expiresAtNanos() {
+        return expiresAtNanos;
+    }
+
+    /**
+     * Returns the time left before the deadline.
+     *
+     * @return remaining nanoseconds, 0 once expired
+     */
+    public long remainingNanos() {
+        return Math.max(0, expiresAtNanos - System.nanoTime());
+    }
+
+    /**
+     * Returns whether nobody is waiting for the result any more, because the
+     * deadline passed or the client went away.
+     *
+     * @return whether the request is abandoned
+     */
+    public boolean isAbandoned() {
+        return abandoned.get() != null || remainingNanos() == 0;
+    }
+
+    /**
+     * Returns why the request was abandoned.
+     *
+     * @return the reason, or null while the request is live
+     */
+    public Reason getAbandonReason() {
+        Reason reason = abandoned.get();
+        return reason != null ? reason : remainingNanos() == 0 ? Reason.DEADLINE : null;
+    }
+
+    /**
+     * Marks the request abandoned and runs the registered actions, once.
+     *
+     * @param reason why the request was abandoned
+     */
+    public void abandon(Reason reason) {
+        if (abandoned.compareAndSet(null, reason)) {
+            abandonActions.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Registers an action to run when the request is abandoned, immediately if
+     * it already is. A passing deadline alone does not run actions; callers
+     * wait with a timeout for that. Actions may run more than once and must
+     * be idempotent.
+     *
+     * @param action the action, e.g. cancelling a model call
+     * @return registration to close once the action is no longer needed
+     */
+    public Registration onAbandon(Runnable action) {
+        abandonActions.add(action);
+        if (abandoned.get() != null) {
+            action.run();
+        }
+        return () -> abandonActions.remove(action);
+    }
+
+    /**
+     * Why a request was abandoned.
+     */
+    public enum Reason {
+        DEADLINE("deadline"),
+        DISCONNECT("disconnect");
+
+        private final String metricTag;
+
+        Reason(String metricTag) {
+            this.metricTag = metricTag;
+        }
+
+        public String getMetricTag() {
+            return metricTag;
+        }
+    }
+
+    /**
+     * Registration of an abandon action.
+     */
+    public interface Registration extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,199 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compact description of the JSON object a prompt asks the model to return.
+ * Top-level fields are either required or optional, so a generation profile
+ * can leave out fields its clients do not use. The schema can also be
+ * rendered with short key aliases (the compact wire schema), which cuts the
+ * output tokens the model spends on repeated key names; the aliases are
+ * expanded back to the full keys before binding.
+ */
+public final class ResponseSchema {
+
+    private static final Pattern KEY = Pattern.compile("\"([A-Za-z][A-Za-z0-9]*)\"(?=:)");
+    private static final Pattern DEFINITION_REFERENCE = Pattern.compile("\\b([A-Z][A-Z_]*[A-Z])\\b");
+
+    private final List<String> fieldOrder;
+    private final Map<String, Field> fields;
+    private final Map<String, String> definitions;
+    private final Map<String, String> aliases;
+    private final Map<String, String> expansions;
+
+    private ResponseSchema(Builder builder) {
+        this.fieldOrder = List.copyOf(builder.fields.keySet());
+        this.fields = Map.copyOf(builder.fields);
+        this.definitions = Map.copyOf(builder.definitions);
+        this.aliases = Map.copyOf(builder.aliases);
+        Map<String, String> expansions = new HashMap<>();
+        builder.aliases.forEach((key, alias) -> {
+            if (expansions.put(alias, key) != null) {
+                throw new IllegalArgumentException("Duplicate schema alias: " + alias);
+            }
+        });
+        this.expansions = Map.copyOf(expansions);
+    }
+
+    /**
+     * Creates a schema builder.
+     *
+     * @return new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Renders the schema for a prompt. Required fields are always included;
+     * optional fields only when requested.
+     *
+     * @param requestedFields optional fields to include, or null for all
+     * @param compact         whether to use the short key aliases
+     * @return schema text, followed by one line per referenced definition
+     */
+    public String render(Collection<String> requestedFields, boolean compact) {
+        StringBuilder schema = new StringBuilder("{");
+        for (String name : fieldNames(requestedFields)) {
+            if (schema.length() > 1) {
+                schema.append(',');
+            }
+            schema.append('"').append(name).append("\":").append(fields.get(name).type());
+        }
+        schema.append('}');
+
+        // Definitions are listed once, after the object, in order of first reference
+        Map<String, String> referenced = new LinkedHashMap<>();
+        collectDefinitions(schema, referenced);
+        for (String definition : new ArrayList<>(referenced.values())) {
+            collectDefinitions(definition, referenced);
+        }
+        referenced.forEach((name, definition) -> schema.append('\n').append(name).append(": ").append(definition));
+
+        return compact ? compactKeys(schema.toString()) : schema.toString();
+    }
+
+    /**
+     * Returns the top-level fields a rendered schema asks for: the required
+     * fields and the requested optional ones, in declaration order.
+     *
+     * @param requestedFields optional fields to include, or null for all
+     * @return field names
+     */
+    public List<String> fieldNames(Collection<String> requestedFields) {
+        return fieldOrder.stream()
+                .filter(name -> fields.get(name).required() || requestedFields == null
+                        || requestedFields.contains(name))
+                .toList();
+    }
+
+    /**
+     * Returns the mapping from short key aliases to full keys.
+     *
+     * @return alias to key mapping
+     */
+    public Map<String, String> getExpansions() {
+        return expansions;
+    }
+
+    // Private helper methods
+
+    private void collectDefinitions(CharSequence text, Map<String, String> referenced) {
+        Matcher matcher = DEFINITION_REFERENCE.matcher(text);
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            if (definitions.containsKey(name)) {
+                referenced.putIfAbsent(name, definitions.get(name));
+            }
+        }
+    }
+
+    private String compactKeys(String schema) {
+        return KEY.matcher(schema).replaceAll(match -> {
+            String alias = aliases.get(match.group(1));
+            return Matcher.quoteReplacement("\"" + (alias != null ? alias : match.group(1)) + "\"");
+        });
+    }
+
+    private record Field(String type, boolean required) {
+    }
+
+    /**
+     * Builder for {@link ResponseSchema}. Field types and definitions are
+     * written with full keys; aliases are applied when rendering compactly.
+     */
+    public static final class Builder {
+        private final Map<String, Field> fields = new LinkedHashMap<>();
+        private final Map<String, String> definitions = new LinkedHashMap<>();
+        private final Map<String, String> aliases = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a field that is always requested.
+         *
+         * @param name field name
+         * @param type type description, e.g. {@code string} or a definition name
+         * @return this builder
+         */
+        public Builder required(String name, String type) {
+            fields.put(name, new Field(type, true));
+            return this;
+        }
+
+        /**
+         * Adds a field that generation profiles may leave out.
+         *
+         * @param name field name
+         * @param type type description
+         * @return this builder
+         */
+        public Builder optional(String name, String type) {
+            fields.put(name, new Field(type, false));
+            return this;
+        }
+
+        /**
+         * Adds a named type referenced from field types, written in upper case.
+         *
+         * @param name       definition name, e.g. {@code NUTRIENTS}
+         * @param definition the type description
+         * @return this builder
+         */
+        public Builder define(String name, String definition) {
+            definitions.put(name, definition);
+            return this;
+        }
+
+        /**
+         * Sets the short alias used for a key in the compact wire schema.
+         * Aliases must be unique across all nesting levels.
+         *
+         * @param key   the full key
+         * @param alias the short key
+         * @return this builder
+         */
+        public Builder alias(String key, String alias) {
+            aliases.put(key, alias);
+            return this;
+        }
+
+        /**
+         * Builds the schema.
+         *
+         * @return the schema
+         * @throws IllegalArgumentException if two keys share an alias
+         */
+        public ResponseSchema build() {
+            return new ResponseSchema(this);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: instead of a token count and a
+ * last-refill time, the whole state is one timestamp, the instant at which
+ * the bucket will be full again. Taking tokens pushes that instant forward,
+ * time passing refills the bucket implicitly, and an update is a single
+ * compare-and-set. A bucket that is full holds no information, so idle
+ * buckets can be dropped and recreated without changing behaviour.
+ */
+public final class TokenBucket {
+
+    private final long capacity;
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param capacity       maximum tokens held (the burst size)
+     * @param refillTokens   tokens added per refill period
+     * @param refillPeriod   the refill period
+     * @param nowNanos       current {@link System#nanoTime()}
+     */
+    public TokenBucket(long capacity, long refillTokens, Duration refillPeriod, long nowNanos) {
+        if (capacity <= 0 || refillTokens <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, refillPeriod.toNanos() / refillTokens);
+        this.capacityNanos = capacity * nanosPerToken;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes tokens if the bucket holds enough of them.
+     *
+     * @param tokens   tokens to take
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return whether the tokens were taken
+     */
+    public boolean tryConsume(long tokens, long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + tokens * nanosPerToken;
+            if (next - nowNanos > capacityNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes tokens unconditionally, for usage known only after the fact. The
+     * bucket may go into debt, which blocks it until time pays the debt off.
+     *
+     * @param tokens   tokens to take
+     * @param nowNanos current {@link System#nanoTime()}
+     */
+    public void consume(long tokens, long nowNanos) {
+        long cost = tokens * nanosPerToken;
+        fullAt.getAndUpdate(current -> Math.max(current, nowNanos) + cost);
+    }
+
+    /**
+     * Returns tokens taken by a {@link #tryConsume} whose request was then
+     * rejected elsewhere.
+     *
+     * @param tokens tokens to return
+     */
+    public void refund(long tokens) {
+        long cost = tokens * nanosPerToken;
+        fullAt.getAndAdd(-cost);
+    }
+
+    /**
+     * Returns the tokens currently available.
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return available tokens, 0 while the bucket is empty or in debt
+     */
+    public long available(long nowNanos) {
+        long used = Math.max(0, fullAt.get() - nowNanos);
+        return Math.max(0, (capacityNanos - used) / nanosPerToken);
+    }
+
+    /**
+     * Returns how long until the given number of tokens is available.
+     *
+     * @param tokens   tokens needed
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return wait in nanoseconds, 0 if they are available now
+     */
+    public long nanosUntilAvailable(long tokens, long nowNanos) {
+        long next = Math.max(fullAt.get(), nowNanos) + tokens * nanosPerToken;
+        return Math.max(0, next - nowNanos - capacityNanos);
+    }
+
+    /**
+     * Returns how long until the bucket is full again.
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return nanoseconds until full, 0 if full
+     */
+    public long nanosUntilFull(long nowNanos) {
+        return Math.max(0, fullAt.get() - nowNanos);
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+}
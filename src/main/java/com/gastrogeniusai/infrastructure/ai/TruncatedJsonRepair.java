@@ -0,0 +1,199 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repairs the JSON object of model output that was cut off, typically at the
+ * max-tokens limit, or has trailing commas.
+ * A single pass over the text from its first opening brace tracks the open
+ * objects and arrays and, for each of them, where its last complete element
+ * ended. A truncated response is cut back to a point where every open
+ * structure is consistent and the structures are then closed:
+ * <ul>
+ * <li>inside an array, the incomplete trailing element is dropped, and for
+ * nested arrays the element of the outermost one, so no half-built
+ * ingredient survives</li>
+ * <li>inside a string value of an object, the string is closed and keeps its
+ * partial text, so a long instructions field is not lost</li>
+ * <li>otherwise the incomplete trailing member (a key without a value, or a
+ * number or literal that may be incomplete) is dropped</li>
+ * </ul>
+ * The result is syntactically valid JSON, but may lack required content;
+ * callers validate it after binding.
+ */
+public final class TruncatedJsonRepair {
+
+    private TruncatedJsonRepair() {
+    }
+
+    /**
+     * Repairs the first JSON object in the text.
+     *
+     * @param text the raw model output
+     * @return the repaired object, or empty if the text has no JSON object or
+     *         its brackets do not match
+     */
+    public static Optional<Result> repair(String text) {
+        if (text == null) {
+            return Optional.empty();
+        }
+        int start = text.indexOf('{');
+        if (start < 0) {
+            return Optional.empty();
+        }
+
+        List<Frame> open = new ArrayList<>();
+        boolean inString = false;
+        boolean stringIsKey = false;
+        boolean escaped = false;
+        int length = text.length();
+
+        scan:
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                    if (!stringIsKey) {
+                        top(open).valueEnded(i + 1);
+                    }
+                }
+                continue;
+            }
+            switch (c) {
+                case '{', '[' -> open.add(new Frame(c == '[', i + 1));
+                case '}', ']' -> {
+                    Frame closed = open.remove(open.size() - 1);
+                    if (closed.array != (c == ']')) {
+                        return Optional.empty();
+                    }
+                    if (open.isEmpty()) {
+                        // Complete object: it failed to parse for another reason, e.g. trailing commas
+                        return Optional.of(new Result(removeTrailingCommas(text.substring(start, i + 1)), false));
+                    }
+                    top(open).valueEnded(i + 1);
+                }
+                case '"' -> {
+                    Frame frame = top(open);
+                    inString = true;
+                    stringIsKey = !frame.array && !frame.afterColon;
+                }
+                case ':' -> top(open).afterColon = true;
+                case ',' -> top(open).afterColon = false;
+                default -> {
+                    if (Character.isWhitespace(c)) {
+                        continue;
+                    }
+                    // Number or literal: it is complete only once a delimiter follows
+                    int end = i;
+                    while (end < length && !isDelimiter(text.charAt(end))) {
+                        end++;
+                    }
+                    if (end == length) {
+                        break scan;
+                    }
+                    top(open).valueEnded(end);
+                    i = end - 1;
+                }
+            }
+        }
+
+        StringBuilder repaired = new StringBuilder();
+        int closeFrom = open.size() - 1;
+        int outermostArray = -1;
+        for (int i = 0; i < open.size() && outermostArray < 0; i++) {
+            if (open.get(i).array) {
+                outermostArray = i;
+            }
+        }
+
+        if (outermostArray >= 0) {
+            repaired.append(text, start, open.get(outermostArray).safeEnd);
+            closeFrom = outermostArray;
+        } else if (inString && !stringIsKey) {
+            String partial = text.substring(start, escaped ? length - 1 : length);
+            repaired.append(partial.replaceFirst("\\\\u[0-9a-fA-F]{0,3}$", "")).append('"');
+        } else {
+            repaired.append(text, start, top(open).safeEnd);
+        }
+        for (int i = closeFrom; i >= 0; i--) {
+            repaired.append(open.get(i).array ? ']' : '}');
+        }
+        return Optional.of(new Result(removeTrailingCommas(repaired.toString()), true));
+    }
+
+    // Private helper methods
+
+    private static Frame top(List<Frame> open) {
+        return open.get(open.size() - 1);
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == ',' || c == '}' || c == ']' || Character.isWhitespace(c);
+    }
+
+    private static String removeTrailingCommas(String json) {
+        StringBuilder result = new StringBuilder(json.length());
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == ',') {
+                int next = i + 1;
+                while (next < json.length() && Character.isWhitespace(json.charAt(next))) {
+                    next++;
+                }
+                if (next < json.length() && (json.charAt(next) == '}' || json.charAt(next) == ']')) {
+                    continue;
+                }
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+
+    /**
+     * An object or array still open at the current position.
+     */
+    private static final class Frame {
+        private final boolean array;
+        private int safeEnd;
+        private boolean afterColon;
+
+        Frame(boolean array, int contentStart) {
+            this.array = array;
+            this.safeEnd = contentStart;
+        }
+
+        void valueEnded(int end) {
+            safeEnd = end;
+            afterColon = false;
+        }
+    }
+
+    /**
+     * A repaired JSON object.
+     *
+     * @param json      the repaired object text
+     * @param truncated whether the text was cut off, rather than only
+     *                  malformed
+     */
+    public record Result(String json, boolean truncated) {
+    }
+}
@@ -1,13 +1,123 @@
 package com.gastrogeniusai.infrastructure.config;
 
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.infrastructure.ai.ChatRecordingStore;
+import com.gastrogeniusai.infrastructure.ai.RecordingChatModel;
+import com.gastrogeniusai.infrastructure.ai.ReplayChatModel;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.vertexai.gemini.VertexAiGeminiChatModel;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Configuration class for Spring AI and Vertex AI Gemini integration.
- * This class relies on Spring Boot auto-configuration for AI services.
+ * The Gemini chat model itself comes from Spring Boot auto-configuration,
+ * configured through application.yml properties. The {@code ai-record}
+ * profile wraps it to save every prompt/response pair, and the
+ * {@code ai-replay} profile replaces it with an offline model that replays
+ * those recordings with injected latency.
  */
 @Configuration
 public class SpringAiConfig {
-    // Spring Boot auto-configuration will handle the Vertex AI Gemini setup
-    // Configuration is done through application.yml properties
-}
\ No newline at end of file
+
+    private static final String REPLAY_PREFIX = "ai.replay.";
+
+    /**
+     * Creates the store of recorded model responses.
+     *
+     * @param environment the environment
+     * @return recording store
+     */
+    @Bean
+    @Profile({ "ai-record", "ai-replay" })
+    public ChatRecordingStore chatRecordingStore(Environment environment) {
+        return new ChatRecordingStore(Path.of(environment.getProperty(REPLAY_PREFIX + "recordings-dir",
+                "ai-recordings")));
+    }
+
+    /**
+     * Wraps the Gemini chat model so that every response is recorded.
+     *
+     * @param geminiChatModel the auto-configured Gemini model
+     * @param store           the recording store
+     * @return recording chat model
+     */
+    @Bean
+    @Primary
+    @Profile("ai-record")
+    public ChatModel recordingChatModel(VertexAiGeminiChatModel geminiChatModel, ChatRecordingStore store) {
+        return new RecordingChatModel(geminiChatModel, store);
+    }
+
+    /**
+     * Creates the offline chat model that replays recordings.
+     *
+     * @param store          the recording store
+     * @param environment    the environment
+     * @param resourceLoader loader for response templates
+     * @return replay chat model
+     */
+    @Bean
+    @Primary
+    @Profile("ai-replay")
+    public ChatModel replayChatModel(ChatRecordingStore store, Environment environment,
+            ResourceLoader resourceLoader) {
+        String templatesLocation = environment.getProperty(REPLAY_PREFIX + "templates-location",
+                "classpath:ai-replay/");
+        Map<AiFeature, ReplayChatModel.FeatureProfile> profiles = new EnumMap<>(AiFeature.class);
+        for (AiFeature feature : AiFeature.values()) {
+            profiles.put(feature, new ReplayChatModel.FeatureProfile(
+                    replayProperty(environment, feature, "marker", String.class, null),
+                    readTemplate(resourceLoader.getResource(templatesLocation + feature.getMetricTag() + ".json")),
+                    latencyProfile(environment, feature)));
+        }
+
+        return new ReplayChatModel(store, profiles, latencyProfile(environment, null),
+                environment.getProperty(REPLAY_PREFIX + "use-recorded-latency", Boolean.class, false));
+    }
+
+    // Private helper methods
+
+    private ReplayChatModel.LatencyProfile latencyProfile(Environment environment, AiFeature feature) {
+        return new ReplayChatModel.LatencyProfile(
+                replayProperty(environment, feature, "median-ms", Long.class, 800L),
+                replayProperty(environment, feature, "sigma", Double.class, 0.4),
+                replayProperty(environment, feature, "spike-probability", Double.class, 0.0),
+                replayProperty(environment, feature, "spike-ms", Long.class, 0L),
+                replayProperty(environment, feature, "error-rate", Double.class, 0.0),
+                replayProperty(environment, feature, "error-status", String.class, "UNAVAILABLE"));
+    }
+
+    private <T> T replayProperty(Environment environment, AiFeature feature, String name, Class<T> type,
+            T defaultValue) {
+        T shared = environment.getProperty(REPLAY_PREFIX + name, type, defaultValue);
+        if (feature == null) {
+            return shared;
+        }
+        return environment.getProperty(REPLAY_PREFIX + "features." + feature.getMetricTag() + "." + name,
+                type, shared);
+    }
+
+    private String readTemplate(Resource resource) {
+        if (!resource.exists()) {
+            return null;
+        }
+        try {
+            return resource.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read replay template " + resource, e);
+        }
+    }
+}
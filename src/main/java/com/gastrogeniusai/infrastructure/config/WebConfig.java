@@ -0,0 +1,47 @@
+package com.gastrogeniusai.infrastructure.config;
+
+import com.gastrogeniusai.infrastructure.ai.AiDeadlineInterceptor;
+import com.gastrogeniusai.infrastructure.ai.AiQuotaInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration. Registers the AI quota and deadline interceptors
+ * on the AI endpoints, and runs asynchronous handlers on a new virtual thread
+ * per request, which inherits the request's AI caller and deadline.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AiQuotaInterceptor aiQuotaInterceptor;
+    private final AiDeadlineInterceptor aiDeadlineInterceptor;
+
+    @Autowired
+    public WebConfig(AiQuotaInterceptor aiQuotaInterceptor, AiDeadlineInterceptor aiDeadlineInterceptor) {
+        this.aiQuotaInterceptor = aiQuotaInterceptor;
+        this.aiDeadlineInterceptor = aiDeadlineInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Health and feature listings make no model calls
+        registry.addInterceptor(aiQuotaInterceptor)
+                .addPathPatterns("/ai/**")
+                .excludePathPatterns("/ai/health", "/ai/features");
+        // Jobs outlive the request that submits them
+        registry.addInterceptor(aiDeadlineInterceptor)
+                .addPathPatterns("/ai/**")
+                .excludePathPatterns("/ai/health", "/ai/features", "/ai/jobs/**");
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+        executor.setVirtualThreads(true);
+        configurer.setTaskExecutor(executor);
+    }
+}
@@ -0,0 +1,12 @@
+package com.gastrogeniusai.infrastructure.exception;
+
+/**
+ * Exception thrown when an AI request is rejected because a capacity limit
+ * (queue depth, per-user concurrency or similar) has been reached.
+ */
+public class AiCapacityExceededException extends RuntimeException {
+
+    public AiCapacityExceededException(String message) {
+        super(message);
+    }
+}
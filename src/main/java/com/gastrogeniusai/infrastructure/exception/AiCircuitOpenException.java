@@ -0,0 +1,12 @@
+package com.gastrogeniusai.infrastructure.exception;
+
+/**
+ * Exception thrown when an AI call is rejected because the circuit breaker
+ * around the AI provider is open. Handled as an unavailable AI service.
+ */
+public class AiCircuitOpenException extends AiServiceException {
+
+    public AiCircuitOpenException(String message) {
+        super(message);
+    }
+}
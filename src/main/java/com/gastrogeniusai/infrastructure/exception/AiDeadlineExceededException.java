@@ -0,0 +1,12 @@
+package com.gastrogeniusai.infrastructure.exception;
+
+/**
+ * Exception thrown when an AI model call does not complete within its
+ * deadline and is abandoned.
+ */
+public class AiDeadlineExceededException extends RuntimeException {
+
+    public AiDeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.gastrogeniusai.infrastructure.exception;
+
+/**
+ * Exception thrown when an AI request is rejected because the user has used
+ * up their request or token quota.
+ */
+public class AiQuotaExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AiQuotaExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
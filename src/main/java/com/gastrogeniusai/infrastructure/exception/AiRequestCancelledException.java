@@ -0,0 +1,21 @@
+package com.gastrogeniusai.infrastructure.exception;
+
+import com.gastrogeniusai.infrastructure.ai.RequestDeadline;
+
+/**
+ * Exception thrown when an AI call is cancelled because its request was
+ * abandoned: the request deadline passed or the client disconnected.
+ */
+public class AiRequestCancelledException extends RuntimeException {
+
+    private final RequestDeadline.Reason reason;
+
+    public AiRequestCancelledException(String message, RequestDeadline.Reason reason) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public RequestDeadline.Reason getReason() {
+        return reason;
+    }
+}
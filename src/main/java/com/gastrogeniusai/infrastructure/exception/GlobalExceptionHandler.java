@@ -1,7 +1,9 @@
 package com.gastrogeniusai.infrastructure.exception;
 
+import com.gastrogeniusai.infrastructure.ai.RequestDeadline;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -26,6 +28,8 @@ import java.util.Set;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final int CLIENT_CLOSED_REQUEST = 499;
+
     /**
      * Handles validation errors from @Valid annotations.
      */
@@ -205,6 +209,113 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
     }
 
+    /**
+     * Handles AI capacity limit exceptions.
+     */
+    @ExceptionHandler(AiCapacityExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleAiCapacityExceededException(
+            AiCapacityExceededException ex, WebRequest request) {
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        errorResponse.put("error", "Too Many Requests");
+        errorResponse.put("message", "AI capacity limit reached, please retry later");
+        errorResponse.put("details", ex.getMessage());
+        errorResponse.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
+    }
+
+    /**
+     * Handles AI requests rejected by the user's quota.
+     */
+    @ExceptionHandler(AiQuotaExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleAiQuotaExceededException(
+            AiQuotaExceededException ex, WebRequest request) {
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        errorResponse.put("error", "Too Many Requests");
+        errorResponse.put("message", "AI quota exceeded, please retry later");
+        errorResponse.put("details", ex.getMessage());
+        errorResponse.put("retryAfterSeconds", ex.getRetryAfterSeconds());
+        errorResponse.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    /**
+     * Handles AI calls abandoned at their deadline.
+     */
+    @ExceptionHandler(AiDeadlineExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleAiDeadlineExceededException(
+            AiDeadlineExceededException ex, WebRequest request) {
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("status", HttpStatus.GATEWAY_TIMEOUT.value());
+        errorResponse.put("error", "Gateway Timeout");
+        errorResponse.put("message", "AI service did not respond in time, please retry later");
+        errorResponse.put("details", ex.getMessage());
+        errorResponse.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+
+    /**
+     * Handles AI calls cancelled because their request was abandoned. A
+     * disconnected client never reads the response; 499 marks it in access
+     * logs.
+     */
+    @ExceptionHandler(AiRequestCancelledException.class)
+    public ResponseEntity<Map<String, Object>> handleAiRequestCancelledException(
+            AiRequestCancelledException ex, WebRequest request) {
+
+        boolean deadline = ex.getReason() == RequestDeadline.Reason.DEADLINE;
+        int status = deadline ? HttpStatus.GATEWAY_TIMEOUT.value() : CLIENT_CLOSED_REQUEST;
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("status", status);
+        errorResponse.put("error", deadline ? "Gateway Timeout" : "Client Closed Request");
+        errorResponse.put("message", deadline ? "The request deadline passed before the AI service responded"
+                : "The request was cancelled by the client");
+        errorResponse.put("details", ex.getMessage());
+        errorResponse.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
+    /**
+     * Handles Idempotency-Key conflicts: 409 while the first request with the
+     * key is still running, 422 when the key was used for a different request.
+     */
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyConflictException(
+            IdempotencyKeyConflictException ex, WebRequest request) {
+
+        HttpStatus status = ex.isInProgress() ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY;
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("status", status.value());
+        errorResponse.put("error", status.getReasonPhrase());
+        errorResponse.put("message", ex.isInProgress() ? "The original request is still in progress, please retry"
+                : "The idempotency key was already used for a different request");
+        errorResponse.put("details", ex.getMessage());
+        errorResponse.put("path", request.getDescription(false).replace("uri=", ""));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (ex.isInProgress()) {
+            response.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return response.body(errorResponse);
+    }
+
     /**
      * Handles database-related exceptions.
      */
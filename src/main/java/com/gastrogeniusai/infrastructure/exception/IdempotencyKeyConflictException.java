@@ -0,0 +1,19 @@
+package com.gastrogeniusai.infrastructure.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key cannot be honoured: it was already
+ * used with a different request, or its first request is still in progress.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    private final boolean inProgress;
+
+    public IdempotencyKeyConflictException(String message, boolean inProgress) {
+        super(message);
+        this.inProgress = inProgress;
+    }
+
+    public boolean isInProgress() {
+        return inProgress;
+    }
+}
@@ -0,0 +1,75 @@
+package com.gastrogeniusai.infrastructure.repository;
+
+import com.gastrogeniusai.domain.entity.AiAnalysisEntry;
+import com.gastrogeniusai.domain.entity.AiAnalysisType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Repository interface for persisted AI analysis results.
+ */
+@Repository
+public interface AiAnalysisRepository extends JpaRepository<AiAnalysisEntry, Long> {
+
+    /**
+     * Finds an analysis by type and content hash.
+     *
+     * @param analysisType the analysis type
+     * @param contentHash  hash of the recipe fields the prompt reads
+     * @return Optional containing the analysis if found
+     */
+    Optional<AiAnalysisEntry> findByAnalysisTypeAndContentHash(AiAnalysisType analysisType, String contentHash);
+
+    /**
+     * Finds the most recently created analysis of a type for a recipe.
+     *
+     * @param analysisType the analysis type
+     * @param recipeId     the recipe ID
+     * @return Optional containing the latest analysis if any
+     */
+    Optional<AiAnalysisEntry> findFirstByAnalysisTypeAndRecipeIdOrderByCreatedAtDesc(AiAnalysisType analysisType,
+            Long recipeId);
+
+    /**
+     * Adds a batch of hits to a stored analysis.
+     *
+     * @param id   the entry ID
+     * @param hits number of hits to add
+     */
+    @Modifying
+    @Query("UPDATE AiAnalysisEntry a SET a.hitCount = a.hitCount + :hits WHERE a.id = :id")
+    void addHits(@Param("id") Long id, @Param("hits") long hits);
+
+    /**
+     * Deletes the analyses of a type stored for a recipe, except those under
+     * the given content hashes.
+     *
+     * @param analysisType the analysis type
+     * @param recipeId     the recipe ID
+     * @param keptHashes   content hashes to keep
+     * @return number of deleted entries
+     */
+    @Modifying
+    @Query("DELETE FROM AiAnalysisEntry a WHERE a.analysisType = :analysisType AND a.recipeId = :recipeId "
+            + "AND a.contentHash NOT IN :keptHashes")
+    int deleteByRecipeExcept(@Param("analysisType") AiAnalysisType analysisType, @Param("recipeId") Long recipeId,
+            @Param("keptHashes") Collection<String> keptHashes);
+
+    /**
+     * Deletes the analyses of a type stored for a recipe.
+     *
+     * @param analysisType the analysis type
+     * @param recipeId     the recipe ID
+     * @return number of deleted entries
+     */
+    @Modifying
+    @Query("DELETE FROM AiAnalysisEntry a WHERE a.analysisType = :analysisType AND a.recipeId = :recipeId")
+    int deleteByAnalysisTypeAndRecipeId(@Param("analysisType") AiAnalysisType analysisType,
+            @Param("recipeId") Long recipeId);
+}
@@ -0,0 +1,67 @@
+package com.gastrogeniusai.infrastructure.repository;
+
+import com.gastrogeniusai.domain.entity.AiGenerationCacheEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for persisted AI recipe generation cache entries.
+ */
+@Repository
+public interface AiGenerationCacheRepository extends JpaRepository<AiGenerationCacheEntry, Long> {
+
+    /**
+     * Finds a cache entry by its key.
+     *
+     * @param cacheKey the hashed canonical request
+     * @return Optional containing the entry if found
+     */
+    Optional<AiGenerationCacheEntry> findByCacheKey(String cacheKey);
+
+    /**
+     * Records a hit on a cache entry.
+     *
+     * @param id         the entry ID
+     * @param accessedAt the access timestamp
+     */
+    @Modifying
+    @Query("UPDATE AiGenerationCacheEntry e SET e.hitCount = e.hitCount + 1, e.lastAccessedAt = :accessedAt " +
+            "WHERE e.id = :id")
+    void recordHit(@Param("id") Long id, @Param("accessedAt") LocalDateTime accessedAt);
+
+    /**
+     * Deletes all entries that expired before the given time.
+     *
+     * @param now the current time
+     * @return number of deleted entries
+     */
+    @Modifying
+    @Query("DELETE FROM AiGenerationCacheEntry e WHERE e.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Deletes a cache entry by its key.
+     *
+     * @param cacheKey the hashed canonical request
+     */
+    @Modifying
+    @Query("DELETE FROM AiGenerationCacheEntry e WHERE e.cacheKey = :cacheKey")
+    void deleteByCacheKey(@Param("cacheKey") String cacheKey);
+
+    /**
+     * Finds the IDs of the least recently accessed entries.
+     *
+     * @param pageable page size limits how many IDs are returned
+     * @return list of entry IDs ordered from least to most recently accessed
+     */
+    @Query("SELECT e.id FROM AiGenerationCacheEntry e ORDER BY e.lastAccessedAt ASC")
+    List<Long> findLeastRecentlyAccessedIds(Pageable pageable);
+}
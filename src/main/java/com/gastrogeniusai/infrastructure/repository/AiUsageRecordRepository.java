@@ -0,0 +1,101 @@
+package com.gastrogeniusai.infrastructure.repository;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.domain.entity.AiUsageRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for the AI usage ledger. Records are written in
+ * batches by {@code AiUsageLedger}; this repository reads aggregates.
+ */
+@Repository
+public interface AiUsageRecordRepository extends JpaRepository<AiUsageRecord, Long> {
+
+    /**
+     * Sums usage per day and feature.
+     *
+     * @param from first day, inclusive
+     * @param to   last day, inclusive
+     * @return daily usage ordered by day and feature
+     */
+    @Query("SELECT r.usageDate AS usageDate, r.feature AS feature, COUNT(r) AS calls, "
+            + "SUM(CASE WHEN r.cacheHit = true THEN 1 ELSE 0 END) AS cacheHits, "
+            + "SUM(CASE WHEN r.outcome <> 'success' THEN 1 ELSE 0 END) AS failures, "
+            + "SUM(r.promptTokens) AS promptTokens, SUM(r.completionTokens) AS completionTokens, "
+            + "SUM(r.estimatedCost) AS cost "
+            + "FROM AiUsageRecord r WHERE r.usageDate BETWEEN :from AND :to "
+            + "GROUP BY r.usageDate, r.feature ORDER BY r.usageDate, r.feature")
+    List<FeatureDailyUsage> sumDailyUsageByFeature(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Sums usage per day and user, optionally for one user only.
+     *
+     * @param from   first day, inclusive
+     * @param to     last day, inclusive
+     * @param userId the user ID, or null for all users
+     * @return daily usage ordered by day and by cost, highest first
+     */
+    @Query("SELECT r.usageDate AS usageDate, r.userId AS userId, u.username AS username, COUNT(r) AS calls, "
+            + "SUM(CASE WHEN r.cacheHit = true THEN 1 ELSE 0 END) AS cacheHits, "
+            + "SUM(CASE WHEN r.outcome <> 'success' THEN 1 ELSE 0 END) AS failures, "
+            + "SUM(r.promptTokens) AS promptTokens, SUM(r.completionTokens) AS completionTokens, "
+            + "SUM(r.estimatedCost) AS cost "
+            + "FROM AiUsageRecord r LEFT JOIN User u ON u.id = r.userId "
+            + "WHERE r.usageDate BETWEEN :from AND :to AND (:userId IS NULL OR r.userId = :userId) "
+            + "GROUP BY r.usageDate, r.userId, u.username ORDER BY r.usageDate, SUM(r.estimatedCost) DESC")
+    List<UserDailyUsage> sumDailyUsageByUser(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("userId") Long userId);
+
+    /**
+     * Deletes records older than the given day.
+     *
+     * @param before first day to keep
+     * @return number of deleted records
+     */
+    @Modifying
+    @Query("DELETE FROM AiUsageRecord r WHERE r.usageDate < :before")
+    int deleteByUsageDateBefore(@Param("before") LocalDate before);
+
+    /**
+     * Usage summed over one day.
+     */
+    interface DailyUsage {
+        LocalDate getUsageDate();
+
+        long getCalls();
+
+        long getCacheHits();
+
+        long getFailures();
+
+        long getPromptTokens();
+
+        long getCompletionTokens();
+
+        double getCost();
+    }
+
+    /**
+     * Usage of one feature over one day.
+     */
+    interface FeatureDailyUsage extends DailyUsage {
+        AiFeature getFeature();
+    }
+
+    /**
+     * Usage of one user over one day. The user is null for calls not made
+     * on behalf of a user, such as background jobs.
+     */
+    interface UserDailyUsage extends DailyUsage {
+        Long getUserId();
+
+        String getUsername();
+    }
+}
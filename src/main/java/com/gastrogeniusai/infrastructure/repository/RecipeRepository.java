@@ -1,5 +1,6 @@
 package com.gastrogeniusai.infrastructure.repository;
 
+import com.gastrogeniusai.domain.entity.CookingTechnique;
 import com.gastrogeniusai.domain.entity.Recipe;
 import com.gastrogeniusai.domain.entity.RecipeCategory;
 import com.gastrogeniusai.domain.entity.RecipeDifficulty;
@@ -12,6 +13,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -276,6 +278,24 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     @Query("SELECT AVG(r.averageRating) FROM Recipe r WHERE r.averageRating IS NOT NULL")
     Double getAverageRating();
 
+    /**
+     * Finds a recipe by ID with its ingredients fetched in the same query.
+     * 
+     * @param id the recipe ID
+     * @return Optional containing the recipe with initialized ingredients
+     */
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients WHERE r.id = :id")
+    Optional<Recipe> findByIdWithIngredients(@Param("id") Long id);
+
+    /**
+     * Finds recipes by ID with their ingredients fetched in the same query.
+     * 
+     * @param ids the recipe IDs
+     * @return list of recipes with initialized ingredients
+     */
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients WHERE r.id IN :ids")
+    List<Recipe> findAllByIdWithIngredients(@Param("ids") Collection<Long> ids);
+
     /**
      * Finds a recipe by ID and owner (for security checks).
      * 
@@ -294,12 +314,35 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
      */
     Optional<Recipe> findByIdAndOwnerId(Long id, Long ownerId);
 
+    /**
+     * Finds recipes with IDs greater than the given one, in ID order; used to
+     * walk all recipes in batches.
+     * 
+     * @param id       the last ID already processed
+     * @param pageable batch size
+     * @return the next batch of recipes
+     */
+    List<Recipe> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Finds recipes with no stored cooking techniques and IDs greater than the
+     * given one, in ID order; used to backfill techniques in batches.
+     * 
+     * @param id       the last ID already processed
+     * @param pageable batch size
+     * @return the next batch of recipes without techniques
+     */
+    @Query("SELECT r FROM Recipe r WHERE r.id > :id AND r.cookingTechniques IS EMPTY ORDER BY r.id")
+    List<Recipe> findWithoutCookingTechniques(@Param("id") Long id, Pageable pageable);
+
     /**
      * Complex search with multiple filters.
      * 
      * @param searchTerm     search term for title/description
      * @param category       recipe category (optional)
      * @param difficulty     recipe difficulty (optional)
+     * @param technique      cooking technique detected in the instructions
+     *                       (optional)
      * @param minCookingTime minimum cooking time (optional)
      * @param maxCookingTime maximum cooking time (optional)
      * @param isPublic       whether to include only public recipes
@@ -311,12 +354,15 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
             "LOWER(r.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
             "(:category IS NULL OR r.category = :category) AND " +
             "(:difficulty IS NULL OR r.difficulty = :difficulty) AND " +
+            "(:technique IS NULL OR EXISTS (SELECT 1 FROM Recipe tr JOIN tr.cookingTechniques t " +
+            "WHERE tr = r AND KEY(t) = :technique)) AND " +
             "(:minCookingTime IS NULL OR r.cookingTimeMinutes >= :minCookingTime) AND " +
             "(:maxCookingTime IS NULL OR r.cookingTimeMinutes <= :maxCookingTime) AND " +
             "(:isPublic = false OR r.isPublic = true)")
     Page<Recipe> findWithFilters(@Param("searchTerm") String searchTerm,
             @Param("category") RecipeCategory category,
             @Param("difficulty") RecipeDifficulty difficulty,
+            @Param("technique") CookingTechnique technique,
             @Param("minCookingTime") Integer minCookingTime,
             @Param("maxCookingTime") Integer maxCookingTime,
             @Param("isPublic") boolean isPublic,
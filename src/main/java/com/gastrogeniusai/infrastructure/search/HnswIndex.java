@@ -0,0 +1,909 @@
+package com.gastrogeniusai.infrastructure.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-process approximate nearest neighbour index (HNSW graph) over
+ * cosine similarity.
+ * Each entry has a caller-defined key, an opaque attributes word that search
+ * filters are evaluated against during graph traversal, and a version used to
+ * discard out-of-order updates. Updates and deletes are incremental: a
+ * replaced or deleted entry stays in the graph as a tombstone that is still
+ * traversed but never returned, and tombstones are dropped when the index is
+ * saved. Saved indexes are memory-mapped when loaded, so vectors stay in the
+ * page cache rather than on the heap; only entries added after loading keep
+ * their vectors on the heap.
+ * Searches run concurrently; updates are serialized.
+ */
+public class HnswIndex {
+
+    private static final int MAGIC = 0x484E5357;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final long MAX_MAPPED_CHUNK_BYTES = 1L << 30;
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Filtered searches give up after visiting this many nodes per requested candidate
+    private static final int MAX_VISITED_PER_CANDIDATE = 200;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxLinksLevelZero;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final FloatBuffer[] mappedVectors;
+    private final int vectorsPerChunk;
+    private final int mappedCount;
+    private float[][] heapVectors;
+
+    private int nodeCount;
+    private long[] keys;
+    private long[] attributes;
+    private long[] versions;
+    private int[][][] links;
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    private final Map<Long, Integer> nodesByKey = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param dimensions     vector dimensions
+     * @param m              links per node on upper levels (twice as many on
+     *                       level zero)
+     * @param efConstruction candidate list size while inserting
+     * @param seed           seed for level assignment
+     */
+    public HnswIndex(int dimensions, int m, int efConstruction, long seed) {
+        this(dimensions, m, efConstruction, seed, new FloatBuffer[0], 1, 0, INITIAL_CAPACITY);
+    }
+
+    private HnswIndex(int dimensions, int m, int efConstruction, long seed, FloatBuffer[] mappedVectors,
+            int vectorsPerChunk, int mappedCount, int capacity) {
+        if (dimensions <= 0 || m < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("Invalid HNSW parameters: dimensions=" + dimensions
+                    + ", m=" + m + ", efConstruction=" + efConstruction);
+        }
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxLinksLevelZero = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+        this.mappedVectors = mappedVectors;
+        this.vectorsPerChunk = vectorsPerChunk;
+        this.mappedCount = mappedCount;
+        this.heapVectors = new float[INITIAL_CAPACITY][];
+        this.keys = new long[capacity];
+        this.attributes = new long[capacity];
+        this.versions = new long[capacity];
+        this.links = new int[capacity][][];
+    }
+
+    /**
+     * Inserts or replaces an entry. An update older than the indexed version
+     * is ignored.
+     *
+     * @param key        the entry key
+     * @param vector     the embedding; normalized internally
+     * @param attributes attributes evaluated by search filters
+     * @param version    version of the entry, e.g. its modification time
+     * @return true if the index changed
+     */
+    public boolean upsert(long key, float[] vector, long attributes, long version) {
+        float[] normalized = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            Integer existing = nodesByKey.get(key);
+            if (existing != null) {
+                if (versions[existing] > version) {
+                    return false;
+                }
+                markDeleted(existing);
+            }
+
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+            int node = allocate(key, normalized, attributes, version, level);
+            nodesByKey.put(key, node);
+            connect(node, normalized, level);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the attributes of an entry without touching its vector.
+     *
+     * @param key        the entry key
+     * @param attributes the new attributes
+     * @param version    version of the change
+     * @return true if the entry exists and was not newer than the change
+     */
+    public boolean updateAttributes(long key, long attributes, long version) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodesByKey.get(key);
+            if (node == null || versions[node] > version) {
+                return false;
+            }
+            this.attributes[node] = attributes;
+            versions[node] = version;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key the entry key
+     * @return true if the entry existed
+     */
+    public boolean remove(long key) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodesByKey.remove(key);
+            if (node == null) {
+                return false;
+            }
+            markDeleted(node);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the indexed version of an entry.
+     *
+     * @param key the entry key
+     * @return the version, or -1 if the key is not indexed
+     */
+    public long version(long key) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodesByKey.get(key);
+            return node != null ? versions[node] : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the keys of all live entries.
+     *
+     * @return entry keys
+     */
+    public long[] keys() {
+        lock.readLock().lock();
+        try {
+            return nodesByKey.keySet().stream().mapToLong(Long::longValue).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the entries most similar to a query vector.
+     *
+     * @param query  the query vector
+     * @param k      number of results
+     * @param ef     candidate list size; larger values trade latency for
+     *               recall
+     * @param filter predicate on entry attributes, or null; evaluated during
+     *               traversal so that k matching entries are returned
+     *               whenever the graph reaches them
+     * @return up to k matches, most similar first
+     */
+    public List<Match> search(float[] query, int k, int ef, LongPredicate filter) {
+        float[] normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                current = greedyClosest(normalized, current, level);
+            }
+            int candidates = Math.max(ef, k);
+            int maxVisited = filter != null ? candidates * MAX_VISITED_PER_CANDIDATE : Integer.MAX_VALUE;
+            NodeHeap results = searchLevel(normalized, current, candidates, 0, filter, maxVisited);
+            while (results.size() > k) {
+                results.pop();
+            }
+            return toMatches(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the most similar entries by scanning every vector. Exact but
+     * linear in the index size; used to measure the recall of
+     * {@link #search}.
+     *
+     * @param query  the query vector
+     * @param k      number of results
+     * @param filter predicate on entry attributes, or null
+     * @return up to k matches, most similar first
+     */
+    public List<Match> exactSearch(float[] query, int k, LongPredicate filter) {
+        float[] normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            NodeHeap results = new NodeHeap(k + 1, false);
+            for (int node = 0; node < nodeCount; node++) {
+                if (!isLive(node, filter)) {
+                    continue;
+                }
+                float similarity = similarity(normalized, node);
+                if (results.size() < k) {
+                    results.push(node, similarity);
+                } else if (similarity > results.peekScore()) {
+                    results.pop();
+                    results.push(node, similarity);
+                }
+            }
+            return toMatches(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of live entries.
+     *
+     * @return live entries
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodesByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tombstones that will be dropped on the next save.
+     *
+     * @return deleted nodes still in the graph
+     */
+    public int deletedCount() {
+        lock.readLock().lock();
+        try {
+            return deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Writes the live entries to a file, replacing it atomically. Tombstones
+     * and the links pointing to them are dropped.
+     *
+     * @param file the index file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        lock.readLock().lock();
+        try {
+            int[] remap = new int[nodeCount];
+            int liveCount = 0;
+            int newEntryPoint = -1;
+            for (int node = 0; node < nodeCount; node++) {
+                if (deleted.get(node)) {
+                    remap[node] = -1;
+                    continue;
+                }
+                remap[node] = liveCount++;
+                if (newEntryPoint < 0 || links[node].length > links[newEntryPoint].length) {
+                    newEntryPoint = node;
+                }
+            }
+            if (entryPoint >= 0 && !deleted.get(entryPoint)) {
+                newEntryPoint = entryPoint;
+            }
+
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                Writer writer = new Writer(channel);
+                writer.putInt(MAGIC);
+                writer.putInt(FORMAT_VERSION);
+                writer.putInt(dimensions);
+                writer.putInt(m);
+                writer.putInt(efConstruction);
+                writer.putInt(liveCount);
+                writer.putInt(newEntryPoint >= 0 ? remap[newEntryPoint] : -1);
+                writer.putInt(newEntryPoint >= 0 ? links[newEntryPoint].length - 1 : -1);
+
+                float[] vector = new float[dimensions];
+                for (int node = 0; node < nodeCount; node++) {
+                    if (remap[node] >= 0) {
+                        copyVector(node, vector);
+                        for (float value : vector) {
+                            writer.putFloat(value);
+                        }
+                    }
+                }
+
+                for (int node = 0; node < nodeCount; node++) {
+                    if (remap[node] < 0) {
+                        continue;
+                    }
+                    writer.putLong(keys[node]);
+                    writer.putLong(attributes[node]);
+                    writer.putLong(versions[node]);
+                    writer.putInt(links[node].length);
+                    for (int[] levelLinks : links[node]) {
+                        int live = 0;
+                        for (int i = 1; i <= levelLinks[0]; i++) {
+                            live += remap[levelLinks[i]] >= 0 ? 1 : 0;
+                        }
+                        writer.putInt(live);
+                        for (int i = 1; i <= levelLinks[0]; i++) {
+                            if (remap[levelLinks[i]] >= 0) {
+                                writer.putInt(remap[levelLinks[i]]);
+                            }
+                        }
+                    }
+                }
+                writer.flush();
+                channel.force(false);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads a saved index, memory-mapping its vectors.
+     *
+     * @param file the index file
+     * @param seed seed for level assignment of new entries
+     * @return the loaded index
+     * @throws IOException if the file cannot be read or is not an index file
+     */
+    public static HnswIndex load(Path file, long seed) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Reader reader = new Reader(channel, 0);
+            if (reader.getInt() != MAGIC || reader.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a supported HNSW index file: " + file);
+            }
+            int dimensions = reader.getInt();
+            int m = reader.getInt();
+            int efConstruction = reader.getInt();
+            int count = reader.getInt();
+            int entryPoint = reader.getInt();
+            int maxLevel = reader.getInt();
+
+            long vectorBytes = (long) dimensions * Float.BYTES;
+            int vectorsPerChunk = (int) Math.max(1, MAX_MAPPED_CHUNK_BYTES / vectorBytes);
+            FloatBuffer[] chunks = new FloatBuffer[(count + vectorsPerChunk - 1) / vectorsPerChunk];
+            for (int chunk = 0; chunk < chunks.length; chunk++) {
+                int vectors = Math.min(vectorsPerChunk, count - chunk * vectorsPerChunk);
+                chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_BYTES + chunk * vectorsPerChunk * vectorBytes, vectors * vectorBytes)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asFloatBuffer();
+            }
+
+            HnswIndex index = new HnswIndex(dimensions, m, efConstruction, seed, chunks, vectorsPerChunk, count,
+                    Math.max(INITIAL_CAPACITY, count + count / 4));
+            reader = new Reader(channel, HEADER_BYTES + count * vectorBytes);
+            for (int node = 0; node < count; node++) {
+                index.keys[node] = reader.getLong();
+                index.attributes[node] = reader.getLong();
+                index.versions[node] = reader.getLong();
+                int[][] nodeLinks = new int[reader.getInt()][];
+                for (int level = 0; level < nodeLinks.length; level++) {
+                    int linkCount = reader.getInt();
+                    nodeLinks[level] = new int[index.maxLinks(level) + 1];
+                    nodeLinks[level][0] = linkCount;
+                    for (int i = 1; i <= linkCount; i++) {
+                        nodeLinks[level][i] = reader.getInt();
+                    }
+                }
+                index.links[node] = nodeLinks;
+                index.nodesByKey.put(index.keys[node], node);
+            }
+            index.nodeCount = count;
+            index.entryPoint = entryPoint;
+            index.maxLevel = maxLevel;
+            return index;
+        }
+    }
+
+    // Private helper methods
+
+    private int allocate(long key, float[] vector, long nodeAttributes, long version, int level) {
+        if (nodeCount == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            attributes = Arrays.copyOf(attributes, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            links = Arrays.copyOf(links, capacity);
+        }
+        int node = nodeCount++;
+        int heapSlot = node - mappedCount;
+        if (heapSlot == heapVectors.length) {
+            heapVectors = Arrays.copyOf(heapVectors, heapVectors.length * 2);
+        }
+        heapVectors[heapSlot] = vector;
+        keys[node] = key;
+        attributes[node] = nodeAttributes;
+        versions[node] = version;
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[maxLinks(l) + 1];
+        }
+        links[node] = nodeLinks;
+        return node;
+    }
+
+    private void connect(int node, float[] vector, int level) {
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(vector, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            NodeHeap candidates = searchLevel(vector, current, efConstruction, l, null, Integer.MAX_VALUE);
+            int[] sorted = sortedDescending(candidates);
+            if (sorted.length == 0) {
+                continue;
+            }
+            int[] selected = selectNeighbors(vector, sorted, maxLinks(l));
+            int[] nodeLinks = links[node][l];
+            nodeLinks[0] = selected.length;
+            System.arraycopy(selected, 0, nodeLinks, 1, selected.length);
+            for (int neighbor : selected) {
+                addLink(neighbor, node, l);
+            }
+            current = sorted[0];
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    private void addLink(int node, int neighbor, int level) {
+        int[] nodeLinks = links[node][level];
+        if (nodeLinks[0] < nodeLinks.length - 1) {
+            nodeLinks[++nodeLinks[0]] = neighbor;
+            return;
+        }
+
+        // Full: keep the most diverse subset of the existing links plus the new one
+        float[] base = vector(node);
+        int[] candidates = Arrays.copyOf(Arrays.copyOfRange(nodeLinks, 1, nodeLinks[0] + 1), nodeLinks[0] + 1);
+        candidates[candidates.length - 1] = neighbor;
+        float[] similarities = new float[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            similarities[i] = similarity(base, candidates[i]);
+        }
+        sortBySimilarity(candidates, similarities);
+        int[] selected = selectNeighbors(base, candidates, nodeLinks.length - 1);
+        nodeLinks[0] = selected.length;
+        System.arraycopy(selected, 0, nodeLinks, 1, selected.length);
+    }
+
+    private int[] selectNeighbors(float[] base, int[] sortedCandidates, int maxLinks) {
+        // Heuristic from the HNSW paper: skip candidates closer to an already selected
+        // neighbour than to the base, then fill up with the skipped ones
+        int[] selected = new int[Math.min(maxLinks, sortedCandidates.length)];
+        float[][] selectedVectors = new float[selected.length][];
+        int count = 0;
+        int[] pruned = new int[sortedCandidates.length];
+        int prunedCount = 0;
+
+        for (int candidate : sortedCandidates) {
+            if (count == selected.length) {
+                break;
+            }
+            float[] candidateVector = vector(candidate);
+            float toBase = dot(base, candidateVector);
+            boolean diverse = true;
+            for (int i = 0; i < count; i++) {
+                if (dot(selectedVectors[i], candidateVector) > toBase) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selectedVectors[count] = candidateVector;
+                selected[count++] = candidate;
+            } else {
+                pruned[prunedCount++] = candidate;
+            }
+        }
+        for (int i = 0; i < prunedCount && count < selected.length; i++) {
+            selected[count++] = pruned[i];
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float best = similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[][] nodeLinks = links[current];
+            if (level >= nodeLinks.length) {
+                break;
+            }
+            int[] levelLinks = nodeLinks[level];
+            for (int i = 1; i <= levelLinks[0]; i++) {
+                float similarity = similarity(query, levelLinks[i]);
+                if (similarity > best) {
+                    best = similarity;
+                    current = levelLinks[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private NodeHeap searchLevel(float[] query, int start, int ef, int level, LongPredicate filter,
+            int maxVisited) {
+        BitSet visited = new BitSet(nodeCount);
+        NodeHeap candidates = new NodeHeap(ef * 2, true);
+        NodeHeap results = new NodeHeap(ef + 1, false);
+
+        float startSimilarity = similarity(query, start);
+        visited.set(start);
+        int visitedCount = 1;
+        candidates.push(start, startSimilarity);
+        if (isLive(start, filter)) {
+            results.push(start, startSimilarity);
+        }
+
+        while (candidates.size() > 0) {
+            float candidateSimilarity = candidates.peekScore();
+            int candidate = candidates.pop();
+            if (results.size() >= ef && candidateSimilarity < results.peekScore()) {
+                break;
+            }
+            if (visitedCount > maxVisited) {
+                break;
+            }
+
+            int[][] nodeLinks = links[candidate];
+            if (level >= nodeLinks.length) {
+                continue;
+            }
+            int[] levelLinks = nodeLinks[level];
+            for (int i = 1; i <= levelLinks[0]; i++) {
+                int neighbor = levelLinks[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                visitedCount++;
+
+                float similarity = similarity(query, neighbor);
+                if (results.size() < ef || similarity > results.peekScore()) {
+                    candidates.push(neighbor, similarity);
+                    if (isLive(neighbor, filter)) {
+                        results.push(neighbor, similarity);
+                        if (results.size() > ef) {
+                            results.pop();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private boolean isLive(int node, LongPredicate filter) {
+        return !deleted.get(node) && (filter == null || filter.test(attributes[node]));
+    }
+
+    private void markDeleted(int node) {
+        if (!deleted.get(node)) {
+            deleted.set(node);
+            deletedCount++;
+        }
+    }
+
+    private int maxLinks(int level) {
+        return level == 0 ? maxLinksLevelZero : m;
+    }
+
+    private List<Match> toMatches(NodeHeap results) {
+        Match[] matches = new Match[results.size()];
+        for (int i = matches.length - 1; i >= 0; i--) {
+            float score = results.peekScore();
+            int node = results.pop();
+            matches[i] = new Match(keys[node], score);
+        }
+        return Arrays.asList(matches);
+    }
+
+    private int[] sortedDescending(NodeHeap results) {
+        int[] sorted = new int[results.size()];
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            sorted[i] = results.pop();
+        }
+        return sorted;
+    }
+
+    private float similarity(float[] query, int node) {
+        if (node >= mappedCount) {
+            return dot(query, heapVectors[node - mappedCount]);
+        }
+        FloatBuffer chunk = mappedVectors[node / vectorsPerChunk];
+        int offset = (node % vectorsPerChunk) * dimensions;
+        float sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += query[i] * chunk.get(offset + i);
+        }
+        return sum;
+    }
+
+    private float[] vector(int node) {
+        if (node >= mappedCount) {
+            return heapVectors[node - mappedCount];
+        }
+        float[] vector = new float[dimensions];
+        copyVector(node, vector);
+        return vector;
+    }
+
+    private void copyVector(int node, float[] target) {
+        if (node >= mappedCount) {
+            System.arraycopy(heapVectors[node - mappedCount], 0, target, 0, dimensions);
+            return;
+        }
+        mappedVectors[node / vectorsPerChunk].get((node % vectorsPerChunk) * dimensions, target);
+    }
+
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected a vector of " + dimensions + " dimensions, got "
+                    + vector.length);
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        float scale = norm > 0 ? (float) (1 / Math.sqrt(norm)) : 0;
+        float[] normalized = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static void sortBySimilarity(int[] nodes, float[] similarities) {
+        // Insertion sort, descending; link lists are short
+        for (int i = 1; i < nodes.length; i++) {
+            int node = nodes[i];
+            float similarity = similarities[i];
+            int j = i - 1;
+            while (j >= 0 && similarities[j] < similarity) {
+                nodes[j + 1] = nodes[j];
+                similarities[j + 1] = similarities[j];
+                j--;
+            }
+            nodes[j + 1] = node;
+            similarities[j + 1] = similarity;
+        }
+    }
+
+    /**
+     * A search result.
+     *
+     * @param key   the entry key
+     * @param score cosine similarity to the query
+     */
+    public record Match(long key, float score) {
+    }
+
+    /**
+     * Binary heap of nodes keyed by similarity; a max-heap pops the most
+     * similar node first, a min-heap the least similar.
+     */
+    private static final class NodeHeap {
+        private final boolean max;
+        private int[] nodes;
+        private float[] scores;
+        private int size;
+
+        NodeHeap(int capacity, boolean max) {
+            this.max = max;
+            this.nodes = new int[Math.max(capacity, 4)];
+            this.scores = new float[nodes.length];
+        }
+
+        int size() {
+            return size;
+        }
+
+        float peekScore() {
+            return scores[0];
+        }
+
+        void push(int node, float score) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(score, scores[parent])) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                scores[i] = scores[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            scores[i] = score;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            float lastScore = scores[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(scores[child + 1], scores[child])) {
+                    child++;
+                }
+                if (!before(scores[child], lastScore)) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                scores[i] = scores[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            scores[i] = lastScore;
+            return top;
+        }
+
+        private boolean before(float a, float b) {
+            return max ? a > b : a < b;
+        }
+    }
+
+    /**
+     * Buffered little-endian writer over a file channel.
+     */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putFloat(float value) throws IOException {
+            ensure(Float.BYTES);
+            buffer.putFloat(value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Buffered little-endian reader over a file channel.
+     */
+    private static final class Reader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        Reader(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+            buffer.limit(0);
+        }
+
+        int getInt() throws IOException {
+            ensure(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        long getLong() throws IOException {
+            ensure(Long.BYTES);
+            return buffer.getLong();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Truncated HNSW index file");
+                }
+                position += read;
+            }
+            buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.gastrogeniusai.infrastructure.search;
+
+import com.gastrogeniusai.domain.entity.RecipeCategory;
+import com.gastrogeniusai.domain.entity.RecipeDifficulty;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+/**
+ * Vector index of recipe embeddings used by semantic search.
+ * Wraps an {@link HnswIndex} whose attributes word packs the fields search
+ * filters on (category, difficulty, visibility and owner), so filters are
+ * applied during graph traversal instead of after it. The index is loaded
+ * memory-mapped from {@code ai.search.index-file} on startup and saved back
+ * periodically while it has unsaved changes; each save drops tombstones and
+ * the saved file is remapped.
+ */
+@Component
+public class RecipeVectorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeVectorIndex.class);
+
+    private static final long SEED = 17;
+
+    // Attribute layout; enum ordinals are persisted, so new constants must be appended
+    private static final long BYTE_MASK = 0xFF;
+    private static final int DIFFICULTY_SHIFT = 8;
+    private static final long PUBLIC_FLAG = 1L << 16;
+    private static final int OWNER_SHIFT = 20;
+
+    private final Path indexFile;
+    private final int dimensions;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong unsavedChanges = new AtomicLong();
+    private final Object writeMonitor = new Object();
+
+    private volatile HnswIndex index;
+
+    @Autowired
+    public RecipeVectorIndex(MeterRegistry meterRegistry,
+            @Value("${ai.search.index-file:data/recipe-vectors.idx}") String indexFile,
+            @Value("${ai.search.dimensions:768}") int dimensions,
+            @Value("${ai.search.m:16}") int m,
+            @Value("${ai.search.ef-construction:100}") int efConstruction,
+            @Value("${ai.search.ef-search:64}") int efSearch) {
+        this.meterRegistry = meterRegistry;
+        this.indexFile = Path.of(indexFile);
+        this.dimensions = dimensions;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.index = new HnswIndex(dimensions, m, efConstruction, SEED);
+
+        Gauge.builder("ai.search.index.size", this, vectorIndex -> vectorIndex.index.size())
+                .description("Recipes in the semantic search index")
+                .register(meterRegistry);
+        Gauge.builder("ai.search.index.tombstones", this, vectorIndex -> vectorIndex.index.deletedCount())
+                .description("Deleted entries awaiting the next index save")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the saved index, or starts empty if there is none or it was built
+     * with different dimensions.
+     */
+    @PostConstruct
+    public void load() {
+        if (!Files.exists(indexFile)) {
+            logger.info("No semantic search index at {}, starting empty", indexFile);
+            return;
+        }
+        try {
+            HnswIndex loaded = HnswIndex.load(indexFile, SEED);
+            if (loaded.getDimensions() != dimensions) {
+                logger.warn("Semantic search index {} has {} dimensions, expected {}; rebuilding",
+                        indexFile, loaded.getDimensions(), dimensions);
+                return;
+            }
+            index = loaded;
+            logger.info("Loaded semantic search index with {} recipes from {}", loaded.size(), indexFile);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not load semantic search index {}, rebuilding: {}", indexFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Adds or replaces a recipe.
+     *
+     * @param recipeId   the recipe ID
+     * @param vector     the recipe embedding
+     * @param attributes attributes from {@link #attributes}
+     * @param version    version of the recipe content, in epoch milliseconds
+     */
+    public void upsert(long recipeId, float[] vector, long attributes, long version) {
+        synchronized (writeMonitor) {
+            if (index.upsert(recipeId, vector, attributes, version)) {
+                recordUpdate("upsert");
+            }
+        }
+    }
+
+    /**
+     * Replaces the filter attributes of an indexed recipe.
+     *
+     * @param recipeId   the recipe ID
+     * @param attributes attributes from {@link #attributes}
+     * @param version    version of the change, in epoch milliseconds
+     * @return false if the recipe is not indexed
+     */
+    public boolean updateAttributes(long recipeId, long attributes, long version) {
+        synchronized (writeMonitor) {
+            if (index.updateAttributes(recipeId, attributes, version)) {
+                recordUpdate("attributes");
+                return true;
+            }
+            return index.version(recipeId) >= 0;
+        }
+    }
+
+    /**
+     * Removes a recipe.
+     *
+     * @param recipeId the recipe ID
+     */
+    public void remove(long recipeId) {
+        synchronized (writeMonitor) {
+            if (index.remove(recipeId)) {
+                recordUpdate("remove");
+            }
+        }
+    }
+
+    /**
+     * Returns the indexed version of a recipe.
+     *
+     * @param recipeId the recipe ID
+     * @return the version, or -1 if the recipe is not indexed
+     */
+    public long version(long recipeId) {
+        return index.version(recipeId);
+    }
+
+    /**
+     * Returns the IDs of all indexed recipes.
+     *
+     * @return recipe IDs
+     */
+    public long[] recipeIds() {
+        return index.keys();
+    }
+
+    /**
+     * Finds the recipes most similar to a query embedding that pass a filter.
+     *
+     * @param vector the query embedding
+     * @param limit  maximum number of results
+     * @param filter filter from {@link #filter}
+     * @return matches, most similar first
+     */
+    public List<HnswIndex.Match> search(float[] vector, int limit, LongPredicate filter) {
+        return Timer.builder("ai.search.latency")
+                .description("Semantic search index lookup latency")
+                .tag("filtered", String.valueOf(filter != null))
+                .register(meterRegistry)
+                .record(() -> index.search(vector, limit, Math.max(efSearch, limit), filter));
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Saves the index if it changed since the last save, then remaps the
+     * saved file.
+     */
+    @Scheduled(fixedDelayString = "${ai.search.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (unsavedChanges.get() == 0) {
+            return;
+        }
+        synchronized (writeMonitor) {
+            long changes = unsavedChanges.get();
+            try {
+                index.save(indexFile);
+                index = HnswIndex.load(indexFile, SEED);
+                unsavedChanges.addAndGet(-changes);
+                logger.info("Saved semantic search index with {} recipes to {}", index.size(), indexFile);
+            } catch (IOException e) {
+                logger.warn("Could not save semantic search index {}: {}", indexFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Saves unsaved changes on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    /**
+     * Packs the filterable fields of a recipe into an attributes word.
+     *
+     * @param category   recipe category
+     * @param difficulty recipe difficulty
+     * @param isPublic   whether the recipe is public
+     * @param ownerId    owner user ID
+     * @return attributes word
+     */
+    public static long attributes(RecipeCategory category, RecipeDifficulty difficulty, boolean isPublic,
+            Long ownerId) {
+        long attributes = category.ordinal() | (long) difficulty.ordinal() << DIFFICULTY_SHIFT;
+        if (isPublic) {
+            attributes |= PUBLIC_FLAG;
+        }
+        return attributes | (ownerId != null ? ownerId : 0L) << OWNER_SHIFT;
+    }
+
+    /**
+     * Builds a search filter. Recipes are visible if public or owned by the
+     * viewer.
+     *
+     * @param category   required category, or null for any
+     * @param difficulty required difficulty, or null for any
+     * @param publicOnly whether to restrict to public recipes
+     * @param viewerId   the searching user's ID
+     * @return filter over attributes words
+     */
+    public static LongPredicate filter(RecipeCategory category, RecipeDifficulty difficulty, boolean publicOnly,
+            Long viewerId) {
+        return attributes -> {
+            if (category != null && (attributes & BYTE_MASK) != category.ordinal()) {
+                return false;
+            }
+            if (difficulty != null && (attributes >>> DIFFICULTY_SHIFT & BYTE_MASK) != difficulty.ordinal()) {
+                return false;
+            }
+            if ((attributes & PUBLIC_FLAG) != 0) {
+                return true;
+            }
+            return !publicOnly && viewerId != null && attributes >>> OWNER_SHIFT == viewerId;
+        };
+    }
+
+    // Private helper methods
+
+    private void recordUpdate(String operation) {
+        unsavedChanges.incrementAndGet();
+        meterRegistry.counter("ai.search.index.updates", "operation", operation).increment();
+    }
+}
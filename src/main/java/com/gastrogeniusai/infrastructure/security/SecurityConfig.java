@@ -1,5 +1,6 @@
 package com.gastrogeniusai.infrastructure.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -63,6 +64,9 @@ public class SecurityConfig {
                         .requestMatchers("/actuator/health", "/actuator/info").permitAll()
                         .requestMatchers("/error").permitAll()
 
+                        // Async dispatches (SSE streams) were authorized on the initial request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public recipe endpoints - read-only access
                         .requestMatchers(HttpMethod.GET, "/api/recipes/public/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/recipes/search/public").permitAll()
@@ -145,7 +149,8 @@ public class SecurityConfig {
                 "Accept",
                 "Origin",
                 "Access-Control-Request-Method",
-                "Access-Control-Request-Headers"));
+                "Access-Control-Request-Headers",
+                "Idempotency-Key"));
 
         // Allow credentials (cookies, authorization headers)
         configuration.setAllowCredentials(true);
@@ -153,7 +158,8 @@ public class SecurityConfig {
         // Expose custom headers
         configuration.setExposedHeaders(Arrays.asList(
                 "Authorization",
-                "Content-Disposition"));
+                "Content-Disposition",
+                "Idempotent-Replayed"));
 
         // Cache preflight response for 1 hour
         configuration.setMaxAge(3600L);
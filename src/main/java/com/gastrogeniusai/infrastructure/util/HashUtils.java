@@ -0,0 +1,30 @@
+package com.gastrogeniusai.infrastructure.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utility methods for computing content hashes used as cache and store keys.
+ */
+public final class HashUtils {
+
+    private HashUtils() {
+    }
+
+    /**
+     * Computes the SHA-256 hash of the given text.
+     * 
+     * @param text the text to hash (UTF-8 encoded)
+     * @return lowercase hexadecimal digest (64 characters)
+     */
+    public static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.gastrogeniusai.infrastructure.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gastrogeniusai.infrastructure.ai.RequestDeadline;
+import com.gastrogeniusai.infrastructure.exception.AiRequestCancelledException;
+import com.gastrogeniusai.infrastructure.exception.IdempotencyKeyConflictException;
+import com.gastrogeniusai.infrastructure.util.HashUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for expensive POST endpoints.
+ * The first request with a key runs the handler and its response is kept for
+ * {@code idempotency.ttl-minutes}; retries with the same key and payload get
+ * the kept response back, marked with the {@value #REPLAYED_HEADER} header,
+ * instead of generating or saving the recipe again. Duplicates that arrive
+ * while the first request is still running wait for it rather than starting
+ * a second execution.
+ * <p>
+ * Keys are scoped to the endpoint and the user, and kept in a bounded
+ * in-memory map ordered by creation, so the oldest keys are evicted first
+ * when it is full. Only successful responses are kept: when the handler
+ * fails, returns an error response or its request is abandoned, the key is
+ * released and a waiting duplicate runs the handler itself, so a retry after
+ * a failure gets a fresh attempt.
+ */
+@Component
+public class IdempotencyStore {
+
+    /**
+     * Header in which clients send their idempotency key.
+     */
+    public static final String HEADER = "Idempotency-Key";
+
+    /**
+     * Header marking a response replayed from the store.
+     */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final long maxWaitMs;
+    private final Map<String, Entry> entries;
+
+    @Autowired
+    public IdempotencyStore(ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.enabled:true}") boolean enabled,
+            @Value("${idempotency.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${idempotency.max-entries:5000}") int maxEntries,
+            @Value("${idempotency.max-wait-ms:60000}") long maxWaitMs) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        this.maxWaitMs = maxWaitMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    recordEviction("size");
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        Gauge.builder("idempotency.entries", this, IdempotencyStore::size)
+                .description("Idempotency keys currently held")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a handler at most once per idempotency key, replaying its response
+     * to retries. Without a key the handler simply runs.
+     *
+     * @param endpoint name of the endpoint, scoping the key
+     * @param owner    the user sending the request, scoping the key
+     * @param key      the client's idempotency key, or null
+     * @param payload  the request body; a retry must send the same one
+     * @param handler  produces the response
+     * @return the handler's response, or the response kept for the key
+     * @throws IllegalArgumentException         if the key is blank or too long
+     * @throws IdempotencyKeyConflictException  if the key was used with a
+     *                                          different payload, or its first
+     *                                          request is still running after
+     *                                          {@code idempotency.max-wait-ms}
+     * @throws AiRequestCancelledException      if this request is abandoned
+     *                                          while waiting
+     */
+    public ResponseEntity<?> execute(String endpoint, String owner, String key, Object payload,
+            Supplier<ResponseEntity<?>> handler) {
+        if (key == null || !enabled) {
+            return handler.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH
+                    + " characters");
+        }
+
+        String storeKey = endpoint + ":" + owner + ":" + key;
+        String fingerprint = fingerprint(payload);
+
+        while (true) {
+            Entry fresh = new Entry(fingerprint, System.nanoTime() + ttlNanos);
+            Entry existing;
+            synchronized (entries) {
+                existing = entries.get(storeKey);
+                if (existing != null && existing.isExpired()) {
+                    entries.remove(storeKey);
+                    recordEviction("expired");
+                    existing = null;
+                }
+                if (existing == null) {
+                    entries.put(storeKey, fresh);
+                }
+            }
+
+            if (existing == null) {
+                recordRequest(endpoint, "executed");
+                return run(storeKey, fresh, handler);
+            }
+            if (!existing.fingerprint().equals(fingerprint)) {
+                recordRequest(endpoint, "mismatch");
+                throw new IdempotencyKeyConflictException(HEADER + " was already used with a different request",
+                        false);
+            }
+
+            boolean inFlight = !existing.result().isDone();
+            ResponseEntity<?> kept = await(endpoint, existing);
+            if (kept != null) {
+                recordRequest(endpoint, inFlight ? "joined" : "replayed");
+                return ResponseEntity.status(kept.getStatusCode())
+                        .headers(kept.getHeaders())
+                        .header(REPLAYED_HEADER, "true")
+                        .body(kept.getBody());
+            }
+            // The first request failed and released the key: this one runs the handler instead
+        }
+    }
+
+    /**
+     * Drops keys whose time to live has passed.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+    public void purgeExpiredEntries() {
+        synchronized (entries) {
+            // Entries are in creation order and share one time to live, so the expired ones come first
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (!iterator.next().isExpired()) {
+                    break;
+                }
+                iterator.remove();
+                recordEviction("expired");
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys currently held.
+     *
+     * @return key count
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // Private helper methods
+
+    private ResponseEntity<?> run(String storeKey, Entry entry, Supplier<ResponseEntity<?>> handler) {
+        ResponseEntity<?> response;
+        try {
+            response = handler.get();
+        } catch (RuntimeException | Error e) {
+            release(storeKey, entry);
+            throw e;
+        }
+        boolean abandoned = RequestDeadline.current().map(RequestDeadline::isAbandoned).orElse(false);
+        if (response == null || !response.getStatusCode().is2xxSuccessful() || abandoned) {
+            // Retries of a failed or abandoned request deserve a fresh attempt
+            release(storeKey, entry);
+        } else {
+            entry.result().complete(response);
+        }
+        return response;
+    }
+
+    private void release(String storeKey, Entry entry) {
+        synchronized (entries) {
+            entries.remove(storeKey, entry);
+        }
+        entry.result().complete(null);
+    }
+
+    private ResponseEntity<?> await(String endpoint, Entry entry) {
+        RequestDeadline deadline = RequestDeadline.current().orElse(null);
+        long waitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        if (deadline != null) {
+            waitNanos = Math.min(waitNanos, deadline.remainingNanos());
+        }
+        // Abandoning cancels this request's view of the result, not the result itself
+        CompletableFuture<ResponseEntity<?>> waiting = entry.result().copy();
+        try (RequestDeadline.Registration registration = deadline != null
+                ? deadline.onAbandon(() -> waiting.cancel(false)) : null) {
+            return waiting.get(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            if (deadline != null && deadline.isAbandoned()) {
+                RequestDeadline.Reason reason = deadline.getAbandonReason();
+                throw new AiRequestCancelledException("Abandoned while waiting for the request with the same "
+                        + HEADER + ": " + reason.getMetricTag(), reason);
+            }
+            recordRequest(endpoint, "timeout");
+            throw new IdempotencyKeyConflictException("A request with the same " + HEADER
+                    + " is still in progress", true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the request with the same " + HEADER);
+        } catch (ExecutionException e) {
+            // The result is only ever completed normally
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private String fingerprint(Object payload) {
+        try {
+            return HashUtils.sha256(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize request for " + HEADER, e);
+        }
+    }
+
+    private void recordRequest(String endpoint, String result) {
+        meterRegistry.counter("idempotency.requests", "endpoint", endpoint, "result", result).increment();
+    }
+
+    private void recordEviction(String reason) {
+        meterRegistry.counter("idempotency.evictions", "reason", reason).increment();
+    }
+
+    /**
+     * The request that first used a key, and its response once it is kept.
+     * The result completes with null when the key is released.
+     */
+    private record Entry(String fingerprint, long expiresAtNanos, CompletableFuture<ResponseEntity<?>> result) {
+
+        Entry(String fingerprint, long expiresAtNanos) {
+            this(fingerprint, expiresAtNanos, new CompletableFuture<>());
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
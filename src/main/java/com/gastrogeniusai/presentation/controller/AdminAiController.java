@@ -0,0 +1,147 @@
+package com.gastrogeniusai.presentation.controller;
+
+import com.gastrogeniusai.infrastructure.ai.AiRateLimiter;
+import com.gastrogeniusai.infrastructure.ai.AiUsageLedger;
+import com.gastrogeniusai.infrastructure.repository.AiUsageRecordRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for administering AI usage.
+ * Exposes the AI quota consumption of roles and recently active users, and
+ * daily usage and cost from the AI usage ledger.
+ */
+@RestController
+@RequestMapping("/admin/ai")
+@Tag(name = "AI Administration", description = "AI quota and usage endpoints for administrators")
+public class AdminAiController {
+
+    private static final int MAX_USAGE_DAYS = 366;
+
+    private final AiRateLimiter rateLimiter;
+    private final AiUsageLedger usageLedger;
+    private final AiUsageRecordRepository usageRepository;
+
+    @Autowired
+    public AdminAiController(AiRateLimiter rateLimiter,
+            AiUsageLedger usageLedger,
+            AiUsageRecordRepository usageRepository) {
+        this.rateLimiter = rateLimiter;
+        this.usageLedger = usageLedger;
+        this.usageRepository = usageRepository;
+    }
+
+    /**
+     * Gets AI quota consumption by role and by user.
+     */
+    @Operation(summary = "Get AI quota consumption", description = "Returns requests, rejections and model tokens per role and for the heaviest recently active users, with the quota each has left", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "200", description = "Quota consumption retrieved", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "403", description = "Admin role required", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    @GetMapping("/quotas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getQuotaUsage(
+            @Parameter(description = "Maximum number of users to list") @RequestParam(defaultValue = "50") int limit) {
+
+        List<AiRateLimiter.UserUsage> users = rateLimiter.getUserUsage(Math.max(1, Math.min(limit, 1000)));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("enabled", rateLimiter.isEnabled());
+        response.put("roles", rateLimiter.getRoleUsage());
+        response.put("users", users);
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Gets daily AI usage and cost per feature.
+     */
+    @Operation(summary = "Get daily AI cost per feature", description = "Returns calls, cache hits, failures, tokens and estimated cost per day and feature from the AI usage ledger; defaults to the last 7 days", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "200", description = "Daily usage retrieved", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "403", description = "Admin role required", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    @GetMapping("/usage/features")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getFeatureUsage(
+            @Parameter(description = "First day (ISO date), inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (ISO date), inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate last = to != null ? to : LocalDate.now();
+        LocalDate first = from != null ? from : last.minusDays(6);
+        validateRange(first, last);
+
+        List<AiUsageRecordRepository.FeatureDailyUsage> usage = usageRepository.sumDailyUsageByFeature(first, last);
+
+        Map<String, Object> response = usageResponse(first, last, usage);
+        response.put("features", usage);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Gets daily AI usage and cost per user.
+     */
+    @Operation(summary = "Get daily AI cost per user", description = "Returns calls, cache hits, failures, tokens and estimated cost per day and user from the AI usage ledger, most expensive users first; defaults to the last 7 days", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "200", description = "Daily usage retrieved", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "403", description = "Admin role required", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    @GetMapping("/usage/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getUserUsage(
+            @Parameter(description = "First day (ISO date), inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (ISO date), inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Only this user") @RequestParam(required = false) Long userId) {
+
+        LocalDate last = to != null ? to : LocalDate.now();
+        LocalDate first = from != null ? from : last.minusDays(6);
+        validateRange(first, last);
+
+        List<AiUsageRecordRepository.UserDailyUsage> usage = usageRepository.sumDailyUsageByUser(first, last,
+                userId);
+
+        Map<String, Object> response = usageResponse(first, last, usage);
+        response.put("users", usage);
+        return ResponseEntity.ok(response);
+    }
+
+    // Private helper methods
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_USAGE_DAYS) {
+            throw new IllegalArgumentException("Usage can be queried for at most " + MAX_USAGE_DAYS + " days");
+        }
+    }
+
+    private Map<String, Object> usageResponse(LocalDate from, LocalDate to,
+            List<? extends AiUsageRecordRepository.DailyUsage> usage) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("from", from.toString());
+        response.put("to", to.toString());
+        response.put("totalCost", usage.stream().mapToDouble(AiUsageRecordRepository.DailyUsage::getCost).sum());
+        response.put("totalCalls", usage.stream().mapToLong(AiUsageRecordRepository.DailyUsage::getCalls).sum());
+        // Records still queued for writing are not included yet
+        response.put("pendingRecords", usageLedger.pendingRecords());
+        return response;
+    }
+}
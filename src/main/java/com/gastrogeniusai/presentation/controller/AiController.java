@@ -1,13 +1,29 @@
 package com.gastrogeniusai.presentation.controller;
 
 import com.gastrogeniusai.application.service.AiService;
+import com.gastrogeniusai.application.service.NutritionService;
 import com.gastrogeniusai.application.service.RecipeService;
+import com.gastrogeniusai.domain.entity.AiFeature;
 import com.gastrogeniusai.domain.entity.Recipe;
+import com.gastrogeniusai.infrastructure.ai.AiCallMetrics;
+import com.gastrogeniusai.infrastructure.ai.AiCircuitBreaker;
+import com.gastrogeniusai.infrastructure.ai.AiJsonExtractor;
+import com.gastrogeniusai.infrastructure.ai.RequestDeadline;
+import com.gastrogeniusai.infrastructure.exception.AiCapacityExceededException;
+import com.gastrogeniusai.infrastructure.exception.AiDeadlineExceededException;
+import com.gastrogeniusai.infrastructure.exception.AiRequestCancelledException;
+import com.gastrogeniusai.infrastructure.exception.AiServiceException;
 import com.gastrogeniusai.infrastructure.repository.RecipeRepository;
 import com.gastrogeniusai.infrastructure.repository.UserRepository;
+import com.gastrogeniusai.infrastructure.web.IdempotencyStore;
+import com.gastrogeniusai.presentation.dto.BatchNutritionRequest;
 import com.gastrogeniusai.presentation.dto.GenerateRecipeRequest;
+import com.gastrogeniusai.presentation.dto.GenerateVariantsRequest;
+import com.gastrogeniusai.presentation.dto.NutritionAnalysis;
+import com.gastrogeniusai.presentation.dto.PairingSuggestion;
 import com.gastrogeniusai.presentation.dto.RecipeRequest;
 import com.gastrogeniusai.presentation.dto.RecipeResponse;
+import com.gastrogeniusai.presentation.dto.RecipeVariantRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,17 +31,28 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
 
 /**
  * REST controller for AI-powered features.
@@ -37,101 +64,150 @@ import java.util.Map;
 @Tag(name = "AI Features", description = "AI-powered recipe generation, nutrition analysis, and wine pairing endpoints")
 public class AiController {
 
+    private static final long ASYNC_TIMEOUT_GRACE_MS = 2000;
+    private static final String PARTIAL_NOT_SAVED =
+            "the response was truncated and the recipe is incomplete";
+
     private final AiService aiService;
+    private final NutritionService nutritionService;
     private final RecipeService recipeService;
     private final RecipeRepository recipeRepository;
     private final UserRepository userRepository;
+    private final AiCircuitBreaker circuitBreaker;
+    private final AiCallMetrics callMetrics;
+    private final IdempotencyStore idempotencyStore;
+
+    @Value("${ai.streaming.timeout-ms:120000}")
+    private long streamTimeoutMs;
 
     @Autowired
     public AiController(AiService aiService,
+            NutritionService nutritionService,
             RecipeService recipeService,
             RecipeRepository recipeRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            AiCircuitBreaker circuitBreaker,
+            AiCallMetrics callMetrics,
+            IdempotencyStore idempotencyStore) {
         this.aiService = aiService;
+        this.nutritionService = nutritionService;
         this.recipeService = recipeService;
         this.recipeRepository = recipeRepository;
         this.userRepository = userRepository;
+        this.circuitBreaker = circuitBreaker;
+        this.callMetrics = callMetrics;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
      * Generates a recipe from ingredients using AI.
      */
-    @Operation(summary = "Generate recipe from ingredients", description = "Uses AI to generate a complete recipe from a list of ingredients with optional cuisine and difficulty preferences", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+    @Operation(summary = "Generate recipe from ingredients", description = "Uses AI to generate a complete recipe from a list of ingredients with optional cuisine and difficulty preferences. The X-Request-Timeout-Ms header shortens the server's deadline; the model call is cancelled, and the recipe not saved, when the deadline passes or the client disconnects. Retries with the same Idempotency-Key and request replay the first successful response, marked with Idempotent-Replayed, instead of generating and saving again; duplicates sent while the first request runs wait for it", security = @SecurityRequirement(name = "bearerAuth"), responses = {
             @ApiResponse(responseCode = "201", description = "Recipe generated successfully", content = @Content(schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "401", description = "Authentication required", content = @Content(schema = @Schema(implementation = Map.class))),
-            @ApiResponse(responseCode = "500", description = "AI generation failed", content = @Content(schema = @Schema(implementation = Map.class)))
+            @ApiResponse(responseCode = "409", description = "Request with the same Idempotency-Key still in progress", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "429", description = "Too many AI requests in progress", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "AI generation failed", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "504", description = "Request deadline passed", content = @Content(schema = @Schema(implementation = Map.class)))
     })
     @PostMapping("/generate-recipe")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> generateRecipe(
+    public WebAsyncTask<ResponseEntity<?>> generateRecipe(
             @Parameter(description = "Recipe generation request with ingredients and preferences", required = true) @Valid @RequestBody GenerateRecipeRequest request,
+            @Parameter(description = "Client-generated key identifying retries of the same request") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
 
-        try {
-            // Generate recipe using AI
-            String aiResponse = aiService.generateRecipeFromIngredients(
-                    request.getIngredients(),
-                    request.getCuisine(),
-                    request.getDifficulty());
-
-            // Validate and clean the AI response
-            String cleanedJson = aiService.validateAndCleanJsonResponse(aiResponse);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("aiGeneratedJson", cleanedJson);
-
-            // If user wants to save the recipe, parse and save it
-            if (request.getSaveRecipe() != null && request.getSaveRecipe()) {
-                try {
-                    RecipeRequest recipeRequest = aiService.parseAiGeneratedRecipe(cleanedJson);
-                    RecipeResponse savedRecipe = recipeService.createRecipe(recipeRequest, authentication.getName());
-
-                    // Mark as AI-generated
-                    Recipe recipe = recipeRepository.findById(savedRecipe.getId()).orElse(null);
-                    if (recipe != null) {
-                        recipe.setAiGenerated(true);
-                        recipeRepository.save(recipe);
-                        savedRecipe.setAiGenerated(true);
-                    }
-
-                    response.put("savedRecipe", savedRecipe);
-                    response.put("message", "Recipe generated and saved successfully");
-                } catch (Exception saveException) {
-                    response.put("message", "Recipe generated but could not be saved: " + saveException.getMessage());
-                    response.put("saveError", saveException.getMessage());
-                }
-            } else {
-                response.put("message", "Recipe generated successfully (not saved)");
-            }
+        String username = authentication.getName();
+        return untilDeadline(() -> idempotencyStore.execute("generate-recipe", username, idempotencyKey, request,
+                () -> generateRecipeResponse(request, username)));
+    }
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    /**
+     * Generates several distinct recipe variants from one ingredient list.
+     */
+    @Operation(summary = "Generate recipe variants", description = "Generates 2 to 5 distinct recipes from the same ingredients in parallel, either with explicit per-variant cuisine, difficulty and temperature or as a number of variants of the same preferences. Returns the variants that completed before the deadline; completed variants can be saved together in one transaction, except those repaired from a truncated response. The X-Request-Timeout-Ms header shortens the deadline", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "201", description = "At least one variant generated", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "401", description = "Authentication required", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "503", description = "No variant could be generated", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping("/generate-recipe/variants")
+    @PreAuthorize("isAuthenticated()")
+    public WebAsyncTask<ResponseEntity<?>> generateRecipeVariants(
+            @Parameter(description = "Variant generation request with ingredients and per-variant preferences", required = true) @Valid @RequestBody GenerateVariantsRequest request,
+            Authentication authentication) {
 
-        } catch (IllegalStateException e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "AI generation failed");
-            errorResponse.put("message", "The AI service returned an invalid response. Please try again.");
-            errorResponse.put("details", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        String username = authentication.getName();
+        return untilDeadline(() -> generateVariantsResponse(request, username));
+    }
 
-        } catch (Exception e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Recipe generation failed");
-            errorResponse.put("message", "An unexpected error occurred during recipe generation");
-            errorResponse.put("details", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+    /**
+     * Streams a recipe generation to the client as Server-Sent Events.
+     */
+    @Operation(summary = "Stream recipe generation", description = "Generates a recipe from ingredients and streams model output as Server-Sent Events. Emits 'token' events while the model is generating, a final 'recipe' event with the generated recipe, and a 'saved' event when the recipe was persisted. Recipes repaired from a truncated response are not saved", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "200", description = "Event stream started", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "401", description = "Authentication required", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping(value = "/generate-recipe/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter streamRecipeGeneration(
+            @Parameter(description = "Recipe generation request with ingredients and preferences", required = true) @Valid @RequestBody GenerateRecipeRequest request,
+            Authentication authentication,
+            HttpServletResponse servletResponse) {
+
+        // Prevent reverse proxies from buffering the event stream
+        servletResponse.setHeader("X-Accel-Buffering", "no");
+
+        // The emitter times out at the request deadline, which disposes the model stream
+        SseEmitter emitter = new SseEmitter(RequestDeadline.current()
+                .map(deadline -> Math.min(streamTimeoutMs, deadline.getBudgetMs()))
+                .orElse(streamTimeoutMs));
+        String username = authentication.getName();
+        boolean saveRecipe = request.getSaveRecipe() != null && request.getSaveRecipe();
+
+        Disposable subscription = aiService.streamRecipeFromIngredients(
+                request.getIngredients(),
+                request.getCuisine(),
+                request.getDifficulty(),
+                Boolean.TRUE.equals(request.getBypassCache()))
+                .subscribe(
+                        event -> {
+                            if (event.isChunk()) {
+                                sendEvent(emitter, "token", event.chunk());
+                            } else {
+                                // The service extracted the recipe from the whole response once the model finished
+                                completeStreamedGeneration(emitter, event, saveRecipe, username);
+                            }
+                        },
+                        error -> {
+                            sendEvent(emitter, "error", Map.of(
+                                    "error", "AI generation failed",
+                                    "details", String.valueOf(error.getMessage())));
+                            emitter.complete();
+                        },
+                        emitter::complete);
+
+        // Stop consuming the model stream if the client goes away
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        emitter.onCompletion(subscription::dispose);
+
+        return emitter;
     }
 
     /**
      * Analyzes the nutritional content of a recipe using AI.
      */
-    @Operation(summary = "Analyze recipe nutrition", description = "Uses AI to analyze the nutritional content of a recipe and provide detailed nutritional information", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+    @Operation(summary = "Analyze recipe nutrition", description = "Computes the nutritional content of a recipe from stored ingredient data, using AI to estimate ingredients without nutritional data. The 'source' section lists computed and estimated ingredients", security = @SecurityRequirement(name = "bearerAuth"), responses = {
             @ApiResponse(responseCode = "200", description = "Nutritional analysis completed", content = @Content(schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "403", description = "Access denied to recipe", content = @Content(schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "404", description = "Recipe not found", content = @Content(schema = @Schema(implementation = Map.class))),
-            @ApiResponse(responseCode = "500", description = "Analysis failed", content = @Content(schema = @Schema(implementation = Map.class)))
+            @ApiResponse(responseCode = "429", description = "Too many AI requests in progress", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Analysis failed", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "504", description = "Request deadline passed", content = @Content(schema = @Schema(implementation = Map.class)))
     })
     @GetMapping("/recipes/{id}/nutrition")
     @PreAuthorize("isAuthenticated()")
@@ -142,18 +218,17 @@ public class AiController {
         try {
             // Get the recipe and verify access
             RecipeResponse recipeResponse = recipeService.getRecipeById(id, authentication.getName());
-            Recipe recipe = recipeRepository.findById(id)
+            Recipe recipe = recipeRepository.findByIdWithIngredients(id)
                     .orElseThrow(() -> new IllegalArgumentException("Recipe not found"));
 
-            // Generate nutritional analysis using AI
-            String aiResponse = aiService.analyzeNutrition(recipe);
-            String cleanedJson = aiService.validateAndCleanJsonResponse(aiResponse);
+            // Compute from stored ingredient data, estimating only what is missing with AI
+            NutritionAnalysis analysis = nutritionService.analyzeNutrition(recipe);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("recipeId", id);
             response.put("recipeTitle", recipe.getTitle());
-            response.put("nutritionalAnalysis", cleanedJson);
+            response.put("nutritionalAnalysis", analysis);
             response.put("message", "Nutritional analysis completed successfully");
 
             return ResponseEntity.ok(response);
@@ -165,11 +240,85 @@ public class AiController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
 
         } catch (Exception e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Nutritional analysis failed");
-            errorResponse.put("message", "An unexpected error occurred during nutritional analysis");
-            errorResponse.put("details", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            return unexpectedError(e, "Nutritional analysis failed",
+                    "An unexpected error occurred during nutritional analysis");
+        }
+    }
+
+    /**
+     * Analyzes the nutritional content of several recipes in one request.
+     */
+    @Operation(summary = "Analyze nutrition for multiple recipes", description = "Uses AI to analyze the nutritional content of up to 50 recipes, packing several recipes into each model call. Failures are reported per recipe", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "200", description = "Batch analysis completed (individual recipes may have failed)", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "429", description = "Too many AI requests in progress", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Analysis failed", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "504", description = "Request deadline passed", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping("/nutrition/batch")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> analyzeNutritionBatch(
+            @Parameter(description = "IDs of the recipes to analyze", required = true) @Valid @RequestBody BatchNutritionRequest request,
+            Authentication authentication) {
+
+        try {
+            List<Long> recipeIds = request.getRecipeIds().stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+
+            // Load all accessible recipes and their ingredients in one query
+            Map<Long, Recipe> recipes = new HashMap<>();
+            recipeService.getAccessibleRecipesWithIngredients(recipeIds, authentication.getName())
+                    .forEach(recipe -> recipes.put(recipe.getId(), recipe));
+
+            List<Recipe> accessibleRecipes = recipeIds.stream()
+                    .filter(recipes::containsKey)
+                    .map(recipes::get)
+                    .toList();
+
+            Map<Long, AiService.NutritionBatchResult> analyses = new HashMap<>();
+            aiService.analyzeNutritionBatch(accessibleRecipes)
+                    .forEach(result -> analyses.put(result.recipeId(), result));
+
+            List<Map<String, Object>> results = new ArrayList<>();
+            int succeeded = 0;
+            for (Long recipeId : recipeIds) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("recipeId", recipeId);
+
+                AiService.NutritionBatchResult analysis = analyses.get(recipeId);
+                if (analysis == null) {
+                    item.put("success", false);
+                    item.put("error", "Recipe not found or access denied");
+                } else if (analysis.isSuccess()) {
+                    item.put("success", true);
+                    item.put("recipeTitle", recipes.get(recipeId).getTitle());
+                    item.put("nutritionalAnalysis", analysis.nutritionalAnalysis());
+                    succeeded++;
+                } else {
+                    item.put("success", false);
+                    item.put("recipeTitle", recipes.get(recipeId).getTitle());
+                    item.put("error", analysis.error());
+                }
+                results.add(item);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", succeeded == recipeIds.size());
+            response.put("requested", recipeIds.size());
+            response.put("succeeded", succeeded);
+            response.put("failed", recipeIds.size() - succeeded);
+            response.put("results", results);
+            response.put("message", succeeded == recipeIds.size()
+                    ? "Nutritional analysis completed successfully"
+                    : "Nutritional analysis completed with " + (recipeIds.size() - succeeded) + " failure(s)");
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            return unexpectedError(e, "Nutritional analysis failed",
+                    "An unexpected error occurred during batch nutritional analysis");
         }
     }
 
@@ -180,7 +329,10 @@ public class AiController {
             @ApiResponse(responseCode = "200", description = "Wine pairing suggestions generated", content = @Content(schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "403", description = "Access denied to recipe", content = @Content(schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "404", description = "Recipe not found", content = @Content(schema = @Schema(implementation = Map.class))),
-            @ApiResponse(responseCode = "500", description = "Wine pairing analysis failed", content = @Content(schema = @Schema(implementation = Map.class)))
+            @ApiResponse(responseCode = "429", description = "Too many AI requests in progress", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Wine pairing analysis failed", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "503", description = "AI provider unavailable and no earlier suggestions stored", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "504", description = "Request deadline passed", content = @Content(schema = @Schema(implementation = Map.class)))
     })
     @GetMapping("/recipes/{id}/pairing-suggestion")
     @PreAuthorize("isAuthenticated()")
@@ -191,18 +343,17 @@ public class AiController {
         try {
             // Get the recipe and verify access
             RecipeResponse recipeResponse = recipeService.getRecipeById(id, authentication.getName());
-            Recipe recipe = recipeRepository.findById(id)
+            Recipe recipe = recipeRepository.findByIdWithIngredients(id)
                     .orElseThrow(() -> new IllegalArgumentException("Recipe not found"));
 
             // Generate wine pairing suggestions using AI
-            String aiResponse = aiService.suggestWinePairing(recipe);
-            String cleanedJson = aiService.validateAndCleanJsonResponse(aiResponse);
+            PairingSuggestion pairingSuggestion = aiService.suggestWinePairing(recipe);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("recipeId", id);
             response.put("recipeTitle", recipe.getTitle());
-            response.put("pairingSuggestions", cleanedJson);
+            response.put("pairingSuggestions", pairingSuggestion);
             response.put("message", "Wine pairing suggestions generated successfully");
 
             return ResponseEntity.ok(response);
@@ -214,29 +365,50 @@ public class AiController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
 
         } catch (Exception e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Wine pairing analysis failed");
-            errorResponse.put("message", "An unexpected error occurred during wine pairing analysis");
-            errorResponse.put("details", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            return unexpectedError(e, "Wine pairing analysis failed",
+                    "An unexpected error occurred during wine pairing analysis");
         }
     }
 
     /**
      * Gets AI service health and capabilities.
      */
-    @Operation(summary = "AI service health check", description = "Returns the health status and capabilities of the AI service", responses = {
+    @Operation(summary = "AI service health check", description = "Returns the health status and capabilities of the AI service, including the state of the AI provider circuit breaker and, while it is open, the fallbacks that still answer some requests", responses = {
             @ApiResponse(responseCode = "200", description = "AI service status retrieved", content = @Content(schema = @Schema(implementation = Map.class)))
     })
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> getAiServiceHealth() {
+        AiCircuitBreaker.Snapshot breaker = circuitBreaker.getSnapshot();
+        boolean available = breaker.state() != AiCircuitBreaker.State.OPEN;
+
+        Map<String, Object> circuit = new HashMap<>();
+        circuit.put("state", breaker.state().name());
+        circuit.put("failureRate", breaker.failureRate());
+        circuit.put("slowCallRate", breaker.slowCallRate());
+        circuit.put("bufferedCalls", breaker.bufferedCalls());
+        if (breaker.openedAt() != null) {
+            circuit.put("openedAt", breaker.openedAt().toString());
+        }
+
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "healthy");
+        response.put("status", switch (breaker.state()) {
+            case CLOSED -> "healthy";
+            case HALF_OPEN -> "recovering";
+            case OPEN -> "degraded";
+        });
         response.put("service", "AI Features");
         response.put("capabilities", Map.of(
-                "recipeGeneration", true,
-                "nutritionalAnalysis", true,
-                "winePairing", true));
+                "recipeGeneration", available,
+                "nutritionalAnalysis", available,
+                "winePairing", available));
+        if (!available) {
+            // Only requests that a fallback can answer still succeed while the circuit is open
+            response.put("fallbacks", Map.of(
+                    "nutritionalAnalysis", "Computed from stored ingredient data, or an earlier analysis of the"
+                            + " recipe; fails for recipes with neither",
+                    "winePairing", "Earlier suggestions for the recipe only; fails for recipes without any"));
+        }
+        response.put("circuitBreaker", circuit);
         response.put("aiProvider", "Google Gemini");
         response.put("timestamp", System.currentTimeMillis());
 
@@ -260,11 +432,26 @@ public class AiController {
                         "description",
                         "Generate recipes from ingredients with optional cuisine and difficulty preferences",
                         "requiresAuth", true),
+                "recipeGenerationVariants", Map.of(
+                        "endpoint", "/ai/generate-recipe/variants",
+                        "method", "POST",
+                        "description", "Generate 2 to 5 distinct recipe variants from the same ingredients in parallel",
+                        "requiresAuth", true),
+                "recipeGenerationStream", Map.of(
+                        "endpoint", "/ai/generate-recipe/stream",
+                        "method", "POST",
+                        "description", "Stream recipe generation progress as Server-Sent Events",
+                        "requiresAuth", true),
                 "nutritionalAnalysis", Map.of(
                         "endpoint", "/ai/recipes/{id}/nutrition",
                         "method", "GET",
                         "description", "Analyze the nutritional content of any recipe",
                         "requiresAuth", true),
+                "nutritionalAnalysisBatch", Map.of(
+                        "endpoint", "/ai/nutrition/batch",
+                        "method", "POST",
+                        "description", "Analyze the nutritional content of up to 50 recipes at once",
+                        "requiresAuth", true),
                 "winePairing", Map.of(
                         "endpoint", "/ai/recipes/{id}/pairing-suggestion",
                         "method", "GET",
@@ -276,4 +463,216 @@ public class AiController {
 
         return ResponseEntity.ok(response);
     }
+
+    // Private helper methods
+
+    private ResponseEntity<?> generateRecipeResponse(GenerateRecipeRequest request, String username) {
+        try {
+            // Generate recipe using AI; the output is validated and bound in one parse
+            AiJsonExtractor.Extraction<RecipeRequest> generated = aiService.generateRecipe(
+                    request.getIngredients(),
+                    request.getCuisine(),
+                    request.getDifficulty(),
+                    Boolean.TRUE.equals(request.getBypassCache()));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("generatedRecipe", generated.value());
+            if (generated.partial()) {
+                // Repaired from a truncated response: the tail of the recipe is missing
+                response.put("partial", true);
+            }
+
+            // If user wants to save the recipe, parse and save it
+            if (request.getSaveRecipe() != null && request.getSaveRecipe() && isAbandoned()) {
+                // Nobody receives the response, so the recipe is not saved either
+                callMetrics.recordAbandonedSave(AiFeature.GENERATION);
+                response.put("message", "Recipe generated but not saved: the request was abandoned");
+            } else if (request.getSaveRecipe() != null && request.getSaveRecipe() && generated.partial()) {
+                // A recipe repaired from a truncated response is returned but never saved as a complete one
+                response.put("message", "Recipe generated but not saved: " + PARTIAL_NOT_SAVED);
+                response.put("saveError", PARTIAL_NOT_SAVED);
+            } else if (request.getSaveRecipe() != null && request.getSaveRecipe()) {
+                try {
+                    RecipeResponse savedRecipe = recipeService.createAiGeneratedRecipe(generated.value(), username);
+                    response.put("savedRecipe", savedRecipe);
+                    response.put("message", "Recipe generated and saved successfully");
+                } catch (Exception saveException) {
+                    response.put("message", "Recipe generated but could not be saved: " + saveException.getMessage());
+                    response.put("saveError", saveException.getMessage());
+                }
+            } else {
+                response.put("message", "Recipe generated successfully (not saved)");
+            }
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "AI generation failed");
+            errorResponse.put("message", "The AI service returned an invalid response. Please try again.");
+            errorResponse.put("details", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+
+        } catch (Exception e) {
+            return unexpectedError(e, "Recipe generation failed",
+                    "An unexpected error occurred during recipe generation");
+        }
+    }
+
+    private ResponseEntity<?> generateVariantsResponse(GenerateVariantsRequest request, String username) {
+        List<AiService.RecipeVariant> variants = new ArrayList<>();
+        if (request.getVariants() != null && !request.getVariants().isEmpty()) {
+            for (RecipeVariantRequest variant : request.getVariants()) {
+                variants.add(new AiService.RecipeVariant(
+                        variant.getCuisine() != null ? variant.getCuisine() : request.getCuisine(),
+                        variant.getDifficulty() != null ? variant.getDifficulty() : request.getDifficulty(),
+                        variant.getTemperature()));
+            }
+        } else {
+            int count = request.getCount() != null ? request.getCount() : 3;
+            for (int i = 0; i < count; i++) {
+                variants.add(new AiService.RecipeVariant(request.getCuisine(), request.getDifficulty(), null));
+            }
+        }
+
+        List<AiService.VariantResult> results = aiService.generateVariants(request.getIngredients(), variants);
+        List<RecipeRequest> completed = results.stream()
+                .filter(AiService.VariantResult::isSuccess)
+                .map(AiService.VariantResult::recipe)
+                .toList();
+        // Variants repaired from a truncated response are returned but never saved as complete recipes
+        List<RecipeRequest> savable = results.stream()
+                .filter(result -> result.isSuccess() && !result.partial())
+                .map(AiService.VariantResult::recipe)
+                .toList();
+
+        List<Map<String, Object>> variantResponses = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            AiService.VariantResult result = results.get(i);
+            Map<String, Object> variantResponse = new HashMap<>();
+            variantResponse.put("variant", i + 1);
+            variantResponse.put("cuisine", result.variant().cuisine());
+            variantResponse.put("difficulty", result.variant().difficulty());
+            variantResponse.put("temperature", result.variant().temperature());
+            if (result.isSuccess()) {
+                variantResponse.put("status", "completed");
+                variantResponse.put("generatedRecipe", result.recipe());
+                if (result.partial()) {
+                    // Repaired from a truncated response: the tail of the recipe is missing
+                    variantResponse.put("partial", true);
+                    variantResponse.put("saveError", PARTIAL_NOT_SAVED);
+                }
+            } else {
+                variantResponse.put("status", result.timedOut() ? "timed_out" : "failed");
+                variantResponse.put("error", result.error());
+            }
+            variantResponses.add(variantResponse);
+        }
+
+        if (completed.isEmpty()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "AI generation failed");
+            errorResponse.put("message", "No recipe variant could be generated. Please try again.");
+            errorResponse.put("variants", variantResponses);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("requestedVariants", results.size());
+        response.put("completedVariants", completed.size());
+        response.put("variants", variantResponses);
+
+        // Completed variants are saved together, so either all of them are saved or none is
+        if (request.getSaveRecipes() != null && request.getSaveRecipes() && isAbandoned()) {
+            callMetrics.recordAbandonedSave(AiFeature.GENERATION);
+            response.put("message", "Recipe variants generated but not saved: the request was abandoned");
+        } else if (request.getSaveRecipes() != null && request.getSaveRecipes() && savable.isEmpty()) {
+            response.put("message", "Recipe variants generated but not saved: " + PARTIAL_NOT_SAVED);
+        } else if (request.getSaveRecipes() != null && request.getSaveRecipes()) {
+            try {
+                response.put("savedRecipes", recipeService.createAiGeneratedRecipes(savable, username));
+                response.put("message", savable.size() + " of " + completed.size()
+                        + " recipe variants generated and saved successfully");
+            } catch (Exception saveException) {
+                response.put("message", "Recipe variants generated but could not be saved: "
+                        + saveException.getMessage());
+                response.put("saveError", saveException.getMessage());
+            }
+        } else {
+            response.put("message", completed.size() + " recipe variants generated successfully (not saved)");
+        }
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Runs a handler asynchronously, so its model calls can be cancelled when
+     * the client disconnects, with an async timeout just past the request
+     * deadline as a backstop to the deadline enforced on model calls.
+     */
+    private <T> WebAsyncTask<T> untilDeadline(Callable<T> handler) {
+        return RequestDeadline.current()
+                .map(deadline -> new WebAsyncTask<>(deadline.getBudgetMs() + ASYNC_TIMEOUT_GRACE_MS, handler))
+                .orElseGet(() -> new WebAsyncTask<>(handler));
+    }
+
+    /**
+     * Builds the 500 response of an unexpected handler failure. AI failures
+     * with a status of their own (503 for an unavailable provider, 429 for a
+     * full limiter queue, 504 for a missed call deadline, 504 or 499 for an
+     * abandoned request) are rethrown to the global exception handler.
+     */
+    private ResponseEntity<?> unexpectedError(Exception e, String error, String message) {
+        if (e instanceof AiServiceException || e instanceof AiCapacityExceededException
+                || e instanceof AiDeadlineExceededException || e instanceof AiRequestCancelledException) {
+            throw (RuntimeException) e;
+        }
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", error);
+        errorResponse.put("message", message);
+        errorResponse.put("details", e.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+
+    private boolean isAbandoned() {
+        return RequestDeadline.current().map(RequestDeadline::isAbandoned).orElse(false);
+    }
+
+    private void completeStreamedGeneration(SseEmitter emitter, AiService.StreamedRecipe result, boolean saveRecipe,
+            String username) {
+        if (result.error() != null) {
+            sendEvent(emitter, "error", Map.of(
+                    "error", "AI generation failed",
+                    "message", "The AI service returned an invalid response. Please try again.",
+                    "details", result.error()));
+            return;
+        }
+        AiJsonExtractor.Extraction<RecipeRequest> generated = result.recipe();
+
+        sendEvent(emitter, "recipe", generated.value());
+
+        if (saveRecipe && generated.partial()) {
+            // A recipe repaired from a truncated response is never saved as a complete one
+            sendEvent(emitter, "save-error", Map.of(
+                    "message", "Recipe generated but not saved: " + PARTIAL_NOT_SAVED));
+        } else if (saveRecipe) {
+            try {
+                sendEvent(emitter, "saved", recipeService.createAiGeneratedRecipe(generated.value(), username));
+            } catch (Exception saveException) {
+                sendEvent(emitter, "save-error", Map.of(
+                        "message", "Recipe generated but could not be saved: " + saveException.getMessage()));
+            }
+        }
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected; the completion callback disposes the model stream
+            emitter.completeWithError(e);
+        }
+    }
 }
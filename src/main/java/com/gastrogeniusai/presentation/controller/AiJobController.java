@@ -0,0 +1,258 @@
+package com.gastrogeniusai.presentation.controller;
+
+import com.gastrogeniusai.application.service.AiJob;
+import com.gastrogeniusai.application.service.AiJobService;
+import com.gastrogeniusai.application.service.AiService;
+import com.gastrogeniusai.application.service.NutritionService;
+import com.gastrogeniusai.application.service.RecipeService;
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.domain.entity.Recipe;
+import com.gastrogeniusai.infrastructure.ai.AiJsonExtractor;
+import com.gastrogeniusai.infrastructure.repository.RecipeRepository;
+import com.gastrogeniusai.presentation.dto.GenerateRecipeRequest;
+import com.gastrogeniusai.presentation.dto.RecipeRequest;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST controller for asynchronous AI jobs.
+ * Submits recipe generation, nutritional analysis and wine pairing work as
+ * background jobs and exposes their status by polling or Server-Sent Events.
+ */
+@RestController
+@RequestMapping("/ai/jobs")
+@Tag(name = "AI Jobs", description = "Asynchronous AI job submission and status endpoints")
+public class AiJobController {
+
+    private final AiJobService jobService;
+    private final AiService aiService;
+    private final NutritionService nutritionService;
+    private final RecipeService recipeService;
+    private final RecipeRepository recipeRepository;
+
+    @Value("${ai.jobs.events-timeout-ms:300000}")
+    private long eventsTimeoutMs;
+
+    @Autowired
+    public AiJobController(AiJobService jobService,
+            AiService aiService,
+            NutritionService nutritionService,
+            RecipeService recipeService,
+            RecipeRepository recipeRepository) {
+        this.jobService = jobService;
+        this.aiService = aiService;
+        this.nutritionService = nutritionService;
+        this.recipeService = recipeService;
+        this.recipeRepository = recipeRepository;
+    }
+
+    /**
+     * Submits a recipe generation job.
+     */
+    @Operation(summary = "Submit recipe generation job", description = "Queues AI recipe generation and returns a job ID immediately", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "202", description = "Job accepted", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "429", description = "Job queue or per-user job limit reached", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping("/generate-recipe")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> submitRecipeGeneration(
+            @Parameter(description = "Recipe generation request with ingredients and preferences", required = true) @Valid @RequestBody GenerateRecipeRequest request,
+            Authentication authentication) {
+
+        String username = authentication.getName();
+        AiJob job = jobService.submit(AiFeature.GENERATION, username, () -> {
+            AiJsonExtractor.Extraction<RecipeRequest> generated = aiService.generateRecipe(
+                    request.getIngredients(),
+                    request.getCuisine(),
+                    request.getDifficulty(),
+                    Boolean.TRUE.equals(request.getBypassCache()));
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("generatedRecipe", generated.value());
+
+            if (generated.partial()) {
+                // Repaired from a truncated response: returned, but never saved as a complete recipe
+                result.put("partial", true);
+            }
+
+            if (request.getSaveRecipe() != null && request.getSaveRecipe() && generated.partial()) {
+                result.put("saveError", "the response was truncated and the recipe is incomplete");
+            } else if (request.getSaveRecipe() != null && request.getSaveRecipe()) {
+                try {
+                    result.put("savedRecipe", recipeService.createAiGeneratedRecipe(generated.value(), username));
+                } catch (Exception saveException) {
+                    result.put("saveError", saveException.getMessage());
+                }
+            }
+            return result;
+        });
+
+        return accepted(job);
+    }
+
+    /**
+     * Submits a nutritional analysis job.
+     */
+    @Operation(summary = "Submit nutrition analysis job", description = "Queues AI nutritional analysis of a recipe and returns a job ID immediately", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "202", description = "Job accepted", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied to recipe", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "429", description = "Job queue or per-user job limit reached", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping("/recipes/{id}/nutrition")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> submitNutritionAnalysis(
+            @Parameter(description = "Recipe ID", required = true) @PathVariable Long id,
+            Authentication authentication) {
+
+        // Verify access before queueing so callers get 403/404 synchronously
+        recipeService.getRecipeById(id, authentication.getName());
+
+        AiJob job = jobService.submit(AiFeature.NUTRITION, authentication.getName(), () -> {
+            Recipe recipe = loadRecipe(id);
+            Map<String, Object> result = new HashMap<>();
+            result.put("recipeId", id);
+            result.put("recipeTitle", recipe.getTitle());
+            result.put("nutritionalAnalysis", nutritionService.analyzeNutrition(recipe));
+            return result;
+        });
+
+        return accepted(job);
+    }
+
+    /**
+     * Submits a wine pairing job.
+     */
+    @Operation(summary = "Submit wine pairing job", description = "Queues AI wine pairing suggestions for a recipe and returns a job ID immediately", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "202", description = "Job accepted", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied to recipe", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "429", description = "Job queue or per-user job limit reached", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping("/recipes/{id}/pairing-suggestion")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> submitWinePairing(
+            @Parameter(description = "Recipe ID", required = true) @PathVariable Long id,
+            Authentication authentication) {
+
+        recipeService.getRecipeById(id, authentication.getName());
+
+        AiJob job = jobService.submit(AiFeature.PAIRING, authentication.getName(), () -> {
+            Recipe recipe = loadRecipe(id);
+            Map<String, Object> result = new HashMap<>();
+            result.put("recipeId", id);
+            result.put("recipeTitle", recipe.getTitle());
+            result.put("pairingSuggestions", aiService.suggestWinePairing(recipe));
+            return result;
+        });
+
+        return accepted(job);
+    }
+
+    /**
+     * Gets the status and result of a job.
+     */
+    @Operation(summary = "Get job status", description = "Returns the status of an AI job and its result once finished", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "200", description = "Job found", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    @GetMapping("/{jobId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> getJob(
+            @Parameter(description = "Job ID", required = true) @PathVariable String jobId,
+            Authentication authentication) {
+
+        return jobService.findJob(jobId, authentication.getName())
+                .map(job -> ResponseEntity.ok(toJobResponse(job)))
+                .orElseGet(() -> jobNotFound(jobId));
+    }
+
+    /**
+     * Streams a single completion event for a job.
+     */
+    @Operation(summary = "Subscribe to job completion", description = "Opens a Server-Sent Events stream that emits one 'completed' event when the job finishes", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "200", description = "Event stream started", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> subscribeToJob(
+            @Parameter(description = "Job ID", required = true) @PathVariable String jobId,
+            Authentication authentication) {
+
+        AiJob job = jobService.findJob(jobId, authentication.getName()).orElse(null);
+        if (job == null) {
+            return jobNotFound(jobId);
+        }
+
+        SseEmitter emitter = new SseEmitter(eventsTimeoutMs);
+        jobService.onCompletion(job, finishedJob -> {
+            try {
+                emitter.send(SseEmitter.event().name("completed").data(toJobResponse(finishedJob)));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    // Private helper methods
+
+    private Recipe loadRecipe(Long id) {
+        return recipeRepository.findByIdWithIngredients(id)
+                .orElseThrow(() -> new IllegalArgumentException("Recipe not found"));
+    }
+
+    private ResponseEntity<Map<String, Object>> accepted(AiJob job) {
+        Map<String, Object> response = toJobResponse(job);
+        response.put("statusUrl", "/ai/jobs/" + job.getId());
+        response.put("eventsUrl", "/ai/jobs/" + job.getId() + "/events");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> jobNotFound(String jobId) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Job not found");
+        errorResponse.put("message", "No job found with id: " + jobId);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    private Map<String, Object> toJobResponse(AiJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("feature", job.getFeature());
+        response.put("status", job.getStatus());
+        response.put("submittedAt", job.getSubmittedAt());
+        response.put("startedAt", job.getStartedAt());
+        response.put("completedAt", job.getCompletedAt());
+        if (job.getResult() != null) {
+            response.put("result", job.getResult());
+        }
+        if (job.getError() != null) {
+            response.put("error", job.getError());
+        }
+        return response;
+    }
+}
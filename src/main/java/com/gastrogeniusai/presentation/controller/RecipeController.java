@@ -1,10 +1,13 @@
 package com.gastrogeniusai.presentation.controller;
 
 import com.gastrogeniusai.application.service.RecipeService;
+import com.gastrogeniusai.domain.entity.CookingTechnique;
 import com.gastrogeniusai.domain.entity.RecipeCategory;
 import com.gastrogeniusai.domain.entity.RecipeDifficulty;
+import com.gastrogeniusai.infrastructure.web.IdempotencyStore;
 import com.gastrogeniusai.presentation.dto.RecipeRequest;
 import com.gastrogeniusai.presentation.dto.RecipeResponse;
+import com.gastrogeniusai.presentation.dto.SemanticSearchResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -39,35 +42,43 @@ import java.util.Map;
 public class RecipeController {
 
     private final RecipeService recipeService;
+    private final IdempotencyStore idempotencyStore;
 
     @Autowired
-    public RecipeController(RecipeService recipeService) {
+    public RecipeController(RecipeService recipeService, IdempotencyStore idempotencyStore) {
         this.recipeService = recipeService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
      * Creates a new recipe.
      */
-    @Operation(summary = "Create a new recipe", description = "Creates a new recipe for the authenticated user", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+    @Operation(summary = "Create a new recipe", description = "Creates a new recipe for the authenticated user. Retries with the same Idempotency-Key and request return the recipe created by the first one, marked with Idempotent-Replayed, instead of creating a duplicate", security = @SecurityRequirement(name = "bearerAuth"), responses = {
             @ApiResponse(responseCode = "201", description = "Recipe created successfully", content = @Content(schema = @Schema(implementation = RecipeResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid recipe data", content = @Content(schema = @Schema(implementation = Map.class))),
-            @ApiResponse(responseCode = "401", description = "Authentication required", content = @Content(schema = @Schema(implementation = Map.class)))
+            @ApiResponse(responseCode = "401", description = "Authentication required", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "409", description = "Request with the same Idempotency-Key still in progress", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request", content = @Content(schema = @Schema(implementation = Map.class)))
     })
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> createRecipe(
             @Parameter(description = "Recipe data", required = true) @Valid @RequestBody RecipeRequest recipeRequest,
+            @Parameter(description = "Client-generated key identifying retries of the same request") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
 
-        try {
-            RecipeResponse response = recipeService.createRecipe(recipeRequest, authentication.getName());
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (Exception e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Recipe creation failed");
-            errorResponse.put("message", e.getMessage());
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
+        String username = authentication.getName();
+        return idempotencyStore.execute("create-recipe", username, idempotencyKey, recipeRequest, () -> {
+            try {
+                RecipeResponse response = recipeService.createRecipe(recipeRequest, username);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } catch (Exception e) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Recipe creation failed");
+                errorResponse.put("message", e.getMessage());
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+        });
     }
 
     /**
@@ -224,6 +235,7 @@ public class RecipeController {
             @Parameter(description = "Search term for title/description") @RequestParam(required = false) String q,
             @Parameter(description = "Recipe category filter") @RequestParam(required = false) RecipeCategory category,
             @Parameter(description = "Recipe difficulty filter") @RequestParam(required = false) RecipeDifficulty difficulty,
+            @Parameter(description = "Cooking technique filter, e.g. BRAISE") @RequestParam(required = false) CookingTechnique technique,
             @Parameter(description = "Minimum cooking time in minutes") @RequestParam(required = false) Integer minCookingTime,
             @Parameter(description = "Maximum cooking time in minutes") @RequestParam(required = false) Integer maxCookingTime,
             @Parameter(description = "Search only public recipes") @RequestParam(defaultValue = "false") boolean publicOnly,
@@ -237,11 +249,36 @@ public class RecipeController {
         Pageable pageable = PageRequest.of(page, size, sort);
 
         Page<RecipeResponse> recipes = recipeService.searchRecipes(
-                q, category, difficulty, minCookingTime, maxCookingTime,
+                q, category, difficulty, technique, minCookingTime, maxCookingTime,
                 publicOnly, authentication.getName(), pageable);
         return ResponseEntity.ok(recipes);
     }
 
+    /**
+     * Searches recipes by meaning using embeddings.
+     */
+    @Operation(summary = "Semantic recipe search", description = "Finds recipes matching a free-text description such as 'something warm and spicy with chicken', optionally filtered by category, difficulty and visibility", security = @SecurityRequirement(name = "bearerAuth"), responses = {
+            @ApiResponse(responseCode = "200", description = "Semantic search results retrieved", content = @Content(schema = @Schema(implementation = List.class))),
+            @ApiResponse(responseCode = "503", description = "Semantic search unavailable")
+    })
+    @GetMapping("/search/semantic")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<SemanticSearchResult>> semanticSearch(
+            @Parameter(description = "Free-text query", required = true) @RequestParam String q,
+            @Parameter(description = "Recipe category filter") @RequestParam(required = false) RecipeCategory category,
+            @Parameter(description = "Recipe difficulty filter") @RequestParam(required = false) RecipeDifficulty difficulty,
+            @Parameter(description = "Search only public recipes") @RequestParam(defaultValue = "false") boolean publicOnly,
+            @Parameter(description = "Maximum number of results (1-50)") @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+
+        if (q.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        List<SemanticSearchResult> results = recipeService.semanticSearch(q, category, difficulty, publicOnly,
+                authentication.getName(), Math.max(1, Math.min(limit, 50)));
+        return ResponseEntity.ok(results);
+    }
+
     /**
      * Searches public recipes (no authentication required).
      */
@@ -253,6 +290,7 @@ public class RecipeController {
             @Parameter(description = "Search term for title/description") @RequestParam(required = false) String q,
             @Parameter(description = "Recipe category filter") @RequestParam(required = false) RecipeCategory category,
             @Parameter(description = "Recipe difficulty filter") @RequestParam(required = false) RecipeDifficulty difficulty,
+            @Parameter(description = "Cooking technique filter, e.g. BRAISE") @RequestParam(required = false) CookingTechnique technique,
             @Parameter(description = "Minimum cooking time in minutes") @RequestParam(required = false) Integer minCookingTime,
             @Parameter(description = "Maximum cooking time in minutes") @RequestParam(required = false) Integer maxCookingTime,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
@@ -264,7 +302,7 @@ public class RecipeController {
         Pageable pageable = PageRequest.of(page, size, sort);
 
         Page<RecipeResponse> recipes = recipeService.searchRecipes(
-                q, category, difficulty, minCookingTime, maxCookingTime,
+                q, category, difficulty, technique, minCookingTime, maxCookingTime,
                 true, null, pageable);
         return ResponseEntity.ok(recipes);
     }
@@ -0,0 +1,41 @@
+package com.gastrogeniusai.presentation.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO for batch nutritional analysis requests.
+ * Contains the IDs of the recipes to analyze.
+ */
+public class BatchNutritionRequest {
+
+    @NotEmpty(message = "At least one recipe ID is required")
+    @Size(min = 1, max = 50, message = "Please provide between 1 and 50 recipe IDs")
+    private List<Long> recipeIds;
+
+    // Constructors
+    public BatchNutritionRequest() {
+    }
+
+    public BatchNutritionRequest(List<Long> recipeIds) {
+        this.recipeIds = recipeIds;
+    }
+
+    // Getters and Setters
+    public List<Long> getRecipeIds() {
+        return recipeIds;
+    }
+
+    public void setRecipeIds(List<Long> recipeIds) {
+        this.recipeIds = recipeIds;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchNutritionRequest{" +
+                "recipeIds=" + recipeIds +
+                '}';
+    }
+}
@@ -23,6 +23,8 @@ public class GenerateRecipeRequest {
 
     private Boolean saveRecipe = true;
 
+    private Boolean bypassCache = false;
+
     // Constructors
     public GenerateRecipeRequest() {
     }
@@ -70,6 +72,14 @@ public class GenerateRecipeRequest {
         this.saveRecipe = saveRecipe;
     }
 
+    public Boolean getBypassCache() {
+        return bypassCache;
+    }
+
+    public void setBypassCache(Boolean bypassCache) {
+        this.bypassCache = bypassCache;
+    }
+
     @Override
     public String toString() {
         return "GenerateRecipeRequest{" +
@@ -77,6 +87,7 @@ public class GenerateRecipeRequest {
                 ", cuisine='" + cuisine + '\'' +
                 ", difficulty='" + difficulty + '\'' +
                 ", saveRecipe=" + saveRecipe +
+                ", bypassCache=" + bypassCache +
                 '}';
     }
 }
@@ -0,0 +1,107 @@
+package com.gastrogeniusai.presentation.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO for multi-variant AI recipe generation requests.
+ * Either lists the variants explicitly or asks for a number of variants that
+ * share the request's preferences and differ in sampling temperature.
+ */
+public class GenerateVariantsRequest {
+
+    @NotEmpty(message = "At least one ingredient is required")
+    @Size(min = 1, max = 20, message = "Please provide between 1 and 20 ingredients")
+    private List<String> ingredients;
+
+    @Size(max = 50, message = "Cuisine preference cannot exceed 50 characters")
+    private String cuisine;
+
+    @Size(max = 20, message = "Difficulty preference cannot exceed 20 characters")
+    private String difficulty;
+
+    @Min(value = 2, message = "Please request between 2 and 5 variants")
+    @Max(value = 5, message = "Please request between 2 and 5 variants")
+    private Integer count = 3;
+
+    @Valid
+    @Size(min = 2, max = 5, message = "Please provide between 2 and 5 variants")
+    private List<RecipeVariantRequest> variants;
+
+    private Boolean saveRecipes = true;
+
+    // Constructors
+    public GenerateVariantsRequest() {
+    }
+
+    public GenerateVariantsRequest(List<String> ingredients, Integer count) {
+        this.ingredients = ingredients;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public List<String> getIngredients() {
+        return ingredients;
+    }
+
+    public void setIngredients(List<String> ingredients) {
+        this.ingredients = ingredients;
+    }
+
+    public String getCuisine() {
+        return cuisine;
+    }
+
+    public void setCuisine(String cuisine) {
+        this.cuisine = cuisine;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    public List<RecipeVariantRequest> getVariants() {
+        return variants;
+    }
+
+    public void setVariants(List<RecipeVariantRequest> variants) {
+        this.variants = variants;
+    }
+
+    public Boolean getSaveRecipes() {
+        return saveRecipes;
+    }
+
+    public void setSaveRecipes(Boolean saveRecipes) {
+        this.saveRecipes = saveRecipes;
+    }
+
+    @Override
+    public String toString() {
+        return "GenerateVariantsRequest{" +
+                "ingredients=" + ingredients +
+                ", cuisine='" + cuisine + '\'' +
+                ", difficulty='" + difficulty + '\'' +
+                ", count=" + count +
+                ", variants=" + variants +
+                ", saveRecipes=" + saveRecipes +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.gastrogeniusai.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for recipe nutritional analysis results.
+ * Produced from AI model output or computed from stored ingredient data;
+ * fields that were not produced are omitted when serialized.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NutritionAnalysis(
+        NutrientValues perServing,
+        NutrientValues perRecipe,
+        MacronutrientRatios macronutrientRatios,
+        BigDecimal healthScore,
+        List<String> dietaryTags,
+        List<String> allergens,
+        List<Micronutrient> vitaminsAndMinerals,
+        String nutritionNotes,
+        Source source) {
+
+    /**
+     * Nutrient amounts in grams, calories in kcal and sodium in milligrams.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record NutrientValues(
+            BigDecimal calories,
+            BigDecimal protein,
+            BigDecimal carbohydrates,
+            BigDecimal fat,
+            BigDecimal fiber,
+            BigDecimal sugar,
+            BigDecimal sodium) {
+    }
+
+    /**
+     * Share of calories contributed by each macronutrient.
+     */
+    public record MacronutrientRatios(
+            Integer proteinPercentage,
+            Integer carbohydratePercentage,
+            Integer fatPercentage) {
+    }
+
+    /**
+     * A vitamin or mineral with its amount and share of the daily value.
+     */
+    public record Micronutrient(String name, String amount, String dailyValue) {
+    }
+
+    /**
+     * Which ingredients were computed from stored data and which were
+     * estimated by AI. Ingredients that could not be estimated because the AI
+     * provider was unavailable are listed separately. The method is
+     * {@code estimated} or {@code stale} for a whole-recipe AI analysis with
+     * every field; {@code mixed}, {@code computed} and {@code partial}
+     * results have no sugar or sodium, and only {@code mixed} ones carry the
+     * qualitative fields, taken from the estimate of the estimated
+     * ingredients.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Source(
+            String method,
+            List<String> computedIngredients,
+            List<String> estimatedIngredients,
+            List<String> ignoredIngredients,
+            List<String> unavailableIngredients) {
+    }
+}
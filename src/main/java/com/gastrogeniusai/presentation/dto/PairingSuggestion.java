@@ -0,0 +1,48 @@
+package com.gastrogeniusai.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * DTO for AI wine pairing suggestions.
+ * {@code stale} is set only on suggestions served from an earlier version of
+ * the recipe while the AI provider is unavailable.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PairingSuggestion(
+        WineRecommendation primaryRecommendation,
+        List<WineRecommendation> alternativeRecommendations,
+        List<NonAlcoholicOption> nonAlcoholicOptions,
+        List<String> pairingPrinciples,
+        String servingSuggestions,
+        Boolean stale) {
+
+    /**
+     * Returns a copy of these suggestions marked as stale.
+     *
+     * @return stale copy
+     */
+    public PairingSuggestion asStale() {
+        return new PairingSuggestion(primaryRecommendation, alternativeRecommendations, nonAlcoholicOptions,
+                pairingPrinciples, servingSuggestions, true);
+    }
+
+    /**
+     * A recommended wine style with example bottles.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record WineRecommendation(
+            String wineType,
+            List<String> specificWines,
+            String reasoning,
+            String servingTemperature,
+            String priceRange) {
+    }
+
+    /**
+     * A non-alcoholic beverage alternative.
+     */
+    public record NonAlcoholicOption(String beverage, String reasoning) {
+    }
+}
@@ -1,10 +1,12 @@
 package com.gastrogeniusai.presentation.dto;
 
+import com.gastrogeniusai.domain.entity.CookingTechnique;
 import com.gastrogeniusai.domain.entity.RecipeCategory;
 import com.gastrogeniusai.domain.entity.RecipeDifficulty;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO for recipe responses.
@@ -33,6 +35,7 @@ public class RecipeResponse {
     private OwnerInfo owner;
     private List<IngredientResponse> ingredients;
     private List<String> tags;
+    private Map<CookingTechnique, Double> cookingTechniques;
 
     // Constructors
     public RecipeResponse() {
@@ -207,6 +210,14 @@ public class RecipeResponse {
         this.tags = tags;
     }
 
+    public Map<CookingTechnique, Double> getCookingTechniques() {
+        return cookingTechniques;
+    }
+
+    public void setCookingTechniques(Map<CookingTechnique, Double> cookingTechniques) {
+        this.cookingTechniques = cookingTechniques;
+    }
+
     // Helper methods
     public String getCategoryDisplayName() {
         return category != null ? category.getDisplayName() : null;
@@ -0,0 +1,67 @@
+package com.gastrogeniusai.presentation.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO for one variant of a multi-variant recipe generation request.
+ * Unset values fall back to the request's cuisine and difficulty and to the
+ * generation profile's temperature.
+ */
+public class RecipeVariantRequest {
+
+    @Size(max = 50, message = "Cuisine preference cannot exceed 50 characters")
+    private String cuisine;
+
+    @Size(max = 20, message = "Difficulty preference cannot exceed 20 characters")
+    private String difficulty;
+
+    @DecimalMin(value = "0.0", message = "Temperature cannot be negative")
+    @DecimalMax(value = "2.0", message = "Temperature cannot exceed 2.0")
+    private Double temperature;
+
+    // Constructors
+    public RecipeVariantRequest() {
+    }
+
+    public RecipeVariantRequest(String cuisine, String difficulty, Double temperature) {
+        this.cuisine = cuisine;
+        this.difficulty = difficulty;
+        this.temperature = temperature;
+    }
+
+    // Getters and Setters
+    public String getCuisine() {
+        return cuisine;
+    }
+
+    public void setCuisine(String cuisine) {
+        this.cuisine = cuisine;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public Double getTemperature() {
+        return temperature;
+    }
+
+    public void setTemperature(Double temperature) {
+        this.temperature = temperature;
+    }
+
+    @Override
+    public String toString() {
+        return "RecipeVariantRequest{" +
+                "cuisine='" + cuisine + '\'' +
+                ", difficulty='" + difficulty + '\'' +
+                ", temperature=" + temperature +
+                '}';
+    }
+}
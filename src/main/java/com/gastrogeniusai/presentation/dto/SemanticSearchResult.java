@@ -0,0 +1,10 @@
+package com.gastrogeniusai.presentation.dto;
+
+/**
+ * DTO for one semantic search hit.
+ *
+ * @param recipe the matching recipe
+ * @param score  cosine similarity between the query and the recipe
+ */
+public record SemanticSearchResult(RecipeResponse recipe, double score) {
+}
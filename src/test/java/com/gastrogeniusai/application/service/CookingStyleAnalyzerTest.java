@@ -0,0 +1,54 @@
+package com.gastrogeniusai.application.service;
+
+import com.gastrogeniusai.domain.entity.CookingTechnique;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CookingStyleAnalyzerTest {
+
+    private final CookingStyleAnalyzer analyzer = new CookingStyleAnalyzer();
+
+    @Test
+    void scoresOnlyTheLongestOfOverlappingTerms() {
+        assertEquals(Map.of(CookingTechnique.SAUTE, 1.0), analyzer.extractTechniques("Stir fry the vegetables"));
+        assertEquals(Map.of(CookingTechnique.FRY, 0.5, CookingTechnique.SAUTE, 0.5),
+                analyzer.extractTechniques("Fry the onions; stir-fry the rest"));
+    }
+
+    @Test
+    void longerTermStartingAtTheSamePositionReplacesTheShorterOne() {
+        assertEquals(Map.of(CookingTechnique.BAKE, 1.0), analyzer.extractTechniques("GRATINAR con queso"));
+    }
+
+    @Test
+    void matchesTermsOnlyAtTheStartOfAWord() {
+        assertTrue(analyzer.extractTechniques("Pasar por el colador").isEmpty());
+        assertEquals(Map.of(CookingTechnique.ROAST, 1.0), analyzer.extractTechniques("Asar el pimiento"));
+    }
+
+    @Test
+    void foldsCaseAndAccents() {
+        assertEquals(Map.of(CookingTechnique.BAKE, 1.0), analyzer.extractTechniques("Hornéalo 20 minutos"));
+        assertEquals(Map.of(CookingTechnique.GRILL, 1.0), analyzer.extractTechniques("BARBECUE the ribs"));
+    }
+
+    @Test
+    void weighsTechniquesByTheirShareOfTheMatchedTerms() {
+        Map<CookingTechnique, Double> techniques = analyzer.extractTechniques(
+                "Grill the steak and toast the bread");
+
+        assertEquals(Map.of(CookingTechnique.GRILL, 0.67, CookingTechnique.ROAST, 0.33), techniques);
+        assertEquals("grilled (67%), roasted (33%)", analyzer.describeCookingStyle(techniques));
+    }
+
+    @Test
+    void findsNothingInEmptyInstructions() {
+        assertTrue(analyzer.extractTechniques(null).isEmpty());
+        assertTrue(analyzer.extractTechniques("").isEmpty());
+        assertEquals("not stated in the instructions", analyzer.describeCookingStyle(Map.of()));
+    }
+}
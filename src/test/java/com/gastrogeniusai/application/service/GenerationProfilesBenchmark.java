@@ -0,0 +1,135 @@
+package com.gastrogeniusai.application.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.infrastructure.ai.AiJsonExtractor;
+import com.gastrogeniusai.infrastructure.ai.GenerationProfiles;
+import com.gastrogeniusai.infrastructure.ai.PromptBudgetGovernor;
+import com.gastrogeniusai.infrastructure.ai.ResponseSchema;
+import com.gastrogeniusai.presentation.dto.NutritionAnalysis;
+import com.gastrogeniusai.presentation.dto.PairingSuggestion;
+import com.gastrogeniusai.presentation.dto.RecipeRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.gastrogeniusai.support.BenchmarkArgs.intArg;
+import static com.gastrogeniusai.support.BenchmarkArgs.stringArg;
+
+/**
+ * Output size benchmark for the per-feature generation profiles.
+ * For each feature with a response schema, a full response (every optional
+ * field with full keys, as the model answered before the profiles) is
+ * reduced to what the profile configured in {@code application.yml} asks
+ * for: unrequested optional fields are dropped and, with the compact schema,
+ * keys are replaced by their aliases. Both responses are serialized without
+ * whitespace, so only the profile changes are counted. Reports the schema
+ * tokens in the prompt and the response tokens before and after, estimated
+ * like the prompt budget, and the decode time they take at
+ * {@code --tokens-per-second}. Every reduced response is also bound through
+ * {@link AiJsonExtractor} and must expand back to the requested fields
+ * unchanged.
+ * <p>
+ * Full responses are read from {@code ai-profiles/<feature>.json} on the class path, or from
+ * {@code --responses=<directory>}, e.g. recordings made with the {@code ai-record} profile.
+ * Run from the compiled test and main classes with the dependencies on the class path, e.g.
+ * {@code java -cp target/test-classes:target/classes:<dependencies>
+ * com.gastrogeniusai.application.service.GenerationProfilesBenchmark
+ * --tokens-per-second=50}
+ */
+public final class GenerationProfilesBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private GenerationProfilesBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int tokensPerSecond = intArg(args, "tokens-per-second", 50);
+        String responses = stringArg(args, "responses", null);
+
+        StandardEnvironment environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))
+                .forEach(environment.getPropertySources()::addLast);
+        GenerationProfiles profiles = new GenerationProfiles(environment);
+        PromptBudgetGovernor promptBudget = new PromptBudgetGovernor(new SimpleMeterRegistry(), environment);
+        AiJsonExtractor extractor = new AiJsonExtractor(new SimpleMeterRegistry());
+
+        System.out.printf("Generation profiles: response tokens before -> after, decode time at %d tokens/s%n",
+                tokensPerSecond);
+        boolean lossless = true;
+        lossless &= report(AiFeature.GENERATION, AiService.GENERATION_SCHEMA, RecipeRequest.class, profiles,
+                promptBudget, extractor, responses, tokensPerSecond);
+        lossless &= report(AiFeature.NUTRITION, AiService.NUTRITION_SCHEMA, NutritionAnalysis.class, profiles,
+                promptBudget, extractor, responses, tokensPerSecond);
+        lossless &= report(AiFeature.PAIRING, AiService.PAIRING_SCHEMA, PairingSuggestion.class, profiles,
+                promptBudget, extractor, responses, tokensPerSecond);
+        if (!lossless) {
+            System.exit(1);
+        }
+    }
+
+    // Private helper methods
+
+    private static boolean report(AiFeature feature, ResponseSchema schema, Class<?> type,
+            GenerationProfiles profiles, PromptBudgetGovernor promptBudget, AiJsonExtractor extractor,
+            String responses, int tokensPerSecond) throws IOException {
+        GenerationProfiles.GenerationProfile profile = profiles.get(feature);
+        ObjectNode full = (ObjectNode) MAPPER.readTree(readResponse(feature, responses));
+        ObjectNode requested = full.deepCopy().retain(schema.fieldNames(profile.fields()));
+
+        Map<String, String> aliases = new HashMap<>();
+        schema.getExpansions().forEach((alias, key) -> aliases.put(key, alias));
+        String before = MAPPER.writeValueAsString(full);
+        String after = MAPPER.writeValueAsString(profile.compactSchema() ? compactKeys(requested, aliases)
+                : requested);
+
+        Map<String, String> expansions = profile.compactSchema() ? schema.getExpansions() : Map.of();
+        boolean lossless = MAPPER.readTree(extractor.extract(after, type, expansions).json()).equals(requested);
+
+        int schemaBefore = promptBudget.estimateTokens(schema.render(null, false));
+        int schemaAfter = promptBudget.estimateTokens(schema.render(profile.fields(), profile.compactSchema()));
+        int tokensBefore = promptBudget.estimateTokens(before);
+        int tokensAfter = promptBudget.estimateTokens(after);
+        System.out.printf("%-10s schema %4d -> %4d tokens  response %4d -> %4d tokens (%+4.0f%%)"
+                        + "  decode %,6.0f -> %,6.0f ms  limit %s  %s%n", feature.getMetricTag(), schemaBefore,
+                schemaAfter, tokensBefore, tokensAfter, 100.0 * (tokensAfter - tokensBefore) / tokensBefore,
+                tokensBefore * 1000.0 / tokensPerSecond, tokensAfter * 1000.0 / tokensPerSecond,
+                profile.maxTokens() != null ? profile.maxTokens() : "default",
+                lossless ? "lossless" : "MISMATCH after expansion");
+        return lossless;
+    }
+
+    private static JsonNode compactKeys(JsonNode node, Map<String, String> aliases) {
+        if (node.isObject()) {
+            ObjectNode compacted = MAPPER.createObjectNode();
+            node.fields().forEachRemaining(field -> compacted.set(
+                    aliases.getOrDefault(field.getKey(), field.getKey()),
+                    compactKeys(field.getValue(), aliases)));
+            return compacted;
+        }
+        if (node.isArray()) {
+            ArrayNode compacted = MAPPER.createArrayNode();
+            node.forEach(element -> compacted.add(compactKeys(element, aliases)));
+            return compacted;
+        }
+        return node;
+    }
+
+    private static String readResponse(AiFeature feature, String responses) throws IOException {
+        String file = feature.getMetricTag() + ".json";
+        return responses != null ? Files.readString(Path.of(responses, file))
+                : new ClassPathResource("ai-profiles/" + file).getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,175 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.infrastructure.exception.AiCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.gastrogeniusai.support.BenchmarkArgs.intArg;
+
+/**
+ * Convergence harness for {@link AdaptiveConcurrencyLimiter} under a
+ * simulated slow model.
+ * The simulated provider serves {@code --capacity} calls at the base latency;
+ * beyond that, calls share it and latency inflates in proportion to the
+ * calls in flight, as a saturated provider queues them. A closed loop of
+ * clients, far more than the provider can serve, drives one limiter
+ * partition through three phases: the nominal capacity, a slowdown to half
+ * of it, and a recovery to one and a half times it. The limit is sampled
+ * throughout; a phase converges when, over its second half, the limit stays
+ * between the capacity and the latency tolerance times the capacity (the
+ * queueing the limiter accepts before backing off) and varies by at most a
+ * quarter of its mean. The process exits with status 1 if a phase does not
+ * converge.
+ * <p>
+ * Run from the compiled test and main classes with the dependencies on the class path, e.g.
+ * {@code java -cp target/test-classes:target/classes:<dependencies>
+ * com.gastrogeniusai.infrastructure.ai.AdaptiveConcurrencyLimiterBenchmark
+ * --capacity=8 --clients=64 --phase-seconds=10}
+ */
+public final class AdaptiveConcurrencyLimiterBenchmark {
+
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double MAX_VARIATION = 0.25;
+    private static final long SAMPLE_INTERVAL_MS = 50;
+
+    private AdaptiveConcurrencyLimiterBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int capacity = intArg(args, "capacity", 8);
+        int clients = intArg(args, "clients", 64);
+        int baseLatencyMs = intArg(args, "base-latency-ms", 20);
+        int phaseSeconds = intArg(args, "phase-seconds", 10);
+
+        AdaptiveConcurrencyLimiter limiter = newLimiter(clients);
+        SimulatedProvider provider = new SimulatedProvider(capacity, baseLatencyMs);
+        LongAdder completed = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        System.out.printf("Adaptive limiter: %d clients, provider capacity %d at %dms, %ds phases%n", clients,
+                capacity, baseLatencyMs, phaseSeconds);
+
+        List<Thread> clientThreads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            clientThreads.add(Thread.ofVirtual().start(() -> {
+                while (running.get()) {
+                    AdaptiveConcurrencyLimiter.Permit permit;
+                    try {
+                        permit = limiter.acquire(AiFeature.GENERATION);
+                    } catch (AiCapacityExceededException e) {
+                        rejected.increment();
+                        sleep(baseLatencyMs);
+                        continue;
+                    }
+                    provider.call();
+                    permit.onSuccess();
+                    completed.increment();
+                }
+            }));
+        }
+
+        boolean converged = true;
+        int[] capacities = {capacity, Math.max(1, capacity / 2), capacity * 3 / 2};
+        String[] labels = {"nominal", "slowdown", "recovery"};
+        for (int phase = 0; phase < capacities.length; phase++) {
+            provider.capacity = capacities[phase];
+            long completedBefore = completed.sum();
+            long rejectedBefore = rejected.sum();
+            List<Integer> limits = sampleLimit(limiter, phaseSeconds);
+
+            List<Integer> settled = limits.subList(limits.size() / 2, limits.size());
+            double mean = settled.stream().mapToInt(Integer::intValue).average().orElse(0);
+            double deviation = Math.sqrt(settled.stream()
+                    .mapToDouble(limit -> (limit - mean) * (limit - mean)).average().orElse(0));
+            int min = settled.stream().mapToInt(Integer::intValue).min().orElse(0);
+            int max = settled.stream().mapToInt(Integer::intValue).max().orElse(0);
+            boolean inBand = mean >= capacities[phase] && mean <= capacities[phase] * LATENCY_TOLERANCE;
+            boolean stable = deviation <= mean * MAX_VARIATION;
+            converged &= inBand && stable;
+
+            System.out.printf("%-9s capacity=%2d  limit mean=%5.1f sd=%4.1f range=%d..%d  throughput=%,6.0f/s"
+                            + "  rejected=%,d  %s%n", labels[phase], capacities[phase], mean, deviation, min, max,
+                    (completed.sum() - completedBefore) / (double) phaseSeconds, rejected.sum() - rejectedBefore,
+                    inBand && stable ? "converged" : "NOT converged");
+        }
+
+        running.set(false);
+        for (Thread clientThread : clientThreads) {
+            clientThread.join();
+        }
+        if (!converged) {
+            System.exit(1);
+        }
+    }
+
+    // Private helper methods
+
+    private static AdaptiveConcurrencyLimiter newLimiter(int clients) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("ai.limiter.initial-limit", 4);
+        properties.put("ai.limiter.max-limit", 64);
+        properties.put("ai.limiter.queue-size", clients / 2);
+        properties.put("ai.limiter.max-wait-ms", 2000);
+        properties.put("ai.limiter.latency-tolerance", LATENCY_TOLERANCE);
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        return new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), environment);
+    }
+
+    private static List<Integer> sampleLimit(AdaptiveConcurrencyLimiter limiter, int seconds) {
+        List<Integer> limits = new ArrayList<>();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < end) {
+            limits.add(limiter.getLimit(AiFeature.GENERATION));
+            sleep(SAMPLE_INTERVAL_MS);
+        }
+        return limits;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Model whose latency inflates once more calls are in flight than it can
+     * serve at once.
+     */
+    private static final class SimulatedProvider {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final int baseLatencyMs;
+        private volatile int capacity;
+
+        SimulatedProvider(int capacity, int baseLatencyMs) {
+            this.capacity = capacity;
+            this.baseLatencyMs = baseLatencyMs;
+        }
+
+        void call() {
+            int concurrent = inFlight.incrementAndGet();
+            try {
+                double inflation = Math.max(1.0, concurrent / (double) capacity);
+                double jitter = ThreadLocalRandom.current().nextDouble(0.9, 1.1);
+                sleep(Math.round(baseLatencyMs * inflation * jitter));
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
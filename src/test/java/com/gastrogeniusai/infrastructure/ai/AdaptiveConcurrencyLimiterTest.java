@@ -0,0 +1,104 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.infrastructure.exception.AiCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void growsAdditivelyWhileTheLimitIsUsedAndLatencyStaysLow() {
+        // Latency never counts as inflated, so only the additive increase applies
+        AdaptiveConcurrencyLimiter limiter = newLimiter(new MockEnvironment()
+                .withProperty("ai.limiter.initial-limit", "2")
+                .withProperty("ai.limiter.latency-tolerance", "1000000000"));
+
+        for (int round = 0; round < 10 && limiter.getLimit(AiFeature.GENERATION) == 2; round++) {
+            AdaptiveConcurrencyLimiter.Permit first = limiter.acquire(AiFeature.GENERATION);
+            AdaptiveConcurrencyLimiter.Permit second = limiter.acquire(AiFeature.GENERATION);
+            first.onSuccess();
+            second.onSuccess();
+        }
+
+        assertEquals(3, limiter.getLimit(AiFeature.GENERATION));
+        assertEquals(2, limiter.getLimit(AiFeature.NUTRITION));
+    }
+
+    @Test
+    void shrinksMultiplicativelyOnDroppedCallsDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(new MockEnvironment()
+                .withProperty("ai.limiter.initial-limit", "16")
+                .withProperty("ai.limiter.min-limit", "2")
+                .withProperty("ai.limiter.backoff-ratio", "0.5"));
+
+        limiter.acquire(AiFeature.PAIRING).onDropped();
+        assertEquals(8, limiter.getLimit(AiFeature.PAIRING));
+        limiter.acquire(AiFeature.PAIRING).onDropped();
+        assertEquals(4, limiter.getLimit(AiFeature.PAIRING));
+
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(AiFeature.PAIRING).onDropped();
+        }
+        assertEquals(2, limiter.getLimit(AiFeature.PAIRING));
+    }
+
+    @Test
+    void ignoredCallsReleaseTheirSlotWithoutAdjustingTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(new MockEnvironment()
+                .withProperty("ai.limiter.initial-limit", "1")
+                .withProperty("ai.limiter.queue-size", "0"));
+
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(AiFeature.GENERATION);
+        assertEquals(1, inFlight(AiFeature.GENERATION));
+        permit.onIgnore();
+        permit.onIgnore();
+
+        assertEquals(0, inFlight(AiFeature.GENERATION));
+        assertEquals(1, limiter.getLimit(AiFeature.GENERATION));
+        limiter.acquire(AiFeature.GENERATION).onIgnore();
+    }
+
+    @Test
+    void rejectsCallersOnceTheQueueIsFull() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(new MockEnvironment()
+                .withProperty("ai.limiter.initial-limit", "1")
+                .withProperty("ai.limiter.queue-size", "0"));
+
+        limiter.acquire(AiFeature.NUTRITION);
+        assertThrows(AiCapacityExceededException.class, () -> limiter.acquire(AiFeature.NUTRITION));
+        assertTrue(limiter.tryAcquire(AiFeature.NUTRITION).isEmpty());
+        assertEquals(1.0, meterRegistry.get("ai.limiter.rejected").tag("feature", "nutrition")
+                .tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void rejectsQueuedCallersWhenTheWaitTimesOut() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(new MockEnvironment()
+                .withProperty("ai.limiter.initial-limit", "1")
+                .withProperty("ai.limiter.queue-size", "1")
+                .withProperty("ai.limiter.max-wait-ms", "20"));
+
+        limiter.acquire(AiFeature.GENERATION);
+        assertThrows(AiCapacityExceededException.class, () -> limiter.acquire(AiFeature.GENERATION));
+        assertEquals(1.0, meterRegistry.get("ai.limiter.rejected").tag("feature", "generate")
+                .tag("reason", "timeout").counter().count());
+    }
+
+    // Private helper methods
+
+    private AdaptiveConcurrencyLimiter newLimiter(MockEnvironment environment) {
+        return new AdaptiveConcurrencyLimiter(meterRegistry, environment);
+    }
+
+    private double inFlight(AiFeature feature) {
+        return meterRegistry.get("ai.limiter.inflight").tag("feature", feature.getMetricTag()).gauge().value();
+    }
+}
@@ -0,0 +1,105 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.infrastructure.exception.AiCircuitOpenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AiCircuitBreakerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void opensWhenTheFailureRateCrossesTheThreshold() {
+        AiCircuitBreaker breaker = newBreaker(60000);
+
+        breaker.acquirePermission().onSuccess(1);
+        breaker.acquirePermission().onError(1);
+        breaker.acquirePermission().onSuccess(1);
+        assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.acquirePermission().onError(1);
+
+        assertEquals(AiCircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(AiCircuitOpenException.class, breaker::acquirePermission);
+        assertEquals(1.0, meterRegistry.get("ai.breaker.rejected").counter().count());
+    }
+
+    @Test
+    void opensWhenTheSlowCallRateCrossesTheThreshold() {
+        AiCircuitBreaker breaker = newBreaker(60000);
+        long slow = TimeUnit.MILLISECONDS.toNanos(100);
+
+        for (int i = 0; i < 4; i++) {
+            breaker.acquirePermission().onSuccess(slow);
+        }
+
+        assertEquals(AiCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void goesHalfOpenAfterTheOpenPeriodAndClosesWhenAllProbesSucceed() {
+        AiCircuitBreaker breaker = newBreaker(0);
+        tripOpen(breaker);
+        assertEquals(AiCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        AiCircuitBreaker.Permission first = breaker.acquirePermission();
+        AiCircuitBreaker.Permission second = breaker.acquirePermission();
+        // Only as many calls as there are probes are let through while half-open
+        assertThrows(AiCircuitOpenException.class, breaker::acquirePermission);
+
+        first.onSuccess(1);
+        assertEquals(AiCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        second.onSuccess(1);
+
+        assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getSnapshot().bufferedCalls());
+        breaker.acquirePermission().onSuccess(1);
+    }
+
+    @Test
+    void reopensOnTheFirstFailedProbe() {
+        AiCircuitBreaker breaker = newBreaker(0);
+        tripOpen(breaker);
+
+        AiCircuitBreaker.Permission probe = breaker.acquirePermission();
+        probe.onError(1);
+
+        assertEquals(2.0, meterRegistry.get("ai.breaker.transitions").tag("to", "open").counter().count());
+    }
+
+    @Test
+    void ignoredProbeFreesItsSlotWithoutClosingTheBreaker() {
+        AiCircuitBreaker breaker = newBreaker(0);
+        tripOpen(breaker);
+
+        breaker.acquirePermission().onIgnore();
+        breaker.acquirePermission().onSuccess(1);
+        breaker.acquirePermission().onSuccess(1);
+
+        assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    // Private helper methods
+
+    private AiCircuitBreaker newBreaker(long openDurationMs) {
+        return new AiCircuitBreaker(meterRegistry, new MockEnvironment()
+                .withProperty("ai.breaker.window-size", "4")
+                .withProperty("ai.breaker.minimum-calls", "4")
+                .withProperty("ai.breaker.failure-rate-threshold", "0.5")
+                .withProperty("ai.breaker.slow-call-ms", "50")
+                .withProperty("ai.breaker.slow-call-rate-threshold", "0.75")
+                .withProperty("ai.breaker.open-duration-ms", String.valueOf(openDurationMs))
+                .withProperty("ai.breaker.half-open-probes", "2"));
+    }
+
+    private void tripOpen(AiCircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            breaker.acquirePermission().onError(1);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gastrogeniusai.domain.entity.IngredientCategory;
+import com.gastrogeniusai.domain.entity.MeasurementUnit;
+import com.gastrogeniusai.domain.entity.RecipeCategory;
+import com.gastrogeniusai.domain.entity.RecipeDifficulty;
+import com.gastrogeniusai.presentation.dto.RecipeRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link AiJsonExtractor} against the double parse it
+ * replaced.
+ * Generated recipes of about 2, 4 and 8 KB are wrapped in prose and a code
+ * fence, the way the model often answers. The previous path cut the text
+ * from the first opening to the last closing brace, validated it with
+ * {@code readTree} and bound it again with {@code readValue}; the extractor
+ * locates, validates and binds the object in one streaming pass. Both bind
+ * to {@link RecipeRequest} with the same mapper settings. Reports the average
+ * time per extraction; add {@code -prof gc} for the bytes allocated.
+ * <p>
+ * Run from the compiled test and main classes with the dependencies on the class path, e.g.
+ * {@code java -cp target/test-classes:target/classes:<dependencies>
+ * com.gastrogeniusai.infrastructure.ai.AiJsonExtractorBenchmark -prof gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiJsonExtractorBenchmark {
+
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Param({"2048", "4096", "8192"})
+    public int size;
+
+    private AiJsonExtractor extractor;
+    private String output;
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args.length > 0 ? args
+                : new String[] {AiJsonExtractorBenchmark.class.getSimpleName()});
+    }
+
+    @Setup
+    public void setUp() {
+        extractor = new AiJsonExtractor(new SimpleMeterRegistry());
+        output = modelOutput(size);
+    }
+
+    @Benchmark
+    public RecipeRequest doubleParse() throws Exception {
+        String jsonStart = output.indexOf('{') >= 0 ? output.substring(output.indexOf('{')) : output;
+        String json = jsonStart.lastIndexOf('}') >= 0 ? jsonStart.substring(0, jsonStart.lastIndexOf('}') + 1)
+                : jsonStart;
+        LEGACY_MAPPER.readTree(json);
+        return LEGACY_MAPPER.readValue(json, RecipeRequest.class);
+    }
+
+    @Benchmark
+    public RecipeRequest singlePass() {
+        return extractor.extract(output, RecipeRequest.class).value();
+    }
+
+    // Private helper methods
+
+    private static String modelOutput(int targetSize) {
+        ObjectNode recipe = LEGACY_MAPPER.createObjectNode()
+                .put("title", "Roasted Vegetable Traybake with Herb Dressing")
+                .put("description", "A colourful one-pan dinner of roasted seasonal vegetables finished with "
+                        + "a bright herb and lemon dressing.")
+                .put("instructions", "1. Preheat the oven to 200C. 2. Toss the vegetables with oil and salt. "
+                        + "3. Roast for 35 minutes, turning halfway. 4. Whisk the dressing and spoon it over.")
+                .put("cookingTimeMinutes", 35)
+                .put("prepTimeMinutes", 15)
+                .put("servings", 4)
+                .put("category", RecipeCategory.MAIN_COURSE.name())
+                .put("difficulty", RecipeDifficulty.EASY.name());
+        recipe.putArray("tags").add("vegetarian").add("one-pan").add("weeknight");
+        ArrayNode ingredients = recipe.putArray("ingredients");
+
+        MeasurementUnit[] units = MeasurementUnit.values();
+        IngredientCategory[] categories = IngredientCategory.values();
+        String output;
+        int i = 0;
+        do {
+            ingredients.addObject()
+                    .put("name", "Ingredient number " + i)
+                    .put("quantity", 1.5 + i)
+                    .put("unit", units[i % units.length].name())
+                    .put("notes", "roughly chopped into bite-sized pieces")
+                    .put("category", categories[i % categories.length].name())
+                    .put("isOptional", i % 5 == 0);
+            i++;
+            output = "Here is a recipe using your ingredients:\n\n```json\n" + recipe.toPrettyString()
+                    + "\n```\n\nEnjoy your meal! Adjust the seasoning to taste before serving.";
+        } while (output.length() < targetSize);
+        return output;
+    }
+}
@@ -0,0 +1,97 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AiJsonExtractorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AiJsonExtractor extractor = new AiJsonExtractor(meterRegistry);
+
+    @Test
+    void skipsProseAndCodeFencesAroundTheObject() {
+        String output = "Preheat the {oven} first. Here is your recipe:\n```json\n"
+                + "{\"title\":\"Leek Soup\",\"lines\":[{\"name\":\"leek\",\"unit\":\"GRAMS\"}]}\n```\nEnjoy!";
+
+        AiJsonExtractor.Extraction<Recipe> extraction = extractor.extract(output, Recipe.class);
+
+        assertEquals("{\"title\":\"Leek Soup\",\"lines\":[{\"name\":\"leek\",\"unit\":\"GRAMS\"}]}",
+                extraction.json());
+        assertEquals(new Recipe("Leek Soup", List.of(new Line("leek", Unit.GRAMS))), extraction.value());
+        assertFalse(extraction.partial());
+    }
+
+    @Test
+    void coercesEnumNearMisses() {
+        assertEquals(Unit.GRAMS, unitOf("grams"));
+        assertEquals(Unit.GRAMS, unitOf("Gram"));
+        assertEquals(Unit.TABLESPOON, unitOf("table"));
+        assertEquals(Unit.OTHER, unitOf("a pinch"));
+        assertEquals(4.0, meterRegistry.get("ai.model.json.coercions").tag("enum", "Unit").counter().count());
+    }
+
+    @Test
+    void triesTheRegisteredLookupBeforeTheGenericCoercions() {
+        extractor.registerEnumLookup(Unit.class, value -> value.equals("tbsp") ? Unit.TABLESPOON : null);
+
+        assertEquals(Unit.TABLESPOON, unitOf("tbsp"));
+        assertEquals(Unit.GRAMS, unitOf("grams"));
+    }
+
+    @Test
+    void failsOnAnEnumValueWithoutAMatchWhenTheEnumHasNoOtherConstant() {
+        assertThrows(IllegalStateException.class, () -> extractor.extract(
+                "{\"title\":\"Soup\",\"difficulty\":\"impossible\"}", Rated.class));
+    }
+
+    @Test
+    void failsOnAnIncompleteObject() {
+        assertThrows(IllegalStateException.class, () -> extractor.extract(
+                "{\"title\":\"Soup\",\"lines\":[{\"name\":\"leek\"", Recipe.class));
+        assertThrows(IllegalStateException.class, () -> extractor.extract("No recipe today.", Recipe.class));
+    }
+
+    @Test
+    void expandsCompactKeysAtEveryLevel() {
+        AiJsonExtractor.Extraction<Recipe> extraction = extractor.extract(
+                "{\"t\":\"Soup\",\"l\":[{\"n\":\"leek\",\"u\":\"CUP\"}]}", Recipe.class,
+                Map.of("t", "title", "l", "lines", "n", "name", "u", "unit"));
+
+        assertEquals("{\"title\":\"Soup\",\"lines\":[{\"name\":\"leek\",\"unit\":\"CUP\"}]}", extraction.json());
+        assertEquals(new Recipe("Soup", List.of(new Line("leek", Unit.CUP))), extraction.value());
+    }
+
+    // Private helper methods
+
+    private Unit unitOf(String unit) {
+        return extractor.extract("{\"name\":\"leek\",\"unit\":\"" + unit + "\"}", Line.class).value().unit();
+    }
+
+    enum Unit {
+        GRAMS,
+        TABLESPOON,
+        CUP,
+        OTHER
+    }
+
+    enum Difficulty {
+        EASY,
+        HARD
+    }
+
+    record Line(String name, Unit unit) {
+    }
+
+    record Recipe(String title, List<Line> lines) {
+    }
+
+    record Rated(String title, Difficulty difficulty) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.domain.entity.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.gastrogeniusai.support.BenchmarkArgs.intArg;
+
+/**
+ * Contention benchmark for {@link AiRateLimiter}.
+ * Simulated users, mostly on the USER role with some PREMIUM and ADMIN
+ * users, make requests from a growing number of platform threads; a small
+ * share of hot users receives a fifth of the traffic so their buckets, and
+ * each role's shared buckets, are hammered concurrently. Every admitted
+ * request is charged a random number of model tokens, the way finished model
+ * calls are. Reports throughput and the latency of admission plus charging.
+ * <p>
+ * Run from the compiled test and main classes with the dependencies on the class path, e.g.
+ * {@code java -cp target/test-classes:target/classes:<dependencies>
+ * com.gastrogeniusai.infrastructure.ai.AiRateLimiterBenchmark
+ * --users=10000 --threads=64 --seconds=5}
+ */
+public final class AiRateLimiterBenchmark {
+
+    private static final int LATENCY_SAMPLES = 1 << 16;
+    private static final int SAMPLE_EVERY = 8;
+
+    private AiRateLimiterBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int userCount = intArg(args, "users", 10_000);
+        int maxThreads = intArg(args, "threads", Runtime.getRuntime().availableProcessors() * 4);
+        int seconds = intArg(args, "seconds", 5);
+        int hotPercent = intArg(args, "hot-percent", 1);
+
+        AiCallContext.Caller[] callers = new AiCallContext.Caller[userCount];
+        for (int i = 0; i < userCount; i++) {
+            UserRole role = i % 100 == 0 ? UserRole.ADMIN : i % 10 == 0 ? UserRole.PREMIUM : UserRole.USER;
+            callers[i] = new AiCallContext.Caller((long) i, "user" + i, role);
+        }
+        int hotUsers = Math.max(1, userCount * hotPercent / 100);
+
+        System.out.printf("AI rate limiter: %,d users (%,d hot), %ds per run%n", userCount, hotUsers, seconds);
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            run(newLimiter(), callers, hotUsers, threads, seconds);
+        }
+    }
+
+    // Private helper methods
+
+    private static void run(AiRateLimiter limiter, AiCallContext.Caller[] callers, int hotUsers, int threads,
+            int seconds) throws InterruptedException {
+        LongAdder allowed = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        long[][] latencies = new long[threads][LATENCY_SAMPLES];
+        int[] sampled = new int[threads];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long operations = 0;
+                while ((operations & 0xFF) != 0 || System.nanoTime() < deadline) {
+                    AiCallContext.Caller caller = callers[random.nextInt(5) == 0
+                            ? random.nextInt(hotUsers) : random.nextInt(callers.length)];
+                    long start = System.nanoTime();
+                    AiRateLimiter.Decision decision = limiter.tryAcquire(caller);
+                    if (decision.allowed()) {
+                        limiter.onCall(new AiCallListener.Call(AiFeature.GENERATION, "benchmark", 0,
+                                random.nextLong(200, 1500), random.nextLong(300, 2500), 0, false, "success", caller));
+                        allowed.increment();
+                    } else {
+                        rejected.increment();
+                    }
+                    if (operations++ % SAMPLE_EVERY == 0) {
+                        latencies[worker][sampled[worker]++ % LATENCY_SAMPLES] = System.nanoTime() - start;
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long[] merged = new long[0];
+        for (int t = 0; t < threads; t++) {
+            long[] samples = Arrays.copyOf(latencies[t], Math.min(sampled[t], LATENCY_SAMPLES));
+            merged = concat(merged, samples);
+        }
+        Arrays.sort(merged);
+        long total = allowed.sum() + rejected.sum();
+        System.out.printf("%3d threads: %,12.0f ops/s  allowed=%,d  rejected=%,d  p50=%.2fus  p99=%.2fus"
+                        + "  p99.9=%.2fus%n", threads, total / (double) seconds, allowed.sum(), rejected.sum(),
+                micros(merged, 0.50), micros(merged, 0.99), micros(merged, 0.999));
+    }
+
+    private static AiRateLimiter newLimiter() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("ai.quota.roles.USER.requests-per-minute", 10);
+        properties.put("ai.quota.roles.USER.request-burst", 10);
+        properties.put("ai.quota.roles.USER.tokens-per-hour", 60_000);
+        properties.put("ai.quota.roles.USER.token-burst", 20_000);
+        properties.put("ai.quota.roles.USER.shared-requests-per-minute", 2_000);
+        properties.put("ai.quota.roles.PREMIUM.requests-per-minute", 60);
+        properties.put("ai.quota.roles.PREMIUM.request-burst", 20);
+        properties.put("ai.quota.roles.PREMIUM.tokens-per-hour", 500_000);
+        properties.put("ai.quota.roles.PREMIUM.token-burst", 100_000);
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        return new AiRateLimiter(new SimpleMeterRegistry(), environment);
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static double micros(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = Math.min(sortedNanos.length - 1, (int) Math.ceil(percentile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
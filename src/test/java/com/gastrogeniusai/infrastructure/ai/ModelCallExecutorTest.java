@@ -0,0 +1,67 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import com.gastrogeniusai.domain.entity.AiFeature;
+import com.gastrogeniusai.infrastructure.exception.AiDeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ModelCallExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("ai.calls.deadline-ms", "50");
+    private final CountDownLatch workerBusy = new CountDownLatch(1);
+    private ExecutorService executor;
+
+    @BeforeEach
+    void occupyWorker() {
+        // The only worker stays busy, so submitted attempts are still queued when they are cancelled
+        executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> {
+            workerBusy.await();
+            return null;
+        });
+    }
+
+    @AfterEach
+    void releaseWorker() {
+        workerBusy.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void releasesPermitOfAttemptCancelledBeforeItStarts() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, environment);
+        ChatModel chatModel = mock(ChatModel.class);
+        ModelCallExecutor callExecutor = new ModelCallExecutor(chatModel, limiter,
+                new AiCircuitBreaker(meterRegistry, environment), mock(AiCallMetrics.class), meterRegistry,
+                environment, executor);
+
+        for (int call = 0; call < 3; call++) {
+            assertThrows(AiDeadlineExceededException.class,
+                    () -> callExecutor.call(AiFeature.GENERATION, new Prompt("Create a recipe")));
+            assertEquals(0, inFlight(AiFeature.GENERATION));
+        }
+        verifyNoInteractions(chatModel);
+    }
+
+    // Private helper methods
+
+    private double inFlight(AiFeature feature) {
+        return meterRegistry.get("ai.limiter.inflight").tag("feature", feature.getMetricTag()).gauge().value();
+    }
+}
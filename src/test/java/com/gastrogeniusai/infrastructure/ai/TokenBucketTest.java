@@ -0,0 +1,58 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstThenRefillsOneTokenPerPeriod() {
+        TokenBucket bucket = new TokenBucket(3, 1, Duration.ofSeconds(1), 0);
+
+        assertTrue(bucket.tryConsume(1, 0));
+        assertTrue(bucket.tryConsume(1, 0));
+        assertTrue(bucket.tryConsume(1, 0));
+        assertFalse(bucket.tryConsume(1, 0));
+        assertEquals(SECOND, bucket.nanosUntilAvailable(1, 0));
+
+        assertFalse(bucket.tryConsume(1, SECOND - 1));
+        assertTrue(bucket.tryConsume(1, SECOND));
+        assertEquals(3, bucket.available(4 * SECOND));
+    }
+
+    @Test
+    void bucketInDebtRejectsUntilTheDebtIsPaidOff() {
+        TokenBucket bucket = new TokenBucket(10, 10, Duration.ofSeconds(1), 0);
+        long nanosPerToken = SECOND / 10;
+
+        // Usage reported after the fact takes the bucket five tokens below empty
+        bucket.consume(15, 0);
+        assertEquals(0, bucket.available(0));
+        assertFalse(bucket.tryConsume(1, 0));
+        assertFalse(bucket.tryConsume(1, 5 * nanosPerToken));
+        assertEquals(nanosPerToken, bucket.nanosUntilAvailable(1, 5 * nanosPerToken));
+
+        assertTrue(bucket.tryConsume(1, 6 * nanosPerToken));
+        assertEquals(10, bucket.available(2 * SECOND));
+        assertEquals(0, bucket.nanosUntilFull(2 * SECOND));
+    }
+
+    @Test
+    void refundReturnsTokensTakenForARejectedRequest() {
+        TokenBucket bucket = new TokenBucket(2, 1, Duration.ofMinutes(1), 0);
+
+        assertTrue(bucket.tryConsume(2, 0));
+        assertFalse(bucket.tryConsume(1, 0));
+        bucket.refund(1);
+        assertEquals(1, bucket.available(0));
+        assertTrue(bucket.tryConsume(1, 0));
+    }
+}
@@ -0,0 +1,61 @@
+package com.gastrogeniusai.infrastructure.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TruncatedJsonRepairTest {
+
+    @Test
+    void dropsTheIncompleteTrailingElementOfATruncatedArray() {
+        TruncatedJsonRepair.Result result = repair("Here it is:\n{\"title\":\"Soup\",\"ingredients\":["
+                + "{\"name\":\"leek\",\"quantity\":2},{\"name\":\"pot");
+
+        assertEquals("{\"title\":\"Soup\",\"ingredients\":[{\"name\":\"leek\",\"quantity\":2}]}", result.json());
+        assertTrue(result.truncated());
+    }
+
+    @Test
+    void dropsTheWholeElementOfTheOutermostArrayWhenNestedArraysAreTruncated() {
+        TruncatedJsonRepair.Result result = repair("{\"title\":\"Soup\",\"steps\":[[\"chop\",\"fry\"],[\"sim");
+
+        assertEquals("{\"title\":\"Soup\",\"steps\":[[\"chop\",\"fry\"]]}", result.json());
+    }
+
+    @Test
+    void closesATruncatedStringValueAndKeepsItsText() {
+        TruncatedJsonRepair.Result result = repair("{\"title\":\"Soup\",\"instructions\":\"1. Chop the le");
+
+        assertEquals("{\"title\":\"Soup\",\"instructions\":\"1. Chop the le\"}", result.json());
+        assertTrue(result.truncated());
+    }
+
+    @Test
+    void dropsAMemberWhoseValueIsMissingOrMayBeIncomplete() {
+        assertEquals("{\"title\":\"Soup\"}", repair("{\"title\":\"Soup\",\"servings\":").json());
+        assertEquals("{\"title\":\"Soup\"}", repair("{\"title\":\"Soup\",\"servings\":1").json());
+    }
+
+    @Test
+    void removesTrailingCommasWithoutReportingTruncation() {
+        TruncatedJsonRepair.Result result = repair("{\"title\":\"Soup\",\"tags\":[\"a\",\"b\",],}");
+
+        assertEquals("{\"title\":\"Soup\",\"tags\":[\"a\",\"b\"]}", result.json());
+        assertFalse(result.truncated());
+    }
+
+    @Test
+    void rejectsTextWithoutAnObjectOrWithMismatchedBrackets() {
+        assertTrue(TruncatedJsonRepair.repair("no json here").isEmpty());
+        assertTrue(TruncatedJsonRepair.repair("{\"title\":\"Soup\"]").isEmpty());
+        assertTrue(TruncatedJsonRepair.repair(null).isEmpty());
+    }
+
+    // Private helper methods
+
+    private TruncatedJsonRepair.Result repair(String text) {
+        return TruncatedJsonRepair.repair(text).orElseThrow();
+    }
+}
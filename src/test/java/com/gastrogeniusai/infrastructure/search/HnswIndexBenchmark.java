@@ -0,0 +1,150 @@
+package com.gastrogeniusai.infrastructure.search;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+
+import static com.gastrogeniusai.support.BenchmarkArgs.intArg;
+
+/**
+ * Recall and latency benchmark for {@link HnswIndex} over a synthetic corpus.
+ * Vectors are drawn around random cluster centres, the way recipe embeddings
+ * cluster by cuisine and dish type, and each entry gets recipe-like filter
+ * attributes. Recall@k is measured against an exact linear scan, for plain
+ * queries, for queries filtered on one category, and after deleting a share
+ * of the corpus; the index is also saved and reloaded memory-mapped.
+ * <p>
+ * Lives with the test sources so it stays out of the application jar. Run
+ * from the compiled test and main classes, e.g.
+ * {@code java -Xmx8g -cp target/test-classes:target/classes com.gastrogeniusai.infrastructure.search.HnswIndexBenchmark
+ * --size=1000000 --dimensions=128}
+ */
+public final class HnswIndexBenchmark {
+
+    private static final int CATEGORIES = 10;
+    private static final int DIFFICULTIES = 3;
+
+    private HnswIndexBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int size = intArg(args, "size", 1_000_000);
+        int dimensions = intArg(args, "dimensions", 128);
+        int clusters = intArg(args, "clusters", 1000);
+        int m = intArg(args, "m", 16);
+        int efConstruction = intArg(args, "ef-construction", 100);
+        int efSearch = intArg(args, "ef-search", 64);
+        int k = intArg(args, "k", 10);
+        int queries = intArg(args, "queries", 200);
+        double deleteShare = intArg(args, "delete-percent", 10) / 100.0;
+
+        Random random = new Random(42);
+        float[][] centres = new float[clusters][];
+        for (int i = 0; i < clusters; i++) {
+            centres[i] = gaussian(random, dimensions, 1.0f);
+        }
+
+        System.out.printf("Building index: %,d vectors, %d dimensions, m=%d, efConstruction=%d%n",
+                size, dimensions, m, efConstruction);
+        HnswIndex index = new HnswIndex(dimensions, m, efConstruction, 7);
+        long start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            index.upsert(i, sample(random, centres, dimensions), attributes(random), 1);
+            if ((i + 1) % 100_000 == 0) {
+                System.out.printf("  %,d inserted (%.1fs)%n", i + 1, seconds(start));
+            }
+        }
+        System.out.printf("Build: %.1fs (%.0f inserts/s)%n", seconds(start), size / seconds(start));
+
+        float[][] queryVectors = new float[queries][];
+        for (int i = 0; i < queries; i++) {
+            queryVectors[i] = sample(random, centres, dimensions);
+        }
+
+        LongPredicate oneCategory = attributes -> (attributes & 0xFF) == 3;
+        report("plain", index, queryVectors, k, efSearch, null);
+        report("filtered (1 of " + CATEGORIES + " categories)", index, queryVectors, k, efSearch, oneCategory);
+
+        Path file = Files.createTempFile("hnsw-benchmark", ".idx");
+        try {
+            start = System.nanoTime();
+            index.save(file);
+            System.out.printf("Save: %.1fs, %,d bytes%n", seconds(start), Files.size(file));
+            start = System.nanoTime();
+            HnswIndex loaded = HnswIndex.load(file, 7);
+            System.out.printf("Load (memory-mapped): %.1fs%n", seconds(start));
+            report("plain, reloaded", loaded, queryVectors, k, efSearch, null);
+
+            int deletions = (int) (size * deleteShare);
+            for (int i = 0; i < deletions; i++) {
+                loaded.remove(random.nextInt(size));
+            }
+            System.out.printf("Deleted %,d random entries (%,d tombstones)%n", deletions, loaded.deletedCount());
+            report("plain, after deletes", loaded, queryVectors, k, efSearch, null);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Private helper methods
+
+    private static void report(String label, HnswIndex index, float[][] queries, int k, int ef,
+            LongPredicate filter) {
+        long[] latencies = new long[queries.length];
+        double recall = 0;
+        for (int i = 0; i < queries.length; i++) {
+            long start = System.nanoTime();
+            List<HnswIndex.Match> approximate = index.search(queries[i], k, ef, filter);
+            latencies[i] = System.nanoTime() - start;
+
+            Set<Long> expected = new HashSet<>();
+            index.exactSearch(queries[i], k, filter).forEach(match -> expected.add(match.key()));
+            long found = approximate.stream().filter(match -> expected.contains(match.key())).count();
+            recall += expected.isEmpty() ? 1 : (double) found / expected.size();
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-40s recall@%d=%.3f  p50=%.2fms  p95=%.2fms  p99=%.2fms%n", label, k,
+                recall / queries.length, millis(latencies, 0.50), millis(latencies, 0.95), millis(latencies, 0.99));
+    }
+
+    private static long attributes(Random random) {
+        // Same layout as RecipeVectorIndex: category, difficulty, public flag
+        long category = random.nextInt(CATEGORIES);
+        long difficulty = random.nextInt(DIFFICULTIES);
+        long isPublic = random.nextInt(4) == 0 ? 0 : 1;
+        return category | difficulty << 8 | isPublic << 16;
+    }
+
+    private static float[] sample(Random random, float[][] centres, int dimensions) {
+        float[] centre = centres[random.nextInt(centres.length)];
+        float[] noise = gaussian(random, dimensions, 0.35f);
+        for (int i = 0; i < dimensions; i++) {
+            noise[i] += centre[i];
+        }
+        return noise;
+    }
+
+    private static float[] gaussian(Random random, int dimensions, float scale) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextGaussian() * scale;
+        }
+        return vector;
+    }
+
+    private static double millis(long[] sortedNanos, double percentile) {
+        int index = Math.min(sortedNanos.length - 1, (int) Math.ceil(percentile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,126 @@
+package com.gastrogeniusai.infrastructure.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 16;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void approximateSearchRecallsMostOfTheExactNeighbours() {
+        HnswIndex index = newIndex(2000);
+        SplittableRandom random = new SplittableRandom(7);
+
+        int found = 0;
+        int expected = 0;
+        for (int query = 0; query < 50; query++) {
+            float[] vector = randomVector(random);
+            Set<Long> exact = keys(index.exactSearch(vector, 10, null));
+            for (HnswIndex.Match match : index.search(vector, 10, 64, null)) {
+                found += exact.contains(match.key()) ? 1 : 0;
+            }
+            expected += exact.size();
+        }
+
+        assertTrue(found >= expected * 0.9, "recall " + found + "/" + expected);
+    }
+
+    @Test
+    void findsAnIndexedVectorAsItsOwnNearestNeighbour() {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 64, 1);
+        float[] vector = randomVector(new SplittableRandom(3));
+        index.upsert(42, vector, 0, 1);
+        for (long key = 0; key < 200; key++) {
+            index.upsert(1000 + key, randomVector(new SplittableRandom(1000 + key)), 0, 1);
+        }
+
+        HnswIndex.Match best = index.search(vector, 1, 32, null).get(0);
+
+        assertEquals(42L, best.key());
+        assertEquals(1.0, best.score(), 1e-5);
+    }
+
+    @Test
+    void returnsOnlyEntriesWhoseAttributesMatchTheFilter() {
+        HnswIndex index = newIndex(1000);
+
+        List<HnswIndex.Match> matches = index.search(randomVector(new SplittableRandom(11)), 10, 64,
+                attributes -> attributes == 0);
+
+        assertEquals(10, matches.size());
+        assertTrue(matches.stream().allMatch(match -> match.key() % 2 == 0));
+    }
+
+    @Test
+    void ignoresOutOfOrderUpdatesAndNeverReturnsRemovedEntries() {
+        HnswIndex index = newIndex(100);
+        float[] vector = randomVector(new SplittableRandom(5));
+
+        assertTrue(index.upsert(500, vector, 1, 10));
+        assertFalse(index.upsert(500, randomVector(new SplittableRandom(6)), 1, 9));
+        assertEquals(10, index.version(500));
+        assertEquals(500L, index.search(vector, 1, 32, null).get(0).key());
+
+        assertTrue(index.remove(500));
+        assertEquals(100, index.size());
+        assertEquals(1, index.deletedCount());
+        assertEquals(-1, index.version(500));
+        assertFalse(keys(index.search(vector, 10, 64, null)).contains(500L));
+    }
+
+    @Test
+    void dropsTombstonesWhenSavedAndSearchesTheLoadedIndexAlike() throws IOException {
+        HnswIndex index = newIndex(500);
+        index.remove(3);
+        float[] query = randomVector(new SplittableRandom(13));
+        Path file = directory.resolve("recipes.hnsw");
+
+        index.save(file);
+        HnswIndex loaded = HnswIndex.load(file, 1);
+
+        assertEquals(499, loaded.size());
+        assertEquals(0, loaded.deletedCount());
+        assertEquals(keys(index.exactSearch(query, 10, null)), keys(loaded.exactSearch(query, 10, null)));
+    }
+
+    // Private helper methods
+
+    private HnswIndex newIndex(int size) {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 64, 1);
+        SplittableRandom random = new SplittableRandom(1);
+        for (long key = 0; key < size; key++) {
+            // Odd keys carry attribute 1, even keys attribute 0
+            index.upsert(key, randomVector(random), key % 2, 1);
+        }
+        return index;
+    }
+
+    private float[] randomVector(SplittableRandom random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private Set<Long> keys(List<HnswIndex.Match> matches) {
+        Set<Long> keys = new HashSet<>();
+        matches.forEach(match -> keys.add(match.key()));
+        return keys;
+    }
+}
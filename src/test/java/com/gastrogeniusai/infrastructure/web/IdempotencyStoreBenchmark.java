@@ -0,0 +1,136 @@
+package com.gastrogeniusai.infrastructure.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.gastrogeniusai.support.BenchmarkArgs.intArg;
+
+/**
+ * Retry-storm benchmark for {@link IdempotencyStore}.
+ * Simulated mobile clients each generate one recipe. A generation takes a
+ * random time around {@code --generation-ms} and sometimes fails; clients give
+ * up on a request after {@code --client-timeout-ms} and retry with backoff,
+ * while the server keeps working on the request they abandoned, as it does
+ * when the disconnect never reaches it. The storm runs once without and once
+ * with idempotency keys, and reports how many generations, that is model
+ * calls, the keys save, and how many clients got a recipe.
+ * <p>
+ * Run from the compiled test and main classes with the dependencies on the class path, e.g.
+ * {@code java -cp target/test-classes:target/classes:<dependencies>
+ * com.gastrogeniusai.infrastructure.web.IdempotencyStoreBenchmark
+ * --clients=500 --retries=4}
+ */
+public final class IdempotencyStoreBenchmark {
+
+    private IdempotencyStoreBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int clients = intArg(args, "clients", 500);
+        int retries = intArg(args, "retries", 4);
+        int generationMs = intArg(args, "generation-ms", 2000);
+        int clientTimeoutMs = intArg(args, "client-timeout-ms", 1500);
+        int failurePercent = intArg(args, "failure-percent", 5);
+
+        System.out.printf("Retry storm: %,d clients, up to %d retries, generations of ~%dms, client timeout %dms,"
+                + " %d%% failed generations%n", clients, retries, generationMs, clientTimeoutMs, failurePercent);
+        Result without = run(false, clients, retries, generationMs, clientTimeoutMs, failurePercent);
+        Result with = run(true, clients, retries, generationMs, clientTimeoutMs, failurePercent);
+        print("without keys", without);
+        print("with keys", with);
+
+        long saved = without.generations() - with.generations();
+        System.out.printf("Model calls saved: %,d (%.1f%%)%n", saved,
+                without.generations() == 0 ? 0 : 100.0 * saved / without.generations());
+    }
+
+    // Private helper methods
+
+    private static Result run(boolean useKeys, int clients, int retries, int generationMs, int clientTimeoutMs,
+            int failurePercent) throws InterruptedException {
+        IdempotencyStore store = new IdempotencyStore(new ObjectMapper(), new SimpleMeterRegistry(), true,
+                60, clients * 2, TimeUnit.SECONDS.toMillis(30));
+        LongAdder requests = new LongAdder();
+        LongAdder generations = new LongAdder();
+        LongAdder succeeded = new LongAdder();
+        AtomicLong slowest = new AtomicLong();
+
+        // Server-side handlers outlive the client attempts that started them
+        try (ExecutorService server = Executors.newVirtualThreadPerTaskExecutor();
+                ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> clientRuns = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                String username = "user" + c;
+                Map<String, Object> payload = Map.of("ingredients", List.of("tomato", "basil", "client " + c));
+                clientRuns.add(clientThreads.submit(() -> {
+                    String key = useKeys ? UUID.randomUUID().toString() : null;
+                    long start = System.nanoTime();
+                    for (int attempt = 0; attempt <= retries; attempt++) {
+                        requests.increment();
+                        Future<ResponseEntity<?>> response = server.submit(() -> store.execute("generate-recipe",
+                                username, key, payload, () -> generate(generations, generationMs, failurePercent)));
+                        try {
+                            if (response.get(clientTimeoutMs, TimeUnit.MILLISECONDS).getStatusCode()
+                                    .is2xxSuccessful()) {
+                                succeeded.increment();
+                                break;
+                            }
+                        } catch (TimeoutException | ExecutionException e) {
+                            // Timed out or failed: retry after backoff
+                        }
+                        Thread.sleep(ThreadLocalRandom.current().nextLong(100, 200L << Math.min(attempt, 4)));
+                    }
+                    slowest.accumulateAndGet(System.nanoTime() - start, Math::max);
+                    return null;
+                }));
+            }
+            for (Future<?> clientRun : clientRuns) {
+                try {
+                    clientRun.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+        return new Result(requests.sum(), generations.sum(), succeeded.sum(),
+                TimeUnit.NANOSECONDS.toMillis(slowest.get()));
+    }
+
+    private static ResponseEntity<?> generate(LongAdder generations, int generationMs, int failurePercent) {
+        generations.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(random.nextLong(generationMs / 2, generationMs * 3L / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (random.nextInt(100) < failurePercent) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "AI generation failed"));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("success", true));
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%-13s requests=%,d  model calls=%,d  clients served=%,d  slowest client=%,dms%n", label,
+                result.requests(), result.generations(), result.succeeded(), result.slowestClientMs());
+    }
+
+    private record Result(long requests, long generations, long succeeded, long slowestClientMs) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.gastrogeniusai.infrastructure.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gastrogeniusai.infrastructure.exception.IdempotencyKeyConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+
+    private static final Map<String, Object> PAYLOAD = Map.of("ingredients", List.of("tomato", "basil"));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdempotencyStore store = newStore(60);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void replaysTheKeptResponseToARetryWithoutRunningTheHandlerAgain() {
+        ResponseEntity<?> first = store.execute("generate", "alice", "key-1", PAYLOAD, handler(HttpStatus.CREATED));
+        ResponseEntity<?> retry = store.execute("generate", "alice", "key-1", PAYLOAD, handler(HttpStatus.CREATED));
+
+        assertEquals(1, runs.get());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(1.0, meterRegistry.get("idempotency.requests").tag("result", "replayed").counter().count());
+    }
+
+    @Test
+    void rejectsAKeyReusedWithADifferentPayload() {
+        store.execute("generate", "alice", "key-1", PAYLOAD, handler(HttpStatus.OK));
+
+        IdempotencyKeyConflictException conflict = assertThrows(IdempotencyKeyConflictException.class,
+                () -> store.execute("generate", "alice", "key-1", Map.of("ingredients", List.of("leek")),
+                        handler(HttpStatus.OK)));
+
+        assertFalse(conflict.isInProgress());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void scopesKeysToTheEndpointAndTheUser() {
+        store.execute("generate", "alice", "key-1", PAYLOAD, handler(HttpStatus.OK));
+        store.execute("generate", "bob", "key-1", PAYLOAD, handler(HttpStatus.OK));
+        store.execute("variants", "alice", "key-1", PAYLOAD, handler(HttpStatus.OK));
+
+        assertEquals(3, runs.get());
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void releasesTheKeySoARetryAfterAFailureRunsAgain() {
+        store.execute("generate", "alice", "key-1", PAYLOAD, handler(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThrows(IllegalStateException.class, () -> store.execute("generate", "alice", "key-1", PAYLOAD,
+                () -> {
+                    runs.incrementAndGet();
+                    throw new IllegalStateException("model unavailable");
+                }));
+        ResponseEntity<?> retry = store.execute("generate", "alice", "key-1", PAYLOAD, handler(HttpStatus.OK));
+
+        assertEquals(3, runs.get());
+        assertNull(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void duplicateArrivingWhileTheFirstRequestRunsGetsItsResponse() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<ResponseEntity<?>> first = executor.submit(() -> store.execute("generate", "alice", "key-1",
+                    PAYLOAD, () -> {
+                        started.countDown();
+                        await(release);
+                        return handler(HttpStatus.OK).get();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<?>> duplicate = executor.submit(() -> store.execute("generate", "alice", "key-1",
+                    PAYLOAD, handler(HttpStatus.OK)));
+            release.countDown();
+
+            assertEquals(first.get(5, TimeUnit.SECONDS).getBody(), duplicate.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals("true", duplicate.get().getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        }
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void runsTheHandlerEveryTimeWithoutAKeyAndRejectsBlankKeys() {
+        store.execute("generate", "alice", null, PAYLOAD, handler(HttpStatus.OK));
+        store.execute("generate", "alice", null, PAYLOAD, handler(HttpStatus.OK));
+
+        assertEquals(2, runs.get());
+        assertEquals(0, store.size());
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute("generate", "alice", " ", PAYLOAD, handler(HttpStatus.OK)));
+    }
+
+    @Test
+    void purgesExpiredKeys() throws InterruptedException {
+        IdempotencyStore expiring = newStore(0);
+        expiring.execute("generate", "alice", "key-1", PAYLOAD, handler(HttpStatus.OK));
+        Thread.sleep(1);
+
+        expiring.purgeExpiredEntries();
+
+        assertEquals(0, expiring.size());
+        assertEquals(1.0, meterRegistry.get("idempotency.evictions").tag("reason", "expired").counter().count());
+    }
+
+    // Private helper methods
+
+    private IdempotencyStore newStore(long ttlMinutes) {
+        return new IdempotencyStore(new ObjectMapper(), meterRegistry, true, ttlMinutes, 100, 5000);
+    }
+
+    private Supplier<ResponseEntity<?>> handler(HttpStatus status) {
+        return () -> ResponseEntity.status(status).body(Map.of("run", runs.incrementAndGet()));
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.gastrogeniusai.support;
+
+/**
+ * Parses the {@code --name=value} arguments of the benchmark harnesses.
+ */
+public final class BenchmarkArgs {
+
+    private BenchmarkArgs() {
+    }
+
+    /**
+     * Returns the value of an integer argument.
+     *
+     * @param args         the command line arguments
+     * @param name         the argument name, without the leading dashes
+     * @param defaultValue the value when the argument is absent
+     * @return the argument value
+     */
+    public static int intArg(String[] args, String name, int defaultValue) {
+        String value = stringArg(args, name, null);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    /**
+     * Returns the value of a string argument.
+     *
+     * @param args         the command line arguments
+     * @param name         the argument name, without the leading dashes
+     * @param defaultValue the value when the argument is absent
+     * @return the argument value
+     */
+    public static String stringArg(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}